@@ -0,0 +1,122 @@
+package stanhebben.zenscript.benchmarks;
+
+import stanhebben.zenscript.ZenModule;
+import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.impl.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+/**
+ * Compile environment shared by the benchmarks. Scripts can pass values to
+ * the sink (or print) global, which stores them in a volatile field so the JIT can't
+ * remove the code computing them.
+ */
+public final class BenchmarkEnvironment {
+
+    /**
+     * A script of roughly 60 lines exercising most of the syntax: functions,
+     * loops, arrays, maps, string operations and lambdas. Every $ is replaced
+     * by a number, so multiple copies can be compiled as one script.
+     */
+    public static final String SAMPLE_SCRIPT = String.join("\n",
+            "function fib$(n as int) as int {",
+            "    if(n < 2)",
+            "        return n;",
+            "    return fib$(n - 1) + fib$(n - 2);",
+            "}",
+            "",
+            "function join$(values as string[], separator as string) as string {",
+            "    var result = '';",
+            "    for i, value in values {",
+            "        if(i > 0)",
+            "            result += separator;",
+            "        result += value;",
+            "    }",
+            "    return result;",
+            "}",
+            "",
+            "function classify$(x as int) as string {",
+            "    if(x == 0) return 'zero';",
+            "    else if(x == 1) return 'one';",
+            "    else if(x == 2) return 'two';",
+            "    else return 'many';",
+            "}",
+            "",
+            "val names$ = ['iron', 'gold', 'diamond', 'emerald', 'redstone'] as string[];",
+            "val weights$ = {iron: 10, gold: 20, diamond: 50} as int[string];",
+            "var total$ = 0;",
+            "for name in names$ {",
+            "    if(weights$ has name)",
+            "        total$ += weights$[name];",
+            "}",
+            "sink('' ~ total$);",
+            "",
+            "var product$ = 1.0;",
+            "for i in 1 .. 20 {",
+            "    product$ *= 1.0 + (i as double) / 100.0;",
+            "}",
+            "sink('' ~ product$);",
+            "",
+            "val square$ = function(x as int) as int { return x * x; };",
+            "var squares$ = 0;",
+            "for i in 0 .. 10 {",
+            "    squares$ += square$(i);",
+            "}",
+            "sink('' ~ squares$ ~ join$(names$, ', ') ~ classify$(2) ~ fib$(10));",
+            "",
+            "var dynamic$ = 0 as any;",
+            "for i in 0 .. 10 {",
+            "    dynamic$ = dynamic$ + i;",
+            "}",
+            "sink('' ~ dynamic$);",
+            "");
+
+    public static volatile Object sinkValue;
+
+    private static GenericCompileEnvironment compileEnvironment;
+
+    private BenchmarkEnvironment() {
+    }
+
+    public static synchronized GenericCompileEnvironment get() {
+        if(compileEnvironment == null) {
+            compileEnvironment = new GenericCompileEnvironment();
+            GenericRegistry registry = new GenericRegistry(compileEnvironment, new GenericErrorLogger(System.err));
+            registry.registerGlobal("sink", registry.getStaticFunction(BenchmarkEnvironment.class, "sink", String.class));
+            registry.registerGlobal("print", registry.getStaticFunction(BenchmarkEnvironment.class, "sink", String.class));
+        }
+        return compileEnvironment;
+    }
+
+    /**
+     * Returns the given number of copies of the sample script.
+     */
+    public static String sampleScript(int copies) {
+        StringBuilder result = new StringBuilder();
+        for(int i = 0; i < copies; i++) {
+            result.append(SAMPLE_SCRIPT.replace("$", Integer.toString(i)));
+        }
+        return result.toString();
+    }
+
+    public static IEnvironmentGlobal createGlobalEnvironment() {
+        return new EnvironmentGlobal(get(), new HashMap<>(), new ClassNameGenerator());
+    }
+
+    /**
+     * Compiles a script. Generated classes are shared between modules through
+     * ZenModule.classes, so scripts that are used together need unique names.
+     */
+    public static ZenModule compile(String script, String name) {
+        try {
+            return ZenModule.compileScriptString(script, name + ".zs", get(), BenchmarkEnvironment.class.getClassLoader());
+        } catch(IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    public static void sink(String value) {
+        sinkValue = value;
+    }
+}
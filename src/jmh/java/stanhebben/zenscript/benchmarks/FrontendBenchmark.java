@@ -0,0 +1,59 @@
+package stanhebben.zenscript.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import stanhebben.zenscript.*;
+import stanhebben.zenscript.parser.Token;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the compiler front end: tokenizing, parsing and compiling a
+ * script from source to loaded classes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrontendBenchmark {
+
+    /**
+     * Number of copies of the sample script in the benchmarked source.
+     */
+    @Param({"1", "20"})
+    public int copies;
+
+    private String source;
+
+    @Setup
+    public void setup() {
+        source = BenchmarkEnvironment.sampleScript(copies);
+        BenchmarkEnvironment.get();
+    }
+
+    @Benchmark
+    public void tokenize(Blackhole blackhole) throws IOException {
+        ZenTokener tokener = new ZenTokener(source, BenchmarkEnvironment.get(), "benchmark.zs", false);
+        while(tokener.hasNext()) {
+            Token token = tokener.next();
+            blackhole.consume(token);
+        }
+    }
+
+    @Benchmark
+    public ZenParsedFile parse() throws IOException {
+        ZenTokener tokener = new ZenTokener(source, BenchmarkEnvironment.get(), "benchmark.zs", false);
+        return new ZenParsedFile("benchmark.zs", "benchmark", tokener, BenchmarkEnvironment.createGlobalEnvironment());
+    }
+
+    @Benchmark
+    public Runnable compile() {
+        // don't keep the classes of earlier invocations alive
+        ZenModule.classes.clear();
+        ZenModule.loadedClasses.clear();
+        return BenchmarkEnvironment.compile(source, "benchmark").getMain();
+    }
+}
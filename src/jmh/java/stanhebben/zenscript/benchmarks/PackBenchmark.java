@@ -0,0 +1,45 @@
+package stanhebben.zenscript.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import stanhebben.zenscript.ZenModule;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures compiling and running generated packs with compileZip. See
+ * PackScaling for heap, class count and metaspace figures.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PackBenchmark {
+
+    @Param({"10", "100"})
+    public int files;
+
+    private File zip;
+
+    @Setup
+    public void setup() throws IOException {
+        zip = File.createTempFile("pack", ".zip");
+        zip.deleteOnExit();
+        PackGenerator.ofSize(files).writeZip(zip);
+        BenchmarkEnvironment.get();
+    }
+
+    @TearDown
+    public void tearDown() {
+        zip.delete();
+    }
+
+    @Benchmark
+    public void compileAndRun() throws IOException {
+        ZenModule.classes.clear();
+        ZenModule.loadedClasses.clear();
+        ZenModule.compileZip(zip, PackGenerator.DIRECTORY + "/", BenchmarkEnvironment.get(), PackBenchmark.class.getClassLoader()).getMain().run();
+    }
+}
@@ -0,0 +1,249 @@
+package stanhebben.zenscript.benchmarks;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.*;
+
+/**
+ * Generates script packs of a given size and shape. The output only depends
+ * on the parameters, so packs generated with the same parameters can be
+ * compared across builds.
+ * <p>
+ * Every file declares globals and statics, zenclasses and functions with
+ * nested control flow, a large constant array literal, and top level
+ * statements that call functions of earlier files through the scripts
+ * reference, use the globals of earlier files and instantiate zenclasses.
+ * Scripts only refer to earlier files, since a script reference can't be
+ * resolved before the referenced script is compiled.
+ */
+public final class PackGenerator {
+
+    public static final String DIRECTORY = "generated-pack";
+
+    private final long seed;
+    private final int files;
+    private final int statementsPerFile;
+    private final int functionsPerFile;
+    private final int globalsPerFile;
+    private final int classesPerFile;
+    private final int literalSize;
+    private final int nestingDepth;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed              random seed
+     * @param files             number of files
+     * @param statementsPerFile number of top level statements per file
+     * @param functionsPerFile  number of functions per file
+     * @param globalsPerFile    number of globals (half of them global, half static) per file
+     * @param classesPerFile    number of zenclasses per file
+     * @param literalSize       number of elements in the array literal of each file
+     * @param nestingDepth      depth of the nested ifs and loops in each function
+     */
+    public PackGenerator(long seed, int files, int statementsPerFile, int functionsPerFile, int globalsPerFile, int classesPerFile, int literalSize, int nestingDepth) {
+        this.seed = seed;
+        this.files = files;
+        this.statementsPerFile = statementsPerFile;
+        this.functionsPerFile = functionsPerFile;
+        this.globalsPerFile = globalsPerFile;
+        this.classesPerFile = classesPerFile;
+        this.literalSize = literalSize;
+        this.nestingDepth = nestingDepth;
+    }
+
+    /**
+     * Creates a generator for a pack with the given number of files and the
+     * default shape: 50 statements, 5 functions, 4 globals and 1 zenclass per
+     * file, literals of 200 elements and a nesting depth of 4.
+     */
+    public static PackGenerator ofSize(int files) {
+        return new PackGenerator(42, files, 50, 5, 4, 1, 200, 4);
+    }
+
+    public int getFiles() {
+        return files;
+    }
+
+    /**
+     * Generates the pack.
+     *
+     * @return file names (relative to the pack root) mapped to their contents, in compile order
+     */
+    public Map<String, String> generate() {
+        Map<String, String> result = new LinkedHashMap<>();
+        for(int i = 0; i < files; i++) {
+            result.put(getFileName(i), generateFile(i));
+        }
+        return result;
+    }
+
+    /**
+     * Generates the pack and writes it to a zip file, in the layout expected
+     * by ZenModule.compileZip with DIRECTORY + "/" as subdirectory.
+     *
+     * @param file zip file to write
+     * @throws IOException if the file can't be written
+     */
+    public void writeZip(File file) throws IOException {
+        try(ZipOutputStream output = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            for(Map.Entry<String, String> entry : generate().entrySet()) {
+                output.putNextEntry(new ZipEntry(DIRECTORY + "/" + entry.getKey()));
+                output.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                output.closeEntry();
+            }
+        }
+    }
+
+    private static String getFileName(int file) {
+        return "file" + file + ".zs";
+    }
+
+    private String generateFile(int file) {
+        Random random = new Random(seed * 31 + file);
+        StringBuilder output = new StringBuilder();
+        output.append("// generated file ").append(file).append("\n\n");
+
+        for(int i = 0; i < globalsPerFile; i++) {
+            String keyword = i % 2 == 0 ? "global" : "static";
+            if(i % 4 < 2)
+                output.append(keyword).append(" g").append(file).append('_').append(i).append(" as int = ").append(random.nextInt(1000)).append(";\n");
+            else
+                output.append(keyword).append(" g").append(file).append('_').append(i).append(" as string = '").append(word(random)).append("';\n");
+        }
+        output.append('\n');
+
+        for(int i = 0; i < classesPerFile; i++) {
+            String name = "C" + file + "_" + i;
+            output.append("zenClass ").append(name).append(" {\n");
+            output.append("    var value as int;\n");
+            output.append("    var label as string = '").append(word(random)).append("';\n");
+            output.append("    zenConstructor(v as int) {\n");
+            output.append("        value = v;\n");
+            output.append("    }\n");
+            output.append("    function scaled(factor as int) as int {\n");
+            output.append("        return value * factor + ").append(random.nextInt(100)).append(";\n");
+            output.append("    }\n");
+            output.append("    function describe() as string {\n");
+            output.append("        return label ~ ':' ~ value;\n");
+            output.append("    }\n");
+            output.append("}\n\n");
+        }
+
+        for(int i = 0; i < functionsPerFile; i++) {
+            output.append("function fn").append(i).append("(a as int, b as int) as int {\n");
+            output.append("    var result = a;\n");
+            appendNested(output, random, nestingDepth, 1);
+            output.append("    return result;\n");
+            output.append("}\n\n");
+        }
+
+        output.append("val literal").append(file).append(" = [");
+        for(int i = 0; i < literalSize; i++) {
+            if(i > 0)
+                output.append(i % 20 == 0 ? ",\n    " : ", ");
+            output.append(random.nextInt(100000));
+        }
+        output.append("] as int[];\n\n");
+
+        output.append("var total = 0;\n");
+        output.append("var text = '';\n");
+        output.append("val names = {} as int[string];\n");
+        for(int i = 0; i < statementsPerFile; i++) {
+            appendStatement(output, random, file);
+        }
+        output.append("if(total == 42)\n");
+        output.append("    print('file ").append(file).append(": ' ~ total ~ text.length);\n");
+        return output.toString();
+    }
+
+    private void appendNested(StringBuilder output, Random random, int depth, int indent) {
+        if(depth == 0) {
+            indent(output, indent).append("result = result * 31 + b % ").append(random.nextInt(97) + 1).append(";\n");
+            return;
+        }
+
+        switch(random.nextInt(3)) {
+            case 0:
+                indent(output, indent).append("if(result % ").append(random.nextInt(5) + 2).append(" == 0) {\n");
+                appendNested(output, random, depth - 1, indent + 1);
+                indent(output, indent).append("} else {\n");
+                indent(output, indent + 1).append("result += ").append(random.nextInt(50)).append(";\n");
+                indent(output, indent).append("}\n");
+                break;
+            case 1:
+                indent(output, indent).append("for i").append(depth).append(" in 0 .. ").append(random.nextInt(3) + 1).append(" {\n");
+                appendNested(output, random, depth - 1, indent + 1);
+                indent(output, indent).append("}\n");
+                break;
+            default:
+                indent(output, indent).append("var v").append(depth).append(" = result + ").append(random.nextInt(1000)).append(";\n");
+                indent(output, indent).append("if(v").append(depth).append(" > b) {\n");
+                appendNested(output, random, depth - 1, indent + 1);
+                indent(output, indent).append("}\n");
+                break;
+        }
+    }
+
+    private void appendStatement(StringBuilder output, Random random, int file) {
+        int other = file == 0 ? 0 : random.nextInt(file);
+        switch(random.nextInt(7)) {
+            case 0:
+                if(functionsPerFile > 0) {
+                    output.append("total += fn").append(random.nextInt(functionsPerFile)).append("(").append(random.nextInt(100)).append(", total);\n");
+                    return;
+                }
+                break;
+            case 1:
+                if(functionsPerFile > 0 && file > 0) {
+                    output.append("total += scripts.file").append(other).append(".fn").append(random.nextInt(functionsPerFile)).append("(total, ").append(random.nextInt(100)).append(");\n");
+                    return;
+                }
+                break;
+            case 2:
+                if(globalsPerFile > 0 && file > 0) {
+                    // globals declared with the global keyword are visible in later files
+                    int global = random.nextInt((globalsPerFile + 1) / 2) * 2;
+                    if(global % 4 < 2)
+                        output.append("total += g").append(other).append('_').append(global).append(";\n");
+                    else
+                        output.append("text ~= g").append(other).append('_').append(global).append(";\n");
+                    return;
+                }
+                break;
+            case 3:
+                if(classesPerFile > 0) {
+                    String name = "C" + file + "_" + random.nextInt(classesPerFile);
+                    output.append("total += ").append(name).append("(").append(random.nextInt(100)).append(").scaled(").append(random.nextInt(10)).append(");\n");
+                    return;
+                }
+                break;
+            case 4:
+                if(literalSize > 0) {
+                    output.append("total += literal").append(file).append("[").append(random.nextInt(literalSize)).append("];\n");
+                    return;
+                }
+                break;
+            case 5:
+                output.append("names['").append(word(random)).append("'] = total;\n");
+                return;
+        }
+        output.append("text ~= '").append(word(random)).append("' ~ total;\n");
+    }
+
+    private static StringBuilder indent(StringBuilder output, int indent) {
+        for(int i = 0; i < indent; i++) {
+            output.append("    ");
+        }
+        return output;
+    }
+
+    private static String word(Random random) {
+        char[] result = new char[random.nextInt(8) + 3];
+        for(int i = 0; i < result.length; i++) {
+            result[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(result);
+    }
+}
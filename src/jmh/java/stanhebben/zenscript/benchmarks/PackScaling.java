@@ -0,0 +1,195 @@
+package stanhebben.zenscript.benchmarks;
+
+import com.google.gson.*;
+import stanhebben.zenscript.*;
+import stanhebben.zenscript.compiler.*;
+
+import java.io.*;
+import java.lang.management.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compiles and runs generated packs of increasing size, recording for each
+ * size the compile and run time, the peak heap usage, the number of
+ * generated and loaded classes and the metaspace growth.
+ * <p>
+ * Usage: PackScaling [--memory] [--output file.json] [sizes...]
+ * <p>
+ * Sizes are numbers of files, 10 100 1000 by default. Packs are written to a
+ * temporary zip file and compiled with ZenModule.compileZip, or with --memory
+ * parsed from strings and compiled with ZenModule.compileScripts. Every size
+ * runs in the same JVM, so run sizes in separate processes for exact heap and
+ * metaspace figures.
+ */
+public final class PackScaling {
+
+    private PackScaling() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean memory = false;
+        File output = null;
+        List<Integer> sizes = new ArrayList<>();
+        for(int i = 0; i < args.length; i++) {
+            if(args[i].equals("--memory"))
+                memory = true;
+            else if(args[i].equals("--output"))
+                output = new File(args[++i]);
+            else
+                sizes.add(Integer.parseInt(args[i]));
+        }
+        if(sizes.isEmpty())
+            sizes.addAll(Arrays.asList(10, 100, 1000));
+
+        BenchmarkEnvironment.get();
+
+        JsonArray results = new JsonArray();
+        System.out.println(String.format("%8s %10s %12s %10s %14s %10s %10s %14s", "files", "statements", "compile ms", "run ms", "peak heap MB", "generated", "loaded", "metaspace KB"));
+        for(int size : sizes) {
+            Result result = measure(PackGenerator.ofSize(size), memory);
+            System.out.println(String.format("%8d %10d %12.1f %10.1f %14.1f %10d %10d %14d", size, result.statements, result.compileNanos / 1e6, result.runNanos / 1e6, result.peakHeap / 1048576.0, result.generatedClasses, result.loadedClasses, result.metaspace / 1024));
+            results.add(result.toJson(size));
+        }
+
+        if(output != null) {
+            if(output.getAbsoluteFile().getParentFile() != null)
+                output.getAbsoluteFile().getParentFile().mkdirs();
+            try(Writer writer = new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8)) {
+                new GsonBuilder().setPrettyPrinting().create().toJson(results, writer);
+            }
+        }
+    }
+
+    /**
+     * Compiles and runs the pack of the given generator.
+     *
+     * @param generator pack generator
+     * @param memory    true to compile from strings with compileScripts, false to compile from a zip file with compileZip
+     * @return measurements
+     * @throws IOException if the zip file can't be written or read
+     */
+    public static Result measure(PackGenerator generator, boolean memory) throws IOException {
+        ZenModule.classes.clear();
+        ZenModule.loadedClasses.clear();
+
+        Map<String, String> pack = generator.generate();
+        File zip = null;
+        if(!memory) {
+            zip = File.createTempFile("pack", ".zip");
+            zip.deleteOnExit();
+            generator.writeZip(zip);
+        }
+
+        Result result = new Result();
+        for(String content : pack.values()) {
+            for(int i = 0; i < content.length(); i++) {
+                if(content.charAt(i) == ';')
+                    result.statements++;
+            }
+        }
+        pack = null;
+
+        System.gc();
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+        long metaspaceBefore = getMetaspace();
+        long loadedBefore = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+
+        long start = System.nanoTime();
+        ZenModule module = memory ? compileInMemory(generator) : ZenModule.compileZip(zip, PackGenerator.DIRECTORY + "/", BenchmarkEnvironment.get(), PackScaling.class.getClassLoader());
+        result.compileNanos = System.nanoTime() - start;
+        result.generatedClasses = ZenModule.classes.size();
+
+        start = System.nanoTime();
+        module.getMain().run();
+        result.runNanos = System.nanoTime() - start;
+
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if(pool.getType() == MemoryType.HEAP)
+                result.peakHeap += pool.getPeakUsage().getUsed();
+        }
+        result.loadedClasses = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount() - loadedBefore;
+        result.metaspace = getMetaspace() - metaspaceBefore;
+
+        if(zip != null)
+            zip.delete();
+        return result;
+    }
+
+    private static ZenModule compileInMemory(PackGenerator generator) throws IOException {
+        Map<String, byte[]> classes = new HashMap<>();
+        IEnvironmentGlobal environment = new EnvironmentGlobal(BenchmarkEnvironment.get(), classes, new ClassNameGenerator());
+        List<ZenParsedFile> files = new ArrayList<>();
+        for(Map.Entry<String, String> entry : generator.generate().entrySet()) {
+            ZenTokener tokener = new ZenTokener(entry.getValue(), BenchmarkEnvironment.get(), entry.getKey(), false);
+            files.add(new ZenParsedFile(entry.getKey(), entry.getKey().replace(".zs", ""), tokener, environment));
+        }
+        ZenModule.compileScripts("pack", files, environment, false);
+        return new ZenModule(classes, PackScaling.class.getClassLoader());
+    }
+
+    private static long getMetaspace() {
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if(pool.getName().equals("Metaspace"))
+                return pool.getUsage().getUsed();
+        }
+        return 0;
+    }
+
+    /**
+     * Measurements of a single pack.
+     */
+    public static final class Result {
+
+        private long statements;
+        private long compileNanos;
+        private long runNanos;
+        private long peakHeap;
+        private long generatedClasses;
+        private long loadedClasses;
+        private long metaspace;
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getCompileNanos() {
+            return compileNanos;
+        }
+
+        public long getRunNanos() {
+            return runNanos;
+        }
+
+        public long getPeakHeap() {
+            return peakHeap;
+        }
+
+        public long getGeneratedClasses() {
+            return generatedClasses;
+        }
+
+        public long getLoadedClasses() {
+            return loadedClasses;
+        }
+
+        public long getMetaspace() {
+            return metaspace;
+        }
+
+        private JsonObject toJson(int files) {
+            JsonObject result = new JsonObject();
+            result.addProperty("files", files);
+            result.addProperty("statements", statements);
+            result.addProperty("compileMillis", compileNanos / 1e6);
+            result.addProperty("runMillis", runNanos / 1e6);
+            result.addProperty("peakHeapBytes", peakHeap);
+            result.addProperty("generatedClasses", generatedClasses);
+            result.addProperty("loadedClasses", loadedClasses);
+            result.addProperty("metaspaceBytes", metaspace);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package stanhebben.zenscript.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the speed of the code generated for common script operations.
+ * Every script is compiled once; the benchmark runs its main method.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuntimeBenchmark {
+
+    private Runnable numericLoop;
+    private Runnable stringConcat;
+    private Runnable arrays;
+    private Runnable maps;
+    private Runnable anyArithmetic;
+    private Runnable lambdaCalls;
+
+    @Setup
+    public void setup() {
+        numericLoop = BenchmarkEnvironment.compile(
+                "var sum = 0; var x = 1.0; for i in 0 .. 10000 { sum += i * 3 % 7; x = x * 1.0001 + 0.5; } sink('' ~ sum ~ x);", "numericLoop").getMain();
+        stringConcat = BenchmarkEnvironment.compile(
+                "var s = ''; for i in 0 .. 1000 { s += 'item' ~ i ~ ','; } sink(s);", "stringConcat").getMain();
+        arrays = BenchmarkEnvironment.compile(
+                "val list = [0, 1, 2, 3, 4, 5, 6, 7, 8, 9] as [int]; var sum = 0; for j in 0 .. 100 { for i in 0 .. list.length { sum += list[i]; } }"
+                        + "val arr = [1, 2, 3, 4, 5, 6, 7, 8] as int[]; for i in 0 .. 1000 { sum += arr[i % 8]; } sink('' ~ sum);", "arrays").getMain();
+        maps = BenchmarkEnvironment.compile(
+                "val map = {} as int[string]; for i in 0 .. 1000 { map['key' ~ (i % 100)] = i; } var sum = 0;"
+                        + "for i in 0 .. 1000 { val key = 'key' ~ (i % 100); if(map has key) sum += map[key]; } sink('' ~ sum);", "maps").getMain();
+        anyArithmetic = BenchmarkEnvironment.compile(
+                "var a = 0 as any; var b = 1.5 as any; for i in 0 .. 10000 { a = a + i; b = b * 1.0001; } sink('' ~ a ~ b);", "anyArithmetic").getMain();
+        lambdaCalls = BenchmarkEnvironment.compile(
+                "val f = function(x as int) as int { return x * 2 + 1; }; var sum = 0; for i in 0 .. 10000 { sum += f(i); } sink('' ~ sum);", "lambdaCalls").getMain();
+    }
+
+    @Benchmark
+    public void numericLoop() {
+        numericLoop.run();
+    }
+
+    @Benchmark
+    public void stringConcat() {
+        stringConcat.run();
+    }
+
+    @Benchmark
+    public void arrays() {
+        arrays.run();
+    }
+
+    @Benchmark
+    public void maps() {
+        maps.run();
+    }
+
+    @Benchmark
+    public void anyArithmetic() {
+        anyArithmetic.run();
+    }
+
+    @Benchmark
+    public void lambdaCalls() {
+        lambdaCalls.run();
+    }
+}
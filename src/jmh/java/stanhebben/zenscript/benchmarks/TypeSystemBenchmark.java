@@ -0,0 +1,91 @@
+package stanhebben.zenscript.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.expression.*;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.type.natives.*;
+import stanhebben.zenscript.util.ZenPosition;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the type system lookups the compiler does for every expression:
+ * casting rules, overload selection and native type creation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeSystemBenchmark {
+
+    private static final ZenType[] TYPES = {ZenType.BOOL, ZenType.BYTE, ZenType.SHORT, ZenType.INT, ZenType.LONG, ZenType.FLOAT, ZenType.DOUBLE, ZenType.STRING, ZenType.ANY, ZenType.INTOBJECT, ZenType.ANYARRAY, ZenType.ANYMAP};
+
+    /**
+     * Classes with large, deep and overlapping type graphs.
+     */
+    private static final Class<?>[] CLASSES = {
+            ArrayList.class, LinkedList.class, HashMap.class, TreeMap.class, LinkedHashMap.class, HashSet.class, TreeSet.class,
+            ArrayDeque.class, PriorityQueue.class, Collections.class, Arrays.class, StringBuilder.class, Thread.class,
+            java.util.concurrent.ConcurrentHashMap.class, java.util.concurrent.ThreadPoolExecutor.class, java.io.File.class,
+            java.io.BufferedReader.class, java.math.BigDecimal.class, java.math.BigInteger.class, java.time.LocalDateTime.class};
+
+    private IEnvironmentGlobal environment;
+    private List<IJavaMethod> overloads;
+    private Expression[][] arguments;
+
+    @Setup
+    public void setup() {
+        environment = BenchmarkEnvironment.createGlobalEnvironment();
+
+        overloads = new ArrayList<>();
+        for(java.lang.reflect.Method method : Math.class.getMethods()) {
+            if(method.getName().equals("max") || method.getName().equals("min"))
+                overloads.add(JavaMethod.get(environment, method));
+        }
+
+        ZenPosition position = new ZenPosition(null, 1, 0, "benchmark.zs");
+        arguments = new Expression[][]{
+                {new ExpressionInt(position, 1, ZenType.INT), new ExpressionInt(position, 2, ZenType.INT)},
+                {new ExpressionFloat(position, 1.0, ZenType.DOUBLE), new ExpressionInt(position, 2, ZenType.INT)},
+                {new ExpressionInt(position, 1, ZenType.LONG), new ExpressionInt(position, 2, ZenType.LONG)}};
+    }
+
+    @Benchmark
+    public void castingRules(Blackhole blackhole) {
+        for(ZenType from : TYPES) {
+            for(ZenType to : TYPES) {
+                blackhole.consume(from.getCastingRule(to, environment));
+            }
+        }
+    }
+
+    @Benchmark
+    public void canCastImplicit(Blackhole blackhole) {
+        for(ZenType from : TYPES) {
+            for(ZenType to : TYPES) {
+                blackhole.consume(from.canCastImplicit(to, environment));
+            }
+        }
+    }
+
+    @Benchmark
+    public void selectMethod(Blackhole blackhole) {
+        for(Expression[] argument : arguments) {
+            blackhole.consume(JavaMethod.select(true, overloads, environment, argument));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void getClassType(Blackhole blackhole) {
+        TypeRegistry registry = new TypeRegistry();
+        for(Class<?> cls : CLASSES) {
+            blackhole.consume(registry.getClassType(cls));
+        }
+    }
+}
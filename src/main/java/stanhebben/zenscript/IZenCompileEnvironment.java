@@ -13,6 +13,16 @@ public interface IZenCompileEnvironment {
     
     IZenErrorLogger getErrorLogger();
     
+    /**
+     * Gets the logger scripts log to, which modules flush along with the
+     * error logger.
+     *
+     * @return logger
+     */
+    default IZenLogger getLogger() {
+        return getErrorLogger();
+    }
+    
     IZenSymbol getGlobal(String name);
     
     IZenSymbol getBracketed(IEnvironmentGlobal environment, List<Token> tokens);
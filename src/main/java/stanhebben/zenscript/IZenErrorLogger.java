@@ -1,5 +1,6 @@
 package stanhebben.zenscript;
 
+import stanhebben.zenscript.diagnostics.Diagnostic;
 import stanhebben.zenscript.util.ZenPosition;
 
 /**
@@ -33,4 +34,25 @@ public interface IZenErrorLogger extends IZenLogger {
      * @param message  info message
      */
     void info(ZenPosition position, String message);
+    
+    /**
+     * Called when a structured diagnostic is reported during compilation.
+     * The default implementation formats it and passes it to error, warning
+     * or info; override to handle diagnostics by their code.
+     *
+     * @param diagnostic diagnostic
+     */
+    default void report(Diagnostic diagnostic) {
+        switch(diagnostic.getSeverity()) {
+            case ERROR:
+                error(diagnostic.getPosition(), diagnostic.getMessage());
+                break;
+            case WARNING:
+                warning(diagnostic.getPosition(), diagnostic.getMessage());
+                break;
+            default:
+                info(diagnostic.getPosition(), diagnostic.getMessage());
+                break;
+        }
+    }
 }
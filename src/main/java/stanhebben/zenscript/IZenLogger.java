@@ -30,4 +30,11 @@ public interface IZenLogger {
      * @param message info message
      */
     void info(String message);
+    
+    /**
+     * Waits until everything logged so far has been written. Loggers that
+     * write synchronously don't have to do anything.
+     */
+    default void flush() {
+    }
 }
@@ -7,6 +7,7 @@ import stanhebben.zenscript.symbols.*;
 import stanhebben.zenscript.util.Pair;
 
 import java.util.*;
+import java.util.concurrent.Executor;
 
 public interface IZenRegistry {
     
@@ -26,6 +27,15 @@ public interface IZenRegistry {
     
     IZenSymbol resolveBracket(IEnvironmentGlobal environment, List<Token> tokens);
     
+    default void resolveBrackets(IEnvironmentGlobal environment, Collection<List<Token>> brackets, Executor executor) {
+        for(List<Token> tokens : brackets) {
+            resolveBracket(environment, tokens);
+        }
+    }
+    
+    default void clearBracketCache() {
+    }
+    
     IEnvironmentGlobal makeGlobalEnvironment(Map<String, byte[]> classes);
     
     IZenCompileEnvironment getCompileEnvironment();
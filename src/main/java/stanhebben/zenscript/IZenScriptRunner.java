@@ -0,0 +1,24 @@
+package stanhebben.zenscript;
+
+/**
+ * Implemented by the main class of a module, so its scripts can be run one by
+ * one in the order given by their schedule (see ZenModule.getMain(Executor)).
+ */
+public interface IZenScriptRunner {
+    
+    /**
+     * Gets the schedule of the scripts. For every script in order, the
+     * schedule holds the number of scripts it must run after, followed by
+     * the indices of those scripts, which always come earlier.
+     *
+     * @return schedule
+     */
+    int[] getSchedule();
+    
+    /**
+     * Runs the script with the given index.
+     *
+     * @param index script index
+     */
+    void runScript(int index);
+}
@@ -4,6 +4,7 @@ import org.objectweb.asm.*;
 import org.objectweb.asm.Type;
 import stanhebben.zenscript.annotations.*;
 import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.snapshot.*;
 import stanhebben.zenscript.expression.*;
 import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.type.ZenType;
@@ -12,6 +13,7 @@ import stanhebben.zenscript.type.expand.*;
 import stanhebben.zenscript.type.natives.*;
 import stanhebben.zenscript.util.*;
 
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.util.*;
@@ -200,6 +202,42 @@ public class TypeExpansion {
         }
     }
 
+    /**
+     * Writes the registered expansions to a registry snapshot.
+     *
+     * @param output snapshot output
+     * @throws IOException if the output throws
+     */
+    public void writeSnapshot(SnapshotOutput output) throws IOException {
+        output.writeExpandMembers(members);
+        output.writeExpandMembers(staticMembers);
+        output.writeInt(casters.size());
+        for(ZenExpandCaster caster : casters) {
+            output.writeMethod(caster.getMethod());
+        }
+        output.writeOperators(trinaryOperators);
+        output.writeOperators(binaryOperators);
+        output.writeOperators(unaryOperators);
+    }
+    
+    /**
+     * Restores what writeSnapshot wrote, instead of expanding the original
+     * classes again.
+     *
+     * @param input snapshot input
+     * @throws IOException if the input throws or is malformed
+     */
+    public void readSnapshot(SnapshotInput input) throws IOException {
+        input.readExpandMembers(type, members);
+        input.readExpandMembers(type, staticMembers);
+        for(int i = input.readInt(); i > 0; i--) {
+            casters.add(new ZenExpandCaster(input.readMethod()));
+        }
+        input.readOperators(trinaryOperators);
+        input.readOperators(binaryOperators);
+        input.readOperators(unaryOperators);
+    }
+    
     private void checkGetter(Method method, Class cls) {
         if (method.getReturnType().equals(Void.TYPE)){
             throw new RuntimeException("ZenGetter needs a non Void returntype - " + cls.getName() + "." + method.getName());
@@ -230,6 +268,15 @@ public class TypeExpansion {
         }
     }
     
+    /**
+     * Checks if this expansion adds any casters to its type.
+     *
+     * @return true if at least one caster was registered
+     */
+    public boolean hasCasters() {
+        return !casters.isEmpty();
+    }
+    
     /**
      * Retrieves a caster from this expansion. May return null if no suitable
      * caster was available.
@@ -376,7 +423,7 @@ public class TypeExpansion {
             output.ifACmpNe(skip);
             output.load(asmType, localValue);
             caster.compile(output);
-            output.returnType(caster.getTarget().toASMType());
+            AnyClassWriter.returnBoxed(output, caster.getTarget().toASMType());
             output.label(skip);
         }
         
@@ -394,7 +441,7 @@ public class TypeExpansion {
             caster.compile(output);
             output.loadObject(localClass);
             output.invokeStatic(casterAny, "rtAs", "(" + caster.getTarget().getSignature() + "Ljava/lang/Class;)Ljava/lang/Object;");
-            output.returnType(caster.getTarget().toASMType());
+            output.returnObject();
             output.label(skip);
         }
     }
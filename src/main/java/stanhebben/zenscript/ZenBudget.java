@@ -0,0 +1,131 @@
+package stanhebben.zenscript;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how long a script may run. Modules compiled with ZenModule.budgets
+ * enabled call check on entry of every script method and on every loop
+ * iteration. Each call counts as one step. Once a script running under a
+ * budget exceeds its steps or its time, or its thread is interrupted, check
+ * throws a ZenBudgetExceededException, which unwinds the script like any
+ * other ZenRuntimeException.
+ * <p>
+ * The time and the interrupt flag are only checked every CHECK_INTERVAL
+ * steps, so a check usually costs no more than a thread local lookup and a
+ * decrement.
+ */
+public final class ZenBudget {
+
+    public static final String NAME = "stanhebben/zenscript/ZenBudget";
+
+    private static final int CHECK_INTERVAL = 1024;
+    private static final ThreadLocal<Context> CURRENT = ThreadLocal.withInitial(Context::new);
+
+    private final long maxSteps;
+    private final long maxNanos;
+
+    /**
+     * Creates a budget.
+     *
+     * @param maxSteps maximum number of steps, 0 for no limit
+     * @param maxTime  maximum time, 0 for no limit
+     * @param unit     unit of maxTime
+     */
+    public ZenBudget(long maxSteps, long maxTime, TimeUnit unit) {
+        if(maxSteps < 0 || maxTime < 0)
+            throw new IllegalArgumentException("Budget cannot be negative");
+
+        this.maxSteps = maxSteps;
+        this.maxNanos = unit.toNanos(maxTime);
+    }
+
+    public static ZenBudget steps(long maxSteps) {
+        return new ZenBudget(maxSteps, 0, TimeUnit.NANOSECONDS);
+    }
+
+    public static ZenBudget time(long maxTime, TimeUnit unit) {
+        return new ZenBudget(0, maxTime, unit);
+    }
+
+    public long getMaxSteps() {
+        return maxSteps;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Runs the given runnable under this budget on the current thread. A
+     * budget that was active on this thread before is restored afterwards.
+     *
+     * @param runnable runnable to run
+     * @throws ZenBudgetExceededException if the budget is exceeded
+     */
+    public void run(Runnable runnable) {
+        Context context = CURRENT.get();
+        ZenBudget previousBudget = context.budget;
+        long previousSteps = context.steps;
+        long previousDeadline = context.deadline;
+        int previousCountdown = context.countdown;
+
+        context.budget = this;
+        context.steps = maxSteps;
+        context.deadline = System.nanoTime() + maxNanos;
+        context.countdown = 0;
+        try {
+            runnable.run();
+        } finally {
+            context.budget = previousBudget;
+            context.steps = previousSteps;
+            context.deadline = previousDeadline;
+            context.countdown = previousCountdown;
+        }
+    }
+
+    /**
+     * Counts a step. Called by compiled code.
+     *
+     * @throws ZenBudgetExceededException if the budget of the current thread is exceeded
+     */
+    public static void check() {
+        Context context = CURRENT.get();
+        if(--context.countdown <= 0)
+            context.refill();
+    }
+
+    @Override
+    public String toString() {
+        return (maxSteps == 0 ? "unlimited" : Long.toString(maxSteps)) + " steps, " + (maxNanos == 0 ? "unlimited" : TimeUnit.NANOSECONDS.toMillis(maxNanos) + " ms");
+    }
+
+    private static final class Context {
+
+        private ZenBudget budget;
+        private long steps;
+        private long deadline;
+        private int countdown = CHECK_INTERVAL;
+
+        /**
+         * Called when the countdown runs out: checks the budget and starts
+         * the next countdown.
+         */
+        void refill() {
+            if(budget == null) {
+                countdown = CHECK_INTERVAL;
+                return;
+            }
+
+            if(Thread.currentThread().isInterrupted())
+                throw new ZenBudgetExceededException("Script execution was interrupted");
+            if(budget.maxSteps > 0 && steps <= 0)
+                throw new ZenBudgetExceededException("Script exceeded its budget of " + budget.maxSteps + " steps");
+            if(budget.maxNanos > 0 && System.nanoTime() - deadline > 0)
+                throw new ZenBudgetExceededException("Script exceeded its time budget of " + TimeUnit.NANOSECONDS.toMillis(budget.maxNanos) + " ms");
+
+            int chunk = budget.maxSteps > 0 ? (int) Math.min(CHECK_INTERVAL, steps) : CHECK_INTERVAL;
+            steps -= chunk;
+            countdown = chunk;
+        }
+    }
+}
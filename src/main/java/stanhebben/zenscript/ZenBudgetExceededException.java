@@ -0,0 +1,14 @@
+package stanhebben.zenscript;
+
+/**
+ * Thrown when a script runs out of its ZenBudget, or when its thread is
+ * interrupted while it runs under a budget.
+ */
+public class ZenBudgetExceededException extends ZenRuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ZenBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -4,14 +4,17 @@ import org.objectweb.asm.*;
 import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.definitions.*;
 import stanhebben.zenscript.definitions.zenclasses.ParsedZenClass;
+import stanhebben.zenscript.expression.*;
 import stanhebben.zenscript.expression.partial.*;
+import stanhebben.zenscript.parser.expression.*;
 import stanhebben.zenscript.statements.*;
 import stanhebben.zenscript.symbols.*;
-import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.type.*;
 import stanhebben.zenscript.util.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.zip.*;
 
 import static stanhebben.zenscript.util.ZenTypeUtil.internal;
@@ -30,23 +33,104 @@ public class ZenModule {
     
     public static final Map<String, byte[]> classes = new HashMap<>();
     public static final Map<String, Class> loadedClasses = new HashMap<>();
+    
+    /**
+     * Script bodies are split into separate methods once a method grows beyond
+     * this many bytes of code. This keeps them below the 64KB method size limit
+     * and small enough to be JIT-compiled (HotSpot skips methods over 8000 bytes).
+     */
+    public static int scriptMethodSize = 7000;
+    
+    /**
+     * Number of diagnostics reported per file in a single compile; further
+     * diagnostics in the file are counted but not formatted or logged. Use 0
+     * for no limit.
+     */
+    public static int maxDiagnosticsPerFile = 100;
+    
+    /**
+     * Compiles operations on any values to invokedynamic call sites with
+     * inline caches (see AnyCallSites) instead of interface calls. Affects
+     * modules compiled after it is set.
+     */
+    public static boolean useInvokeDynamic = false;
+    
+    /**
+     * Instruments script functions, __script__ methods, lambdas and zenclass
+     * methods with calls to ZenProfiler. Affects modules compiled after it is
+     * set.
+     */
+    public static boolean profile = false;
+    
+    /**
+     * Instruments script functions, __script__ methods, lambdas and zenclass
+     * methods with ZenBudget checks on entry and on every loop iteration, so
+     * they can be run with getMain(ZenBudget). Affects modules compiled after
+     * it is set.
+     */
+    public static boolean budgets = false;
+    
+    /**
+     * Compiles every global and static into a holder class of its own, so
+     * its initializer runs the first time the value is used instead of when
+     * any value of its script is first used. Affects modules compiled after
+     * it is set.
+     */
+    public static boolean lazyGlobals = false;
+    
+    /**
+     * Computes the footprint of every script and a schedule from them (see
+     * ScriptFootprint), so getMain(Executor) can run independent scripts in
+     * parallel. Affects modules compiled after it is set.
+     */
+    public static boolean parallelScripts = false;
+    
     private final MyClassLoader classLoader;
+    private final IZenCompileEnvironment environment;
+    private byte[] mainClassBytes;
+    private Class<?> mainClass;
     
     
     /**
      * Constructs a module for the given set of classes. Mostly intended for
      * internal use.
+     * <p>
+     * The bytecode of a class is released once the class is defined, so
+     * after startup only the loaded classes take up memory. The main class
+     * is kept with the module, since every module has its own.
      *
      * @param clazzes         classes for module
      * @param baseClassLoader class loader
      */
     public ZenModule(Map<String, byte[]> clazzes, ClassLoader baseClassLoader) {
-        classes.putAll(clazzes);
+        this(clazzes, baseClassLoader, null);
+    }
+    
+    /**
+     * Constructs a module whose main runnable flushes the loggers of the
+     * given environment when it finishes.
+     */
+    private ZenModule(Map<String, byte[]> clazzes, ClassLoader baseClassLoader, IZenCompileEnvironment environment) {
+        this.environment = environment;
+        synchronized(classes) {
+            classes.putAll(clazzes);
+            mainClassBytes = classes.remove("__ZenMain__");
+        }
         classLoader = new MyClassLoader(baseClassLoader);
     }
     
     /**
-     * Compiles a set of parsed files into a module.
+     * Compiles a set of parsed files into a module. The statements and
+     * functions of every file are released as soon as its class is
+     * generated (see ZenParsedFile.releaseCode), so the files can't be
+     * compiled again.
+     * <p>
+     * With parallelScripts enabled, the main class can also run the scripts
+     * one by one following a schedule computed from their footprints, which
+     * getMain(Executor) uses to run independent scripts in parallel.
+     * <p>
+     * Once done, the number of diagnostics that were suppressed is reported
+     * (see DiagnosticCollector.finish).
      *
      * @param mainFileName      main filename (used for debug info)
      * @param scripts           scripts to compile
@@ -54,13 +138,45 @@ public class ZenModule {
      * @param debug             enable debug mode (outputs classes to generated directory)
      */
     public static void compileScripts(String mainFileName, List<ZenParsedFile> scripts, IEnvironmentGlobal environmentGlobal, boolean debug) {
+        compileScripts(mainFileName, scripts, environmentGlobal, debug, ZenModule.class.getClassLoader());
+    }
+    
+    /**
+     * Compiles a set of parsed files into a module that will be loaded with
+     * the given class loader. Natives are loaded through it when checking
+     * which scripts can run in parallel.
+     *
+     * @param mainFileName      main filename (used for debug info)
+     * @param scripts           scripts to compile
+     * @param environmentGlobal global compile environment
+     * @param debug             enable debug mode (outputs classes to generated directory)
+     * @param baseClassLoader   class loader the module will be loaded with
+     */
+    public static void compileScripts(String mainFileName, List<ZenParsedFile> scripts, IEnvironmentGlobal environmentGlobal, boolean debug, ClassLoader baseClassLoader) {
+        try {
+            compileScriptClasses(mainFileName, scripts, environmentGlobal, debug, baseClassLoader);
+        } finally {
+            if(environmentGlobal instanceof EnvironmentGlobal)
+                ((EnvironmentGlobal) environmentGlobal).getDiagnostics().finish();
+        }
+    }
+    
+    private static void compileScriptClasses(String mainFileName, List<ZenParsedFile> scripts, IEnvironmentGlobal environmentGlobal, boolean debug, ClassLoader baseClassLoader) {
         ClassWriter clsMain = new ZenClassWriter(ClassWriter.COMPUTE_FRAMES);
         clsMain.visitSource(mainFileName, null);
         
-        clsMain.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "__ZenMain__", null, internal(Object.class), new String[]{internal(Runnable.class)});
+        String[] mainInterfaces = parallelScripts ? new String[]{internal(Runnable.class), internal(IZenScriptRunner.class)} : new String[]{internal(Runnable.class)};
+        clsMain.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "__ZenMain__", null, internal(Object.class), mainInterfaces);
         MethodOutput mainRun = new MethodOutput(clsMain, Opcodes.ACC_PUBLIC, "run", "()V", null, null);
         mainRun.start();
         
+        // globals that are never assigned to can have their constant initializers inlined
+        List<String> scriptClasses = new ArrayList<>();
+        Set<String> assignedNames = new HashSet<>();
+        for(ZenParsedFile script : scripts) {
+            assignedNames.addAll(script.getAssignedNames());
+        }
+        
         for(ZenParsedFile script : scripts) {
             ClassWriter clsScript = new ZenClassWriter(ClassWriter.COMPUTE_FRAMES);
             clsScript.visitSource(script.getFileName(), null);
@@ -75,17 +191,27 @@ public class ZenModule {
             }
             
             
-            if(!script.getGlobals().isEmpty()) {
+            if(lazyGlobals) {
+                for(Map.Entry<String, ParsedGlobalValue> entry : script.getGlobals().entrySet()) {
+                    ParsedGlobalValue value = entry.getValue();
+                    SymbolGlobalValue symbol = compileLazyGlobal(value, environmentScript, !assignedNames.contains(entry.getKey()));
+                    if(value.isGlobal())
+                        environmentGlobal.putValue(entry.getKey(), symbol, value.getPosition());
+                    else
+                        environmentScript.putValue(entry.getKey(), symbol, value.getPosition());
+                }
+            } else if(!script.getGlobals().isEmpty()) {
                 MethodOutput clinit = new MethodOutput(clsScript, Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
                 EnvironmentMethod clinitEnvironment = new EnvironmentMethod(clinit, environmentScript);
                 clinit.start();
                 
                 for(Map.Entry<String, ParsedGlobalValue> entry : script.getGlobals().entrySet()) {
                     ParsedGlobalValue value = entry.getValue();
+                    boolean inlinable = !assignedNames.contains(entry.getKey());
                     if(value.isGlobal())
-                        environmentGlobal.putValue(entry.getKey(), new SymbolGlobalValue(value, clinitEnvironment), value.getPosition());
+                        environmentGlobal.putValue(entry.getKey(), new SymbolGlobalValue(value, clinitEnvironment, inlinable), value.getPosition());
                     else
-                        environmentScript.putValue(entry.getKey(), new SymbolGlobalValue(value, clinitEnvironment), value.getPosition());
+                        environmentScript.putValue(entry.getKey(), new SymbolGlobalValue(value, clinitEnvironment, inlinable), value.getPosition());
                 }
                 
                 clinit.ret();
@@ -112,6 +238,7 @@ public class ZenModule {
                 
                 String signature = fn.getSignature();
                 MethodOutput methodOutput = new MethodOutput(clsScript, Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, function.getKey(), signature, null, null);
+                methodOutput.instrument(script.getFileName() + ":" + function.getKey());
                 EnvironmentMethod methodEnvironment = new EnvironmentMethod(methodOutput, environmentScript);
                 
                 List<ParsedFunctionArgument> arguments = function.getValue().getArguments();
@@ -124,6 +251,7 @@ public class ZenModule {
                 
                 methodOutput.start();
                 Statement[] statements = fn.getStatements();
+                LocalTypeInference.infer(methodEnvironment, Arrays.asList(statements));
                 for(Statement statement : statements) {
                     statement.compile(methodEnvironment);
                 }
@@ -144,25 +272,25 @@ public class ZenModule {
             }
             
             if(script.getStatements().size() > 0) {
-                MethodOutput scriptOutput = new MethodOutput(clsScript, Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "__script__", "()V", null, null);
-                IEnvironmentMethod functionMethod = new EnvironmentMethod(scriptOutput, environmentScript);
-                // scriptOutput.enableDebug();
-                scriptOutput.start();
-                for(Statement statement : script.getStatements()) {
-                    statement.compile(functionMethod);
-                }
-                scriptOutput.ret();
-                scriptOutput.end();
+                compileScriptStatements(clsScript, environmentScript, script);
                 
                 mainRun.invokeStatic(script.getClassName().replace('.', '/'), "__script__", "()V");
+                scriptClasses.add(script.getClassName().replace('.', '/'));
             }
             
             clsScript.visitEnd();
             environmentGlobal.putClass(script.getClassName(), clsScript.toByteArray());
+            script.releaseCode();
         }
         
+        BracketConstants brackets = environmentGlobal.getBracketConstants();
+        if(brackets != null)
+            brackets.writeClass(environmentGlobal);
+        
         mainRun.ret();
         mainRun.end();
+        if(parallelScripts)
+            compileScriptRunner(clsMain, environmentGlobal, scriptClasses, baseClassLoader);
         clsMain.visitEnd();
         
         MethodVisitor constructor = clsMain.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
@@ -225,11 +353,15 @@ public class ZenModule {
         List<ZenParsedFile> files = new ArrayList<>();
         files.add(file);
         
-        compileScripts(filename, files, environmentGlobal, false);
+        try {
+            compileScripts(filename, files, environmentGlobal, false, baseClassLoader);
+        } finally {
+            flushLoggers(environment);
+        }
         
         generateDebug(classes);
         
-        return new ZenModule(classes, baseClassLoader);
+        return new ZenModule(classes, baseClassLoader, environment);
     }
     
     /**
@@ -258,12 +390,16 @@ public class ZenModule {
         List<ZenParsedFile> files = new ArrayList<>();
         files.add(file);
         
-        compileScripts(name, files, environmentGlobal, false);
+        try {
+            compileScripts(name, files, environmentGlobal, false, baseClassLoader);
+        } finally {
+            flushLoggers(environment);
+        }
         
         
         generateDebug(classes);
         
-        return new ZenModule(classes, baseClassLoader);
+        return new ZenModule(classes, baseClassLoader, environment);
     }
     
     /**
@@ -302,9 +438,218 @@ public class ZenModule {
         }
         
         String filename = file.getName();
-        compileScripts(filename, files, environmentGlobal, true);
+        try {
+            compileScripts(filename, files, environmentGlobal, true, baseClassLoader);
+        } finally {
+            flushLoggers(environment);
+        }
+        
+        return new ZenModule(classes, baseClassLoader, environment);
+    }
+    
+    /**
+     * Implements IZenScriptRunner in the main class: getSchedule returns the
+     * schedule computed from the footprints of the scripts, and runScript
+     * calls the __script__ method of the script with the given index.
+     */
+    private static void compileScriptRunner(ClassWriter clsMain, IEnvironmentGlobal environmentGlobal, List<String> scriptClasses, ClassLoader classLoader) {
+        ScriptFootprint.Analysis analysis = new ScriptFootprint.Analysis(environmentGlobal, classLoader);
+        List<ScriptFootprint> footprints = new ArrayList<>();
+        for(String scriptClass : scriptClasses) {
+            footprints.add(analysis.analyze(scriptClass));
+        }
+        
+        // every script runs after the earlier scripts it conflicts with, leaving out those it already runs after through others
+        List<Expression> schedule = new ArrayList<>();
+        List<BitSet> predecessors = new ArrayList<>();
+        for(int i = 0; i < footprints.size(); i++) {
+            BitSet before = new BitSet();
+            List<Integer> dependencies = new ArrayList<>();
+            for(int j = i - 1; j >= 0; j--) {
+                if(!before.get(j) && footprints.get(i).conflicts(footprints.get(j))) {
+                    dependencies.add(j);
+                    before.set(j);
+                    before.or(predecessors.get(j));
+                }
+            }
+            predecessors.add(before);
+            
+            schedule.add(new ExpressionInt(null, dependencies.size(), ZenType.INT));
+            for(int dependency : dependencies) {
+                schedule.add(new ExpressionInt(null, dependency, ZenType.INT));
+            }
+        }
         
-        return new ZenModule(classes, baseClassLoader);
+        EnvironmentClass environmentMain = new EnvironmentClass(clsMain, environmentGlobal);
+        MethodOutput getSchedule = new MethodOutput(clsMain, Opcodes.ACC_PUBLIC, "getSchedule", "()[I", null, null);
+        getSchedule.start();
+        new ExpressionArray(null, new ZenTypeArrayBasic(ZenType.INT), schedule.toArray(new Expression[schedule.size()])).compile(true, new EnvironmentMethod(getSchedule, environmentMain));
+        getSchedule.returnObject();
+        getSchedule.end();
+        
+        MethodOutput runScript = new MethodOutput(clsMain, Opcodes.ACC_PUBLIC, "runScript", "(I)V", null, null);
+        runScript.start();
+        if(!scriptClasses.isEmpty()) {
+            Label end = new Label();
+            Label[] labels = new Label[scriptClasses.size()];
+            for(int i = 0; i < labels.length; i++) {
+                labels[i] = new Label();
+            }
+            
+            runScript.loadInt(1);
+            runScript.tableSwitch(0, labels.length - 1, end, labels);
+            for(int i = 0; i < labels.length; i++) {
+                runScript.label(labels[i]);
+                runScript.invokeStatic(scriptClasses.get(i), "__script__", "()V");
+                runScript.ret();
+            }
+            runScript.label(end);
+        }
+        runScript.ret();
+        runScript.end();
+    }
+    
+    /**
+     * Compiles a global into a holder class of its own, whose static
+     * initializer only runs when the global is first read or assigned.
+     *
+     * @param value             parsed global
+     * @param environmentScript environment of the script that declares the global
+     * @param inlinable         true if the global is never assigned to
+     *
+     * @return global symbol
+     */
+    private static SymbolGlobalValue compileLazyGlobal(ParsedGlobalValue value, EnvironmentClass environmentScript, boolean inlinable) {
+        String className = value.getOwner() + "$" + value.getName();
+        ClassWriter clsHolder = new ZenClassWriter(ClassWriter.COMPUTE_FRAMES);
+        clsHolder.visitSource(value.getPosition().getFileName(), null);
+        clsHolder.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, className, null, internal(Object.class), null);
+        
+        MethodOutput clinit = new MethodOutput(clsHolder, Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
+        EnvironmentMethod clinitEnvironment = new EnvironmentMethod(clinit, new EnvironmentClass(clsHolder, environmentScript));
+        clinit.start();
+        SymbolGlobalValue result = new SymbolGlobalValue(value, clinitEnvironment, inlinable, className);
+        clinit.ret();
+        clinit.end();
+        
+        clsHolder.visitEnd();
+        environmentScript.putClass(className, clsHolder.toByteArray());
+        return result;
+    }
+    
+    /**
+     * Compiles the statements of a script into its __script__ method. When the
+     * method gets too large, the remaining statements continue in a new method
+     * (__script__1, __script__2, ...) which is called at the end of the
+     * previous one, receiving the local variables declared so far that the
+     * remaining statements use. Those are passed as arguments as long as they
+     * fit in the 255 argument slots of a method; the rest is handed over in
+     * static fields of the script class, which the new method copies into
+     * locals right away.
+     */
+    private static void compileScriptStatements(ClassWriter clsScript, EnvironmentClass environmentScript, ZenParsedFile script) {
+        String className = script.getClassName().replace('.', '/');
+        MethodOutput output = new MethodOutput(clsScript, Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "__script__", "()V", null, null);
+        output.instrument(script.getFileName() + ":__script__");
+        EnvironmentMethod environment = new EnvironmentMethod(output, environmentScript);
+        output.start();
+        
+        int part = 0;
+        int fields = 0;
+        List<Statement> statements = script.getStatements();
+        LocalTypeInference.infer(environment, statements);
+        for(int i = 0; i < statements.size(); i++) {
+            Statement statement = statements.get(i);
+            if(output.getCodeSize() > scriptMethodSize) {
+                Set<String> used = new HashSet<>();
+                collectVariableNames(statements.subList(i, statements.size()), used);
+                
+                Map<String, SymbolLocal> arguments = new LinkedHashMap<>();
+                Map<String, SymbolLocal> spilled = new LinkedHashMap<>();
+                StringBuilder descriptor = new StringBuilder("(");
+                int slots = 0;
+                for(Map.Entry<String, SymbolLocal> local : environment.getDeclaredLocals().entrySet()) {
+                    if(!used.contains(local.getKey()))
+                        continue;
+                    
+                    // a method can take at most 255 argument slots
+                    int size = local.getValue().getType().isLarge() ? 2 : 1;
+                    if(slots + size <= 255) {
+                        arguments.put(local.getKey(), local.getValue());
+                        descriptor.append(local.getValue().getType().getSignature());
+                        slots += size;
+                    } else {
+                        spilled.put(local.getKey(), local.getValue());
+                    }
+                }
+                descriptor.append(")V");
+                
+                Map<SymbolLocal, String> fieldNames = new HashMap<>();
+                for(SymbolLocal local : spilled.values()) {
+                    String fieldName = "__local__" + (fields++);
+                    String fieldDescriptor = local.getType().getSignature();
+                    clsScript.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC, fieldName, fieldDescriptor, null, null).visitEnd();
+                    output.load(local.getType().toASMType(), environment.getLocal(local));
+                    output.putStaticField(className, fieldName, fieldDescriptor);
+                    fieldNames.put(local, fieldName);
+                }
+                
+                String name = "__script__" + (++part);
+                for(SymbolLocal local : arguments.values()) {
+                    output.load(local.getType().toASMType(), environment.getLocal(local));
+                }
+                output.invokeStatic(className, name, descriptor.toString());
+                output.ret();
+                output.end();
+                
+                output = new MethodOutput(clsScript, Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC, name, descriptor.toString(), null, null);
+                output.instrument(script.getFileName() + ":" + name);
+                environment = new EnvironmentMethod(output, environmentScript);
+                int index = 0;
+                for(Map.Entry<String, SymbolLocal> local : arguments.entrySet()) {
+                    environment.putLocal(local.getKey(), local.getValue(), index, statement.getPosition());
+                    index += local.getValue().getType().isLarge() ? 2 : 1;
+                }
+                output.start();
+                for(Map.Entry<String, SymbolLocal> local : spilled.entrySet()) {
+                    SymbolLocal variable = local.getValue();
+                    String fieldDescriptor = variable.getType().getSignature();
+                    environment.putValue(local.getKey(), variable, statement.getPosition());
+                    output.getStaticField(className, fieldNames.get(variable), fieldDescriptor);
+                    output.store(variable.getType().toASMType(), environment.getLocal(variable));
+                    if(variable.getType().isPointer()) {
+                        // don't keep the value alive after the script ran
+                        output.aConstNull();
+                        output.putStaticField(className, fieldNames.get(variable), fieldDescriptor);
+                    }
+                }
+            }
+            
+            statement.compile(environment);
+        }
+        output.ret();
+        output.end();
+    }
+    
+    /**
+     * Collects the names of all variables the given statements refer to,
+     * including those in nested blocks and function bodies. Names of locals
+     * declared in them are included as well, which only makes the result
+     * larger than needed.
+     */
+    private static void collectVariableNames(List<Statement> statements, Set<String> names) {
+        for(Statement statement : statements) {
+            for(Statement subStatement : statement.getSubStatements()) {
+                for(ParsedExpression expression : subStatement.getExpressions()) {
+                    for(ParsedExpression subExpression : expression.getSubExpressions()) {
+                        if(subExpression instanceof ParsedExpressionVariable)
+                            names.add(((ParsedExpressionVariable) subExpression).getName());
+                        else if(subExpression instanceof ParsedExpressionFunction)
+                            collectVariableNames(((ParsedExpressionFunction) subExpression).getStatements(), names);
+                    }
+                }
+            }
+        }
     }
     
     private static void generateDebug(Map<String, byte[]> classes) throws IOException {
@@ -368,11 +713,96 @@ public class ZenModule {
     
     /**
      * Retrieves the main runnable. Running this runnable will execute the
-     * content of the given module.
+     * content of the given module. For compiled modules, the loggers of the
+     * compile environment are flushed when it finishes.
      *
      * @return main runnable
      */
     public Runnable getMain() {
+        return flushing(loadMain());
+    }
+    
+    /**
+     * Wraps a loaded main runnable so the loggers of the compile environment
+     * are flushed when it finishes.
+     */
+    private Runnable flushing(Runnable main) {
+        if(main == null || environment == null)
+            return main;
+        if(main instanceof IZenScriptRunner)
+            return new FlushingScriptRunner(main, environment);
+        
+        return () -> {
+            try {
+                main.run();
+            } finally {
+                flushLoggers(environment);
+            }
+        };
+    }
+    
+    /**
+     * Returns the main runnable of this module, running under the given
+     * budget. Every call of its run method gets the full budget. Only modules
+     * compiled with budgets enabled check the budget.
+     *
+     * @param budget execution budget
+     * @return main runnable, or null if the module has no main class
+     */
+    public Runnable getMain(ZenBudget budget) {
+        Runnable main = getMain();
+        return main == null ? null : () -> budget.run(main);
+    }
+    
+    /**
+     * Returns a main runnable that runs the scripts of this module on the
+     * given executor. Scripts that may affect each other (see
+     * ScriptFootprint) run in their original order, other scripts run in
+     * parallel. The run method returns once all scripts have finished.
+     * <p>
+     * When a script throws, the scripts that must run after it are skipped
+     * and the exception is rethrown once the others have finished. Modules
+     * compiled without parallelScripts run all scripts in order on the
+     * calling thread.
+     *
+     * @param executor executor to run scripts on
+     * @return main runnable, or null if the module has no main class
+     */
+    public Runnable getMain(Executor executor) {
+        Runnable main = loadMain();
+        if(!(main instanceof IZenScriptRunner))
+            return flushing(main);
+        
+        IZenScriptRunner runner = (IZenScriptRunner) main;
+        return () -> {
+            int[] schedule = runner.getSchedule();
+            List<CompletableFuture<Void>> scripts = new ArrayList<>();
+            for(int offset = 0; offset < schedule.length; ) {
+                CompletableFuture<?>[] dependencies = new CompletableFuture<?>[schedule[offset++]];
+                for(int i = 0; i < dependencies.length; i++) {
+                    dependencies[i] = scripts.get(schedule[offset++]);
+                }
+                
+                int script = scripts.size();
+                scripts.add(CompletableFuture.allOf(dependencies).thenRunAsync(() -> runner.runScript(script), executor));
+            }
+            
+            try {
+                CompletableFuture.allOf(scripts.toArray(new CompletableFuture<?>[scripts.size()])).join();
+            } catch(CompletionException ex) {
+                if(ex.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) ex.getCause();
+                if(ex.getCause() instanceof Error)
+                    throw (Error) ex.getCause();
+                throw ex;
+            } finally {
+                if(environment != null)
+                    flushLoggers(environment);
+            }
+        };
+    }
+    
+    private Runnable loadMain() {
         try {
             
             return (Runnable) classLoader.loadClass("__ZenMain__").newInstance();
@@ -381,10 +811,58 @@ public class ZenModule {
         }
     }
     
+    /**
+     * Flushes the error logger and the logger of the given environment, so
+     * everything async loggers queued during a compile or run has been
+     * written once it returns.
+     */
+    private static void flushLoggers(IZenCompileEnvironment environment) {
+        IZenErrorLogger errorLogger = environment.getErrorLogger();
+        if(errorLogger != null)
+            errorLogger.flush();
+        IZenLogger logger = environment.getLogger();
+        if(logger != null && logger != errorLogger)
+            logger.flush();
+    }
+    
     // #############################
     // ### Private inner classes ###
     // #############################
     
+    /**
+     * Main runnable of a module compiled with parallelScripts, which flushes
+     * the loggers when running all scripts finishes.
+     */
+    private static class FlushingScriptRunner implements Runnable, IZenScriptRunner {
+        
+        private final Runnable main;
+        private final IZenCompileEnvironment environment;
+        
+        private FlushingScriptRunner(Runnable main, IZenCompileEnvironment environment) {
+            this.main = main;
+            this.environment = environment;
+        }
+        
+        @Override
+        public void run() {
+            try {
+                main.run();
+            } finally {
+                flushLoggers(environment);
+            }
+        }
+        
+        @Override
+        public int[] getSchedule() {
+            return ((IZenScriptRunner) main).getSchedule();
+        }
+        
+        @Override
+        public void runScript(int index) {
+            ((IZenScriptRunner) main).runScript(index);
+        }
+    }
+    
     /**
      * Custom class loader. Loads classes from this module.
      */
@@ -396,30 +874,43 @@ public class ZenModule {
         
         @Override
         public Class<?> findClass(String name) throws ClassNotFoundException {
-            if(loadedClasses.containsKey(name))
-                return loadedClasses.get(name);
-            if(classes.containsKey(name)) {
-                final byte[] bytes = classes.get(name);
-                if("__ZenMain__".equals(name))
-                    return defineClass(name, bytes, 0, bytes.length);
-                loadedClasses.put(name, defineClass(name, bytes, 0, bytes.length));
-                return loadedClasses.get(name);
-            }
-            return super.findClass(name);
+            Class<?> result = defineZenClass(name);
+            return result == null ? super.findClass(name) : result;
         }
         
         @Override
         public Class<?> loadClass(String name) throws ClassNotFoundException {
-            if(loadedClasses.containsKey(name))
-                return loadedClasses.get(name);
-            if(classes.containsKey(name)) {
-                final byte[] bytes = classes.get(name);
-                if("__ZenMain__".equals(name))
-                    return defineClass(name, bytes, 0, bytes.length);
-                loadedClasses.put(name, defineClass(name, bytes, 0, bytes.length));
-                return loadedClasses.get(name);
+            Class<?> result = defineZenClass(name);
+            return result == null ? super.loadClass(name) : result;
+        }
+        
+        /**
+         * Defines the generated class with the given name, if it isn't
+         * defined yet, and drops its bytecode.
+         *
+         * @return defined class, or null if it isn't a generated class
+         */
+        private Class<?> defineZenClass(String name) {
+            synchronized(classes) {
+                if("__ZenMain__".equals(name)) {
+                    if(mainClass == null && mainClassBytes != null) {
+                        mainClass = defineClass(name, mainClassBytes, 0, mainClassBytes.length);
+                        mainClassBytes = null;
+                    }
+                    return mainClass;
+                }
+                
+                if(loadedClasses.containsKey(name))
+                    return loadedClasses.get(name);
+                
+                byte[] bytes = classes.remove(name);
+                if(bytes == null)
+                    return null;
+                
+                Class<?> result = defineClass(name, bytes, 0, bytes.length);
+                loadedClasses.put(name, result);
+                return result;
             }
-            return super.loadClass(name);
         }
     }
 }
@@ -37,6 +37,7 @@ public class ZenParsedFile {
     private final Map<String, ParsedGlobalValue> globals = new LinkedHashMap<>();
     private final Map<String, ParsedZenClass> classes = new HashMap<>();
     private final List<Statement> statements;
+    private final Set<String> assignedNames = new HashSet<>();
     private final IEnvironmentGlobal environmentScript;
     
     /**
@@ -195,10 +196,34 @@ public class ZenParsedFile {
         return functions;
     }
     
+    /**
+     * Drops the statements and functions of this file once its class has
+     * been generated, so their syntax trees can be garbage collected while
+     * the remaining files are compiled. Globals and classes are kept, since
+     * other files may still refer to them.
+     */
+    public void releaseCode() {
+        statements.clear();
+        functions.clear();
+    }
+    
     public Map<String, ParsedGlobalValue> getGlobals() {
         return globals;
     }
     
+    /**
+     * Gets the names of all variables and members this file assigns to.
+     *
+     * @return assigned names
+     */
+    public Set<String> getAssignedNames() {
+        return assignedNames;
+    }
+    
+    public void addAssignedName(String name) {
+        assignedNames.add(name);
+    }
+    
     @Override
     public String toString() {
         return filename;
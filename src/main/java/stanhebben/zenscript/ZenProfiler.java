@@ -0,0 +1,443 @@
+package stanhebben.zenscript;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Collects call counts and timings of scripts compiled while
+ * ZenModule.profile is enabled.
+ * <p>
+ * Every script function, __script__ method, lambda and zenclass method
+ * compiled in profiling mode calls enter when it starts and exit when it
+ * returns or throws. Every statement calls line and every loop iteration
+ * calls backEdge. From these calls, each thread collects:
+ * <ul>
+ * <li>per function: number of calls, inclusive and exclusive time</li>
+ * <li>per line: number of executions, inclusive and exclusive time</li>
+ * <li>per loop: number of iterations</li>
+ * <li>a call tree with the exclusive time of every call path, which is
+ * written as collapsed stacks (the input format of flamegraph.pl)</li>
+ * </ul>
+ * Line hits count statements, so a line with two statements is hit twice.
+ * Inclusive time of a function is counted only for its outermost activation,
+ * so recursive functions aren't counted twice; inclusive time of lines in
+ * recursive functions is. Data from all threads is
+ * merged when a report is written; reports taken while scripts are running
+ * may be slightly off. Data of threads that ended is kept for the reports
+ * until the next reset.
+ */
+public final class ZenProfiler {
+
+    public static final String NAME = "stanhebben/zenscript/ZenProfiler";
+
+    private static final Registry FUNCTIONS = new Registry();
+    private static final Registry LINES = new Registry();
+    private static final Registry LOOPS = new Registry();
+
+    private static final List<ThreadData> THREADS = new ArrayList<>();
+    private static final ThreadLocal<ThreadData> CURRENT = ThreadLocal.withInitial(() -> {
+        ThreadData data = new ThreadData();
+        synchronized(THREADS) {
+            THREADS.add(data);
+        }
+        return data;
+    });
+
+    private ZenProfiler() {
+    }
+
+    // ####################
+    // ### Registration ###
+    // ####################
+
+    /**
+     * Registers a function. Called at compile time.
+     *
+     * @param name function name, usually file:function
+     * @return function id
+     */
+    public static int registerFunction(String name) {
+        return FUNCTIONS.register(name);
+    }
+
+    /**
+     * Registers a script line. Called at compile time.
+     *
+     * @param name line name, as file:line
+     * @return line id
+     */
+    public static int registerLine(String name) {
+        return LINES.register(name);
+    }
+
+    /**
+     * Registers a loop. Called at compile time.
+     *
+     * @param name loop name, as file:line
+     * @return loop id
+     */
+    public static int registerLoop(String name) {
+        return LOOPS.register(name);
+    }
+
+    // ###############################
+    // ### Called by compiled code ###
+    // ###############################
+
+    public static void enter(int function) {
+        CURRENT.get().enter(function, System.nanoTime());
+    }
+
+    public static void exit() {
+        CURRENT.get().exit(System.nanoTime());
+    }
+
+    public static void line(int line) {
+        CURRENT.get().line(line, System.nanoTime());
+    }
+
+    public static void backEdge(int loop) {
+        CURRENT.get().backEdge(loop);
+    }
+
+    // ###############
+    // ### Results ###
+    // ###############
+
+    /**
+     * Clears all collected data. Functions, lines and loops stay registered.
+     * Must not be called while profiled scripts are running.
+     */
+    public static void reset() {
+        synchronized(THREADS) {
+            // threads that ended won't record anything anymore, so drop their data instead of clearing it
+            THREADS.removeIf(data -> !data.isAlive());
+            for(ThreadData data : THREADS) {
+                data.reset();
+            }
+        }
+    }
+
+    /**
+     * Returns the statistics of all functions that were called at least once,
+     * sorted by descending exclusive time.
+     */
+    public static List<Entry> getFunctions() {
+        return collect(FUNCTIONS, data -> data.functions);
+    }
+
+    /**
+     * Returns the statistics of all lines that were executed at least once,
+     * sorted by descending exclusive time.
+     */
+    public static List<Entry> getLines() {
+        return collect(LINES, data -> data.lines);
+    }
+
+    /**
+     * Returns the iteration counts of all loops that iterated at least once,
+     * sorted by descending count. Loop entries have no timings.
+     */
+    public static List<Entry> getLoops() {
+        return collect(LOOPS, data -> data.loops);
+    }
+
+    /**
+     * Writes a human readable report of the collected functions, lines and
+     * loops. Times are in milliseconds.
+     *
+     * @param output output to write to
+     * @throws IOException if the output throws
+     */
+    public static void writeReport(Appendable output) throws IOException {
+        output.append(String.format("%-60s %10s %14s %14s%n", "function", "calls", "inclusive ms", "exclusive ms"));
+        for(Entry entry : getFunctions()) {
+            output.append(String.format("%-60s %10d %14.3f %14.3f%n", entry.getName(), entry.getCount(), entry.getInclusiveNanos() / 1e6, entry.getExclusiveNanos() / 1e6));
+        }
+        output.append(String.format("%n%-60s %10s %14s %14s%n", "line", "hits", "inclusive ms", "exclusive ms"));
+        for(Entry entry : getLines()) {
+            output.append(String.format("%-60s %10d %14.3f %14.3f%n", entry.getName(), entry.getCount(), entry.getInclusiveNanos() / 1e6, entry.getExclusiveNanos() / 1e6));
+        }
+        output.append(String.format("%n%-60s %10s%n", "loop", "iterations"));
+        for(Entry entry : getLoops()) {
+            output.append(String.format("%-60s %10d%n", entry.getName(), entry.getCount()));
+        }
+    }
+
+    /**
+     * Writes the call tree as collapsed stacks: one line per call path, with
+     * the function names separated by semicolons followed by the exclusive
+     * time of that path in microseconds. Paths with the same functions
+     * collected on different threads are merged.
+     *
+     * @param output output to write to
+     * @throws IOException if the output throws
+     */
+    public static void writeCollapsedStacks(Appendable output) throws IOException {
+        String[] names = FUNCTIONS.getNames();
+        Map<String, Long> stacks = new TreeMap<>();
+        synchronized(THREADS) {
+            for(ThreadData data : THREADS) {
+                for(CallNode child : data.root.children) {
+                    child.collapse(names, "", stacks);
+                }
+            }
+        }
+        for(Map.Entry<String, Long> stack : stacks.entrySet()) {
+            // round up, so short paths still show up
+            long micros = (stack.getValue() + 999) / 1000;
+            if(micros > 0)
+                output.append(stack.getKey()).append(' ').append(Long.toString(micros)).append('\n');
+        }
+    }
+
+    private static List<Entry> collect(Registry registry, Function<ThreadData, Stats> selector) {
+        String[] names = registry.getNames();
+        long[] count = new long[names.length];
+        long[] inclusive = new long[names.length];
+        long[] exclusive = new long[names.length];
+        synchronized(THREADS) {
+            for(ThreadData data : THREADS) {
+                Stats stats = selector.apply(data);
+                for(int i = 0; i < Math.min(names.length, stats.count.length); i++) {
+                    count[i] += stats.count[i];
+                    inclusive[i] += stats.inclusive[i];
+                    exclusive[i] += stats.exclusive[i];
+                }
+            }
+        }
+
+        List<Entry> result = new ArrayList<>();
+        for(int i = 0; i < names.length; i++) {
+            if(count[i] > 0)
+                result.add(new Entry(names[i], count[i], inclusive[i], exclusive[i]));
+        }
+        result.sort((a, b) -> a.exclusiveNanos != b.exclusiveNanos ? Long.compare(b.exclusiveNanos, a.exclusiveNanos) : Long.compare(b.count, a.count));
+        return result;
+    }
+
+    /**
+     * Statistics of a single function, line or loop.
+     */
+    public static final class Entry {
+
+        private final String name;
+        private final long count;
+        private final long inclusiveNanos;
+        private final long exclusiveNanos;
+
+        private Entry(String name, long count, long inclusiveNanos, long exclusiveNanos) {
+            this.name = name;
+            this.count = count;
+            this.inclusiveNanos = inclusiveNanos;
+            this.exclusiveNanos = exclusiveNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the number of calls, executions or iterations.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        public long getInclusiveNanos() {
+            return inclusiveNanos;
+        }
+
+        public long getExclusiveNanos() {
+            return exclusiveNanos;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + count;
+        }
+    }
+
+    // ######################
+    // ### Implementation ###
+    // ######################
+
+    private static final class Registry {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        synchronized int register(String name) {
+            Integer id = ids.get(name);
+            if(id == null) {
+                id = names.size();
+                ids.put(name, id);
+                names.add(name);
+            }
+            return id;
+        }
+
+        synchronized String[] getNames() {
+            return names.toArray(new String[names.size()]);
+        }
+    }
+
+    private static final class Stats {
+
+        private long[] count = new long[16];
+        private long[] inclusive = new long[16];
+        private long[] exclusive = new long[16];
+
+        void ensure(int id) {
+            if(id >= count.length) {
+                int size = Math.max(id + 1, count.length * 2);
+                count = Arrays.copyOf(count, size);
+                inclusive = Arrays.copyOf(inclusive, size);
+                exclusive = Arrays.copyOf(exclusive, size);
+            }
+        }
+
+        void reset() {
+            Arrays.fill(count, 0);
+            Arrays.fill(inclusive, 0);
+            Arrays.fill(exclusive, 0);
+        }
+    }
+
+    private static final class CallNode {
+
+        private final int function;
+        private CallNode[] children = new CallNode[0];
+        private long exclusive;
+
+        CallNode(int function) {
+            this.function = function;
+        }
+
+        CallNode getChild(int function) {
+            for(CallNode child : children) {
+                if(child.function == function)
+                    return child;
+            }
+            CallNode child = new CallNode(function);
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = child;
+            return child;
+        }
+
+        void collapse(String[] names, String prefix, Map<String, Long> stacks) {
+            String path = prefix + names[function];
+            stacks.merge(path, exclusive, Long::sum);
+            for(CallNode child : children) {
+                child.collapse(names, path + ";", stacks);
+            }
+        }
+    }
+
+    private static final class Frame {
+
+        private int function;
+        private CallNode node;
+        private long start;
+        private long children;
+        private int line;
+        private long lineStart;
+        private long lineChildren;
+    }
+
+    private static final class ThreadData {
+
+        private final WeakReference<Thread> thread = new WeakReference<>(Thread.currentThread());
+        private final Stats functions = new Stats();
+        private final Stats lines = new Stats();
+        private final Stats loops = new Stats();
+        private int[] active = new int[16];
+        private CallNode root = new CallNode(-1);
+        private Frame[] stack = new Frame[16];
+        private int depth = 0;
+
+        void enter(int function, long now) {
+            if(depth == stack.length)
+                stack = Arrays.copyOf(stack, depth * 2);
+            if(stack[depth] == null)
+                stack[depth] = new Frame();
+
+            Frame frame = stack[depth];
+            frame.function = function;
+            frame.node = (depth == 0 ? root : stack[depth - 1].node).getChild(function);
+            frame.start = now;
+            frame.children = 0;
+            frame.line = -1;
+            depth++;
+
+            functions.ensure(function);
+            functions.count[function]++;
+            if(function >= active.length)
+                active = Arrays.copyOf(active, Math.max(function + 1, active.length * 2));
+            active[function]++;
+        }
+
+        void exit(long now) {
+            if(depth == 0)
+                return;
+
+            Frame frame = stack[--depth];
+            endLine(frame, now);
+
+            long inclusive = now - frame.start;
+            long exclusive = inclusive - frame.children;
+            functions.exclusive[frame.function] += exclusive;
+            if(--active[frame.function] == 0)
+                functions.inclusive[frame.function] += inclusive;
+            frame.node.exclusive += exclusive;
+
+            if(depth > 0) {
+                Frame parent = stack[depth - 1];
+                parent.children += inclusive;
+                parent.lineChildren += inclusive;
+            }
+        }
+
+        void line(int line, long now) {
+            if(depth == 0)
+                return;
+
+            Frame frame = stack[depth - 1];
+            endLine(frame, now);
+            frame.line = line;
+            frame.lineStart = now;
+            frame.lineChildren = 0;
+
+            lines.ensure(line);
+            lines.count[line]++;
+        }
+
+        void backEdge(int loop) {
+            loops.ensure(loop);
+            loops.count[loop]++;
+        }
+
+        private void endLine(Frame frame, long now) {
+            if(frame.line < 0)
+                return;
+
+            long inclusive = now - frame.lineStart;
+            lines.inclusive[frame.line] += inclusive;
+            lines.exclusive[frame.line] += inclusive - frame.lineChildren;
+        }
+
+        boolean isAlive() {
+            Thread owner = thread.get();
+            return owner != null && owner.isAlive();
+        }
+
+        void reset() {
+            functions.reset();
+            lines.reset();
+            loops.reset();
+            root = new CallNode(-1);
+        }
+    }
+}
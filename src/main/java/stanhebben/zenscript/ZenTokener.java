@@ -3,7 +3,7 @@ package stanhebben.zenscript;
 import stanhebben.zenscript.parser.*;
 
 import java.io.*;
-import java.util.HashMap;
+import java.util.*;
 
 /**
  * A tokener is capable of splitting a single file into tokens. It's intended
@@ -184,6 +184,73 @@ public class ZenTokener extends TokenStream {
         return environment;
     }
     
+    /**
+     * Collects the distinct brackets in the given script, so they can be
+     * resolved in a batch (see IZenRegistry.resolveBrackets) before the
+     * script is parsed.
+     * <p>
+     * A less than sign starts a bracket unless it follows a token that can
+     * end an expression, so the odd comparison may be collected as well.
+     * Resolving those does no harm, since brackets that don't resolve aren't
+     * reported until the script is parsed. Collection stops at the first
+     * invalid token.
+     *
+     * @param contents script contents
+     *
+     * @return bracket tokens, without the angle brackets
+     *
+     * @throws IOException shouldn't happen
+     */
+    public static List<List<Token>> findBrackets(String contents) throws IOException {
+        Map<String, List<Token>> result = new LinkedHashMap<>();
+        try {
+            ZenTokener tokener = new ZenTokener(contents, null, "", true);
+            int previous = -1;
+            while(tokener.hasNext()) {
+                Token token = tokener.next();
+                if(token.getType() == T_LT && !endsExpression(previous)) {
+                    List<Token> bracket = new ArrayList<>();
+                    StringBuilder key = new StringBuilder();
+                    while(tokener.hasNext() && !tokener.isNext(T_GT) && !tokener.isNext(T_SEMICOLON)) {
+                        Token next = tokener.next();
+                        bracket.add(next);
+                        key.append(next.getValue()).append(' ');
+                    }
+                    if(tokener.optional(T_GT) == null) {
+                        previous = -1;
+                        continue;
+                    }
+                    if(!bracket.isEmpty())
+                        result.putIfAbsent(key.toString(), bracket);
+                    previous = T_GT;
+                } else {
+                    previous = token.getType();
+                }
+            }
+        } catch(TokenException ex) {
+            // invalid tokens are reported when the script is parsed
+        }
+        return new ArrayList<>(result.values());
+    }
+    
+    private static boolean endsExpression(int type) {
+        switch(type) {
+            case T_ID:
+            case T_INTVALUE:
+            case T_FLOATVALUE:
+            case T_STRINGVALUE:
+            case T_BRCLOSE:
+            case T_SQBRCLOSE:
+            case T_GT:
+            case T_NULL:
+            case T_TRUE:
+            case T_FALSE:
+                return true;
+            default:
+                return false;
+        }
+    }
+    
     // ##################################
     // ### TokenStream implementation ###
     // ##################################
@@ -0,0 +1,15 @@
+package stanhebben.zenscript.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a native method, constructor, field or class as safe to use from
+ * scripts running in parallel (see ZenModule.getMain(Executor)). Scripts
+ * that use natives without this annotation are run in their original
+ * order.
+ *
+ * @author Stan Hebben
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD, ElementType.CONSTRUCTOR, ElementType.FIELD})
+public @interface ZenThreadSafe {}
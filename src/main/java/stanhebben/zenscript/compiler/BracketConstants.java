@@ -0,0 +1,178 @@
+package stanhebben.zenscript.compiler;
+
+import org.objectweb.asm.*;
+import stanhebben.zenscript.expression.*;
+import stanhebben.zenscript.symbols.IZenSymbol;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.util.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static stanhebben.zenscript.util.ZenTypeUtil.internal;
+
+/**
+ * Collects the stable brackets of a module (see IZenSymbol.isStable) into
+ * static final fields. Every bracket gets a holder class of its own, which is
+ * initialized, and the bracket evaluated, the first time the bracket is read.
+ * So every distinct bracket is evaluated once per module, every use of it
+ * compiles to a single getstatic, and a bracket that fails to evaluate only
+ * fails the code that reads it.
+ * <p>
+ * Brackets are only added once code reading them is compiled, so brackets
+ * in code that never ends up in the module (such as a dead branch, see
+ * EnvironmentDiscarded) are never evaluated.
+ * <p>
+ * Constant array literals that are only used for in / has checks are stored
+ * as sets in holders of their own (see ExpressionArray.toLookupSet).
+ * <p>
+ * The holder classes are written by ZenModule.compileScripts once all scripts
+ * of the module are compiled.
+ * <p>
+ * Bracket symbols resolved for the module are cached here as well (see
+ * GenericRegistry.resolveBracket).
+ */
+public class BracketConstants {
+    
+    public static final String BRACKETS = "Brackets";
+    public static final String LOOKUP_SETS = "LookupSets";
+    
+    /**
+     * Name of the field that holder classes store their constant in.
+     */
+    public static final String FIELD = "value";
+    
+    private final Map<String, Map<String, Constant>> constants = new LinkedHashMap<>();
+    private final Map<String, IZenSymbol> resolved;
+    
+    public BracketConstants() {
+        this(new ConcurrentHashMap<>());
+    }
+    
+    private BracketConstants(Map<String, IZenSymbol> resolved) {
+        this.resolved = resolved;
+    }
+    
+    /**
+     * Creates constants for code that is only checked, not written. They
+     * share the resolved brackets of these constants, but the brackets they
+     * collect are never written.
+     *
+     * @return discarded constants
+     */
+    public BracketConstants discarded() {
+        return new BracketConstants(resolved);
+    }
+    
+    /**
+     * Gets the bracket symbols resolved for this module. Symbols may keep the
+     * environment they were resolved in, so they are only reused within the
+     * module.
+     *
+     * @return resolved symbols, by key
+     */
+    public Map<String, IZenSymbol> getResolvedBrackets() {
+        return resolved;
+    }
+    
+    /**
+     * Gets the constant for the given bracket. It's added once the returned
+     * expression is compiled.
+     *
+     * @param position position of this use of the bracket
+     * @param key      bracket tokens, separated by spaces
+     * @param value    evaluated bracket
+     *
+     * @return expression reading the constant, or value if it can't be stored in a constant
+     */
+    public Expression get(ZenPosition position, String key, Expression value) {
+        return get(position, BRACKETS, key, value);
+    }
+    
+    /**
+     * Gets the constant for the given lookup set. It's added once the
+     * returned expression is compiled.
+     *
+     * @param position position of this use of the set
+     * @param key      set type and values
+     * @param value    set literal
+     *
+     * @return expression reading the constant
+     */
+    public Expression getLookupSet(ZenPosition position, String key, Expression value) {
+        return get(position, LOOKUP_SETS, key, value);
+    }
+    
+    private static Expression get(ZenPosition position, String kind, String key, Expression value) {
+        ZenType type = value.getType();
+        if(type == null || type == ZenType.VOID || value instanceof ExpressionInvalid)
+            return value;
+        
+        return new ExpressionBracketConstant(position, kind, key, value);
+    }
+    
+    /**
+     * Adds a constant, if it's new, and gets the holder class it is stored
+     * in. The value is read from its FIELD.
+     *
+     * @param environment compile environment
+     * @param kind        kind of constant, BRACKETS or LOOKUP_SETS
+     * @param key         constant key
+     * @param value       constant value
+     *
+     * @return internal name of the holder class
+     */
+    public String add(IEnvironmentGlobal environment, String kind, String key, Expression value) {
+        Map<String, Constant> byKey = constants.computeIfAbsent(kind, k -> new LinkedHashMap<>());
+        Constant constant = byKey.get(key);
+        if(constant == null) {
+            constant = new Constant(environment.makeClassNameWithMiddleName(kind), value);
+            byKey.put(key, constant);
+        }
+        return constant.className;
+    }
+    
+    /**
+     * Writes the holder classes for the constants added so far and starts
+     * collecting constants for new holders.
+     *
+     * @param environment environment to write the classes to
+     */
+    public void writeClass(IEnvironmentGlobal environment) {
+        for(Map<String, Constant> byKey : constants.values()) {
+            for(Constant constant : byKey.values())
+                constant.writeClass(environment);
+        }
+        constants.clear();
+    }
+    
+    private static final class Constant {
+        
+        private final String className;
+        private final Expression value;
+        
+        Constant(String className, Expression value) {
+            this.className = className;
+            this.value = value;
+        }
+        
+        void writeClass(IEnvironmentGlobal environment) {
+            ClassWriter cls = new ZenClassWriter(ClassWriter.COMPUTE_FRAMES);
+            cls.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, className, null, internal(Object.class), null);
+            
+            String descriptor = value.getType().toASMType().getDescriptor();
+            cls.visitField(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL, FIELD, descriptor, null, null).visitEnd();
+            
+            MethodOutput clinit = new MethodOutput(cls, Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
+            EnvironmentMethod clinitEnvironment = new EnvironmentMethod(clinit, new EnvironmentClass(cls, environment));
+            clinit.start();
+            value.compile(true, clinitEnvironment);
+            clinit.putStaticField(className, FIELD, descriptor);
+            clinit.ret();
+            clinit.end();
+            
+            cls.visitEnd();
+            environment.putClass(className, cls.toByteArray());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package stanhebben.zenscript.compiler;
 
 import org.objectweb.asm.ClassVisitor;
 import stanhebben.zenscript.*;
+import stanhebben.zenscript.diagnostics.*;
 import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.symbols.IZenSymbol;
 import stanhebben.zenscript.type.ZenType;
@@ -55,6 +56,11 @@ public class EnvironmentClass implements IEnvironmentClass {
         return global.makeClassNameWithMiddleName(middleName);
     }
     
+    @Override
+    public BracketConstants getBracketConstants() {
+        return global.getBracketConstants();
+    }
+    
     @Override
     public boolean containsClass(String name) {
         return global.containsClass(name);
@@ -77,7 +83,7 @@ public class EnvironmentClass implements IEnvironmentClass {
     @Override
     public void putValue(String name, IZenSymbol value, ZenPosition position) {
         if(local.containsKey(name)) {
-            error(position, "Value already defined in this scope: " + name);
+            report(Diagnostic.error(position, DiagnosticCode.VALUE_ALREADY_DEFINED, name));
         } else {
             local.put(name, value);
         }
@@ -93,6 +99,11 @@ public class EnvironmentClass implements IEnvironmentClass {
         global.warning(position, message);
     }
     
+    @Override
+    public void report(Diagnostic diagnostic) {
+        global.report(diagnostic);
+    }
+    
     @Override
     public void info(ZenPosition position, String message) {
         global.info(position, message);
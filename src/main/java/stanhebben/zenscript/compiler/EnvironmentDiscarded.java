@@ -0,0 +1,78 @@
+package stanhebben.zenscript.compiler;
+
+import org.objectweb.asm.*;
+import org.objectweb.asm.commons.LocalVariablesSorter;
+import stanhebben.zenscript.symbols.SymbolLocal;
+import stanhebben.zenscript.util.MethodOutput;
+
+import java.util.*;
+
+/**
+ * Scope whose code is written to a throwaway method. Code that can never run
+ * (such as the dead branch of an if with a constant condition) is compiled
+ * in it, so it's still checked and its errors are reported, but none of its
+ * bytecode ends up in the class. Fields, methods and classes it generates
+ * (for instance for lambdas) are thrown away as well, and so are the stable
+ * brackets it reads, so they're never evaluated.
+ */
+public class EnvironmentDiscarded extends EnvironmentScope {
+
+    private static final ClassVisitor CLASS_OUTPUT = new ClassVisitor(Opcodes.ASM5) {
+        @Override
+        public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+            return new FieldVisitor(Opcodes.ASM5) {};
+        }
+        
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+            return new MethodVisitor(Opcodes.ASM5) {};
+        }
+    };
+
+    private final MethodOutput output = new MethodOutput(new LocalVariablesSorter(Opcodes.ACC_STATIC, "()V", new MethodVisitor(Opcodes.ASM5) {}));
+    private final Map<SymbolLocal, Integer> locals = new HashMap<>();
+    private final Map<String, byte[]> classes = new HashMap<>();
+    private final BracketConstants brackets;
+
+    public EnvironmentDiscarded(IEnvironmentMethod outer) {
+        super(outer);
+        
+        BracketConstants outerBrackets = outer.getBracketConstants();
+        brackets = outerBrackets == null ? null : outerBrackets.discarded();
+    }
+
+    @Override
+    public MethodOutput getOutput() {
+        return output;
+    }
+
+    @Override
+    public int getLocal(SymbolLocal variable) {
+        return locals.computeIfAbsent(variable, key -> output.local(key.getType().toASMType()));
+    }
+
+    @Override
+    public ClassVisitor getClassOutput() {
+        return CLASS_OUTPUT;
+    }
+
+    @Override
+    public void putClass(String name, byte[] data) {
+        classes.put(name, data);
+    }
+
+    @Override
+    public boolean containsClass(String name) {
+        return classes.containsKey(name) || super.containsClass(name);
+    }
+
+    @Override
+    public byte[] getClass(String name) {
+        return classes.containsKey(name) ? classes.get(name) : super.getClass(name);
+    }
+
+    @Override
+    public BracketConstants getBracketConstants() {
+        return brackets;
+    }
+}
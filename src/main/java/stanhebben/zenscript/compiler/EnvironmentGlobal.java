@@ -1,6 +1,7 @@
 package stanhebben.zenscript.compiler;
 
 import stanhebben.zenscript.*;
+import stanhebben.zenscript.diagnostics.*;
 import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.symbols.IZenSymbol;
 import stanhebben.zenscript.type.ZenType;
@@ -16,14 +17,17 @@ public class EnvironmentGlobal implements IEnvironmentGlobal {
     
     private final IZenCompileEnvironment environment;
     private final IZenErrorLogger errors;
+    private final DiagnosticCollector diagnostics;
     private final Map<String, byte[]> classes;
     private final Map<String, IZenSymbol> local;
     private final ClassNameGenerator nameGen;
     private final TypeRegistry types;
+    private final BracketConstants brackets = new BracketConstants();
     
     public EnvironmentGlobal(IZenCompileEnvironment environment, Map<String, byte[]> classes, ClassNameGenerator nameGen) {
         this.environment = environment;
         this.errors = environment.getErrorLogger();
+        this.diagnostics = new DiagnosticCollector(errors, ZenModule.maxDiagnosticsPerFile);
         this.classes = classes;
         this.nameGen = nameGen;
         this.types = environment.getTypeRegistry();
@@ -34,6 +38,15 @@ public class EnvironmentGlobal implements IEnvironmentGlobal {
         return environment;
     }
     
+    /**
+     * Gets the diagnostics collected while compiling in this environment.
+     *
+     * @return diagnostic collector
+     */
+    public DiagnosticCollector getDiagnostics() {
+        return diagnostics;
+    }
+    
     @Override
     public ZenType getType(Type type) {
         return types.getType(type);
@@ -59,6 +72,11 @@ public class EnvironmentGlobal implements IEnvironmentGlobal {
         return nameGen.generateWithMiddleName(middleName);
     }
     
+    @Override
+    public BracketConstants getBracketConstants() {
+        return brackets;
+    }
+    
     @Override
     public TypeExpansion getExpansion(String type) {
         return environment.getExpansion(type);
@@ -66,17 +84,22 @@ public class EnvironmentGlobal implements IEnvironmentGlobal {
     
     @Override
     public void error(ZenPosition position, String message) {
-        errors.error(position, message);
+        diagnostics.report(Diagnostic.error(position, DiagnosticCode.MESSAGE, message));
     }
     
     @Override
     public void warning(ZenPosition position, String message) {
-        errors.warning(position, message);
+        diagnostics.report(Diagnostic.warning(position, DiagnosticCode.MESSAGE, message));
     }
     
     @Override
     public void info(ZenPosition position, String message) {
-        errors.info(position, message);
+        diagnostics.report(Diagnostic.info(position, DiagnosticCode.MESSAGE, message));
+    }
+    
+    @Override
+    public void report(Diagnostic diagnostic) {
+        diagnostics.report(diagnostic);
     }
     
     @Override
@@ -97,7 +120,7 @@ public class EnvironmentGlobal implements IEnvironmentGlobal {
     @Override
     public void putValue(String name, IZenSymbol value, ZenPosition position) {
         if(local.containsKey(name)) {
-            error(position, "Value already defined in this scope: " + name);
+            report(Diagnostic.error(position, DiagnosticCode.VALUE_ALREADY_DEFINED, name));
         } else {
             local.put(name, value);
         }
@@ -2,6 +2,7 @@ package stanhebben.zenscript.compiler;
 
 import org.objectweb.asm.ClassVisitor;
 import stanhebben.zenscript.*;
+import stanhebben.zenscript.diagnostics.*;
 import stanhebben.zenscript.expression.*;
 import stanhebben.zenscript.expression.partial.*;
 import stanhebben.zenscript.symbols.*;
@@ -25,7 +26,7 @@ public class EnvironmentMethod implements IEnvironmentMethod {
         this.output = output;
         this.locals = new HashMap<>();
         this.environment = environment;
-        this.local = new HashMap<>();
+        this.local = new LinkedHashMap<>();
     }
     
     @Override
@@ -46,6 +47,27 @@ public class EnvironmentMethod implements IEnvironmentMethod {
         return locals.get(variable);
     }
     
+    /**
+     * Gets the local variables declared directly in this method (not in a
+     * nested scope), in declaration order.
+     */
+    public Map<String, SymbolLocal> getDeclaredLocals() {
+        Map<String, SymbolLocal> result = new LinkedHashMap<>();
+        for(Map.Entry<String, IZenSymbol> entry : local.entrySet()) {
+            if(entry.getValue() instanceof SymbolLocal)
+                result.put(entry.getKey(), (SymbolLocal) entry.getValue());
+        }
+        return result;
+    }
+    
+    /**
+     * Declares a local variable that is stored in the given (argument) slot.
+     */
+    public void putLocal(String name, SymbolLocal variable, int index, ZenPosition position) {
+        putValue(name, variable, position);
+        locals.put(variable, index);
+    }
+    
     @Override
     public ZenType getType(Type type) {
         return environment.getType(type);
@@ -61,6 +83,11 @@ public class EnvironmentMethod implements IEnvironmentMethod {
         environment.warning(position, message);
     }
     
+    @Override
+    public void report(Diagnostic diagnostic) {
+        environment.report(diagnostic);
+    }
+    
     @Override
     public void info(ZenPosition position, String message) {
         environment.info(position, message);
@@ -86,6 +113,11 @@ public class EnvironmentMethod implements IEnvironmentMethod {
         return environment.makeClassNameWithMiddleName(middleName);
     }
     
+    @Override
+    public BracketConstants getBracketConstants() {
+        return environment.getBracketConstants();
+    }
+    
     @Override
     public void putClass(String name, byte[] data) {
         environment.putClass(name, data);
@@ -108,7 +140,7 @@ public class EnvironmentMethod implements IEnvironmentMethod {
     @Override
     public void putValue(String name, IZenSymbol value, ZenPosition position) {
         if(local.containsKey(name)) {
-            error(position, "Value already defined in this scope: " + name);
+            report(Diagnostic.error(position, DiagnosticCode.VALUE_ALREADY_DEFINED, name));
         } else {
             local.put(name, value);
         }
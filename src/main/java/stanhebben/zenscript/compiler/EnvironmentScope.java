@@ -2,6 +2,7 @@ package stanhebben.zenscript.compiler;
 
 import org.objectweb.asm.ClassVisitor;
 import stanhebben.zenscript.*;
+import stanhebben.zenscript.diagnostics.*;
 import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.symbols.*;
 import stanhebben.zenscript.type.ZenType;
@@ -69,6 +70,11 @@ public class EnvironmentScope implements IEnvironmentMethod {
         return outer.makeClassNameWithMiddleName(middleName);
     }
     
+    @Override
+    public BracketConstants getBracketConstants() {
+        return outer.getBracketConstants();
+    }
+    
     @Override
     public boolean containsClass(String name) {
         return outer.containsClass(name);
@@ -91,7 +97,7 @@ public class EnvironmentScope implements IEnvironmentMethod {
     @Override
     public void putValue(String name, IZenSymbol value, ZenPosition position) {
         if(local.containsKey(name)) {
-            error(position, "Value already defined in this scope: " + name);
+            report(Diagnostic.error(position, DiagnosticCode.VALUE_ALREADY_DEFINED, name));
         } else {
             local.put(name, value);
         }
@@ -107,6 +113,11 @@ public class EnvironmentScope implements IEnvironmentMethod {
         outer.warning(position, message);
     }
     
+    @Override
+    public void report(Diagnostic diagnostic) {
+        outer.report(diagnostic);
+    }
+    
     @Override
     public void info(ZenPosition position, String message) {
         outer.info(position, message);
@@ -1,6 +1,7 @@
 package stanhebben.zenscript.compiler;
 
 import stanhebben.zenscript.*;
+import stanhebben.zenscript.diagnostics.*;
 import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.symbols.IZenSymbol;
 import stanhebben.zenscript.type.ZenType;
@@ -42,6 +43,11 @@ public class EnvironmentScript implements IEnvironmentGlobal {
         return parent.makeClassNameWithMiddleName(middleName);
     }
     
+    @Override
+    public BracketConstants getBracketConstants() {
+        return parent.getBracketConstants();
+    }
+    
     @Override
     public boolean containsClass(String name) {
         return parent.containsClass(name);
@@ -70,7 +76,7 @@ public class EnvironmentScript implements IEnvironmentGlobal {
             throw new IllegalArgumentException("value cannot be null");
         
         if(imports.containsKey(name)) {
-            error(position, "Value already defined in this scope: " + name);
+            report(Diagnostic.error(position, DiagnosticCode.VALUE_ALREADY_DEFINED, name));
         } else {
             imports.put(name, value);
         }
@@ -91,6 +97,11 @@ public class EnvironmentScript implements IEnvironmentGlobal {
         parent.warning(position, message);
     }
     
+    @Override
+    public void report(Diagnostic diagnostic) {
+        parent.report(diagnostic);
+    }
+    
     @Override
     public void info(ZenPosition position, String message) {
         parent.info(position, message);
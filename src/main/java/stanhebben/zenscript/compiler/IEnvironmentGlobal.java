@@ -31,4 +31,14 @@ public interface IEnvironmentGlobal extends ITypeRegistry, IZenErrorLogger {
     IPartialExpression getValue(String name, ZenPosition position);
     
     void putValue(String name, IZenSymbol value, ZenPosition position);
+    
+    /**
+     * Gets the stable brackets of the module being compiled, or null if
+     * stable brackets are compiled like any other bracket.
+     *
+     * @return bracket constants, or null
+     */
+    default BracketConstants getBracketConstants() {
+        return null;
+    }
 }
@@ -0,0 +1,319 @@
+package stanhebben.zenscript.compiler;
+
+import org.objectweb.asm.*;
+import org.objectweb.asm.Type;
+import stanhebben.zenscript.annotations.ZenThreadSafe;
+
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * A conservative estimate of what the __script__ method of a script reads
+ * and writes, computed from the generated bytecode. Two scripts whose
+ * footprints don't conflict can be run in parallel.
+ * <p>
+ * Starting from __script__ and the static initializer of the script class,
+ * the analysis follows every method called in a generated class, and the
+ * static initializer of every generated class used. Lambdas and zenclasses
+ * are followed completely as soon as they are instantiated. It records:
+ * <ul>
+ * <li>static fields of generated classes that are read. Fields that hold
+ * objects other than strings and boxed values count as written, since the
+ * objects they hold may be modified</li>
+ * <li>static fields of generated classes that are written</li>
+ * <li>whether natives that aren't annotated with ZenThreadSafe are used.
+ * Scripts that use those conflict with each other</li>
+ * </ul>
+ * The Java and ZenScript runtime classes used by generated code are
+ * considered thread safe. For java.util those are only the collection types
+ * generated code creates and calls on its own instances; any other native,
+ * such as Random or Collections, has to be annotated. Classes that can't be analyzed or loaded count as
+ * unsafe natives.
+ */
+public class ScriptFootprint {
+    
+    private static final String[] SAFE_CLASSES = {"java/lang/Object", "java/lang/String", "java/lang/StringBuilder", "java/lang/Math", "java/lang/Boolean", "java/lang/Byte", "java/lang/Short", "java/lang/Character", "java/lang/Integer", "java/lang/Long", "java/lang/Float", "java/lang/Double", "java/lang/Number", "java/lang/Iterable", "java/lang/Runnable", "stanhebben/zenscript/ZenProfiler", "stanhebben/zenscript/ZenBudget", "stanhebben/zenscript/ZenRuntimeException", "stanhebben/zenscript/ZenBudgetExceededException", "java/util/Collection", "java/util/List", "java/util/Set", "java/util/Map", "java/util/Map$Entry", "java/util/Iterator", "java/util/ArrayList", "java/util/HashSet", "java/util/HashMap", "stanhebben/zenscript/util/ArrayUtil", "stanhebben/zenscript/util/ConstantData"};
+    private static final String[] SAFE_PACKAGES = {"stanhebben/zenscript/value/"};
+    private static final Set<String> IMMUTABLE_DESCRIPTORS = new HashSet<>(Arrays.asList("Z", "B", "S", "C", "I", "J", "F", "D", "Ljava/lang/String;", "Ljava/lang/Boolean;", "Ljava/lang/Byte;", "Ljava/lang/Short;", "Ljava/lang/Character;", "Ljava/lang/Integer;", "Ljava/lang/Long;", "Ljava/lang/Float;", "Ljava/lang/Double;"));
+    
+    private final Set<String> reads = new HashSet<>();
+    private final Set<String> writes = new HashSet<>();
+    private boolean unsafe = false;
+    
+    private ScriptFootprint() {
+    }
+    
+    public Set<String> getReads() {
+        return reads;
+    }
+    
+    public Set<String> getWrites() {
+        return writes;
+    }
+    
+    /**
+     * Indicates whether the script uses natives that aren't thread safe.
+     *
+     * @return true if the script uses unsafe natives
+     */
+    public boolean isUnsafe() {
+        return unsafe;
+    }
+    
+    /**
+     * Checks whether this script and the given one may not run in parallel.
+     *
+     * @param other other footprint
+     *
+     * @return true if the scripts conflict
+     */
+    public boolean conflicts(ScriptFootprint other) {
+        return (unsafe && other.unsafe) || intersects(writes, other.writes) || intersects(writes, other.reads) || intersects(other.writes, reads);
+    }
+    
+    private static boolean intersects(Set<String> a, Set<String> b) {
+        if(a.size() > b.size())
+            return intersects(b, a);
+        
+        for(String value : a) {
+            if(b.contains(value))
+                return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Computes the footprints of the scripts of a module. Classes and natives
+     * are only inspected once per analysis.
+     */
+    public static class Analysis {
+        
+        private final IEnvironmentGlobal environment;
+        private final ClassLoader classLoader;
+        private final Map<String, Map<String, List<Reference>>> classes = new HashMap<>();
+        private final Map<String, Boolean> natives = new HashMap<>();
+        
+        /**
+         * @param environment environment holding the generated classes
+         * @param classLoader class loader to load natives with, to check for ZenThreadSafe annotations
+         */
+        public Analysis(IEnvironmentGlobal environment, ClassLoader classLoader) {
+            this.environment = environment;
+            this.classLoader = classLoader;
+        }
+        
+        /**
+         * Computes the footprint of the __script__ method of the given script class.
+         *
+         * @param className script class name
+         *
+         * @return footprint
+         */
+        public ScriptFootprint analyze(String className) {
+            ScriptFootprint footprint = new ScriptFootprint();
+            Set<String> visited = new HashSet<>();
+            Deque<String[]> queue = new ArrayDeque<>();
+            queue.add(new String[]{className, "__script__"});
+            queue.add(new String[]{className, "<clinit>"});
+            while(!queue.isEmpty() && !footprint.unsafe) {
+                String[] method = queue.poll();
+                if(!visited.add(method[0] + "." + method[1]))
+                    continue;
+                
+                Map<String, List<Reference>> methods = getClass(method[0]);
+                if(methods == null) {
+                    footprint.unsafe = true;
+                    break;
+                }
+                
+                if(method[1].equals("*")) {
+                    for(List<Reference> references : methods.values()) {
+                        visit(footprint, references, queue);
+                    }
+                } else if(methods.containsKey(method[1])) {
+                    visit(footprint, methods.get(method[1]), queue);
+                }
+            }
+            return footprint;
+        }
+        
+        private void visit(ScriptFootprint footprint, List<Reference> references, Deque<String[]> queue) {
+            for(Reference reference : references) {
+                switch(reference.opcode) {
+                    case Opcodes.GETSTATIC:
+                    case Opcodes.PUTSTATIC:
+                        if(environment.containsClass(reference.owner)) {
+                            queue.add(new String[]{reference.owner, "<clinit>"});
+                            String field = reference.owner + "." + reference.name;
+                            if(reference.opcode == Opcodes.PUTSTATIC || !IMMUTABLE_DESCRIPTORS.contains(reference.descriptor))
+                                footprint.writes.add(field);
+                            else
+                                footprint.reads.add(field);
+                        } else if(!isSafeNative(reference)) {
+                            footprint.unsafe = true;
+                        }
+                        break;
+                    case Opcodes.NEW:
+                        // instances of generated classes may be called through interfaces, so follow all of their methods
+                        if(environment.containsClass(reference.owner)) {
+                            queue.add(new String[]{reference.owner, "<clinit>"});
+                            queue.add(new String[]{reference.owner, "*"});
+                        }
+                        break;
+                    case Opcodes.INVOKEDYNAMIC:
+                        if(!isSafeClass(reference.owner))
+                            footprint.unsafe = true;
+                        break;
+                    default:
+                        if(environment.containsClass(reference.owner)) {
+                            queue.add(new String[]{reference.owner, "<clinit>"});
+                            queue.add(new String[]{reference.owner, reference.name});
+                        } else if(!isSafeNative(reference)) {
+                            footprint.unsafe = true;
+                        }
+                }
+            }
+        }
+        
+        private Map<String, List<Reference>> getClass(String name) {
+            if(!classes.containsKey(name)) {
+                byte[] bytes = environment.getClass(name);
+                Map<String, List<Reference>> methods = null;
+                if(bytes != null) {
+                    methods = new HashMap<>();
+                    new ClassReader(bytes).accept(new ClassScanner(methods), ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+                }
+                classes.put(name, methods);
+            }
+            return classes.get(name);
+        }
+        
+        private boolean isSafeNative(Reference reference) {
+            return natives.computeIfAbsent(reference.owner + "." + reference.name + reference.descriptor, key -> checkNative(reference));
+        }
+        
+        private boolean checkNative(Reference reference) {
+            if(isSafeClass(reference.owner))
+                return true;
+            
+            try {
+                Class<?> cls = Class.forName(Type.getObjectType(reference.owner).getClassName(), false, classLoader);
+                if(cls.isAnnotationPresent(ZenThreadSafe.class))
+                    return true;
+                
+                boolean field = reference.opcode == Opcodes.GETSTATIC || reference.opcode == Opcodes.PUTSTATIC;
+                AnnotatedElement member = field ? findField(cls, reference.name) : findMethod(cls, reference.name, reference.descriptor);
+                return member != null && (member.isAnnotationPresent(ZenThreadSafe.class) || ((Member) member).getDeclaringClass().isAnnotationPresent(ZenThreadSafe.class));
+            } catch(ClassNotFoundException | LinkageError ex) {
+                // can't be loaded, so can't be checked
+                return false;
+            }
+        }
+    }
+    
+    private static boolean isSafeClass(String owner) {
+        if(owner.startsWith("["))
+            return true;
+        
+        for(String cls : SAFE_CLASSES) {
+            if(owner.equals(cls))
+                return true;
+        }
+        for(String pkg : SAFE_PACKAGES) {
+            if(owner.startsWith(pkg))
+                return true;
+        }
+        return false;
+    }
+    
+    private static AnnotatedElement findField(Class<?> cls, String name) {
+        for(Class<?> current = cls; current != null; current = current.getSuperclass()) {
+            for(Field field : current.getDeclaredFields()) {
+                if(field.getName().equals(name))
+                    return field;
+            }
+        }
+        return null;
+    }
+    
+    private static AnnotatedElement findMethod(Class<?> cls, String name, String descriptor) {
+        if(name.equals("<init>")) {
+            for(Constructor<?> constructor : cls.getDeclaredConstructors()) {
+                if(Type.getConstructorDescriptor(constructor).equals(descriptor))
+                    return constructor;
+            }
+            return null;
+        }
+        
+        Deque<Class<?>> classes = new ArrayDeque<>();
+        classes.add(cls);
+        while(!classes.isEmpty()) {
+            Class<?> current = classes.poll();
+            for(Method method : current.getDeclaredMethods()) {
+                if(method.getName().equals(name) && Type.getMethodDescriptor(method).equals(descriptor))
+                    return method;
+            }
+            if(current.getSuperclass() != null)
+                classes.add(current.getSuperclass());
+            classes.addAll(Arrays.asList(current.getInterfaces()));
+        }
+        return null;
+    }
+    
+    /**
+     * A field access, method call, instantiation or invokedynamic (with the
+     * bootstrap method owner as owner) in generated code.
+     */
+    private static final class Reference {
+        
+        private final int opcode;
+        private final String owner;
+        private final String name;
+        private final String descriptor;
+        
+        Reference(int opcode, String owner, String name, String descriptor) {
+            this.opcode = opcode;
+            this.owner = owner;
+            this.name = name;
+            this.descriptor = descriptor;
+        }
+    }
+    
+    private static final class ClassScanner extends ClassVisitor {
+        
+        private final Map<String, List<Reference>> methods;
+        
+        ClassScanner(Map<String, List<Reference>> methods) {
+            super(Opcodes.ASM5);
+            this.methods = methods;
+        }
+        
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+            List<Reference> references = methods.computeIfAbsent(name, key -> new ArrayList<>());
+            return new MethodVisitor(Opcodes.ASM5) {
+                @Override
+                public void visitFieldInsn(int opcode, String owner, String name, String desc) {
+                    if(opcode == Opcodes.GETSTATIC || opcode == Opcodes.PUTSTATIC)
+                        references.add(new Reference(opcode, owner, name, desc));
+                }
+                
+                @Override
+                public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
+                    references.add(new Reference(opcode, owner, name, desc));
+                }
+                
+                @Override
+                public void visitTypeInsn(int opcode, String type) {
+                    if(opcode == Opcodes.NEW)
+                        references.add(new Reference(opcode, type, null, null));
+                }
+                
+                @Override
+                public void visitInvokeDynamicInsn(String name, String desc, Handle bsm, Object... bsmArgs) {
+                    references.add(new Reference(Opcodes.INVOKEDYNAMIC, bsm.getOwner(), name, desc));
+                }
+            };
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.objectweb.asm.*;
 import stanhebben.zenscript.ZenTokener;
 import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.expression.Expression;
+import stanhebben.zenscript.statements.LocalTypeInference;
 import stanhebben.zenscript.statements.Statement;
 import stanhebben.zenscript.symbols.SymbolArgument;
 import stanhebben.zenscript.type.*;
@@ -88,6 +89,7 @@ public class ParsedClassConstructor {
 
 
     public void writeConstructor(IEnvironmentMethod environmentMethod) {
+        LocalTypeInference.infer(environmentMethod, statements);
         for(Statement statement : statements) {
             statement.compile(environmentMethod);
         }
@@ -33,7 +33,6 @@ public class ParsedZenClass {
     private final List<ParsedZenClassField> nonStatics = new LinkedList<>();
     private final List<ParsedZenClassMethod> methods = new LinkedList<>();
     private final Map<String, ZenNativeMember> members = new LinkedHashMap<>();
-    public Class thisClass;
     
     public ParsedZenClass(ZenPosition position, String name, String className, EnvironmentScript classEnvironment) {
         this.position = position;
@@ -111,7 +110,7 @@ public class ParsedZenClass {
     public void writeClass(IEnvironmentGlobal environmentGlobal) {
         final ClassWriter newClass = new ZenClassWriter(ClassWriter.COMPUTE_FRAMES);
         newClass.visitSource(position.getFileName(), null);
-        newClass.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC, className, null, "java/lang/Object", new String[0]);
+        newClass.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, className, null, "java/lang/Object", new String[0]);
         
         final EnvironmentClass environmentNewClass = new EnvironmentClass(newClass, classEnvironment);
         environmentNewClass.putValue("this", position1 -> new ExpressionThis(position1, type), position);
@@ -125,13 +124,7 @@ public class ParsedZenClass {
         newClass.visitEnd();
         
         //ZS ASM STUFF
-        byte[] thisClassArray = newClass.toByteArray();
-        environmentGlobal.putClass(className, thisClassArray);
-        thisClass = new ClassLoader() {
-            private Class<?> find(byte[] array) {
-                return defineClass(className, array, 0, array.length);
-            }
-        }.find(thisClassArray);
+        environmentGlobal.putClass(className, newClass.toByteArray());
     }
     
     private void visitNonStatics(ClassWriter newClass) {
@@ -90,6 +90,7 @@ public class ParsedZenClassMethod {
     public void writeAll(ClassVisitor newClass, IEnvironmentClass environmentNewClass) {
         String description = method.getSignature();
         MethodOutput methodOutput = new MethodOutput(newClass, Opcodes.ACC_PUBLIC, method.getName(), description, null, null);
+        methodOutput.instrument(className + "." + method.getName());
         IEnvironmentMethod methodEnvironment = new EnvironmentMethod(methodOutput, environmentNewClass);
         
         List<ParsedFunctionArgument> arguments = method.getArguments();
@@ -101,6 +102,7 @@ public class ParsedZenClassMethod {
         }
         methodOutput.start();
         Statement[] statements = method.getStatements();
+        LocalTypeInference.infer(methodEnvironment, Arrays.asList(statements));
         for(Statement statement : statements) {
             statement.compile(methodEnvironment);
         }
@@ -147,7 +149,7 @@ public class ParsedZenClassMethod {
             if(!accepts(arguments.length))
                 return false;
             for(int i = 0; i < arguments.length; i++) {
-                if(arguments[i].getType().toJavaClass() != method.getArgumentTypes()[i].toJavaClass())
+                if(!arguments[i].getType().toASMType().equals(method.getArgumentTypes()[i].toASMType()))
                     return false;
             }
             return true;
@@ -0,0 +1,123 @@
+package stanhebben.zenscript.diagnostics;
+
+import stanhebben.zenscript.util.ZenPosition;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * A single compiler diagnostic: a severity, a code, a position and the
+ * arguments for the message pattern of the code. The message is only
+ * formatted when it is requested, and arguments that are a Supplier are only
+ * evaluated then, so diagnostics that end up suppressed cost next to nothing.
+ */
+public final class Diagnostic {
+    
+    public enum Severity {
+        ERROR, WARNING, INFO
+    }
+    
+    private final Severity severity;
+    private final DiagnosticCode code;
+    private final ZenPosition position;
+    private final Object[] arguments;
+    private String message;
+    
+    public Diagnostic(Severity severity, DiagnosticCode code, ZenPosition position, Object... arguments) {
+        this.severity = severity;
+        this.code = code;
+        this.position = position;
+        this.arguments = arguments;
+    }
+    
+    public static Diagnostic error(ZenPosition position, DiagnosticCode code, Object... arguments) {
+        return new Diagnostic(Severity.ERROR, code, position, arguments);
+    }
+    
+    public static Diagnostic warning(ZenPosition position, DiagnosticCode code, Object... arguments) {
+        return new Diagnostic(Severity.WARNING, code, position, arguments);
+    }
+    
+    public static Diagnostic info(ZenPosition position, DiagnosticCode code, Object... arguments) {
+        return new Diagnostic(Severity.INFO, code, position, arguments);
+    }
+    
+    /**
+     * Marks an argument as lazy: it is only evaluated if the message is
+     * formatted.
+     *
+     * @param argument argument supplier
+     * @return the supplier, to pass as argument
+     */
+    public static Supplier<String> lazy(Supplier<String> argument) {
+        return argument;
+    }
+    
+    public Severity getSeverity() {
+        return severity;
+    }
+    
+    public DiagnosticCode getCode() {
+        return code;
+    }
+    
+    public ZenPosition getPosition() {
+        return position;
+    }
+    
+    /**
+     * Gets the formatted message, formatting it on first use.
+     *
+     * @return message
+     */
+    public String getMessage() {
+        if(message == null) {
+            Object[] resolved = new Object[arguments.length];
+            for(int i = 0; i < arguments.length; i++) {
+                resolved[i] = arguments[i] instanceof Supplier ? ((Supplier<?>) arguments[i]).get() : arguments[i];
+            }
+            message = code.format(resolved);
+        }
+        return message;
+    }
+    
+    /**
+     * Checks if any of the arguments is lazily evaluated.
+     *
+     * @return true if an argument is a Supplier
+     */
+    boolean hasLazyArguments() {
+        for(Object argument : arguments) {
+            if(argument instanceof Supplier)
+                return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Gets the key identical diagnostics share: severity, code, position and
+     * the arguments that aren't lazily evaluated. Diagnostics with lazy
+     * arguments and the same key are only identical if their messages are.
+     *
+     * @return key
+     */
+    List<Object> getKey() {
+        List<Object> key = new ArrayList<>(arguments.length + 5);
+        key.add(severity);
+        key.add(code);
+        if(position != null) {
+            key.add(position.getFileName());
+            key.add(position.getLine());
+            key.add(position.getLineOffset());
+        }
+        for(Object argument : arguments) {
+            key.add(argument instanceof Supplier ? null : argument);
+        }
+        return key;
+    }
+    
+    @Override
+    public String toString() {
+        return (position == null ? "system" : position.toString()) + "> [" + code.getId() + "] " + getMessage();
+    }
+}
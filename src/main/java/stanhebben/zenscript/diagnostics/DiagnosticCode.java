@@ -0,0 +1,56 @@
+package stanhebben.zenscript.diagnostics;
+
+/**
+ * Diagnostic codes. Every code has a message pattern, in which {n} is
+ * replaced with the n-th argument of the diagnostic.
+ */
+public enum DiagnosticCode {
+    /**
+     * Free-form message, as reported through IZenErrorLogger.
+     */
+    MESSAGE("ZS0000", "{0}"),
+    VALUE_ALREADY_DEFINED("ZS0001", "Value already defined in this scope: {0}"),
+    NO_SUCH_MEMBER("ZS0002", "No such member: {0}"),
+    CANNOT_CAST("ZS0003", "Cannot cast {0} to {1}"),
+    NO_MATCHING_METHOD("ZS0004", "{0}"),
+    DIAGNOSTICS_SUPPRESSED("ZS0005", "{0} more diagnostics in {1} were suppressed");
+    
+    private final String id;
+    private final String pattern;
+    
+    DiagnosticCode(String id, String pattern) {
+        this.id = id;
+        this.pattern = pattern;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getPattern() {
+        return pattern;
+    }
+    
+    /**
+     * Formats the message pattern with the given (already resolved)
+     * arguments.
+     *
+     * @param arguments arguments
+     * @return formatted message
+     */
+    public String format(Object... arguments) {
+        StringBuilder result = new StringBuilder(pattern.length() + 16);
+        for(int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            int end = c == '{' ? pattern.indexOf('}', i) : -1;
+            if(end > i + 1) {
+                int index = Integer.parseInt(pattern.substring(i + 1, end));
+                result.append(index < arguments.length ? arguments[index] : "{" + index + "}");
+                i = end;
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,128 @@
+package stanhebben.zenscript.diagnostics;
+
+import stanhebben.zenscript.IZenErrorLogger;
+
+import java.util.*;
+
+/**
+ * Collects the diagnostics of a compile and forwards them to an error
+ * logger. Identical diagnostics are only reported once, and after maxPerFile
+ * diagnostics of a severity in a file, further diagnostics of that severity
+ * in that file are only counted, so a flood of warnings never hides an
+ * error. Duplicates don't count against the limit and are never counted as
+ * suppressed. Suppressed diagnostics are only formatted when they have to be
+ * told apart from an earlier one; finish reports how many there were, as an
+ * error if errors were suppressed.
+ */
+public class DiagnosticCollector {
+    
+    private static final String SYSTEM = "<system>";
+    
+    private final IZenErrorLogger logger;
+    private final int maxPerFile;
+    private final List<Diagnostic> diagnostics = new ArrayList<>();
+    private final Map<List<Object>, List<Diagnostic>> reported = new HashMap<>();
+    private final Map<String, FileCounts> counts = new LinkedHashMap<>();
+    
+    /**
+     * Creates a collector.
+     *
+     * @param logger     logger to forward diagnostics to
+     * @param maxPerFile maximum number of diagnostics of each severity reported per file, 0 for unlimited
+     */
+    public DiagnosticCollector(IZenErrorLogger logger, int maxPerFile) {
+        this.logger = logger;
+        this.maxPerFile = maxPerFile;
+    }
+    
+    /**
+     * Reports a diagnostic, unless it was reported before or its file has
+     * reached its limit for the severity of the diagnostic.
+     *
+     * @param diagnostic diagnostic
+     * @return true if the diagnostic was reported
+     */
+    public synchronized boolean report(Diagnostic diagnostic) {
+        String file = diagnostic.getPosition() == null ? SYSTEM : diagnostic.getPosition().getFileName();
+        int severity = diagnostic.getSeverity().ordinal();
+        FileCounts count = counts.computeIfAbsent(file, key -> new FileCounts());
+        
+        // lazy arguments aren't part of the key, so only format when the rest of the key matches
+        List<Diagnostic> similar = reported.computeIfAbsent(diagnostic.getKey(), key -> new ArrayList<>());
+        for(Diagnostic other : similar) {
+            if(!diagnostic.hasLazyArguments() || other.getMessage().equals(diagnostic.getMessage()))
+                return false;
+        }
+        similar.add(diagnostic);
+        
+        if(maxPerFile > 0 && count.reported[severity] >= maxPerFile) {
+            count.suppressed[severity]++;
+            return false;
+        }
+        
+        count.reported[severity]++;
+        diagnostics.add(diagnostic);
+        if(logger != null)
+            logger.report(diagnostic);
+        return true;
+    }
+    
+    /**
+     * Gets the reported diagnostics, in the order they were reported.
+     *
+     * @return diagnostics
+     */
+    public synchronized List<Diagnostic> getDiagnostics() {
+        return new ArrayList<>(diagnostics);
+    }
+    
+    public synchronized boolean hasErrors() {
+        for(Diagnostic diagnostic : diagnostics) {
+            if(diagnostic.getSeverity() == Diagnostic.Severity.ERROR)
+                return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Gets the number of diagnostics that were suppressed because their
+     * file reached its limit.
+     *
+     * @return number of suppressed diagnostics
+     */
+    public synchronized int getSuppressedCount() {
+        int result = 0;
+        for(FileCounts count : counts.values()) {
+            for(int suppressed : count.suppressed) {
+                result += suppressed;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Reports, for every file with suppressed diagnostics, how many were
+     * suppressed: suppressed errors as an error, suppressed warnings and
+     * infos as a warning. Called when the compile finishes.
+     */
+    public synchronized void finish() {
+        for(Map.Entry<String, FileCounts> entry : counts.entrySet()) {
+            int[] suppressed = entry.getValue().suppressed;
+            int errors = suppressed[Diagnostic.Severity.ERROR.ordinal()];
+            int others = suppressed[Diagnostic.Severity.WARNING.ordinal()] + suppressed[Diagnostic.Severity.INFO.ordinal()];
+            if(logger != null) {
+                if(errors > 0)
+                    logger.report(Diagnostic.error(null, DiagnosticCode.DIAGNOSTICS_SUPPRESSED, errors, entry.getKey()));
+                if(others > 0)
+                    logger.report(Diagnostic.warning(null, DiagnosticCode.DIAGNOSTICS_SUPPRESSED, others, entry.getKey()));
+            }
+            Arrays.fill(suppressed, 0);
+        }
+    }
+    
+    private static class FileCounts {
+        
+        private final int[] reported = new int[Diagnostic.Severity.values().length];
+        private final int[] suppressed = new int[Diagnostic.Severity.values().length];
+    }
+}
@@ -0,0 +1,304 @@
+package stanhebben.zenscript.dump;
+
+import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import static stanhebben.zenscript.dump.BinaryDumpWriter.*;
+
+/**
+ * Reads binary dumps written by DumpWriter.writeBinary. Records are decoded
+ * on demand, straight from the buffer, so a dump can be memory mapped and
+ * only the records that are actually used are ever decoded. Readers may be
+ * used from multiple threads.
+ */
+public final class BinaryDumpReader {
+
+    private final ByteBuffer buffer;
+    private final int stringTable;
+    private final int index;
+    private final String[] strings;
+
+    /**
+     * Creates a reader for the given buffer. The buffer must not be modified
+     * while the reader is in use.
+     *
+     * @param buffer buffer containing the dump
+     * @throws IOException if the buffer doesn't contain a binary dump
+     */
+    public BinaryDumpReader(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+
+        int limit = this.buffer.limit();
+        if(limit < 20 || this.buffer.getInt(0) != MAGIC || this.buffer.getInt(limit - 4) != MAGIC)
+            throw new IOException("Not a binary dump");
+        if(this.buffer.getInt(4) != VERSION)
+            throw new IOException("Unsupported binary dump version " + this.buffer.getInt(4));
+
+        stringTable = this.buffer.getInt(limit - 12);
+        index = this.buffer.getInt(limit - 8);
+        strings = new String[this.buffer.getInt(stringTable)];
+    }
+
+    /**
+     * Memory maps the given file and creates a reader for it.
+     *
+     * @param file dump file
+     * @return reader
+     * @throws IOException if the file can't be mapped or doesn't contain a binary dump
+     */
+    public static BinaryDumpReader open(File file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new BinaryDumpReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Returns the number of records in the dump.
+     */
+    public int size() {
+        return buffer.getInt(index);
+    }
+
+    /**
+     * Decodes the given record.
+     *
+     * @param record record index
+     * @return decoded record
+     */
+    public JsonElement read(int record) {
+        return new Cursor(getRecordOffset(record)).readElement();
+    }
+
+    /**
+     * Writes the given record to a JSON writer, without decoding it first.
+     *
+     * @param record record index
+     * @param writer writer to write to
+     * @throws IOException if the writer throws
+     */
+    public void read(int record, JsonWriter writer) throws IOException {
+        new Cursor(getRecordOffset(record)).copy(writer);
+    }
+
+    /**
+     * Returns a string property of the given record, without decoding the
+     * rest of the record. Useful to build an index of the dump, for instance
+     * by zsPath.
+     *
+     * @param record record index
+     * @param name   property name
+     * @return property value, or null if the record isn't an object, doesn't have the property or the property isn't a string
+     */
+    public String getString(int record, String name) {
+        Cursor cursor = new Cursor(getRecordOffset(record));
+        if(cursor.readByte() != TAG_OBJECT)
+            return null;
+
+        while(cursor.readByte() == TAG_NAME) {
+            String propertyName = getString(cursor.readVarInt());
+            if(propertyName.equals(name)) {
+                return cursor.readByte() == TAG_STRING ? getString(cursor.readVarInt()) : null;
+            }
+            cursor.skip(cursor.readByte());
+        }
+        return null;
+    }
+
+    /**
+     * Writes the whole dump as a JSON array, as DumpWriter.writeJson would
+     * have.
+     *
+     * @param output output to write to
+     * @throws IOException if the output throws
+     */
+    public void writeJson(Writer output) throws IOException {
+        JsonWriter writer = new JsonWriter(output);
+        writer.beginArray();
+        for(int i = 0; i < size(); i++) {
+            read(i, writer);
+        }
+        writer.endArray();
+        writer.flush();
+    }
+
+    private int getRecordOffset(int record) {
+        if(record < 0 || record >= size())
+            throw new IndexOutOfBoundsException("No such record: " + record);
+
+        return buffer.getInt(index + 4 + record * 4);
+    }
+
+    private String getString(int id) {
+        String result = strings[id];
+        if(result == null) {
+            Cursor cursor = new Cursor(buffer.getInt(stringTable + 4 + id * 4));
+            byte[] bytes = new byte[cursor.readVarInt()];
+            for(int i = 0; i < bytes.length; i++) {
+                bytes[i] = cursor.readByte();
+            }
+            result = new String(bytes, StandardCharsets.UTF_8);
+            strings[id] = result;
+        }
+        return result;
+    }
+
+    private final class Cursor {
+
+        private int position;
+
+        Cursor(int position) {
+            this.position = position;
+        }
+
+        byte readByte() {
+            return buffer.get(position++);
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() {
+            long result = 0;
+            int shift = 0;
+            byte value;
+            do {
+                value = readByte();
+                result |= (long) (value & 0x7F) << shift;
+                shift += 7;
+            } while((value & 0x80) != 0);
+            return result;
+        }
+
+        long readLong() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        double readDouble() {
+            double result = buffer.getDouble(position);
+            position += 8;
+            return result;
+        }
+
+        JsonElement readElement() {
+            return readElement(readByte());
+        }
+
+        private JsonElement readElement(byte tag) {
+            switch(tag) {
+                case TAG_OBJECT: {
+                    JsonObject result = new JsonObject();
+                    while(readByte() == TAG_NAME) {
+                        String name = getString(readVarInt());
+                        result.add(name, readElement());
+                    }
+                    return result;
+                }
+                case TAG_ARRAY: {
+                    JsonArray result = new JsonArray();
+                    while((tag = readByte()) != TAG_END) {
+                        result.add(readElement(tag));
+                    }
+                    return result;
+                }
+                case TAG_STRING:
+                    return new JsonPrimitive(getString(readVarInt()));
+                case TAG_NULL:
+                    return JsonNull.INSTANCE;
+                case TAG_TRUE:
+                    return new JsonPrimitive(true);
+                case TAG_FALSE:
+                    return new JsonPrimitive(false);
+                case TAG_LONG:
+                    return new JsonPrimitive(readLong());
+                case TAG_DOUBLE:
+                    return new JsonPrimitive(readDouble());
+                default:
+                    throw new IllegalStateException("Invalid tag " + tag + " at " + (position - 1));
+            }
+        }
+
+        void copy(JsonWriter writer) throws IOException {
+            copy(readByte(), writer);
+        }
+
+        private void copy(byte tag, JsonWriter writer) throws IOException {
+            switch(tag) {
+                case TAG_OBJECT:
+                    writer.beginObject();
+                    while(readByte() == TAG_NAME) {
+                        writer.name(getString(readVarInt()));
+                        copy(writer);
+                    }
+                    writer.endObject();
+                    break;
+                case TAG_ARRAY:
+                    writer.beginArray();
+                    while((tag = readByte()) != TAG_END) {
+                        copy(tag, writer);
+                    }
+                    writer.endArray();
+                    break;
+                case TAG_STRING:
+                    writer.value(getString(readVarInt()));
+                    break;
+                case TAG_NULL:
+                    writer.nullValue();
+                    break;
+                case TAG_TRUE:
+                    writer.value(true);
+                    break;
+                case TAG_FALSE:
+                    writer.value(false);
+                    break;
+                case TAG_LONG:
+                    writer.value(readLong());
+                    break;
+                case TAG_DOUBLE:
+                    writer.value(readDouble());
+                    break;
+                default:
+                    throw new IllegalStateException("Invalid tag " + tag + " at " + (position - 1));
+            }
+        }
+
+        /**
+         * Skips the value with the given tag.
+         */
+        void skip(byte tag) {
+            switch(tag) {
+                case TAG_OBJECT:
+                    while(readByte() == TAG_NAME) {
+                        readVarInt();
+                        skip(readByte());
+                    }
+                    break;
+                case TAG_ARRAY:
+                    while((tag = readByte()) != TAG_END) {
+                        skip(tag);
+                    }
+                    break;
+                case TAG_STRING:
+                case TAG_LONG:
+                    readVarLong();
+                    break;
+                case TAG_DOUBLE:
+                    position += 8;
+                    break;
+                case TAG_NULL:
+                case TAG_TRUE:
+                case TAG_FALSE:
+                    break;
+                default:
+                    throw new IllegalStateException("Invalid tag " + tag + " at " + (position - 1));
+            }
+        }
+    }
+}
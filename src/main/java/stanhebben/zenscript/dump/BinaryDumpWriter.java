@@ -0,0 +1,238 @@
+package stanhebben.zenscript.dump;
+
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Writes a binary dump. Implements JsonWriter so dumpables write their binary
+ * form through the same IDumpable.write as their JSON form.
+ * <p>
+ * Layout, with all ints big endian:
+ * <pre>
+ * header:  int MAGIC, int VERSION
+ * records: one value per record
+ * strings: per string a varint length and the UTF-8 bytes
+ * table:   int string count, int offset of every string
+ * index:   int record count, int offset of every record
+ * footer:  int offset of the string table, int offset of the index, int MAGIC
+ * </pre>
+ * A value is a tag byte followed by its payload. Strings and names are stored
+ * once, in the string table, and referred to by their varint index.
+ */
+final class BinaryDumpWriter extends JsonWriter {
+
+    static final int MAGIC = 0x5A534442; // ZSDB
+    static final int VERSION = 1;
+
+    static final byte TAG_END = 0;
+    static final byte TAG_OBJECT = 1;
+    static final byte TAG_ARRAY = 2;
+    static final byte TAG_NAME = 3;
+    static final byte TAG_STRING = 4;
+    static final byte TAG_NULL = 5;
+    static final byte TAG_TRUE = 6;
+    static final byte TAG_FALSE = 7;
+    static final byte TAG_LONG = 8;
+    static final byte TAG_DOUBLE = 9;
+
+    private static final Writer UNWRITABLE_WRITER = new Writer() {
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void flush() {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void close() {
+            throw new AssertionError();
+        }
+    };
+
+    private final DataOutputStream output;
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final List<Integer> records = new ArrayList<>();
+    private boolean finished = false;
+
+    BinaryDumpWriter(OutputStream output) throws IOException {
+        super(UNWRITABLE_WRITER);
+        this.output = new DataOutputStream(new BufferedOutputStream(output));
+        this.output.writeInt(MAGIC);
+        this.output.writeInt(VERSION);
+    }
+
+    /**
+     * Starts the next record. The record consists of the next value written.
+     */
+    void beginRecord() {
+        records.add(output.size());
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException {
+        output.writeByte(TAG_ARRAY);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException {
+        output.writeByte(TAG_END);
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        output.writeByte(TAG_OBJECT);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+        output.writeByte(TAG_END);
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        if(name == null)
+            throw new NullPointerException("name == null");
+
+        output.writeByte(TAG_NAME);
+        writeVarInt(getStringId(name));
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(String value) throws IOException {
+        if(value == null)
+            return nullValue();
+
+        output.writeByte(TAG_STRING);
+        writeVarInt(getStringId(value));
+        return this;
+    }
+
+    @Override
+    public JsonWriter jsonValue(String value) throws IOException {
+        if(value == null)
+            return nullValue();
+
+        DumpWriter.GSON.toJson(new JsonParser().parse(value), this);
+        return this;
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException {
+        output.writeByte(TAG_NULL);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(boolean value) throws IOException {
+        output.writeByte(value ? TAG_TRUE : TAG_FALSE);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Boolean value) throws IOException {
+        return value == null ? nullValue() : value(value.booleanValue());
+    }
+
+    @Override
+    public JsonWriter value(double value) throws IOException {
+        output.writeByte(TAG_DOUBLE);
+        output.writeDouble(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(long value) throws IOException {
+        output.writeByte(TAG_LONG);
+        writeVarLong((value << 1) ^ (value >> 63));
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Number value) throws IOException {
+        if(value == null)
+            return nullValue();
+
+        // Gson passes parsed numbers as LazilyParsedNumber, so go by the text
+        String text = value.toString();
+        try {
+            return value(Long.parseLong(text));
+        } catch(NumberFormatException ex) {
+            return value(value.doubleValue());
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        output.flush();
+    }
+
+    /**
+     * Writes the string table, the index and the footer. Doesn't close the
+     * underlying output stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if(finished)
+            return;
+        finished = true;
+
+        int[] offsets = new int[strings.size()];
+        for(int i = 0; i < offsets.length; i++) {
+            offsets[i] = output.size();
+            byte[] bytes = strings.get(i).getBytes("UTF-8");
+            writeVarInt(bytes.length);
+            output.write(bytes);
+        }
+
+        int stringTable = output.size();
+        output.writeInt(offsets.length);
+        for(int offset : offsets) {
+            output.writeInt(offset);
+        }
+
+        int index = output.size();
+        output.writeInt(records.size());
+        for(int record : records) {
+            output.writeInt(record);
+        }
+
+        output.writeInt(stringTable);
+        output.writeInt(index);
+        output.writeInt(MAGIC);
+        output.flush();
+    }
+
+    private int getStringId(String value) {
+        Integer id = stringIds.get(value);
+        if(id == null) {
+            id = strings.size();
+            stringIds.put(value, id);
+            strings.add(value);
+        }
+        return id;
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while((value & ~0x7FL) != 0) {
+            output.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+}
@@ -0,0 +1,127 @@
+package stanhebben.zenscript.dump;
+
+import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Writes dumps without building them as a single Gson tree. Every dumpable
+ * is written with IDumpable.write, so only the dumpables currently being
+ * written are held in memory.
+ * <p>
+ * JSON dumps can be written in parallel: the dumpables are split in chunks
+ * of CHUNK_SIZE, which are written to strings on the given executor and
+ * copied to the output in order. Binary dumps are written in the format read
+ * by BinaryDumpReader.
+ */
+public final class DumpWriter {
+
+    public static final Gson GSON = new GsonBuilder().registerTypeHierarchyAdapter(IDumpable.class, GSONDumpableSerializer.INSTANCE).create();
+
+    private static final int CHUNK_SIZE = 256;
+    private static final int MAX_PENDING_CHUNKS = 16;
+
+    private DumpWriter() {
+    }
+
+    /**
+     * Writes the given dumpables as a JSON array.
+     *
+     * @param dumpables dumpables to write
+     * @param output    output to write to
+     * @throws IOException if the output throws
+     */
+    public static void writeJson(List<? extends IDumpable> dumpables, Writer output) throws IOException {
+        JsonWriter writer = new JsonWriter(output);
+        writer.beginArray();
+        for(IDumpable dumpable : dumpables) {
+            dumpable.write(writer);
+        }
+        writer.endArray();
+        writer.flush();
+    }
+
+    /**
+     * Writes the given dumpables as a JSON array, serializing chunks of them
+     * on the given executor. The output is the same as that of the
+     * sequential writeJson. Dumpables must not change while they are
+     * written.
+     *
+     * @param dumpables dumpables to write
+     * @param output    output to write to
+     * @param executor  executor to serialize chunks on
+     * @throws IOException if the output or a dumpable throws
+     */
+    public static void writeJson(List<? extends IDumpable> dumpables, Writer output, Executor executor) throws IOException {
+        JsonWriter writer = new JsonWriter(output);
+        writer.beginArray();
+
+        Deque<CompletableFuture<List<String>>> pending = new ArrayDeque<>();
+        for(int start = 0; start < dumpables.size(); start += CHUNK_SIZE) {
+            List<? extends IDumpable> chunk = dumpables.subList(start, Math.min(start + CHUNK_SIZE, dumpables.size()));
+            pending.add(CompletableFuture.supplyAsync(() -> writeChunk(chunk), executor));
+            if(pending.size() >= MAX_PENDING_CHUNKS)
+                writeValues(writer, pending.poll());
+        }
+        while(!pending.isEmpty()) {
+            writeValues(writer, pending.poll());
+        }
+
+        writer.endArray();
+        writer.flush();
+    }
+
+    /**
+     * Writes the given dumpables as a binary dump.
+     *
+     * @param dumpables dumpables to write
+     * @param output    output to write to
+     * @throws IOException if the output throws
+     */
+    public static void writeBinary(List<? extends IDumpable> dumpables, OutputStream output) throws IOException {
+        BinaryDumpWriter writer = new BinaryDumpWriter(output);
+        for(IDumpable dumpable : dumpables) {
+            writer.beginRecord();
+            dumpable.write(writer);
+        }
+        writer.close();
+    }
+
+    private static List<String> writeChunk(List<? extends IDumpable> chunk) {
+        List<String> result = new ArrayList<>(chunk.size());
+        try {
+            for(IDumpable dumpable : chunk) {
+                StringWriter output = new StringWriter();
+                JsonWriter writer = new JsonWriter(output);
+                writer.setLenient(true);
+                dumpable.write(writer);
+                result.add(output.toString());
+            }
+        } catch(IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return result;
+    }
+
+    private static void writeValues(JsonWriter writer, CompletableFuture<List<String>> chunk) throws IOException {
+        List<String> values;
+        try {
+            values = chunk.join();
+        } catch(CompletionException ex) {
+            if(ex.getCause() instanceof UncheckedIOException)
+                throw ((UncheckedIOException) ex.getCause()).getCause();
+            if(ex.getCause() instanceof RuntimeException)
+                throw (RuntimeException) ex.getCause();
+            if(ex.getCause() instanceof Error)
+                throw (Error) ex.getCause();
+            throw ex;
+        }
+
+        for(String value : values) {
+            writer.jsonValue(value);
+        }
+    }
+}
@@ -1,7 +1,21 @@
 package stanhebben.zenscript.dump;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 
 public interface IDumpable {
     default JsonElement serialize(JsonSerializationContext context) {return JsonNull.INSTANCE;}
-}
\ No newline at end of file
+
+    /**
+     * Writes the same value as serialize, without building it as a tree
+     * first. The default implementation serializes to a tree and writes that.
+     *
+     * @param writer writer to write to, either a JSON or a binary dump writer
+     * @throws IOException if the writer throws
+     */
+    default void write(JsonWriter writer) throws IOException {
+        DumpWriter.GSON.toJson(DumpWriter.GSON.toJsonTree(this, IDumpable.class), writer);
+    }
+}
@@ -1,8 +1,11 @@
 package stanhebben.zenscript.dump.types;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
 import stanhebben.zenscript.dump.*;
 
+import java.io.IOException;
+
 public class DumpClassBase implements IDumpable {
     private String classNameJava;
     private String fullPathNameJava;
@@ -41,6 +44,22 @@ public class DumpClassBase implements IDumpable {
         return obj;
     }
     
+    @Override
+    public void write(JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writeProperties(writer);
+        writer.endObject();
+    }
+    
+    /**
+     * Writes the properties of this object, in the same order as serialize
+     * adds them. Subclasses add their own after calling this method.
+     */
+    protected void writeProperties(JsonWriter writer) throws IOException {
+        writer.name("javaPath").value(getFullPathNameJava());
+        writer.name("zsPath").value(getZsAliasPath());
+    }
+    
     @Override
     public String toString() {
         return "DumpClassBase: {" + fullPathNameJava + "}";
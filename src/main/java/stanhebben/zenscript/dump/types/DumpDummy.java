@@ -1,8 +1,11 @@
 package stanhebben.zenscript.dump.types;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
 import stanhebben.zenscript.dump.IDumpable;
 
+import java.io.IOException;
+
 public class DumpDummy implements IDumpable {
     private String className;
     private String toString;
@@ -16,4 +19,9 @@ public class DumpDummy implements IDumpable {
     public JsonElement serialize(JsonSerializationContext context) {
         return new JsonPrimitive(className +  " : {" + toString + "}");
     }
+    
+    @Override
+    public void write(JsonWriter writer) throws IOException {
+        writer.value(className + " : {" + toString + "}");
+    }
 }
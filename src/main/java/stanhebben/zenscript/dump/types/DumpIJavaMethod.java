@@ -1,9 +1,12 @@
 package stanhebben.zenscript.dump.types;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
 import stanhebben.zenscript.dump.IDumpable;
 import stanhebben.zenscript.type.natives.*;
 
+import java.io.IOException;
+
 public class DumpIJavaMethod implements IDumpable {
     
     private transient IJavaMethod method;
@@ -28,6 +31,27 @@ public class DumpIJavaMethod implements IDumpable {
         return obj;
     }
     
+    @Override
+    public void write(JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writeProperties(writer);
+        writer.endObject();
+    }
+    
+    /**
+     * Writes the properties of this method, in the same order as serialize
+     * adds them, so callers can add their own before closing the object.
+     */
+    public void writeProperties(JsonWriter writer) throws IOException {
+        writer.name("static").value(method.isStatic() || staticOverride);
+        writer.name("returnClass").value(method.getReturnType().toJavaClass().getCanonicalName());
+        writer.name("name").value(method.toString());
+        
+        if (method instanceof JavaMethodGenerated) {
+            writer.name("isSynthetic").value(true);
+        }
+    }
+    
     public DumpIJavaMethod withStaticOverride(boolean override){
         staticOverride = override;
         return this;
@@ -1,8 +1,11 @@
 package stanhebben.zenscript.dump.types;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
+import stanhebben.zenscript.dump.IDumpable;
 import stanhebben.zenscript.type.natives.*;
 
+import java.io.IOException;
 import java.util.*;
 
 public class DumpZenTypeNative extends DumpZenType {
@@ -48,7 +51,7 @@ public class DumpZenTypeNative extends DumpZenType {
     
         JsonArray array = new JsonArray();
         
-        if (operatorHelper(array, unaryOperators, context) || operatorHelper(array, binaryOperators, context) || operatorHelper(array, trinaryOperators,  context))
+        if (operatorHelper(array, unaryOperators, context) | operatorHelper(array, binaryOperators, context) | operatorHelper(array, trinaryOperators,  context))
             obj.add("operators", array);
     
         return obj;
@@ -76,11 +79,72 @@ public class DumpZenTypeNative extends DumpZenType {
             for(IJavaMethod iJavaMethod : zenNativeMember.getMethods()) {
                 methodArray.add(new DumpIJavaMethod(iJavaMethod).serialize(context));
             }
+            
+            jsonMember.add("methods", methodArray);
         }
         
         memberMap.add(name, jsonMember);
     }
     
+    @Override
+    protected void writeProperties(JsonWriter writer) throws IOException {
+        super.writeProperties(writer);
+        
+        // serialize puts static members over instance members of the same name, in place
+        writer.name("members").beginObject();
+        for(Map.Entry<String, ZenNativeMember> entry : members.entrySet()) {
+            ZenNativeMember staticMember = staticMembers.get(entry.getKey());
+            writeMember(writer, entry.getKey(), staticMember == null ? entry.getValue() : staticMember, staticMember != null);
+        }
+        for(Map.Entry<String, ZenNativeMember> entry : staticMembers.entrySet()) {
+            if(!members.containsKey(entry.getKey()))
+                writeMember(writer, entry.getKey(), entry.getValue(), true);
+        }
+        writer.endObject();
+        
+        if(!casters.isEmpty()) {
+            writer.name("casters").beginArray();
+            for(ZenNativeCaster caster : casters) {
+                caster.asDumpedObject().get(0).write(writer);
+            }
+            writer.endArray();
+        }
+        
+        if(!unaryOperators.isEmpty() || !binaryOperators.isEmpty() || !trinaryOperators.isEmpty()) {
+            writer.name("operators").beginArray();
+            for(List<ZenNativeOperator> operators : Arrays.asList(unaryOperators, binaryOperators, trinaryOperators)) {
+                for(IDumpable operator : operators) {
+                    operator.write(writer);
+                }
+            }
+            writer.endArray();
+        }
+    }
+    
+    private void writeMember(JsonWriter writer, String name, ZenNativeMember zenNativeMember, boolean isStatic) throws IOException {
+        writer.name(name).beginObject();
+        
+        if(zenNativeMember.getGetter() != null) {
+            writer.name("getter");
+            new DumpIJavaMethod(zenNativeMember.getGetter()).withStaticOverride(isStatic).write(writer);
+        }
+        
+        if(zenNativeMember.getSetter() != null) {
+            writer.name("setter");
+            new DumpIJavaMethod(zenNativeMember.getSetter()).withStaticOverride(isStatic).write(writer);
+        }
+        
+        if(!zenNativeMember.getMethods().isEmpty()) {
+            writer.name("methods").beginArray();
+            for(IJavaMethod iJavaMethod : zenNativeMember.getMethods()) {
+                new DumpIJavaMethod(iJavaMethod).write(writer);
+            }
+            writer.endArray();
+        }
+        
+        writer.endObject();
+    }
+    
     private boolean operatorHelper(JsonArray obj, List<ZenNativeOperator> operators, JsonSerializationContext context) {
         if(operators.isEmpty())
             return false;
@@ -3,6 +3,7 @@ package stanhebben.zenscript.expression;
 import org.objectweb.asm.Label;
 import stanhebben.zenscript.ZenTokener;
 import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.diagnostics.*;
 import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.parser.expression.ParsedExpression;
 import stanhebben.zenscript.symbols.IZenSymbol;
@@ -31,13 +32,14 @@ public abstract class Expression implements IPartialExpression {
     
     public Expression cast(ZenPosition position, IEnvironmentGlobal environment, ZenType type) {
         if(getType().equals(type)) {
-            return this;
+            ICastingRule castingRule = type.getCastingRuleFrom(getType());
+            return castingRule == null ? this : new ExpressionAs(position, this, castingRule);
         } else if(Objects.equals(type.toJavaClass(),Object.class)) {
             
             // allows anything to cast to Object
             // This casts any primitive type to the object variation of it.
-            if (this.getType().toJavaClass().isPrimitive()){
-                Class clazz = this.getType().toJavaClass();
+            Class clazz = this.getType().toJavaClass();
+            if (clazz != null && clazz.isPrimitive()){
                 ICastingRule castingRule = null;
                 
                 // primitive int to Object
@@ -72,7 +74,7 @@ public abstract class Expression implements IPartialExpression {
                 if(getType().canCastImplicit(type, environment)) {
                     return new ExpressionAs(position, this, new CastingAnySubtype(getType(), type));
                 }
-                environment.error(position, "Cannot cast " + this.getType() + " to " + type);
+                environment.report(Diagnostic.error(position, DiagnosticCode.CANNOT_CAST, getType(), type));
                 return new ExpressionInvalid(position, type);
             } else {
                 return new ExpressionAs(position, this, castingRule);
@@ -82,6 +84,19 @@ public abstract class Expression implements IPartialExpression {
     
     public abstract void compile(boolean result, IEnvironmentMethod environment);
     
+    /**
+     * Simplifies this expression before it is compiled. Constant operands are
+     * folded into a single constant and branches that can never be taken are
+     * removed. The resulting expression must have the same type as this one.
+     *
+     * @param environment compile environment
+     *
+     * @return the simplified expression, or this expression if it cannot be simplified
+     */
+    public Expression optimize(IEnvironmentGlobal environment) {
+        return this;
+    }
+    
     public void compileIf(Label onElse, IEnvironmentMethod environment) {
         if(getType() == ZenType.BOOL) {
             compile(true, environment);
@@ -1,7 +1,7 @@
 package stanhebben.zenscript.expression;
 
 import org.objectweb.asm.Label;
-import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.*;
 
@@ -22,6 +22,27 @@ public class ExpressionAndAnd extends Expression {
         return a.getType();
     }
 
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        Expression a = this.a.optimize(environment);
+        Expression b = this.b.optimize(environment);
+        
+        // only plain bool operands can be simplified without changing the type
+        if(a.getType() == ZenType.BOOL && b.getType() == ZenType.BOOL) {
+            if(a instanceof ExpressionBool) {
+                // false && b never evaluates b, true && b is just b
+                return ((ExpressionBool) a).getValue() ? b : a;
+            }
+            if(b instanceof ExpressionBool && ((ExpressionBool) b).getValue()) {
+                return a;
+            }
+        }
+        
+        if(a == this.a && b == this.b)
+            return this;
+        return new ExpressionAndAnd(getPosition(), a, b);
+    }
+    
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         // if not a: return false
@@ -0,0 +1,76 @@
+package stanhebben.zenscript.expression;
+
+import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.util.*;
+
+import static stanhebben.zenscript.util.AnyClassWriter.*;
+
+/**
+ * Operation on an any value, compiled to an invokedynamic call site that
+ * is linked by AnyCallSites. All arguments are passed as separate any values,
+ * calls and member calls don't need an argument array.
+ */
+public class ExpressionAnyDynamic extends Expression {
+
+    private final String operation;
+    private final String member;
+    private final ZenType type;
+    private final Expression[] arguments;
+
+    /**
+     * Creates a new dynamic any operation.
+     *
+     * @param position  position in source code
+     * @param operation name of the IAny method to call
+     * @param member    member name for member operations, null otherwise
+     * @param type      result type (any, int, bool or void)
+     * @param arguments receiver and arguments, all of type any
+     */
+    public ExpressionAnyDynamic(ZenPosition position, String operation, String member, ZenType type, Expression... arguments) {
+        super(position);
+
+        this.operation = operation;
+        this.member = member;
+        this.type = type;
+        this.arguments = arguments;
+    }
+
+    @Override
+    public ZenType getType() {
+        return type;
+    }
+
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        boolean changed = false;
+        Expression[] optimized = new Expression[arguments.length];
+        for(int i = 0; i < arguments.length; i++) {
+            optimized[i] = arguments[i].optimize(environment);
+            changed |= optimized[i] != arguments[i];
+        }
+        return changed ? new ExpressionAnyDynamic(getPosition(), operation, member, type, optimized) : this;
+    }
+
+    @Override
+    public void compile(boolean result, IEnvironmentMethod environment) {
+        MethodOutput output = environment.getOutput();
+
+        StringBuilder descriptor = new StringBuilder("(");
+        for(Expression argument : arguments) {
+            argument.compile(true, environment);
+            descriptor.append(ZenType.ANY.getSignature());
+        }
+        descriptor.append(')').append(type.getSignature());
+
+        if(member == null) {
+            output.invokeDynamic(operation, descriptor.toString(), BOOTSTRAP_ANY);
+        } else {
+            output.invokeDynamic(operation, descriptor.toString(), BOOTSTRAP_ANY_MEMBER, member);
+        }
+
+        if(!result && type != ZenType.VOID) {
+            output.pop(type.isLarge());
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package stanhebben.zenscript.expression;
 
 import stanhebben.zenscript.annotations.OperatorType;
-import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.type.*;
 import stanhebben.zenscript.util.*;
 
@@ -27,6 +27,41 @@ public class ExpressionArithmeticBinary extends Expression {
         return a.getType();
     }
 
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        Expression a = this.a.optimize(environment);
+        Expression b = this.b.optimize(environment);
+        ZenType type = a.getType();
+        
+        if(type == b.getType()) {
+            if(type == ZenType.BOOL && a instanceof ExpressionBool && b instanceof ExpressionBool) {
+                Boolean folded = fold(((ExpressionBool) a).getValue(), ((ExpressionBool) b).getValue());
+                if(folded != null)
+                    return new ExpressionBool(getPosition(), folded);
+            } else if(type == ZenTypeInt.INSTANCE && a instanceof ExpressionInt && b instanceof ExpressionInt) {
+                Integer folded = fold((int) ((ExpressionInt) a).getValue(), (int) ((ExpressionInt) b).getValue());
+                if(folded != null)
+                    return new ExpressionInt(getPosition(), folded, type);
+            } else if(type == ZenTypeLong.INSTANCE && a instanceof ExpressionInt && b instanceof ExpressionInt) {
+                Long folded = fold(((ExpressionInt) a).getValue(), ((ExpressionInt) b).getValue());
+                if(folded != null)
+                    return new ExpressionInt(getPosition(), folded, type);
+            } else if(type == ZenTypeFloat.INSTANCE && a instanceof ExpressionFloat && b instanceof ExpressionFloat) {
+                Float folded = fold((float) ((ExpressionFloat) a).getValue(), (float) ((ExpressionFloat) b).getValue());
+                if(folded != null)
+                    return new ExpressionFloat(getPosition(), folded, type);
+            } else if(type == ZenTypeDouble.INSTANCE && a instanceof ExpressionFloat && b instanceof ExpressionFloat) {
+                Double folded = fold(((ExpressionFloat) a).getValue(), ((ExpressionFloat) b).getValue());
+                if(folded != null)
+                    return new ExpressionFloat(getPosition(), folded, type);
+            }
+        }
+        
+        if(a == this.a && b == this.b)
+            return this;
+        return new ExpressionArithmeticBinary(getPosition(), operator, a, b);
+    }
+    
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         if(result) {
@@ -156,4 +191,98 @@ public class ExpressionArithmeticBinary extends Expression {
             b.compile(result, environment);
         }
     }
+    
+    private Boolean fold(boolean a, boolean b) {
+        switch(operator) {
+            case AND:
+                return a & b;
+            case OR:
+                return a | b;
+            case XOR:
+                return a ^ b;
+            default:
+                return null;
+        }
+    }
+    
+    private Integer fold(int a, int b) {
+        switch(operator) {
+            case ADD:
+                return a + b;
+            case SUB:
+                return a - b;
+            case MUL:
+                return a * b;
+            case DIV:
+                // division by zero has to throw at runtime
+                return b == 0 ? null : a / b;
+            case MOD:
+                return b == 0 ? null : a % b;
+            case AND:
+                return a & b;
+            case OR:
+                return a | b;
+            case XOR:
+                return a ^ b;
+            default:
+                return null;
+        }
+    }
+    
+    private Long fold(long a, long b) {
+        switch(operator) {
+            case ADD:
+                return a + b;
+            case SUB:
+                return a - b;
+            case MUL:
+                return a * b;
+            case DIV:
+                return b == 0 ? null : a / b;
+            case MOD:
+                return b == 0 ? null : a % b;
+            case AND:
+                return a & b;
+            case OR:
+                return a | b;
+            case XOR:
+                return a ^ b;
+            default:
+                return null;
+        }
+    }
+    
+    private Float fold(float a, float b) {
+        switch(operator) {
+            case ADD:
+                return a + b;
+            case SUB:
+                return a - b;
+            case MUL:
+                return a * b;
+            case DIV:
+                return a / b;
+            case MOD:
+                return a % b;
+            default:
+                return null;
+        }
+    }
+    
+    private Double fold(double a, double b) {
+        switch(operator) {
+            case ADD:
+                return a + b;
+            case SUB:
+                return a - b;
+            case MUL:
+                return a * b;
+            case DIV:
+                return a / b;
+            case MOD:
+                return a % b;
+            default:
+                return null;
+        }
+    }
 }
@@ -2,7 +2,7 @@ package stanhebben.zenscript.expression;
 
 import org.objectweb.asm.Label;
 import stanhebben.zenscript.annotations.CompareType;
-import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.type.*;
 import stanhebben.zenscript.util.*;
 
@@ -25,6 +25,41 @@ public class ExpressionArithmeticCompare extends Expression {
         return ZenType.BOOL;
     }
 
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        Expression a = this.a.optimize(environment);
+        Expression b = this.b.optimize(environment);
+        ZenType operandType = a.getType();
+        
+        if(operandType == b.getType()) {
+            if(operandType == ZenType.BOOL && a instanceof ExpressionBool && b instanceof ExpressionBool) {
+                boolean equal = ((ExpressionBool) a).getValue() == ((ExpressionBool) b).getValue();
+                if(type == CompareType.EQ)
+                    return new ExpressionBool(getPosition(), equal);
+                else if(type == CompareType.NE)
+                    return new ExpressionBool(getPosition(), !equal);
+            } else if(operandType.getNumberType() != 0 && operandType.getNumberType() <= ZenType.NUM_LONG && a instanceof ExpressionInt && b instanceof ExpressionInt) {
+                int compareResult = Long.compare(constantValue((ExpressionInt) a), constantValue((ExpressionInt) b));
+                return new ExpressionBool(getPosition(), ExpressionCompareGeneric.evaluate(type, compareResult));
+            } else if((operandType == ZenTypeFloat.INSTANCE || operandType == ZenTypeDouble.INSTANCE) && a instanceof ExpressionFloat && b instanceof ExpressionFloat) {
+                double valueA = ((ExpressionFloat) a).getValue();
+                double valueB = ((ExpressionFloat) b).getValue();
+                if(operandType == ZenTypeFloat.INSTANCE) {
+                    valueA = (float) valueA;
+                    valueB = (float) valueB;
+                }
+                
+                // mirrors fcmpl/dcmpl: NaN compares as less than
+                int compareResult = valueA > valueB ? 1 : (valueA == valueB ? 0 : -1);
+                return new ExpressionBool(getPosition(), ExpressionCompareGeneric.evaluate(type, compareResult));
+            }
+        }
+        
+        if(a == this.a && b == this.b)
+            return this;
+        return new ExpressionArithmeticCompare(getPosition(), type, a, b);
+    }
+    
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         a.compile(result, environment);
@@ -107,4 +142,20 @@ public class ExpressionArithmeticCompare extends Expression {
             }
         }
     }
+    
+    /**
+     * Returns the value of an integer constant as it would be pushed on the stack.
+     */
+    private static long constantValue(ExpressionInt value) {
+        switch(value.getType().getNumberType()) {
+            case ZenType.NUM_BYTE:
+                return (byte) value.getValue();
+            case ZenType.NUM_SHORT:
+                return (short) value.getValue();
+            case ZenType.NUM_INT:
+                return (int) value.getValue();
+            default:
+                return value.getValue();
+        }
+    }
 }
@@ -1,7 +1,7 @@
 package stanhebben.zenscript.expression;
 
 import stanhebben.zenscript.annotations.OperatorType;
-import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.type.*;
 import stanhebben.zenscript.util.*;
 
@@ -22,6 +22,34 @@ public class ExpressionArithmeticUnary extends Expression {
         return base.getType();
     }
     
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        Expression base = this.base.optimize(environment);
+        ZenType type = base.getType();
+        
+        if(type == ZenType.BOOL && base instanceof ExpressionBool) {
+            if(operator == OperatorType.NOT)
+                return new ExpressionBool(getPosition(), !((ExpressionBool) base).getValue());
+        } else if(type == ZenTypeInt.INSTANCE && base instanceof ExpressionInt) {
+            int value = (int) ((ExpressionInt) base).getValue();
+            if(operator == OperatorType.NOT)
+                return new ExpressionInt(getPosition(), ~value, type);
+            else if(operator == OperatorType.NEG)
+                return new ExpressionInt(getPosition(), -value, type);
+        } else if(type == ZenTypeLong.INSTANCE && base instanceof ExpressionInt) {
+            long value = ((ExpressionInt) base).getValue();
+            if(operator == OperatorType.NOT)
+                return new ExpressionInt(getPosition(), ~value, type);
+            else if(operator == OperatorType.NEG)
+                return new ExpressionInt(getPosition(), -value, type);
+        } else if((type == ZenTypeFloat.INSTANCE || type == ZenTypeDouble.INSTANCE) && base instanceof ExpressionFloat) {
+            if(operator == OperatorType.NEG)
+                return new ExpressionFloat(getPosition(), -((ExpressionFloat) base).getValue(), type);
+        }
+        
+        return base == this.base ? this : new ExpressionArithmeticUnary(getPosition(), operator, base);
+    }
+    
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         base.compile(result, environment);
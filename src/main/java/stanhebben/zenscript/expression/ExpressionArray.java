@@ -2,6 +2,7 @@ package stanhebben.zenscript.expression;
 
 import org.objectweb.asm.Type;
 import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.diagnostics.*;
 import stanhebben.zenscript.type.*;
 import stanhebben.zenscript.type.casting.ICastingRule;
 import stanhebben.zenscript.util.*;
@@ -35,10 +36,17 @@ public class ExpressionArray extends Expression {
             else
                 return new ExpressionArrayList(getPosition(), (ZenTypeArrayList) arrayType, newContents);
 
+        } else if(type instanceof ZenTypeSet) {
+            ZenTypeSet setType = (ZenTypeSet) type;
+            Expression[] newContents = new Expression[contents.length];
+            for(int i = 0; i < contents.length; i++) {
+                newContents[i] = contents[i].cast(position, environment, setType.getElementType());
+            }
+            return new ExpressionSet(getPosition(), setType, newContents);
         } else {
             ICastingRule castingRule = this.type.getCastingRule(type, environment);
             if(castingRule == null) {
-                environment.error(position, "cannot cast " + this.type + " to " + type);
+                environment.report(Diagnostic.error(position, DiagnosticCode.CANNOT_CAST, this.type, type));
                 return new ExpressionInvalid(position, type);
             } else {
                 return new ExpressionAs(position, this, castingRule);
@@ -46,6 +54,47 @@ public class ExpressionArray extends Expression {
         }
     }
 
+    /**
+     * Converts this literal into a set that is stored in a static constant,
+     * for an in / has check against it. Only literals of constant ints or
+     * strings are converted, so the set is built once and can't change, and
+     * only for values of that same type, as casting them to it could change
+     * the result.
+     *
+     * @param position    position of the check
+     * @param environment compile environment
+     * @param valueType   type of the value that is checked
+     *
+     * @return expression reading the set, or null if this literal can't be converted
+     */
+    public Expression toLookupSet(ZenPosition position, IEnvironmentGlobal environment, ZenType valueType) {
+        BracketConstants constants = environment.getBracketConstants();
+        if(constants == null || contents.length == 0)
+            return null;
+
+        ZenType elementType = contents[0].getType();
+        if(elementType != ZenType.INT && elementType != ZenType.STRING || valueType != elementType)
+            return null;
+
+        // constants are shared by key, so equal literals share a single set
+        StringBuilder key = new StringBuilder("{").append(elementType.getName()).append('}');
+        for(Expression value : contents) {
+            Expression constant = value.optimize(environment);
+            if(constant.getType() != elementType)
+                return null;
+
+            if(constant instanceof ExpressionInt) {
+                key.append(' ').append(((ExpressionInt) constant).getValue());
+            } else if(constant instanceof ExpressionString) {
+                String string = ((ExpressionString) constant).getValue();
+                key.append(' ').append(string.length()).append(':').append(string);
+            } else {
+                return null;
+            }
+        }
+        return constants.getLookupSet(position, key.toString(), new ExpressionSet(getPosition(), new ZenTypeSet(elementType), contents));
+    }
+
     @Override
     public ZenType getType() {
         return type;
@@ -56,14 +105,22 @@ public class ExpressionArray extends Expression {
         ZenType baseType = type.getBaseType();
         Type asmBaseType = type.getBaseType().toASMType();
 
+        Expression[] values = new Expression[contents.length];
+        for(int i = 0; i < contents.length; i++) {
+            values[i] = contents[i].cast(this.getPosition(), environment, baseType);
+        }
+
         MethodOutput output = environment.getOutput();
+        if(result && PackedConstants.compileArray(output, environment, baseType, values))
+            return;
+
         output.constant(contents.length);
         output.newArray(asmBaseType);
 
         for(int i = 0; i < contents.length; i++) {
             output.dup();
             output.constant(i);
-            contents[i].cast(this.getPosition(), environment, baseType).compile(result, environment);
+            values[i].compile(result, environment);
             output.arrayStore(asmBaseType);
         }
     }
@@ -7,6 +7,7 @@ import stanhebben.zenscript.type.ZenTypeArrayBasic;
 import stanhebben.zenscript.util.ArrayUtil;
 import stanhebben.zenscript.util.MethodOutput;
 import stanhebben.zenscript.util.ZenPosition;
+import stanhebben.zenscript.util.ZenTypeUtil;
 
 public class ExpressionArrayAdd extends Expression {
 
@@ -32,7 +33,7 @@ public class ExpressionArrayAdd extends Expression {
         array.compile(true, environment);
         value.cast(getPosition(), environment, type.getBaseType()).compile(true, environment);
 
-        if (type.getBaseType().toJavaClass().isPrimitive()) {
+        if (ZenTypeUtil.isPrimitive(type.getBaseType())) {
             Class<?> arrayType = getType().toJavaClass();
             output.invokeStatic(ArrayUtil.class, "add", arrayType, arrayType, type.getBaseType().toJavaClass());
         } else {
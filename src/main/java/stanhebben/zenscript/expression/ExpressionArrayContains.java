@@ -44,7 +44,7 @@ public class ExpressionArrayContains extends Expression {
     
     
     private final void compileArray(MethodOutput output) {
-        if (type.getBaseType().toJavaClass().isPrimitive()) {
+        if (ZenTypeUtil.isPrimitive(type.getBaseType())) {
             output.invokeStatic(ArrayUtil.class, "contains", boolean.class, type.toJavaClass(), type.getBaseType().toJavaClass());
         } else {
             output.invokeStatic(ArrayUtil.class, "contains", boolean.class, Object[].class, Object.class);
@@ -21,14 +21,22 @@ public class ExpressionArrayList extends Expression {
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         if(!result) return;
+        Expression[] values = new Expression[contents.length];
+        for(int i = 0; i < contents.length; i++) {
+            values[i] = contents[i].cast(getPosition(), environment, ZenTypeUtil.checkPrimitive(contents[i].getType()));
+        }
+
         final MethodOutput methodOutput = environment.getOutput();
+        if(PackedConstants.compileList(methodOutput, environment, values))
+            return;
+
         methodOutput.newObject(ArrayList.class);
         methodOutput.dup();
         methodOutput.invokeSpecial("java/util/ArrayList", "<init>", "()V");
 
-        for(Expression content : contents) {
+        for(Expression value : values) {
             methodOutput.dup();
-            content.cast(getPosition(), environment, ZenTypeUtil.checkPrimitive(content.getType())).compile(true, environment);
+            value.compile(true, environment);
             methodOutput.invokeInterface(Collection.class, "add", boolean.class, Object.class);
             methodOutput.pop();
         }
@@ -1,10 +1,13 @@
 package stanhebben.zenscript.expression;
 
-import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.type.ZenType;
-import stanhebben.zenscript.type.casting.ICastingRule;
+import stanhebben.zenscript.type.casting.*;
+import stanhebben.zenscript.type.natives.JavaMethod;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.lang.reflect.Method;
+
 public class ExpressionAs extends Expression {
 
     private final Expression value;
@@ -33,6 +36,17 @@ public class ExpressionAs extends Expression {
         return castingRule.getResultingType();
     }
 
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        Expression value = this.value.optimize(environment);
+        
+        String constant = toStringConstant(value);
+        if(constant != null)
+            return new ExpressionString(getPosition(), constant);
+        
+        return value == this.value ? this : new ExpressionAs(getPosition(), value, castingRule);
+    }
+    
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         value.compile(result, environment);
@@ -41,4 +55,63 @@ public class ExpressionAs extends Expression {
             castingRule.compile(environment);
         }
     }
+    
+    public Expression getValue() {
+        return value;
+    }
+    
+    /**
+     * Checks if this cast is one of the builtin primitive to string conversions
+     * (such as Integer.toString(int)), which lets a StringBuilder append the
+     * primitive value directly.
+     *
+     * @return the primitive type being converted, or null if this is another kind of cast
+     */
+    public Class<?> getPrimitiveToStringType() {
+        if(getType() != ZenType.STRING || !(castingRule instanceof CastingRuleStaticMethod))
+            return null;
+        
+        CastingRuleStaticMethod rule = (CastingRuleStaticMethod) castingRule;
+        if(rule.getBase() != null || !(rule.getMethod() instanceof JavaMethod) || value.getType() != rule.getInputType())
+            return null;
+        
+        Method method = ((JavaMethod) rule.getMethod()).getMethod();
+        if(!method.getName().equals("toString") || method.getParameterCount() != 1)
+            return null;
+        
+        Class<?> owner = method.getDeclaringClass();
+        Class<?> parameter = method.getParameterTypes()[0];
+        if(parameter.isPrimitive() && parameter != char.class && owner.getPackage() == Object.class.getPackage() && (owner == Boolean.class || Number.class.isAssignableFrom(owner)))
+            return parameter;
+        
+        return null;
+    }
+    
+    /**
+     * Evaluates this cast on a constant value if it is one of the builtin
+     * primitive to string conversions (such as Integer.toString(int)).
+     *
+     * @param value optimized value being cast
+     *
+     * @return the resulting string, or null if the cast cannot be evaluated
+     */
+    private String toStringConstant(Expression value) {
+        if(value.getType() != this.value.getType())
+            return null;
+        
+        Class<?> primitive = getPrimitiveToStringType();
+        if(value instanceof ExpressionBool && primitive == boolean.class) {
+            return Boolean.toString(((ExpressionBool) value).getValue());
+        } else if(value instanceof ExpressionInt && primitive == int.class && value.getType() == ZenType.INT) {
+            return Integer.toString((int) ((ExpressionInt) value).getValue());
+        } else if(value instanceof ExpressionInt && primitive == long.class && value.getType() == ZenType.LONG) {
+            return Long.toString(((ExpressionInt) value).getValue());
+        } else if(value instanceof ExpressionFloat && primitive == float.class && value.getType() == ZenType.FLOAT) {
+            return Float.toString((float) ((ExpressionFloat) value).getValue());
+        } else if(value instanceof ExpressionFloat && primitive == double.class && value.getType() == ZenType.DOUBLE) {
+            return Double.toString(((ExpressionFloat) value).getValue());
+        }
+        
+        return null;
+    }
 }
@@ -37,6 +37,10 @@ public class ExpressionBool extends Expression {
     public ZenType getType() {
         return ZenType.BOOL;
     }
+    
+    public boolean getValue() {
+        return value;
+    }
 
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
@@ -0,0 +1,44 @@
+package stanhebben.zenscript.expression;
+
+import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.util.ZenPosition;
+
+/**
+ * Reads a stable bracket, or a lookup set, from its constant field (see
+ * BracketConstants). The constant is only added to the module once this
+ * expression is compiled.
+ */
+public class ExpressionBracketConstant extends Expression {
+    
+    private final String kind;
+    private final String key;
+    private final Expression value;
+    
+    public ExpressionBracketConstant(ZenPosition position, String kind, String key, Expression value) {
+        super(position);
+        
+        this.kind = kind;
+        this.key = key;
+        this.value = value;
+    }
+    
+    @Override
+    public ZenType getType() {
+        return value.getType();
+    }
+    
+    @Override
+    public void compile(boolean result, IEnvironmentMethod environment) {
+        if(!result)
+            return;
+        
+        BracketConstants constants = environment.getBracketConstants();
+        if(constants == null) {
+            value.compile(true, environment);
+        } else {
+            String owner = constants.add(environment, kind, key, value);
+            environment.getOutput().getStaticField(owner, BracketConstants.FIELD, getType().toASMType().getDescriptor());
+        }
+    }
+}
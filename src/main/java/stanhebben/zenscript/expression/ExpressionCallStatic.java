@@ -20,11 +20,29 @@ public class ExpressionCallStatic extends Expression {
         this.arguments = JavaMethod.rematch(position, method, environment, arguments);
     }
     
+    private ExpressionCallStatic(ZenPosition position, IJavaMethod method, Expression[] arguments) {
+        super(position);
+        
+        this.method = method;
+        this.arguments = arguments;
+    }
+    
     @Override
     public ZenType getType() {
         return method.getReturnType();
     }
     
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        boolean changed = false;
+        Expression[] optimized = new Expression[arguments.length];
+        for(int i = 0; i < arguments.length; i++) {
+            optimized[i] = arguments[i].optimize(environment);
+            changed |= optimized[i] != arguments[i];
+        }
+        return changed ? new ExpressionCallStatic(getPosition(), method, optimized) : this;
+    }
+    
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         MethodOutput output = environment.getOutput();
@@ -7,6 +7,8 @@ import stanhebben.zenscript.type.natives.IJavaMethod;
 import stanhebben.zenscript.type.natives.JavaMethod;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.lang.reflect.Method;
+
 /**
  * @author Stanneke
  */
@@ -26,6 +28,15 @@ public class ExpressionCallVirtual extends Expression {
         this.arguments = JavaMethod.rematch(position, method, environment, arguments);
     }
 
+    private ExpressionCallVirtual(ZenPosition position, IJavaMethod method, Expression receiver, Expression[] arguments) {
+        super(position);
+
+        this.method = method;
+
+        this.receiver = receiver;
+        this.arguments = arguments;
+    }
+
     @Override
     public ZenType getType() {
         if(method instanceof JavaMethod && ((JavaMethod) method).returnsSelf)
@@ -33,6 +44,28 @@ public class ExpressionCallVirtual extends Expression {
         return method.getReturnType();
     }
 
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        Expression receiver = this.receiver.optimize(environment);
+        boolean changed = receiver != this.receiver;
+        Expression[] arguments = new Expression[this.arguments.length];
+        for(int i = 0; i < arguments.length; i++) {
+            arguments[i] = this.arguments[i].optimize(environment);
+            changed |= arguments[i] != this.arguments[i];
+        }
+        
+        // string comparisons are compiled to compareTo calls
+        if(receiver instanceof ExpressionString && arguments.length == 1 && arguments[0] instanceof ExpressionString && method instanceof JavaMethod) {
+            Method javaMethod = ((JavaMethod) method).getMethod();
+            if(javaMethod.getDeclaringClass() == String.class && javaMethod.getName().equals("compareTo")) {
+                int compareResult = ((ExpressionString) receiver).getValue().compareTo(((ExpressionString) arguments[0]).getValue());
+                return new ExpressionInt(getPosition(), compareResult, ZenType.INT);
+            }
+        }
+        
+        return changed ? new ExpressionCallVirtual(getPosition(), method, receiver, arguments) : this;
+    }
+    
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         receiver.compile(true, environment);
@@ -2,7 +2,7 @@ package stanhebben.zenscript.expression;
 
 import org.objectweb.asm.Label;
 import stanhebben.zenscript.annotations.CompareType;
-import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.*;
 
@@ -26,6 +26,15 @@ public class ExpressionCompareGeneric extends Expression {
         return ZenType.BOOL;
     }
 
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        Expression value = this.value.optimize(environment);
+        if(value instanceof ExpressionInt && value.getType() == ZenType.INT)
+            return new ExpressionBool(getPosition(), evaluate(type, (int) ((ExpressionInt) value).getValue()));
+        
+        return value == this.value ? this : new ExpressionCompareGeneric(getPosition(), value, type);
+    }
+    
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         value.compile(result, environment);
@@ -64,4 +73,32 @@ public class ExpressionCompareGeneric extends Expression {
             output.label(lblEnd);
         }
     }
+    
+    /**
+     * Evaluates a comparison on a compareTo-style result (negative, zero or
+     * positive), the same way the compiled comparison would do at runtime.
+     *
+     * @param type          comparison type
+     * @param compareResult comparison result
+     *
+     * @return comparison outcome
+     */
+    static boolean evaluate(CompareType type, int compareResult) {
+        switch(type) {
+            case LT:
+                return compareResult < 0;
+            case GT:
+                return compareResult > 0;
+            case LE:
+                return compareResult <= 0;
+            case GE:
+                return compareResult >= 0;
+            case NE:
+                return compareResult != 0;
+            case EQ:
+                return compareResult == 0;
+            default:
+                throw new RuntimeException();
+        }
+    }
 }
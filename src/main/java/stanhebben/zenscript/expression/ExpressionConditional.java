@@ -1,7 +1,7 @@
 package stanhebben.zenscript.expression;
 
 import org.objectweb.asm.Label;
-import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
 
@@ -24,6 +24,21 @@ public class ExpressionConditional extends Expression {
         return onIf.getType(); // TODO: improve
     }
     
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        Expression condition = this.condition.optimize(environment);
+        if(condition instanceof ExpressionBool) {
+            Expression taken = ((ExpressionBool) condition).getValue() ? onIf : onElse;
+            return taken.cast(getPosition(), environment, getType()).optimize(environment);
+        }
+        
+        Expression onIf = this.onIf.optimize(environment);
+        Expression onElse = this.onElse.optimize(environment);
+        if(condition == this.condition && onIf == this.onIf && onElse == this.onElse)
+            return this;
+        return new ExpressionConditional(getPosition(), condition, onIf, onElse);
+    }
+    
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         Label lblElse = new Label();
@@ -0,0 +1,89 @@
+package stanhebben.zenscript.expression;
+
+import org.objectweb.asm.Label;
+import stanhebben.zenscript.annotations.*;
+import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.symbols.SymbolLocal;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.util.*;
+import stanhebben.zenscript.value.IAny;
+
+/**
+ * Checks if a set of numbers contains a value of a wider type (or an any
+ * value). Casting the value to the element type would lose information, so
+ * 2.5 would be found in {1, 2, 3}. Instead, the value is only
+ * looked up if narrowing it to the element type doesn't change it; any
+ * values that aren't numbers are never found.
+ */
+public class ExpressionContainsNarrowed extends Expression {
+
+    private final Expression container;
+    private final Expression value;
+    private final SymbolLocal containerLocal;
+    private final SymbolLocal valueLocal;
+    private final Expression check;
+    private final Expression contains;
+
+    public ExpressionContainsNarrowed(ZenPosition position, IEnvironmentGlobal environment, Expression container, Expression value, ZenType elementType) {
+        super(position);
+
+        this.container = container;
+        this.value = value;
+
+        containerLocal = new SymbolLocal(container.getType(), true);
+        valueLocal = new SymbolLocal(value.getType(), true);
+
+        Expression narrowed = new ExpressionLocalGet(position, valueLocal).cast(position, environment, elementType);
+        check = value.getType().compare(position, environment, narrowed.cast(position, environment, value.getType()), new ExpressionLocalGet(position, valueLocal), CompareType.EQ);
+        contains = container.getType().binary(position, environment, new ExpressionLocalGet(position, containerLocal), narrowed, OperatorType.CONTAINS);
+    }
+
+    /**
+     * Checks if a value must be narrowed before looking it up in a set with
+     * the given element type.
+     *
+     * @param valueType   type of the value
+     * @param elementType element type
+     *
+     * @return true if the value is an any value or a number wider than the element type
+     */
+    public static boolean needsNarrowing(ZenType valueType, ZenType elementType) {
+        return elementType.getNumberType() != 0
+                && (valueType == ZenType.ANY || valueType.getNumberType() > elementType.getNumberType());
+    }
+
+    @Override
+    public ZenType getType() {
+        return ZenType.BOOL;
+    }
+
+    @Override
+    public void compile(boolean result, IEnvironmentMethod environment) {
+        if(!result) {
+            container.compile(false, environment);
+            value.compile(false, environment);
+            return;
+        }
+
+        MethodOutput output = environment.getOutput();
+        container.compile(true, environment);
+        output.store(container.getType().toASMType(), environment.getLocal(containerLocal));
+        value.compile(true, environment);
+        output.store(value.getType().toASMType(), environment.getLocal(valueLocal));
+
+        Label notFound = new Label();
+        Label end = new Label();
+        if(value.getType() == ZenType.ANY) {
+            output.load(value.getType().toASMType(), environment.getLocal(valueLocal));
+            output.invokeInterface(IAny.class, "getNumberType", int.class);
+            output.ifEQ(notFound);
+        }
+        check.compile(true, environment);
+        output.ifEQ(notFound);
+        contains.compile(true, environment);
+        output.goTo(end);
+        output.label(notFound);
+        output.iConst0();
+        output.label(end);
+    }
+}
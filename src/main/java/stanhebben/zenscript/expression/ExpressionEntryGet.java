@@ -6,8 +6,6 @@ import stanhebben.zenscript.util.ZenPosition;
 
 import java.util.Map;
 
-import static stanhebben.zenscript.util.ZenTypeUtil.internal;
-
 public class ExpressionEntryGet extends Expression {
     
     
@@ -26,7 +24,7 @@ public class ExpressionEntryGet extends Expression {
     public void compile(boolean result, IEnvironmentMethod environment) {
         entry.compile(result, environment);
         environment.getOutput().invokeInterface(Map.Entry.class, isKey ? "getKey" : "getValue", Object.class);
-        environment.getOutput().checkCast(internal(getType().toJavaClass()));
+        environment.getOutput().checkCast(getType().toASMType().getInternalName());
     }
     
     @Override
@@ -25,6 +25,10 @@ public class ExpressionFloat extends Expression {
     public ZenType getType() {
         return type;
     }
+    
+    public double getValue() {
+        return value;
+    }
 
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
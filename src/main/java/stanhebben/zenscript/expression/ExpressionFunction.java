@@ -3,6 +3,7 @@ package stanhebben.zenscript.expression;
 import org.objectweb.asm.*;
 import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.definitions.ParsedFunctionArgument;
+import stanhebben.zenscript.statements.LocalTypeInference;
 import stanhebben.zenscript.statements.Statement;
 import stanhebben.zenscript.symbols.*;
 import stanhebben.zenscript.type.*;
@@ -102,10 +103,11 @@ public class ExpressionFunction extends Expression {
         functionType.writeInterfaceClass(environment);
         
         ClassWriter cw = new ZenClassWriter(ClassWriter.COMPUTE_FRAMES);
-        cw.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC, className, null, "java/lang/Object", new String[]{functionType.getInterfaceName()});
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, className, null, "java/lang/Object", new String[]{functionType.getInterfaceName()});
         cw.visitSource(getPosition().getFileName(), null);
         
         MethodOutput output = new MethodOutput(cw, Opcodes.ACC_PUBLIC, "accept", functionType.getDescriptor(), null, null);
+        output.instrument(getPosition() + ":function");
         
         IEnvironmentClass environmentClass = new EnvironmentClass(cw, environment);
         EnvironmentMethodLambda environmentMethod = new EnvironmentMethodLambda(output, environmentClass, className);
@@ -117,6 +119,7 @@ public class ExpressionFunction extends Expression {
         }
         
         output.start();
+        LocalTypeInference.infer(environmentMethod, statements);
         for(Statement statement : statements) {
             statement.compile(environmentMethod);
         }
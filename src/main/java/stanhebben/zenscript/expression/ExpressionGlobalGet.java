@@ -1,7 +1,7 @@
 package stanhebben.zenscript.expression;
 
 import org.objectweb.asm.Type;
-import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.symbols.SymbolGlobalValue;
 import stanhebben.zenscript.type.*;
 
@@ -19,6 +19,12 @@ public class ExpressionGlobalGet extends Expression {
         return global.getType();
     }
     
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        Expression constant = global.getConstantValue();
+        return constant == null ? this : constant;
+    }
+    
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         environment.getOutput().getStaticField(getOwner(), getName(), getASMDescriptor());
@@ -4,8 +4,6 @@ import stanhebben.zenscript.compiler.IEnvironmentMethod;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
 
-import static stanhebben.zenscript.util.ZenTypeUtil.internal;
-
 public class ExpressionInstanceOf extends Expression {
     
     private final Expression expression;
@@ -22,7 +20,7 @@ public class ExpressionInstanceOf extends Expression {
         if(!result)
             return;
         expression.compile(result, environment);
-        environment.getOutput().instanceOf(internal(type.toJavaClass()));
+        environment.getOutput().instanceOf(type.toASMType().getInternalName());
     }
     
     @Override
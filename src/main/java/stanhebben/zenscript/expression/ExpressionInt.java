@@ -42,6 +42,10 @@ public class ExpressionInt extends Expression {
     public ZenType getType() {
         return type;
     }
+    
+    public long getValue() {
+        return value;
+    }
 
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
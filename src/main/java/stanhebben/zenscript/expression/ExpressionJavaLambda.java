@@ -4,6 +4,7 @@ import org.objectweb.asm.*;
 import org.objectweb.asm.Type;
 import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.definitions.ParsedFunctionArgument;
+import stanhebben.zenscript.statements.LocalTypeInference;
 import stanhebben.zenscript.statements.Statement;
 import stanhebben.zenscript.symbols.*;
 import stanhebben.zenscript.type.ZenType;
@@ -56,9 +57,10 @@ public class ExpressionJavaLambda extends Expression {
         
         ClassWriter cw = new ZenClassWriter(ClassWriter.COMPUTE_FRAMES);
         cw.visitSource(getPosition().getFileName(), null);
-        cw.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC, clsName, null, "java/lang/Object", new String[]{internal(interfaceClass)});
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, clsName, null, "java/lang/Object", new String[]{internal(interfaceClass)});
         
         MethodOutput output = new MethodOutput(cw, Opcodes.ACC_PUBLIC, method.getName(), descriptor(method), null, null);
+        output.instrument(getPosition() + ":function");
         output.position(getPosition());
         IEnvironmentClass environmentClass = new EnvironmentClass(cw, environment);
         EnvironmentMethodLambda environmentMethod = new EnvironmentMethodLambda(output, environmentClass, clsName);
@@ -70,6 +72,7 @@ public class ExpressionJavaLambda extends Expression {
         }
         
         output.start();
+        LocalTypeInference.infer(environmentMethod, statements);
         for(Statement statement : statements) {
             statement.compile(environmentMethod);
         }
@@ -3,6 +3,7 @@ package stanhebben.zenscript.expression;
 import org.objectweb.asm.*;
 import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.definitions.ParsedFunctionArgument;
+import stanhebben.zenscript.statements.LocalTypeInference;
 import stanhebben.zenscript.statements.Statement;
 import stanhebben.zenscript.symbols.*;
 import stanhebben.zenscript.type.ZenType;
@@ -19,7 +20,7 @@ import static stanhebben.zenscript.util.ZenTypeUtil.*;
 public class ExpressionJavaLambdaSimpleGeneric extends Expression {
 
     private final Class interfaceClass;
-    public Class genericClass;
+    private final Type genericType;
     private final List<ParsedFunctionArgument> arguments;
     private final List<Statement> statements;
     private final String descriptor;
@@ -35,8 +36,9 @@ public class ExpressionJavaLambdaSimpleGeneric extends Expression {
 
         this.type = type;
 
-        ZenType genericType = arguments.get(0).getType();
-        this.genericClass = genericType.equals(ZenType.ANY) ? Object.class : genericType.toJavaClass();
+        // zenclasses have no Class while they are being compiled, so work with the ASM type
+        ZenType argumentType = arguments.get(0).getType();
+        this.genericType = argumentType.equals(ZenType.ANY) ? Type.getType(Object.class) : argumentType.toASMType();
     
         final Method method = ZenTypeUtil.findFunctionalInterfaceMethod(interfaceClass);
         if(method == null) {
@@ -78,9 +80,10 @@ public class ExpressionJavaLambdaSimpleGeneric extends Expression {
 
         ClassWriter cw = new ZenClassWriter(ClassWriter.COMPUTE_FRAMES);
         cw.visitSource(getPosition().getFileName(), null);
-        cw.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC, clsName, createMethodSignature(), "java/lang/Object", new String[]{internal(interfaceClass)});
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, clsName, createMethodSignature(), "java/lang/Object", new String[]{internal(interfaceClass)});
 
         MethodOutput output = new MethodOutput(cw, Opcodes.ACC_PUBLIC, method.getName(), descriptor, null, null);
+        output.instrument(getPosition() + ":function");
         output.position(getPosition());
         IEnvironmentClass environmentClass = new EnvironmentClass(cw, environment);
         EnvironmentMethodLambda environmentMethod = new EnvironmentMethodLambda(output, environmentClass, clsName);
@@ -98,17 +101,18 @@ public class ExpressionJavaLambdaSimpleGeneric extends Expression {
         }
 
         output.start();
+        LocalTypeInference.infer(environmentMethod, statements);
         for(Statement statement : statements) {
             statement.compile(environmentMethod);
         }
         output.ret();
         output.end();
 
-        if(!Objects.equals(genericClass, Object.class)) {
+        if(!genericType.equals(Type.getType(Object.class))) {
             MethodOutput bridge = new MethodOutput(cw, Opcodes.ACC_PUBLIC | Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE, method.getName(), ZenTypeUtil.descriptor(method), null, null);
             bridge.loadObject(0);
             bridge.loadObject(1);
-            bridge.checkCast(internal(genericClass));
+            bridge.checkCast(genericType.getInternalName());
             if(arguments.size() > 1) {
                 for(int i = 1; i < arguments.size(); ) {
                     bridge.load(org.objectweb.asm.Type.getType(method.getParameterTypes()[i]), ++i);
@@ -141,7 +145,7 @@ public class ExpressionJavaLambdaSimpleGeneric extends Expression {
         sb.append("Ljava/lang/Object;");
         sb.append(signature(interfaceClass));
         sb.deleteCharAt(sb.length() - 1);
-        sb.append("<").append(signature(genericClass)).append(">").append(";");
+        sb.append("<").append(genericType.getDescriptor()).append(">").append(";");
         return sb.toString();
     }
 }
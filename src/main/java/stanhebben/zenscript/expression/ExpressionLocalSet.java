@@ -1,6 +1,6 @@
 package stanhebben.zenscript.expression;
 
-import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.symbols.SymbolLocal;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
@@ -25,13 +25,19 @@ public class ExpressionLocalSet extends Expression {
         return variable.getType();
     }
     
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        Expression value = this.value.optimize(environment);
+        return value == this.value ? this : new ExpressionLocalSet(getPosition(), variable, value);
+    }
+    
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         int local = environment.getLocal(variable);
         
         value.compile(true, environment);
         if(result) {
-            environment.getOutput().dup();
+            environment.getOutput().dup(variable.getType().isLarge());
         }
         environment.getOutput().store(variable.getType().toASMType(), local);
     }
@@ -1,6 +1,7 @@
 package stanhebben.zenscript.expression;
 
 import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.diagnostics.*;
 import stanhebben.zenscript.type.*;
 import stanhebben.zenscript.type.casting.ICastingRule;
 import stanhebben.zenscript.util.*;
@@ -35,15 +36,22 @@ public class ExpressionMap extends Expression {
             ZenType keyType = type.getKeyType();
             ZenType valueType = type.getValueType();
 
+            Expression[] cKeys = new Expression[keys.length];
+            Expression[] cValues = new Expression[values.length];
+            for(int i = 0; i < keys.length; i++) {
+                cKeys[i] = keys[i].cast(getPosition(), environment, keyType);
+                cValues[i] = values[i].cast(getPosition(), environment, valueType);
+            }
+
             MethodOutput output = environment.getOutput();
-            output.newObject(HashMap.class);
-            output.dup();
-            output.invokeSpecial(internal(HashMap.class), "<init>", "()V");
+            compileNewMap(output, type, keys.length);
+            if(PackedConstants.compileMap(output, environment, keyType, valueType, cKeys, cValues))
+                return;
 
             for(int i = 0; i < keys.length; i++) {
                 output.dup();
-                keys[i].cast(getPosition(), environment, keyType).compile(true, environment);
-                values[i].cast(getPosition(), environment, valueType).compile(true, environment);
+                cKeys[i].compile(true, environment);
+                cValues[i].compile(true, environment);
                 output.invokeInterface(internal(Map.class), "put", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;");
                 output.pop();
             }
@@ -57,6 +65,22 @@ public class ExpressionMap extends Expression {
         }
     }
 
+    /**
+     * Creates an empty map for the given type, with room for the given number of entries.
+     */
+    static void compileNewMap(MethodOutput output, ZenTypeAssociative type, int size) {
+        Class<?> mapClass = type.getMapClass();
+        output.newObject(mapClass);
+        output.dup();
+        if(size == 0) {
+            output.construct(mapClass);
+        } else {
+            // HashMap takes a capacity, the primitive maps an expected size
+            output.constant(mapClass == HashMap.class ? size * 4 / 3 + 1 : size);
+            output.construct(mapClass, int.class);
+        }
+    }
+
     @Override
     public Expression cast(ZenPosition position, IEnvironmentGlobal environment, ZenType type) {
         if(this.type.equals(type)) {
@@ -77,7 +101,7 @@ public class ExpressionMap extends Expression {
         } else {
             ICastingRule castingRule = this.type.getCastingRule(type, environment);
             if(castingRule == null) {
-                environment.error(position, "cannot cast " + this.type + " to " + type);
+                environment.report(Diagnostic.error(position, DiagnosticCode.CANNOT_CAST, this.type, type));
                 return new ExpressionInvalid(position, type);
             } else {
                 return new ExpressionAs(position, this, castingRule);
@@ -4,6 +4,7 @@ import stanhebben.zenscript.compiler.IEnvironmentMethod;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.type.ZenTypeAssociative;
 import stanhebben.zenscript.util.ZenPosition;
+import stanhebben.zenscript.value.map.PrimitiveMaps;
 
 import java.util.Map;
 
@@ -34,9 +35,13 @@ public class ExpressionMapContains extends Expression {
         if(result) {
         	ZenTypeAssociative mapType = (ZenTypeAssociative) map.getType();
             map.compile(result, environment);
-            key.cast(getPosition(), environment, mapType.getKeyType()).compile(result, environment);
-
-            environment.getOutput().invokeInterface(internal(Map.class), "containsKey", "(Ljava/lang/Object;)Z");
+            if(mapType.hasIntKeys()) {
+                key.cast(getPosition(), environment, ZenType.INT).compile(result, environment);
+                environment.getOutput().invokeStatic(PrimitiveMaps.class, "containsKey", boolean.class, Map.class, int.class);
+            } else {
+                key.cast(getPosition(), environment, mapType.getKeyType()).compile(result, environment);
+                environment.getOutput().invokeInterface(internal(Map.class), "containsKey", "(Ljava/lang/Object;)Z");
+            }
         }
     }
 }
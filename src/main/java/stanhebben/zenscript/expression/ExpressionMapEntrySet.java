@@ -6,8 +6,6 @@ import stanhebben.zenscript.util.*;
 
 import java.util.*;
 
-import static stanhebben.zenscript.util.ZenTypeUtil.internal;
-
 public class ExpressionMapEntrySet extends Expression {
     
     private final Expression map;
@@ -44,7 +42,7 @@ public class ExpressionMapEntrySet extends Expression {
         output.iConst0();
         output.newArray(type.getBaseType().toASMType());
         output.invokeInterface(Collection.class, "toArray", Object[].class, Object[].class);
-        output.checkCast(internal(getType().toJavaClass()));
+        output.checkCast(getType().toASMType().getInternalName());
     }
     
     @Override
@@ -1,8 +1,9 @@
 package stanhebben.zenscript.expression;
 
-import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.type.*;
 import stanhebben.zenscript.util.ZenPosition;
+import stanhebben.zenscript.value.map.PrimitiveMaps;
 
 import java.util.Map;
 
@@ -17,6 +18,7 @@ public class ExpressionMapIndexGet extends Expression {
     private final Expression index;
 
     private final ZenType type;
+    private final boolean unboxed;
 
     public ExpressionMapIndexGet(ZenPosition position, Expression map, Expression index) {
         super(position);
@@ -25,6 +27,20 @@ public class ExpressionMapIndexGet extends Expression {
         this.index = index;
 
         type = ((ZenTypeAssociative) map.getType()).getValueType();
+        unboxed = false;
+    }
+
+    /**
+     * Reads an int value without boxing it. Missing keys and null values throw, as unboxing them would.
+     */
+    private ExpressionMapIndexGet(ZenPosition position, Expression map, Expression index, boolean unboxed) {
+        super(position);
+
+        this.map = map;
+        this.index = index;
+
+        type = ZenType.INT;
+        this.unboxed = unboxed;
     }
 
     @Override
@@ -32,12 +48,32 @@ public class ExpressionMapIndexGet extends Expression {
         return type;
     }
 
+    @Override
+    public Expression cast(ZenPosition position, IEnvironmentGlobal environment, ZenType type) {
+        if(!unboxed && type == ZenType.INT && ((ZenTypeAssociative) map.getType()).hasIntValues())
+            return new ExpressionMapIndexGet(getPosition(), map, index, true);
+
+        return super.cast(position, environment, type);
+    }
+
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         if(result) {
+            ZenTypeAssociative mapType = (ZenTypeAssociative) map.getType();
             map.compile(result, environment);
-            index.cast(getPosition(), environment, ((ZenTypeAssociative) map.getType()).getKeyType()).compile(result, environment);
-            environment.getOutput().invokeInterface(internal(Map.class), "get", "(Ljava/lang/Object;)Ljava/lang/Object;");
+            if(unboxed) {
+                Class<?> keyClass = mapType.hasIntKeys() ? int.class : Object.class;
+                index.cast(getPosition(), environment, mapType.hasIntKeys() ? ZenType.INT : mapType.getKeyType()).compile(result, environment);
+                environment.getOutput().invokeStatic(PrimitiveMaps.class, "getInt", int.class, Map.class, keyClass);
+                return;
+            }
+            if(mapType.hasIntKeys()) {
+                index.cast(getPosition(), environment, ZenType.INT).compile(result, environment);
+                environment.getOutput().invokeStatic(PrimitiveMaps.class, "get", Object.class, Map.class, int.class);
+            } else {
+                index.cast(getPosition(), environment, mapType.getKeyType()).compile(result, environment);
+                environment.getOutput().invokeInterface(internal(Map.class), "get", "(Ljava/lang/Object;)Ljava/lang/Object;");
+            }
             environment.getOutput().checkCast(type.toASMType().getInternalName());
         }
     }
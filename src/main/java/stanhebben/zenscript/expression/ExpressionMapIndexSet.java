@@ -3,6 +3,7 @@ package stanhebben.zenscript.expression;
 import stanhebben.zenscript.compiler.IEnvironmentMethod;
 import stanhebben.zenscript.type.*;
 import stanhebben.zenscript.util.ZenPosition;
+import stanhebben.zenscript.value.map.PrimitiveMaps;
 
 import java.util.Map;
 
@@ -37,11 +38,21 @@ public class ExpressionMapIndexSet extends Expression {
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         if(result) {
+            ZenTypeAssociative mapType = (ZenTypeAssociative) map.getType();
+            boolean intValue = mapType.hasIntValues() && value.getType() == ZenType.INT;
             map.compile(result, environment);
-            index.cast(getPosition(), environment, ((ZenTypeAssociative)map.getType()).getKeyType()).compile(result, environment);
-            value.cast(getPosition(), environment, ((ZenTypeAssociative)map.getType()).getValueType()).compile(result, environment);
-            environment.getOutput().invokeInterface(internal(Map.class), "put", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;");
-            environment.getOutput().pop();
+            index.cast(getPosition(), environment, mapType.hasIntKeys() ? ZenType.INT : mapType.getKeyType()).compile(result, environment);
+            value.cast(getPosition(), environment, intValue ? ZenType.INT : mapType.getValueType()).compile(result, environment);
+            
+            // maps with int keys or values are stored without boxing if possible
+            if(mapType.hasIntKeys()) {
+                environment.getOutput().invokeStatic(PrimitiveMaps.class, "put", void.class, Map.class, int.class, intValue ? int.class : Object.class);
+            } else if(intValue) {
+                environment.getOutput().invokeStatic(PrimitiveMaps.class, "put", void.class, Map.class, Object.class, int.class);
+            } else {
+                environment.getOutput().invokeInterface(internal(Map.class), "put", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;");
+                environment.getOutput().pop();
+            }
         }
     }
 }
@@ -1,7 +1,7 @@
 package stanhebben.zenscript.expression;
 
 import org.objectweb.asm.Label;
-import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.MethodOutput;
 import stanhebben.zenscript.util.ZenPosition;
@@ -23,6 +23,27 @@ public class ExpressionOrOr extends Expression {
         return a.getType();
     }
     
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        Expression a = this.a.optimize(environment);
+        Expression b = this.b.optimize(environment);
+        
+        // only plain bool operands can be simplified without changing the type
+        if(a.getType() == ZenType.BOOL && b.getType() == ZenType.BOOL) {
+            if(a instanceof ExpressionBool) {
+                // true || b never evaluates b, false || b is just b
+                return ((ExpressionBool) a).getValue() ? a : b;
+            }
+            if(b instanceof ExpressionBool && !((ExpressionBool) b).getValue()) {
+                return a;
+            }
+        }
+        
+        if(a == this.a && b == this.b)
+            return this;
+        return new ExpressionOrOr(getPosition(), a, b);
+    }
+    
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         final MethodOutput output = environment.getOutput();
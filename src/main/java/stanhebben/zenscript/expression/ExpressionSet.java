@@ -0,0 +1,89 @@
+package stanhebben.zenscript.expression;
+
+import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.diagnostics.*;
+import stanhebben.zenscript.type.*;
+import stanhebben.zenscript.type.casting.ICastingRule;
+import stanhebben.zenscript.util.*;
+import stanhebben.zenscript.value.set.PrimitiveSets;
+
+import java.util.*;
+
+public class ExpressionSet extends Expression {
+
+    private final Expression[] contents;
+    private final ZenTypeSet type;
+
+    public ExpressionSet(ZenPosition position, ZenTypeSet type, Expression... contents) {
+        super(position);
+
+        this.contents = contents;
+        this.type = type;
+    }
+
+    @Override
+    public ZenType getType() {
+        return type;
+    }
+
+    @Override
+    public void compile(boolean result, IEnvironmentMethod environment) {
+        if(result) {
+            ZenType elementType = type.hasIntElements() ? ZenType.INT : type.getElementType();
+
+            Expression[] values = new Expression[contents.length];
+            for(int i = 0; i < contents.length; i++) {
+                values[i] = type.castElement(getPosition(), environment, contents[i]);
+            }
+
+            MethodOutput output = environment.getOutput();
+            Class<?> setClass = type.getSetClass();
+            output.newObject(setClass);
+            output.dup();
+            if(contents.length == 0) {
+                output.construct(setClass);
+            } else {
+                // HashSet takes a capacity, IntHashSet an expected size
+                output.constant(setClass == HashSet.class ? contents.length * 4 / 3 + 1 : contents.length);
+                output.construct(setClass, int.class);
+            }
+            if(PackedConstants.compileSet(output, environment, elementType, values))
+                return;
+
+            for(Expression value : values) {
+                output.dup();
+                value.compile(true, environment);
+                if(type.hasIntElements()) {
+                    output.invokeStatic(PrimitiveSets.class, "add", void.class, Set.class, int.class);
+                } else {
+                    output.invokeInterface(Set.class, "add", boolean.class, Object.class);
+                    output.pop();
+                }
+            }
+        } else {
+            for(Expression value : contents) {
+                value.compile(false, environment);
+            }
+        }
+    }
+
+    @Override
+    public Expression cast(ZenPosition position, IEnvironmentGlobal environment, ZenType type) {
+        if(this.type.getName().equals(type.getName())) {
+            return this;
+        }
+
+        if(type instanceof ZenTypeSet) {
+            // the contents are cast to the new element type when compiled
+            return new ExpressionSet(getPosition(), (ZenTypeSet) type, contents);
+        } else {
+            ICastingRule castingRule = this.type.getCastingRule(type, environment);
+            if(castingRule == null) {
+                environment.report(Diagnostic.error(position, DiagnosticCode.CANNOT_CAST, this.type, type));
+                return new ExpressionInvalid(position, type);
+            } else {
+                return new ExpressionAs(position, this, castingRule);
+            }
+        }
+    }
+}
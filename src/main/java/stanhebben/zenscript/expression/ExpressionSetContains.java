@@ -0,0 +1,44 @@
+package stanhebben.zenscript.expression;
+
+import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.type.*;
+import stanhebben.zenscript.util.ZenPosition;
+import stanhebben.zenscript.value.set.PrimitiveSets;
+
+import java.util.Set;
+
+/**
+ * Checks if a set contains a value. The value must already have been cast to
+ * the element type of the set (int for sets of ints).
+ */
+public class ExpressionSetContains extends Expression {
+
+    private final Expression set;
+    private final Expression value;
+
+    public ExpressionSetContains(ZenPosition position, Expression set, Expression value) {
+        super(position);
+
+        this.set = set;
+        this.value = value;
+    }
+
+    @Override
+    public ZenType getType() {
+        return ZenType.BOOL;
+    }
+
+    @Override
+    public void compile(boolean result, IEnvironmentMethod environment) {
+        set.compile(result, environment);
+        value.compile(result, environment);
+
+        if(result) {
+            if(((ZenTypeSet) set.getType()).hasIntElements()) {
+                environment.getOutput().invokeStatic(PrimitiveSets.class, "contains", boolean.class, Set.class, int.class);
+            } else {
+                environment.getOutput().invokeInterface(Set.class, "contains", boolean.class, Object.class);
+            }
+        }
+    }
+}
@@ -21,6 +21,10 @@ public class ExpressionString extends Expression {
     public ZenType getType() {
         return ZenTypeString.INSTANCE;
     }
+    
+    public String getValue() {
+        return value;
+    }
 
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
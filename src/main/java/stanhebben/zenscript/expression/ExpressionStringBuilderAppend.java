@@ -0,0 +1,113 @@
+package stanhebben.zenscript.expression;
+
+import org.objectweb.asm.Label;
+import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.symbols.SymbolStringBuilderLocal;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.util.*;
+
+import java.util.*;
+
+/**
+ * Appends values to a string local that is being built in a loop. The builder
+ * is created on the first append and reused until the variable is read.
+ */
+public class ExpressionStringBuilderAppend extends Expression {
+    
+    private final SymbolStringBuilderLocal variable;
+    private final List<Expression> values;
+    
+    public ExpressionStringBuilderAppend(ZenPosition position, SymbolStringBuilderLocal variable, List<Expression> values) {
+        super(position);
+        
+        this.variable = variable;
+        this.values = values;
+    }
+    
+    @Override
+    public ZenType getType() {
+        return ZenType.STRING;
+    }
+    
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        Expression optimized = new ExpressionStringConcat(getPosition(), new ArrayList<>(values)).optimize(environment);
+        List<Expression> values = optimized instanceof ExpressionStringConcat ? ((ExpressionStringConcat) optimized).getValues() : Collections.singletonList(optimized);
+        return new ExpressionStringBuilderAppend(getPosition(), variable, values);
+    }
+    
+    @Override
+    public void compile(boolean result, IEnvironmentMethod environment) {
+        MethodOutput output = environment.getOutput();
+        int builder = variable.getBuilder();
+        
+        // Step 1: evaluate values that might read the variable, since that flushes the builder
+        int[] temporaries = new int[values.size()];
+        for(int i = 0; i < values.size(); i++) {
+            Expression operand = getOperand(values.get(i));
+            if(isConstantOrLocal(operand)) {
+                temporaries[i] = -1;
+            } else {
+                operand.compile(true, environment);
+                temporaries[i] = output.local(operand.getType().toASMType());
+                output.store(operand.getType().toASMType(), temporaries[i]);
+            }
+        }
+        
+        // Step 2: start a builder with the current value if there is none yet
+        Label hasBuilder = new Label();
+        output.loadObject(builder);
+        output.ifNonNull(hasBuilder);
+        output.newObject(StringBuilder.class);
+        output.dup();
+        output.load(ZenType.STRING.toASMType(), environment.getLocal(variable.getVariable()));
+        output.invokeStatic(String.class, "valueOf", String.class, Object.class);
+        output.construct(StringBuilder.class, String.class);
+        output.storeObject(builder);
+        output.label(hasBuilder);
+        
+        // Step 3: append values
+        output.loadObject(builder);
+        for(int i = 0; i < values.size(); i++) {
+            Expression value = values.get(i);
+            if(temporaries[i] < 0) {
+                ExpressionStringConcat.compileAppend(value, environment);
+            } else {
+                Expression operand = getOperand(value);
+                output.load(operand.getType().toASMType(), temporaries[i]);
+                output.invoke(StringBuilder.class, "append", StringBuilder.class, getAppendType(value));
+            }
+        }
+        output.pop();
+        
+        if(result) {
+            variable.compileFlush(environment);
+            output.load(ZenType.STRING.toASMType(), environment.getLocal(variable.getVariable()));
+        }
+    }
+    
+    /**
+     * Gets the expression that is actually compiled for an appended value:
+     * primitives are appended without converting them to a string first.
+     */
+    private static Expression getOperand(Expression value) {
+        if(value instanceof ExpressionAs && ((ExpressionAs) value).getPrimitiveToStringType() != null)
+            return ((ExpressionAs) value).getValue();
+        return value;
+    }
+    
+    private static Class<?> getAppendType(Expression value) {
+        Class<?> primitive = value instanceof ExpressionAs ? ((ExpressionAs) value).getPrimitiveToStringType() : null;
+        if(primitive == null)
+            return String.class;
+        return primitive == byte.class || primitive == short.class ? int.class : primitive;
+    }
+    
+    /**
+     * Checks if a value can't read the variable being built. The variable
+     * itself is never read through a plain local.
+     */
+    private static boolean isConstantOrLocal(Expression operand) {
+        return operand instanceof ExpressionString || operand instanceof ExpressionInt || operand instanceof ExpressionFloat || operand instanceof ExpressionBool || operand instanceof ExpressionLocalGet;
+    }
+}
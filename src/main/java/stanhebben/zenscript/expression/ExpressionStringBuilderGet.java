@@ -0,0 +1,39 @@
+package stanhebben.zenscript.expression;
+
+import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.symbols.SymbolStringBuilderLocal;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.util.ZenPosition;
+
+/**
+ * Reads a string local that is being built in a loop, storing the pending
+ * builder contents first.
+ */
+public class ExpressionStringBuilderGet extends Expression {
+    
+    private final SymbolStringBuilderLocal variable;
+    
+    public ExpressionStringBuilderGet(ZenPosition position, SymbolStringBuilderLocal variable) {
+        super(position);
+        
+        this.variable = variable;
+    }
+    
+    public SymbolStringBuilderLocal getVariable() {
+        return variable;
+    }
+    
+    @Override
+    public ZenType getType() {
+        return ZenType.STRING;
+    }
+    
+    @Override
+    public void compile(boolean result, IEnvironmentMethod environment) {
+        variable.compileFlush(environment);
+        
+        if(result) {
+            environment.getOutput().load(ZenType.STRING.toASMType(), environment.getLocal(variable.getVariable()));
+        }
+    }
+}
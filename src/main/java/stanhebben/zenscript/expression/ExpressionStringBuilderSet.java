@@ -0,0 +1,47 @@
+package stanhebben.zenscript.expression;
+
+import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.symbols.SymbolStringBuilderLocal;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.util.*;
+
+/**
+ * Assigns a string local that is being built in a loop, discarding any
+ * pending builder contents.
+ */
+public class ExpressionStringBuilderSet extends Expression {
+    
+    private final SymbolStringBuilderLocal variable;
+    private final Expression value;
+    
+    public ExpressionStringBuilderSet(ZenPosition position, SymbolStringBuilderLocal variable, Expression value) {
+        super(position);
+        
+        this.variable = variable;
+        this.value = value;
+    }
+    
+    @Override
+    public ZenType getType() {
+        return ZenType.STRING;
+    }
+    
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        Expression value = this.value.optimize(environment);
+        return value == this.value ? this : new ExpressionStringBuilderSet(getPosition(), variable, value);
+    }
+    
+    @Override
+    public void compile(boolean result, IEnvironmentMethod environment) {
+        MethodOutput output = environment.getOutput();
+        
+        value.compile(true, environment);
+        if(result) {
+            output.dup();
+        }
+        output.store(ZenType.STRING.toASMType(), environment.getLocal(variable.getVariable()));
+        output.aConstNull();
+        output.storeObject(variable.getBuilder());
+    }
+}
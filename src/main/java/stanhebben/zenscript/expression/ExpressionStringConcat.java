@@ -1,10 +1,10 @@
 package stanhebben.zenscript.expression;
 
-import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.type.*;
 import stanhebben.zenscript.util.*;
 
-import java.util.List;
+import java.util.*;
 
 /**
  * @author Stanneke
@@ -22,26 +22,52 @@ public class ExpressionStringConcat extends Expression {
     public void add(Expression value) {
         values.add(value);
     }
+    
+    public List<Expression> getValues() {
+        return values;
+    }
 
     @Override
     public ZenType getType() {
         return ZenTypeString.INSTANCE;
     }
 
+    @Override
+    public Expression optimize(IEnvironmentGlobal environment) {
+        List<Expression> optimized = new ArrayList<>();
+        for(Expression value : values) {
+            value = value.optimize(environment);
+            if(value instanceof ExpressionStringConcat) {
+                // a nested concatenation never yields null, so its parts can be appended directly
+                for(Expression part : ((ExpressionStringConcat) value).values) {
+                    addMerged(optimized, part);
+                }
+            } else {
+                addMerged(optimized, value);
+            }
+        }
+        
+        if(optimized.size() == 1 && optimized.get(0) instanceof ExpressionString)
+            return optimized.get(0);
+        if(optimized.equals(values))
+            return this;
+        return new ExpressionStringConcat(getPosition(), optimized);
+    }
+    
     @Override
     public void compile(boolean result, IEnvironmentMethod environment) {
         if(result) {
             MethodOutput output = environment.getOutput();
 
-            // Step 1: construct StringBuilder
+            // Step 1: construct StringBuilder, sized for all constant parts
             output.newObject(StringBuilder.class);
             output.dup();
-            output.construct(StringBuilder.class);
+            output.constant(estimateCapacity(values));
+            output.construct(StringBuilder.class, int.class);
 
             // Step 2: concatenate Strings
             for(Expression value : values) {
-                value.compile(true, environment);
-                output.invoke(StringBuilder.class, "append", StringBuilder.class, String.class);
+                compileAppend(value, environment);
             }
 
             // Step 3: return String
@@ -52,4 +78,50 @@ public class ExpressionStringConcat extends Expression {
             }
         }
     }
+    
+    /**
+     * Estimates the final length of a concatenation. Constant parts count with
+     * their exact length, other parts with a small default.
+     */
+    static int estimateCapacity(List<Expression> values) {
+        int capacity = 0;
+        for(Expression value : values) {
+            capacity += value instanceof ExpressionString ? ((ExpressionString) value).getValue().length() : 16;
+        }
+        return capacity;
+    }
+    
+    /**
+     * Appends a value to the StringBuilder on top of the stack. Primitive values
+     * converted to string are appended with the matching primitive overload
+     * instead of being converted first.
+     */
+    static void compileAppend(Expression value, IEnvironmentMethod environment) {
+        MethodOutput output = environment.getOutput();
+        Class<?> primitive = value instanceof ExpressionAs ? ((ExpressionAs) value).getPrimitiveToStringType() : null;
+        if(primitive == null) {
+            value.compile(true, environment);
+            output.invoke(StringBuilder.class, "append", StringBuilder.class, String.class);
+        } else {
+            ((ExpressionAs) value).getValue().compile(true, environment);
+            if(primitive == byte.class || primitive == short.class)
+                primitive = int.class;
+            output.invoke(StringBuilder.class, "append", StringBuilder.class, primitive);
+        }
+    }
+    
+    /**
+     * Adds a value to a concatenation, merging it with the previous value if both are string constants.
+     */
+    private static void addMerged(List<Expression> values, Expression value) {
+        if(!values.isEmpty() && value instanceof ExpressionString) {
+            Expression last = values.get(values.size() - 1);
+            if(last instanceof ExpressionString) {
+                values.set(values.size() - 1, new ExpressionString(last.getPosition(), ((ExpressionString) last).getValue() + ((ExpressionString) value).getValue()));
+                return;
+            }
+        }
+        
+        values.add(value);
+    }
 }
@@ -2,6 +2,7 @@ package stanhebben.zenscript.expression;
 
 import org.objectweb.asm.Opcodes;
 import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.diagnostics.*;
 import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.symbols.IZenSymbol;
 import stanhebben.zenscript.type.ZenType;
@@ -96,7 +97,7 @@ public class ExpressionStringMethod implements IPartialExpression {
     public Expression call(ZenPosition position, IEnvironmentMethod environment, Expression... values) {
         IJavaMethod method = JavaMethod.select(false, methods, environment, values);
         if(method == null) {
-            environment.error(position, methodMatchingError(methods, values));
+            environment.report(Diagnostic.error(position, DiagnosticCode.NO_MATCHING_METHOD, Diagnostic.lazy(() -> methodMatchingError(methods, values))));
             return new ExpressionInvalid(position);
         } else {
             return new ExpressionCallVirtual(position, environment, method, source.eval(environment), values);
@@ -0,0 +1,189 @@
+package stanhebben.zenscript.expression;
+
+import stanhebben.zenscript.compiler.IEnvironmentGlobal;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.util.*;
+
+import java.util.*;
+
+import static stanhebben.zenscript.util.ConstantData.*;
+import static stanhebben.zenscript.util.ZenTypeUtil.internal;
+
+/**
+ * Compiles array, list, map and set literals that consist of constants only into a
+ * packed string that is decoded by ConstantData at runtime.
+ */
+final class PackedConstants {
+    
+    /**
+     * Literals with fewer elements are compiled element by element.
+     */
+    static final int MIN_ELEMENTS = 16;
+    
+    // a string constant can take at most 65535 bytes, chars take at most 3 bytes
+    private static final int MAX_CHUNK_LENGTH = 65535 / 3;
+    
+    private static final Object NOT_CONSTANT = new Object();
+    
+    private PackedConstants() {}
+    
+    /**
+     * Tries to compile an array literal with a primitive or string base type.
+     *
+     * @return true if the literal was compiled, false if it must be compiled element by element
+     */
+    static boolean compileArray(MethodOutput output, IEnvironmentGlobal environment, ZenType baseType, Expression[] values) {
+        char kind = getKind(baseType);
+        if(values.length < MIN_ELEMENTS || kind == 0 || (kind != KIND_STRING && !baseType.toJavaClass().isPrimitive()))
+            return false;
+        
+        StringBuilder data = new StringBuilder();
+        ConstantData.writeInt(data, values.length);
+        if(!write(data, environment, kind, values))
+            return false;
+        
+        compileData(output, data.toString());
+        String name = kind == KIND_STRING ? "String" : Character.toUpperCase(baseType.getName().charAt(0)) + baseType.getName().substring(1);
+        output.invokeStatic(internal(ConstantData.class), "decode" + name + "Array", "(Ljava/lang/String;)[" + baseType.getSignature());
+        return true;
+    }
+    
+    /**
+     * Tries to compile a list literal, boxing its primitive values.
+     *
+     * @return true if the literal was compiled, false if it must be compiled element by element
+     */
+    static boolean compileList(MethodOutput output, IEnvironmentGlobal environment, Expression[] values) {
+        char kind = values.length < MIN_ELEMENTS ? 0 : getKind(values[0].getType());
+        if(kind == 0)
+            return false;
+        
+        StringBuilder data = new StringBuilder();
+        if(!write(data, environment, kind, values))
+            return false;
+        
+        compileData(output, data.toString());
+        output.constant((int) kind);
+        output.constant(values.length);
+        output.invokeStatic(ConstantData.class, "decodeList", List.class, String.class, char.class, int.class);
+        return true;
+    }
+    
+    /**
+     * Tries to compile a map literal, boxing its primitive keys and values. The
+     * map to fill must be on top of the stack and is left there.
+     *
+     * @return true if the literal was compiled, false if it must be compiled entry by entry
+     */
+    static boolean compileMap(MethodOutput output, IEnvironmentGlobal environment, ZenType keyType, ZenType valueType, Expression[] keys, Expression[] values) {
+        char keyKind = getKind(keyType);
+        char valueKind = getKind(valueType);
+        if(keys.length < MIN_ELEMENTS || keyKind == 0 || valueKind == 0)
+            return false;
+        
+        StringBuilder data = new StringBuilder();
+        for(int i = 0; i < keys.length; i++) {
+            if(!write(data, environment, keyKind, keys[i]) || !write(data, environment, valueKind, values[i]))
+                return false;
+        }
+        
+        compileData(output, data.toString());
+        output.constant((int) keyKind);
+        output.constant((int) valueKind);
+        output.constant(keys.length);
+        output.invokeStatic(ConstantData.class, "decodeMap", Map.class, Map.class, String.class, char.class, char.class, int.class);
+        return true;
+    }
+    
+    /**
+     * Tries to compile a set literal, boxing its primitive values. The set to
+     * fill must be on top of the stack and is left there.
+     *
+     * @return true if the literal was compiled, false if it must be compiled value by value
+     */
+    static boolean compileSet(MethodOutput output, IEnvironmentGlobal environment, ZenType elementType, Expression[] values) {
+        char kind = getKind(elementType);
+        if(values.length < MIN_ELEMENTS || kind == 0)
+            return false;
+        
+        StringBuilder data = new StringBuilder();
+        if(!write(data, environment, kind, values))
+            return false;
+        
+        compileData(output, data.toString());
+        output.constant((int) kind);
+        output.constant(values.length);
+        output.invokeStatic(ConstantData.class, "decodeSet", Set.class, Set.class, String.class, char.class, int.class);
+        return true;
+    }
+    
+    private static char getKind(ZenType type) {
+        if(type == ZenType.STRING)
+            return KIND_STRING;
+        
+        for(ZenType candidate : new ZenType[]{ZenType.BOOL, ZenType.BYTE, ZenType.SHORT, ZenType.INT, ZenType.LONG, ZenType.FLOAT, ZenType.DOUBLE}) {
+            if(type == candidate || type == ZenTypeUtil.checkPrimitive(candidate))
+                return candidate.toASMType().getDescriptor().charAt(0);
+        }
+        return 0;
+    }
+    
+    private static boolean write(StringBuilder data, IEnvironmentGlobal environment, char kind, Expression[] values) {
+        for(Expression value : values) {
+            if(!write(data, environment, kind, value))
+                return false;
+        }
+        return true;
+    }
+    
+    private static boolean write(StringBuilder data, IEnvironmentGlobal environment, char kind, Expression value) {
+        Object constant = getConstant(value.optimize(environment), kind);
+        if(constant == NOT_CONSTANT)
+            return false;
+        
+        ConstantData.write(data, kind, constant);
+        return true;
+    }
+    
+    private static Object getConstant(Expression value, char kind) {
+        // boxing a constant keeps it constant
+        if(value instanceof ExpressionAs) {
+            Expression unboxed = ((ExpressionAs) value).getValue();
+            if(value.getType() != ZenTypeUtil.checkPrimitive(unboxed.getType()) || unboxed.getType() == value.getType())
+                return NOT_CONSTANT;
+            value = unboxed;
+        }
+        
+        if(getKind(value.getType()) != kind && !(value instanceof ExpressionNull && kind == KIND_STRING))
+            return NOT_CONSTANT;
+        
+        if(value instanceof ExpressionBool)
+            return ((ExpressionBool) value).getValue();
+        if(value instanceof ExpressionInt)
+            return ((ExpressionInt) value).getValue();
+        if(value instanceof ExpressionFloat)
+            return ((ExpressionFloat) value).getValue();
+        if(value instanceof ExpressionString)
+            return ((ExpressionString) value).getValue();
+        if(value instanceof ExpressionNull)
+            return null;
+        return NOT_CONSTANT;
+    }
+    
+    private static void compileData(MethodOutput output, String data) {
+        if(data.length() <= MAX_CHUNK_LENGTH) {
+            output.constant(data);
+            return;
+        }
+        
+        output.newObject(StringBuilder.class);
+        output.dup();
+        output.constant(data.length());
+        output.construct(StringBuilder.class, int.class);
+        for(int i = 0; i < data.length(); i += MAX_CHUNK_LENGTH) {
+            output.constant(data.substring(i, Math.min(data.length(), i + MAX_CHUNK_LENGTH)));
+            output.invoke(StringBuilder.class, "append", StringBuilder.class, String.class);
+        }
+        output.invoke(StringBuilder.class, "toString", String.class);
+    }
+}
@@ -0,0 +1,90 @@
+package stanhebben.zenscript.expression.partial;
+
+import stanhebben.zenscript.ZenModule;
+import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.expression.*;
+import stanhebben.zenscript.symbols.IZenSymbol;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.util.ZenPosition;
+
+import static stanhebben.zenscript.util.AnyClassWriter.*;
+
+/**
+ * Member of an any value. Resolved at runtime through the memberGet,
+ * memberSet and memberCall methods of the value's any class.
+ */
+public class PartialAnyMember implements IPartialExpression {
+
+    private final ZenPosition position;
+    private final Expression value;
+    private final String name;
+
+    public PartialAnyMember(ZenPosition position, Expression value, String name) {
+        this.position = position;
+        this.value = value;
+        this.name = name;
+    }
+
+    @Override
+    public Expression eval(IEnvironmentGlobal environment) {
+        if(ZenModule.useInvokeDynamic)
+            return new ExpressionAnyDynamic(position, "memberGet", name, ZenType.ANY, value);
+
+        return new ExpressionCallVirtual(position, environment, METHOD_MEMBERGET, value, new ExpressionString(position, name));
+    }
+
+    @Override
+    public Expression assign(ZenPosition position, IEnvironmentGlobal environment, Expression other) {
+        if(ZenModule.useInvokeDynamic)
+            return new ExpressionAnyDynamic(position, "memberSet", name, ZenType.VOID, value, other.cast(position, environment, ZenType.ANY));
+
+        return new ExpressionCallVirtual(position, environment, METHOD_MEMBERSET, value, new ExpressionString(position, name), other.cast(position, environment, ZenType.ANY));
+    }
+
+    @Override
+    public IPartialExpression getMember(ZenPosition position, IEnvironmentGlobal environment, String name) {
+        return new PartialAnyMember(position, eval(environment), name);
+    }
+
+    @Override
+    public Expression call(ZenPosition position, IEnvironmentMethod environment, Expression... values) {
+        Expression[] arguments = new Expression[values.length];
+        for(int i = 0; i < values.length; i++) {
+            arguments[i] = values[i].cast(position, environment, ZenType.ANY);
+        }
+
+        if(ZenModule.useInvokeDynamic) {
+            Expression[] operands = new Expression[arguments.length + 1];
+            operands[0] = value;
+            System.arraycopy(arguments, 0, operands, 1, arguments.length);
+            return new ExpressionAnyDynamic(position, "memberCall", name, ZenType.ANY, operands);
+        }
+
+        return new ExpressionCallVirtual(position, environment, METHOD_MEMBERCALL, value, new ExpressionString(position, name), new ExpressionArray(position, ZenType.ANYARRAY, arguments));
+    }
+
+    @Override
+    public ZenType[] predictCallTypes(int numArguments) {
+        ZenType[] result = new ZenType[numArguments];
+        for(int i = 0; i < result.length; i++) {
+            result[i] = ZenType.ANY;
+        }
+        return result;
+    }
+
+    @Override
+    public IZenSymbol toSymbol() {
+        return null; // not supposed to be used as symbol
+    }
+
+    @Override
+    public ZenType getType() {
+        return ZenType.ANY;
+    }
+
+    @Override
+    public ZenType toType(IEnvironmentGlobal environment) {
+        environment.error(position, "not a valid type");
+        return ZenType.ANY;
+    }
+}
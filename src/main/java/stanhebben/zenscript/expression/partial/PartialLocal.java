@@ -35,7 +35,7 @@ public class PartialLocal implements IPartialExpression {
             environment.error(position, "value cannot be changed");
             return new ExpressionInvalid(position);
         } else {
-            return new ExpressionLocalSet(position, variable, other);
+            return new ExpressionLocalSet(position, variable, other.cast(position, environment, variable.getType()));
         }
     }
 
@@ -1,6 +1,7 @@
 package stanhebben.zenscript.expression.partial;
 
 import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.diagnostics.*;
 import stanhebben.zenscript.expression.*;
 import stanhebben.zenscript.symbols.*;
 import stanhebben.zenscript.type.ZenType;
@@ -35,7 +36,7 @@ public class PartialPackage implements IPartialExpression {
     public IPartialExpression getMember(ZenPosition position, IEnvironmentGlobal environment, String name) {
         IZenSymbol member = contents.get(name);
         if(member == null) {
-            environment.error(position, "No such member: " + name);
+            environment.report(Diagnostic.error(position, DiagnosticCode.NO_SUCH_MEMBER, name));
             return new ExpressionInvalid(position);
         } else {
             return member.instance(position);
@@ -0,0 +1,72 @@
+package stanhebben.zenscript.expression.partial;
+
+import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.expression.*;
+import stanhebben.zenscript.symbols.*;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.util.ZenPosition;
+
+import java.util.List;
+
+/**
+ * A string local that is being built inside a loop. Concatenations onto the
+ * variable itself append to its builder, any other use reads or replaces the
+ * up to date value.
+ */
+public class PartialStringBuilderLocal implements IPartialExpression {
+
+    private final ZenPosition position;
+    private final SymbolStringBuilderLocal variable;
+
+    public PartialStringBuilderLocal(ZenPosition position, SymbolStringBuilderLocal variable) {
+        this.position = position;
+        this.variable = variable;
+    }
+
+    @Override
+    public Expression eval(IEnvironmentGlobal environment) {
+        return new ExpressionStringBuilderGet(position, variable);
+    }
+
+    @Override
+    public IPartialExpression getMember(ZenPosition position, IEnvironmentGlobal environment, String name) {
+        return getType().getMember(position, environment, this, name);
+    }
+
+    @Override
+    public Expression assign(ZenPosition position, IEnvironmentGlobal environment, Expression other) {
+        if(other instanceof ExpressionStringConcat) {
+            List<Expression> values = ((ExpressionStringConcat) other).getValues();
+            if(values.get(0) instanceof ExpressionStringBuilderGet && ((ExpressionStringBuilderGet) values.get(0)).getVariable() == variable)
+                return new ExpressionStringBuilderAppend(position, variable, values.subList(1, values.size()));
+        }
+        
+        return new ExpressionStringBuilderSet(position, variable, other);
+    }
+
+    @Override
+    public Expression call(ZenPosition position, IEnvironmentMethod environment, Expression... values) {
+        return getType().call(position, environment, eval(environment), values);
+    }
+
+    @Override
+    public ZenType[] predictCallTypes(int numArguments) {
+        return getType().predictCallTypes(numArguments);
+    }
+
+    @Override
+    public IZenSymbol toSymbol() {
+        return variable;
+    }
+
+    @Override
+    public ZenType getType() {
+        return ZenType.STRING;
+    }
+
+    @Override
+    public ZenType toType(IEnvironmentGlobal environment) {
+        environment.error(position, "not a valid type");
+        return ZenType.ANY;
+    }
+}
@@ -0,0 +1,90 @@
+package stanhebben.zenscript.impl;
+
+import stanhebben.zenscript.IZenErrorLogger;
+import stanhebben.zenscript.util.ZenPosition;
+
+import java.io.PrintStream;
+
+import static stanhebben.zenscript.impl.AsyncLogWriter.*;
+
+/**
+ * Error logger that writes the same lines as GenericErrorLogger, but on a
+ * background thread (see AsyncLogWriter), so compiles that report many
+ * warnings don't wait for the output.
+ * <p>
+ * Modules flush their error logger when they finish compiling and running;
+ * call flush to wait for the output at other times, and close to stop the
+ * background thread.
+ */
+public class AsyncErrorLogger implements IZenErrorLogger, AutoCloseable {
+    
+    private final AsyncLogWriter writer;
+    
+    public AsyncErrorLogger(PrintStream output) {
+        this(output, DEFAULT_CAPACITY, DEFAULT_MAX_REPEATS);
+    }
+    
+    /**
+     * Creates an async error logger.
+     *
+     * @param output     output to write to
+     * @param capacity   number of messages that can be queued before logging waits for the output
+     * @param maxRepeats number of identical messages (at the same position) written per second, 0 for unlimited
+     */
+    public AsyncErrorLogger(PrintStream output, int capacity, int maxRepeats) {
+        writer = new AsyncLogWriter(output, AsyncErrorLogger::format, capacity, maxRepeats, "ZenScript error logger");
+    }
+    
+    @Override
+    public void error(ZenPosition position, String message) {
+        writer.log(LEVEL_ERROR, position, message, null);
+    }
+    
+    @Override
+    public void warning(ZenPosition position, String message) {
+        writer.log(LEVEL_WARNING, position, message, null);
+    }
+    
+    @Override
+    public void info(ZenPosition position, String message) {
+        writer.log(LEVEL_INFO, position, message, null);
+    }
+    
+    @Override
+    public void error(String message) {
+        error(null, message);
+    }
+    
+    @Override
+    public void error(String message, Throwable e) {
+        writer.log(LEVEL_ERROR, null, message, e);
+    }
+    
+    @Override
+    public void warning(String message) {
+        warning(null, message);
+    }
+    
+    @Override
+    public void info(String message) {
+        info(null, message);
+    }
+    
+    @Override
+    public void flush() {
+        writer.flush();
+    }
+    
+    @Override
+    public void close() {
+        writer.close();
+    }
+    
+    private static void format(StringBuilder output, int level, ZenPosition position, String message) {
+        if(position == null)
+            output.append(level == LEVEL_ERROR ? "System> " : "system> ");
+        else
+            output.append(position).append("> ");
+        output.append(message);
+    }
+}
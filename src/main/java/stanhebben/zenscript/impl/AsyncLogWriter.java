@@ -0,0 +1,292 @@
+package stanhebben.zenscript.impl;
+
+import stanhebben.zenscript.util.ZenPosition;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background writer for the async loggers. Logging threads put entries in a
+ * bounded lock-free ring buffer; a daemon thread takes them out in batches,
+ * formats them and writes every batch to the output at once.
+ * <p>
+ * Identical entries (same level, position and message) are rate limited:
+ * after maxRepeats of them within a second, further copies are counted
+ * instead of written, and a single line with the count is written at the end
+ * of the second or on flush. When the buffer is full, logging threads wait
+ * for the writer, so nothing is ever dropped.
+ */
+final class AsyncLogWriter implements Runnable {
+
+    static final int LEVEL_ERROR = 0;
+    static final int LEVEL_WARNING = 1;
+    static final int LEVEL_INFO = 2;
+
+    static final int DEFAULT_CAPACITY = 8192;
+    static final int DEFAULT_MAX_REPEATS = 100;
+
+    private static final int MAX_BATCH = 1024;
+    private static final int MAX_TRACKED_ENTRIES = 4096;
+    private static final long IDLE_WAIT_NANOS = 5_000_000;
+    private static final long FULL_WAIT_NANOS = 50_000;
+    private static final long RATE_WINDOW_NANOS = 1_000_000_000;
+
+    private final PrintStream output;
+    private final Format format;
+    private final int maxRepeats;
+
+    private final int mask;
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong flushRequests = new AtomicLong();
+    private final Thread thread;
+
+    // only touched by the writer thread
+    private long head = 0;
+    private long windowStart = System.nanoTime();
+    private final Map<Entry, int[]> repeats = new HashMap<>();
+
+    private volatile long written = 0;
+    private volatile long flushed = 0;
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a writer and starts its thread.
+     *
+     * @param output     output to write to
+     * @param format     formats entries
+     * @param capacity   ring buffer capacity, rounded up to a power of two
+     * @param maxRepeats number of identical entries written per second, 0 for unlimited
+     * @param name       writer thread name
+     */
+    AsyncLogWriter(PrintStream output, Format format, int capacity, int maxRepeats, String name) {
+        if(capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive");
+
+        this.output = output;
+        this.format = format;
+        this.maxRepeats = maxRepeats;
+
+        int size = Integer.highestOneBit(capacity);
+        if(size < capacity)
+            size <<= 1;
+        mask = size - 1;
+        slots = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for(int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues an entry. Only waits if the buffer is full. Once the writer is
+     * closed, entries are written on the calling thread.
+     */
+    void log(int level, ZenPosition position, String message, Throwable exception) {
+        Entry entry = new Entry(level, position, message, exception);
+        while(!offer(entry)) {
+            if(closed) {
+                StringBuilder line = new StringBuilder();
+                append(line, entry, 0);
+                synchronized(output) {
+                    output.print(line);
+                    output.flush();
+                }
+                return;
+            }
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(this, FULL_WAIT_NANOS);
+        }
+    }
+
+    /**
+     * Waits until every entry queued before this call has been written,
+     * including the counts of rate limited entries.
+     */
+    void flush() {
+        if(Thread.currentThread() == thread)
+            return;
+
+        long request = flushRequests.incrementAndGet();
+        long target = tail.get();
+        while((written < target || flushed < request) && thread.isAlive()) {
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(this, FULL_WAIT_NANOS);
+        }
+    }
+
+    /**
+     * Writes everything that is queued and stops the writer thread. Entries
+     * logged afterwards are written synchronously.
+     */
+    void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        
+        // entries from threads that saw the writer open just before it stopped
+        StringBuilder remaining = new StringBuilder();
+        while(head < tail.get()) {
+            Entry entry = poll();
+            if(entry == null)
+                Thread.yield();
+            else
+                append(remaining, entry, 0);
+        }
+        synchronized(output) {
+            output.print(remaining);
+            output.flush();
+        }
+    }
+
+    @Override
+    public void run() {
+        StringBuilder batch = new StringBuilder();
+        while(true) {
+            // read these first, so everything queued before them is written in this iteration
+            boolean stopping = closed;
+            long request = flushRequests.get();
+
+            int count = 0;
+            Entry entry;
+            while(count < MAX_BATCH && (entry = poll()) != null) {
+                count++;
+                if(allow(entry))
+                    append(batch, entry, 0);
+            }
+
+            long now = System.nanoTime();
+            if(stopping || request != flushed || now - windowStart >= RATE_WINDOW_NANOS || repeats.size() > MAX_TRACKED_ENTRIES) {
+                appendRepeats(batch);
+                windowStart = now;
+            }
+
+            if(batch.length() > 0) {
+                synchronized(output) {
+                    output.print(batch);
+                    output.flush();
+                }
+                batch.setLength(0);
+            }
+            written = head;
+            flushed = request;
+
+            if(stopping && head == tail.get())
+                return;
+            if(count < MAX_BATCH)
+                LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+        }
+    }
+
+    private boolean offer(Entry entry) {
+        if(closed)
+            return false;
+
+        long position = tail.get();
+        while(true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if(difference == 0) {
+                if(tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, entry);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if(difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private Entry poll() {
+        int index = (int) head & mask;
+        if(sequences.get(index) != head + 1)
+            return null;
+
+        Entry result = slots.get(index);
+        slots.set(index, null);
+        sequences.set(index, head + mask + 1);
+        head++;
+        return result;
+    }
+
+    private boolean allow(Entry entry) {
+        if(maxRepeats <= 0)
+            return true;
+
+        int[] count = repeats.computeIfAbsent(entry, key -> new int[1]);
+        return ++count[0] <= maxRepeats;
+    }
+
+    private void appendRepeats(StringBuilder batch) {
+        for(Map.Entry<Entry, int[]> repeat : repeats.entrySet()) {
+            if(repeat.getValue()[0] > maxRepeats)
+                append(batch, repeat.getKey(), repeat.getValue()[0] - maxRepeats);
+        }
+        repeats.clear();
+    }
+
+    private void append(StringBuilder output, Entry entry, int suppressed) {
+        format.append(output, entry.level, entry.position, entry.message);
+        if(suppressed > 0)
+            output.append(" (repeated ").append(suppressed).append(" more times)");
+        output.append(System.lineSeparator());
+        if(entry.exception != null && suppressed == 0) {
+            StringWriter trace = new StringWriter();
+            entry.exception.printStackTrace(new PrintWriter(trace));
+            output.append(trace);
+        }
+    }
+
+    /**
+     * Formats a single entry, without line separator.
+     */
+    interface Format {
+
+        void append(StringBuilder output, int level, ZenPosition position, String message);
+    }
+
+    private static final class Entry {
+
+        private final int level;
+        private final ZenPosition position;
+        private final String message;
+        private final Throwable exception;
+
+        private Entry(int level, ZenPosition position, String message, Throwable exception) {
+            this.level = level;
+            this.position = position;
+            this.message = message;
+            this.exception = exception;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if(!(other instanceof Entry))
+                return false;
+
+            Entry entry = (Entry) other;
+            return level == entry.level && Objects.equals(message, entry.message) && Objects.equals(String.valueOf(position), String.valueOf(entry.position));
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(level, message, String.valueOf(position));
+        }
+    }
+}
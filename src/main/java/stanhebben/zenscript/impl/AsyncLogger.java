@@ -0,0 +1,86 @@
+package stanhebben.zenscript.impl;
+
+import stanhebben.zenscript.IZenLogger;
+import stanhebben.zenscript.util.ZenPosition;
+
+import java.io.PrintStream;
+
+import static stanhebben.zenscript.impl.AsyncLogWriter.*;
+
+/**
+ * Logger that writes the same lines as GenericLogger, but on a background
+ * thread (see AsyncLogWriter), so scripts that log a lot don't wait for the
+ * output. Stack traces are written to the same output as the messages.
+ * <p>
+ * Modules flush their loggers when they finish compiling and running; call
+ * flush to wait for the output at other times, and close to stop the
+ * background thread.
+ */
+public class AsyncLogger implements IZenLogger, AutoCloseable {
+    
+    private final AsyncLogWriter writer;
+    
+    public AsyncLogger() {
+        this(System.out);
+    }
+    
+    public AsyncLogger(PrintStream output) {
+        this(output, DEFAULT_CAPACITY, DEFAULT_MAX_REPEATS);
+    }
+    
+    /**
+     * Creates an async logger.
+     *
+     * @param output     output to write to
+     * @param capacity   number of messages that can be queued before logging waits for the output
+     * @param maxRepeats number of identical messages written per second, 0 for unlimited
+     */
+    public AsyncLogger(PrintStream output, int capacity, int maxRepeats) {
+        writer = new AsyncLogWriter(output, AsyncLogger::format, capacity, maxRepeats, "ZenScript logger");
+    }
+    
+    @Override
+    public void error(String message) {
+        writer.log(LEVEL_ERROR, null, message, null);
+    }
+    
+    @Override
+    public void error(String message, Throwable e) {
+        writer.log(LEVEL_ERROR, null, message, e);
+    }
+    
+    @Override
+    public void warning(String message) {
+        writer.log(LEVEL_WARNING, null, message, null);
+    }
+    
+    @Override
+    public void info(String message) {
+        writer.log(LEVEL_INFO, null, message, null);
+    }
+    
+    @Override
+    public void flush() {
+        writer.flush();
+    }
+    
+    @Override
+    public void close() {
+        writer.close();
+    }
+    
+    private static void format(StringBuilder output, int level, ZenPosition position, String message) {
+        switch(level) {
+            case LEVEL_ERROR:
+                output.append("[ERROR] ");
+                break;
+            case LEVEL_WARNING:
+                output.append("[WARNING] ");
+                break;
+            default:
+                output.append("[INFO] ");
+                break;
+        }
+        output.append(message);
+    }
+}
@@ -19,6 +19,11 @@ public class GenericCompileEnvironment implements IZenCompileEnvironment {
         return registry.getErrorLogger();
     }
     
+    @Override
+    public IZenLogger getLogger() {
+        return registry.getLogger();
+    }
+    
     @Override
     public IZenSymbol getGlobal(String name) {
         final IZenSymbol symbol = registry.getGlobals().get(name);
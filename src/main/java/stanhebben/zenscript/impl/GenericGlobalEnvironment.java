@@ -16,6 +16,7 @@ public class GenericGlobalEnvironment implements IEnvironmentGlobal {
     private final Map<String, IZenSymbol> symbols;
     private final ClassNameGenerator generator;
     private final IZenRegistry registry;
+    private final BracketConstants brackets = new BracketConstants();
     
     public GenericGlobalEnvironment(Map<String, byte[]> classes, IZenRegistry registry) {
         this.classes = classes;
@@ -44,6 +45,11 @@ public class GenericGlobalEnvironment implements IEnvironmentGlobal {
         return generator.generateWithMiddleName(middleName);
     }
     
+    @Override
+    public BracketConstants getBracketConstants() {
+        return brackets;
+    }
+    
     @Override
     public boolean containsClass(String name) {
         return classes.containsKey(name);
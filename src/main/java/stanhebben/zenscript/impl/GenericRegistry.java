@@ -12,8 +12,11 @@ import stanhebben.zenscript.util.Pair;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.ToIntFunction;
 import java.util.logging.*;
+import java.util.regex.*;
 
 public class GenericRegistry implements IZenRegistry {
     
@@ -27,6 +30,9 @@ public class GenericRegistry implements IZenRegistry {
     private IZenErrorLogger errorLogger;
     private IZenLogger logger = new GenericLogger();
     
+    private final AtomicInteger bracketGeneration = new AtomicInteger();
+    private volatile List<Pair<Pattern, IBracketHandler>> bracketFilters;
+    
     public GenericRegistry(IZenCompileEnvironment compileEnvironment, IZenErrorLogger errorLogger) {
         this.compileEnvironment = compileEnvironment;
         this.errorLogger = errorLogger;
@@ -65,6 +71,7 @@ public class GenericRegistry implements IZenRegistry {
             getLogger().info(handler.getClass().getName() + " is missing a BracketHandler annotation, setting the priority to " + prio);
         }
         bracketHandlers.add(new Pair<>(prio, handler));
+        clearBracketCache();
     }
     
     public void removeBracketHandler(IBracketHandler handler) {
@@ -75,6 +82,7 @@ public class GenericRegistry implements IZenRegistry {
             }
         }
         bracketHandlers.remove(prioPair);
+        clearBracketCache();
     }
     
     public void registerNativeClass(Class<?> cls) {
@@ -102,9 +110,106 @@ public class GenericRegistry implements IZenRegistry {
         }
     }
     
+    /**
+     * Resolves a bracket. Resolved brackets are cached by their tokens in the
+     * module being compiled (see BracketConstants.getResolvedBrackets), so
+     * every distinct bracket is passed to the handlers once per module.
+     * Symbols may keep the environment they were resolved in, which is why
+     * they aren't shared between modules. Handlers that are regex filtered
+     * (see IBracketHandler.isRegexFiltered) are only tried if their regex
+     * matches the bracket. Brackets that can't be resolved aren't cached,
+     * since they may resolve later on.
+     *
+     * @param environment global compilation environment
+     * @param tokens      bracket tokens
+     *
+     * @return the resolved symbol, or null
+     */
     public IZenSymbol resolveBracket(IEnvironmentGlobal environment, List<Token> tokens) {
-        for(Pair<Integer, IBracketHandler> pair : bracketHandlers) {
-            IZenSymbol symbol = pair.getValue().resolve(environment, tokens);
+        Map<String, IZenSymbol> cache = getBracketCache(environment);
+        String key = getBracketKey(tokens);
+        IZenSymbol symbol = cache.get(key);
+        if(symbol == null) {
+            List<IBracketHandler> handlers = getBracketHandlers(tokens);
+            symbol = resolveBracket(environment, tokens, handlers, 0, handlers.size());
+            if(symbol != null)
+                cache.put(key, symbol);
+        }
+        return symbol;
+    }
+    
+    /**
+     * Resolves a batch of brackets into the bracket cache, usually all
+     * brackets of a file (see ZenTokener.findBrackets) before it is parsed.
+     * <p>
+     * Brackets are resolved on the given executor by the handlers that
+     * declare themselves thread safe. Brackets that aren't resolved by
+     * those, and that have handlers left that aren't thread safe, are passed
+     * to the remaining handlers on the calling thread afterwards. Handlers
+     * are tried in order of priority in both cases.
+     *
+     * @param environment global compilation environment
+     * @param brackets    bracket tokens, duplicates are resolved once
+     * @param executor    executor to resolve on
+     */
+    public void resolveBrackets(IEnvironmentGlobal environment, Collection<List<Token>> brackets, Executor executor) {
+        Map<String, IZenSymbol> bracketCache = getBracketCache(environment);
+        Map<String, List<Token>> distinct = new LinkedHashMap<>();
+        for(List<Token> tokens : brackets) {
+            String key = getBracketKey(tokens);
+            if(!bracketCache.containsKey(key))
+                distinct.putIfAbsent(key, tokens);
+        }
+        
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for(Map.Entry<String, List<Token>> entry : distinct.entrySet()) {
+            List<IBracketHandler> handlers = getBracketHandlers(entry.getValue());
+            int threadSafe = getThreadSafeCount(handlers);
+            if(threadSafe > 0) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    IZenSymbol symbol = resolveBracket(environment, entry.getValue(), handlers, 0, threadSafe);
+                    if(symbol != null)
+                        bracketCache.put(entry.getKey(), symbol);
+                }, executor));
+            }
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[tasks.size()])).join();
+        
+        for(Map.Entry<String, List<Token>> entry : distinct.entrySet()) {
+            if(bracketCache.containsKey(entry.getKey()))
+                continue;
+            
+            List<IBracketHandler> handlers = getBracketHandlers(entry.getValue());
+            IZenSymbol symbol = resolveBracket(environment, entry.getValue(), handlers, getThreadSafeCount(handlers), handlers.size());
+            if(symbol != null)
+                bracketCache.put(entry.getKey(), symbol);
+        }
+    }
+    
+    /**
+     * Clears the bracket cache. Must be called when bracket handlers start
+     * resolving brackets to different symbols, unless the handlers are
+     * registered or removed in the same go.
+     */
+    public void clearBracketCache() {
+        bracketGeneration.incrementAndGet();
+        bracketFilters = null;
+    }
+    
+    /**
+     * Gets the bracket cache of the module the environment belongs to.
+     * Environments without bracket constants don't cache. Keys include the
+     * cache generation, so clearing the cache also drops brackets cached in
+     * modules that are being compiled.
+     */
+    private Map<String, IZenSymbol> getBracketCache(IEnvironmentGlobal environment) {
+        BracketConstants constants = environment.getBracketConstants();
+        return constants == null ? new ConcurrentHashMap<>() : constants.getResolvedBrackets();
+    }
+    
+    private static IZenSymbol resolveBracket(IEnvironmentGlobal environment, List<Token> tokens, List<IBracketHandler> handlers, int from, int to) {
+        for(int i = from; i < to; i++) {
+            IZenSymbol symbol = handlers.get(i).resolve(environment, tokens);
             if(symbol != null) {
                 return symbol;
             }
@@ -113,6 +218,61 @@ public class GenericRegistry implements IZenRegistry {
         return null;
     }
     
+    private static int getThreadSafeCount(List<IBracketHandler> handlers) {
+        int result = 0;
+        while(result < handlers.size() && handlers.get(result).isThreadSafe())
+            result++;
+        return result;
+    }
+    
+    private List<IBracketHandler> getBracketHandlers(List<Token> tokens) {
+        List<Pair<Pattern, IBracketHandler>> filters = bracketFilters;
+        if(filters == null || filters.size() != bracketHandlers.size()) {
+            filters = new ArrayList<>();
+            for(Pair<Integer, IBracketHandler> pair : bracketHandlers) {
+                filters.add(new Pair<>(compileBracketFilter(pair.getValue()), pair.getValue()));
+            }
+            bracketFilters = filters;
+        }
+        
+        StringBuilder text = new StringBuilder();
+        for(Token token : tokens) {
+            text.append(token.getValue());
+        }
+        
+        List<IBracketHandler> result = new ArrayList<>(filters.size());
+        for(Pair<Pattern, IBracketHandler> filter : filters) {
+            if(filter.getKey() == null || filter.getKey().matcher(text).matches())
+                result.add(filter.getValue());
+        }
+        return result;
+    }
+    
+    private Pattern compileBracketFilter(IBracketHandler handler) {
+        if(!handler.isRegexFiltered())
+            return null;
+        
+        String regex = handler.getRegexMatchingString();
+        if(regex == null || regex.equals(".*"))
+            return null;
+        
+        try {
+            return Pattern.compile(regex);
+        } catch(PatternSyntaxException ex) {
+            getLogger().warning(handler.getClass().getName() + " has an invalid bracket regex, trying it for every bracket: " + ex.getMessage());
+            return null;
+        }
+    }
+    
+    private String getBracketKey(List<Token> tokens) {
+        StringBuilder result = new StringBuilder();
+        result.append(bracketGeneration.get());
+        for(Token token : tokens) {
+            result.append(' ').append(token.getValue());
+        }
+        return result.toString();
+    }
+    
     public IEnvironmentGlobal makeGlobalEnvironment(Map<String, byte[]> classes) {
         return new GenericGlobalEnvironment(classes, this);
     }
@@ -151,6 +311,7 @@ public class GenericRegistry implements IZenRegistry {
     
     public void setBracketHandlers(Set<Pair<Integer, IBracketHandler>> bracketHandlers) {
         this.bracketHandlers = bracketHandlers;
+        clearBracketCache();
     }
     
     public void setTypes(TypeRegistry types) {
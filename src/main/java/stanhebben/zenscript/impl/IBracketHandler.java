@@ -35,6 +35,25 @@ public interface IBracketHandler {
     
     default String getRegexMatchingString(){ return ".*"; }
     
+    /**
+     * Indicates whether this handler is only tried for brackets matching
+     * getRegexMatchingString. The regex is matched against the bracket
+     * tokens joined without separators. Off by default, as the regex is only
+     * informational for most handlers.
+     *
+     * @return true if brackets not matching the regex may skip this handler
+     */
+    default boolean isRegexFiltered() { return false; }
+    
+    /**
+     * Indicates whether resolve may be called from multiple threads at once,
+     * which allows brackets to be resolved in parallel by
+     * GenericRegistry.resolveBrackets.
+     *
+     * @return true if this handler is thread safe
+     */
+    default boolean isThreadSafe() { return false; }
+    
     default Class<?> getReturnedClass() { return null; }
     
 }
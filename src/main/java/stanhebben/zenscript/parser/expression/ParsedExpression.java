@@ -53,39 +53,54 @@ public abstract class ParsedExpression {
         switch(parser.peek().getType()) {
             case T_ASSIGN:
                 parser.next();
-                return new ParsedExpressionAssign(position, left, readAssignExpression(parser, environment));
+                return new ParsedExpressionAssign(position, markAssigned(parser, left), readAssignExpression(parser, environment));
             case T_PLUSASSIGN:
                 parser.next();
-                return new ParsedExpressionOpAssign(position, left, readAssignExpression(parser, environment), OperatorType.ADD);
+                return new ParsedExpressionOpAssign(position, markAssigned(parser, left), readAssignExpression(parser, environment), OperatorType.ADD);
             case T_MINUSASSIGN:
                 parser.next();
-                return new ParsedExpressionOpAssign(position, left, readAssignExpression(parser, environment), OperatorType.SUB);
+                return new ParsedExpressionOpAssign(position, markAssigned(parser, left), readAssignExpression(parser, environment), OperatorType.SUB);
             case T_TILDEASSIGN:
                 parser.next();
-                return new ParsedExpressionOpAssign(position, left, readAssignExpression(parser, environment), OperatorType.CAT);
+                return new ParsedExpressionOpAssign(position, markAssigned(parser, left), readAssignExpression(parser, environment), OperatorType.CAT);
             case T_MULASSIGN:
                 parser.next();
-                return new ParsedExpressionOpAssign(position, left, readAssignExpression(parser, environment), OperatorType.MUL);
+                return new ParsedExpressionOpAssign(position, markAssigned(parser, left), readAssignExpression(parser, environment), OperatorType.MUL);
             case T_DIVASSIGN:
                 parser.next();
-                return new ParsedExpressionOpAssign(position, left, readAssignExpression(parser, environment), OperatorType.DIV);
+                return new ParsedExpressionOpAssign(position, markAssigned(parser, left), readAssignExpression(parser, environment), OperatorType.DIV);
             case T_MODASSIGN:
                 parser.next();
-                return new ParsedExpressionOpAssign(position, left, readAssignExpression(parser, environment), OperatorType.MOD);
+                return new ParsedExpressionOpAssign(position, markAssigned(parser, left), readAssignExpression(parser, environment), OperatorType.MOD);
             case T_ORASSIGN:
                 parser.next();
-                return new ParsedExpressionOpAssign(position, left, readAssignExpression(parser, environment), OperatorType.OR);
+                return new ParsedExpressionOpAssign(position, markAssigned(parser, left), readAssignExpression(parser, environment), OperatorType.OR);
             case T_ANDASSIGN:
                 parser.next();
-                return new ParsedExpressionOpAssign(position, left, readAssignExpression(parser, environment), OperatorType.AND);
+                return new ParsedExpressionOpAssign(position, markAssigned(parser, left), readAssignExpression(parser, environment), OperatorType.AND);
             case T_XORASSIGN:
                 parser.next();
-                return new ParsedExpressionOpAssign(position, left, readAssignExpression(parser, environment), OperatorType.XOR);
+                return new ParsedExpressionOpAssign(position, markAssigned(parser, left), readAssignExpression(parser, environment), OperatorType.XOR);
         }
         
         return left;
     }
     
+    /**
+     * Records the name of an assignment target in the parsed file, so the
+     * compiler knows which globals can be changed after initialization.
+     */
+    private static ParsedExpression markAssigned(ZenTokener parser, ParsedExpression target) {
+        if(parser.getFile() != null) {
+            if(target instanceof ParsedExpressionVariable) {
+                parser.getFile().addAssignedName(((ParsedExpressionVariable) target).getName());
+            } else if(target instanceof ParsedExpressionMember) {
+                parser.getFile().addAssignedName(((ParsedExpressionMember) target).getMember());
+            }
+        }
+        return target;
+    }
+    
     private static ParsedExpression readConditionalExpression(ZenPosition position, ZenTokener parser, IEnvironmentGlobal environment) {
         ParsedExpression left = readOrOrExpression(position, parser, environment);
         
@@ -373,25 +388,23 @@ public abstract class ParsedExpression {
                     next = parser.next();
                 }
                 IZenSymbol resolved = parser.getEnvironment().getBracketed(environment, tokens);
+                StringBuilder builder = new StringBuilder();
+                for(Token token : tokens) {
+                    if(builder.length() > 0)
+                        builder.append(' ');
+                    builder.append(token.getValue());
+                }
                 if(resolved == null) {
-                    StringBuilder builder = new StringBuilder();
-                    builder.append('<');
-                    Token last = null;
-                    for(Token token : tokens) {
-                        if(last != null)
-                            builder.append(' ');
-                        builder.append(token.getValue());
-                        last = token;
-                    }
-                    builder.append('>');
                     if(!parser.ignoreBracketErrors) {
-                        parser.getEnvironment().getErrorLogger().error(start.getPosition(), "Could not resolve " + builder.toString());
+                        parser.getEnvironment().getErrorLogger().error(start.getPosition(), "Could not resolve <" + builder + ">");
                     } else {
-                        parser.getEnvironment().getErrorLogger().info(start.getPosition(), "Could not resolve " + builder.toString());
+                        parser.getEnvironment().getErrorLogger().info(start.getPosition(), "Could not resolve <" + builder + ">");
                     }
                     return new ParsedExpressionInvalid(start.getPosition());
+                } else if(resolved.isStable()) {
+                    return new ParsedExpressionBracket(start.getPosition(), builder.toString(), resolved);
                 } else {
-                    return new ParsedExpressionValue(start.getPosition(), parser.getEnvironment().getBracketed(environment, tokens).instance(start.getPosition()));
+                    return new ParsedExpressionValue(start.getPosition(), resolved.instance(start.getPosition()));
                 }
             }
             case T_SQBROPEN: {
@@ -416,6 +429,8 @@ public abstract class ParsedExpression {
                 if(parser.optional(T_ACLOSE) == null) {
                     while(parser.optional(T_ACLOSE) == null) {
                         keys.add(readAssignExpression(parser, environment));
+                        if(keys.size() == 1 && !parser.isNext(T_COLON))
+                            return readSetExpression(position, keys.get(0), parser, environment);
                         parser.required(T_COLON, ": expected");
                         values.add(readAssignExpression(parser, environment));
                         
@@ -447,12 +462,46 @@ public abstract class ParsedExpression {
         }
     }
     
+    /**
+     * Reads the rest of a set literal, whose opening brace and first value
+     * have been read already.
+     */
+    private static ParsedExpression readSetExpression(ZenPosition position, ParsedExpression first, ZenTokener parser, IEnvironmentGlobal environment) {
+        List<ParsedExpression> contents = new ArrayList<>();
+        contents.add(first);
+        while(parser.optional(T_COMMA) != null && !parser.isNext(T_ACLOSE)) {
+            contents.add(readAssignExpression(parser, environment));
+        }
+        parser.required(T_ACLOSE, "} or , expected");
+        return new ParsedExpressionSet(position, contents);
+    }
+    
     public ZenPosition getPosition() {
         return position;
     }
     
     public abstract IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType);
     
+    /**
+     * Returns this expression and all expressions nested in it. The bodies of
+     * function expressions are not included.
+     *
+     * @return this expression and its subexpressions
+     */
+    public List<ParsedExpression> getSubExpressions() {
+        return Collections.singletonList(this);
+    }
+    
+    protected List<ParsedExpression> getSubExpressions(Collection<ParsedExpression> children) {
+        List<ParsedExpression> out = new ArrayList<>();
+        out.add(this);
+        for(ParsedExpression child : children) {
+            if(child != null)
+                out.addAll(child.getSubExpressions());
+        }
+        return out;
+    }
+    
     public Expression compileKey(IEnvironmentMethod environment, ZenType predictedType) {
         return compile(environment, predictedType).eval(environment);
     }
@@ -6,6 +6,8 @@ import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.util.*;
+
 /**
  * @author Stanneke
  */
@@ -21,6 +23,11 @@ public class ParsedExpressionAndAnd extends ParsedExpression {
         this.right = right;
     }
 
+    @Override
+    public List<ParsedExpression> getSubExpressions() {
+        return getSubExpressions(Arrays.asList(left, right));
+    }
+
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
         return new ExpressionAndAnd(getPosition(), left.compile(environment, predictedType).eval(environment), right.compile(environment, predictedType).eval(environment));
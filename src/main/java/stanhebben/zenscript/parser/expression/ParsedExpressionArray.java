@@ -7,7 +7,7 @@ import stanhebben.zenscript.type.*;
 import stanhebben.zenscript.type.casting.ICastingRule;
 import stanhebben.zenscript.util.ZenPosition;
 
-import java.util.List;
+import java.util.*;
 
 /**
  * @author Stanneke
@@ -22,8 +22,23 @@ public class ParsedExpressionArray extends ParsedExpression {
         this.contents = contents;
     }
 
+    @Override
+    public List<ParsedExpression> getSubExpressions() {
+        return getSubExpressions(contents);
+    }
+
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
+        if(predictedType instanceof ZenTypeSet) {
+            // [a, b, c] as set<type> is a set literal too
+            ZenTypeSet setType = (ZenTypeSet) predictedType;
+            Expression[] cContents = new Expression[contents.size()];
+            for(int i = 0; i < contents.size(); i++) {
+                cContents[i] = contents.get(i).compile(environment, setType.getElementType()).eval(environment);
+            }
+            return new ExpressionSet(getPosition(), setType, cContents);
+        }
+
         ZenType predictedBaseType = null;
         ZenTypeArrayBasic arrayType = ZenType.ANYARRAY;
         ICastingRule castingRule = null;
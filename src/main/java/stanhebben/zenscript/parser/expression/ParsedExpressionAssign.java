@@ -5,6 +5,8 @@ import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.util.*;
+
 /**
  * @author Stanneke
  */
@@ -20,6 +22,19 @@ public class ParsedExpressionAssign extends ParsedExpression {
         this.right = right;
     }
     
+    public ParsedExpression getLeft() {
+        return left;
+    }
+    
+    public ParsedExpression getRight() {
+        return right;
+    }
+    
+    @Override
+    public List<ParsedExpression> getSubExpressions() {
+        return getSubExpressions(Arrays.asList(left, right));
+    }
+    
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
         IPartialExpression cLeft = left.compile(environment, predictedType);
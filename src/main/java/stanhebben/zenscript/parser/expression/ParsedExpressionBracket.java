@@ -0,0 +1,33 @@
+package stanhebben.zenscript.parser.expression;
+
+import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.expression.partial.IPartialExpression;
+import stanhebben.zenscript.symbols.IZenSymbol;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.util.ZenPosition;
+
+/**
+ * A resolved bracket with a stable symbol, which is compiled into a constant
+ * of the module when possible.
+ */
+public class ParsedExpressionBracket extends ParsedExpression {
+    
+    private final String key;
+    private final IZenSymbol symbol;
+    
+    public ParsedExpressionBracket(ZenPosition position, String key, IZenSymbol symbol) {
+        super(position);
+        
+        this.key = key;
+        this.symbol = symbol;
+    }
+    
+    @Override
+    public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
+        BracketConstants constants = environment.getBracketConstants();
+        if(constants == null)
+            return symbol.instance(getPosition());
+        
+        return constants.get(getPosition(), key, symbol.instance(getPosition()).eval(environment));
+    }
+}
@@ -6,7 +6,7 @@ import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
 
-import java.util.List;
+import java.util.*;
 
 /**
  * @author Stanneke
@@ -23,6 +23,17 @@ public class ParsedExpressionCall extends ParsedExpression {
         this.arguments = arguments;
     }
 
+    public ParsedExpression getReceiver() {
+        return receiver;
+    }
+
+    @Override
+    public List<ParsedExpression> getSubExpressions() {
+        List<ParsedExpression> children = new ArrayList<>(arguments);
+        children.add(receiver);
+        return getSubExpressions(children);
+    }
+
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
         IPartialExpression cReceiver = receiver.compile(environment, predictedType);
@@ -5,6 +5,8 @@ import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.util.*;
+
 /**
  * @author Stanneke
  */
@@ -20,6 +22,15 @@ public class ParsedExpressionCast extends ParsedExpression {
         this.type = type;
     }
 
+    public ZenType getType() {
+        return type;
+    }
+
+    @Override
+    public List<ParsedExpression> getSubExpressions() {
+        return getSubExpressions(Collections.singletonList(value));
+    }
+
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
         return value.compile(environment, type).eval(environment).cast(getPosition(), environment, type);
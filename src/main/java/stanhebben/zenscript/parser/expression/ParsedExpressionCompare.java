@@ -7,6 +7,8 @@ import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.util.*;
+
 /**
  * @author Stanneke
  */
@@ -24,6 +26,23 @@ public class ParsedExpressionCompare extends ParsedExpression {
         this.type = type;
     }
 
+    public ParsedExpression getLeft() {
+        return left;
+    }
+
+    public ParsedExpression getRight() {
+        return right;
+    }
+
+    public CompareType getType() {
+        return type;
+    }
+
+    @Override
+    public List<ParsedExpression> getSubExpressions() {
+        return getSubExpressions(Arrays.asList(left, right));
+    }
+
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
         Expression cLeft = left.compile(environment, null).eval(environment);
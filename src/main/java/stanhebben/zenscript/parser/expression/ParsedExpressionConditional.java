@@ -6,6 +6,8 @@ import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.util.*;
+
 /**
  * @author Stanneke
  */
@@ -23,6 +25,11 @@ public class ParsedExpressionConditional extends ParsedExpression {
         this.ifElse = ifElse;
     }
     
+    @Override
+    public List<ParsedExpression> getSubExpressions() {
+        return getSubExpressions(Arrays.asList(condition, ifThen, ifElse));
+    }
+    
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
         return new ExpressionConditional(getPosition(), condition.compile(environment, ZenType.BOOL).eval(environment), ifThen.compile(environment, predictedType).eval(environment), ifElse.compile(environment, predictedType).eval(environment));
@@ -28,6 +28,10 @@ public class ParsedExpressionFunction extends ParsedExpression {
         this.statements = statements;
     }
     
+    public List<Statement> getStatements() {
+        return statements;
+    }
+    
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
         if(predictedType != null && predictedType instanceof ZenTypeNative) {
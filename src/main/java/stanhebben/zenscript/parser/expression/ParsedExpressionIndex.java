@@ -7,6 +7,8 @@ import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.util.*;
+
 /**
  * @author Stanneke
  */
@@ -22,6 +24,15 @@ public class ParsedExpressionIndex extends ParsedExpression {
         this.index = index;
     }
 
+    public ParsedExpression getValue() {
+        return value;
+    }
+
+    @Override
+    public List<ParsedExpression> getSubExpressions() {
+        return getSubExpressions(Arrays.asList(value, index));
+    }
+
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
         // TODO: improve type prediction for this
@@ -7,6 +7,8 @@ import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.util.*;
+
 /**
  * @author Stanneke
  */
@@ -24,6 +26,15 @@ public class ParsedExpressionIndexSet extends ParsedExpression {
         this.setValue = setValue;
     }
     
+    public ParsedExpression getValue() {
+        return value;
+    }
+    
+    @Override
+    public List<ParsedExpression> getSubExpressions() {
+        return getSubExpressions(Arrays.asList(value, index, setValue));
+    }
+    
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
         // TODO: improve prediction in this expression
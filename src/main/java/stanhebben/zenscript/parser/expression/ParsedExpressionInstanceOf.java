@@ -6,6 +6,8 @@ import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.util.*;
+
 public class ParsedExpressionInstanceOf extends ParsedExpression {
     
     private final ParsedExpression base;
@@ -17,6 +19,11 @@ public class ParsedExpressionInstanceOf extends ParsedExpression {
         this.type = type;
     }
     
+    @Override
+    public List<ParsedExpression> getSubExpressions() {
+        return getSubExpressions(Collections.singletonList(base));
+    }
+    
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
         IPartialExpression ex = base.compile(environment, null);
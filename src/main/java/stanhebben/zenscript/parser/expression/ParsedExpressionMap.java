@@ -7,7 +7,7 @@ import stanhebben.zenscript.type.*;
 import stanhebben.zenscript.type.casting.ICastingRule;
 import stanhebben.zenscript.util.ZenPosition;
 
-import java.util.List;
+import java.util.*;
 
 /**
  * @author Stanneke
@@ -24,6 +24,13 @@ public class ParsedExpressionMap extends ParsedExpression {
         this.values = values;
     }
 
+    @Override
+    public List<ParsedExpression> getSubExpressions() {
+        List<ParsedExpression> children = new ArrayList<>(keys);
+        children.addAll(values);
+        return getSubExpressions(children);
+    }
+
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
         ZenType predictedKeyType = null;
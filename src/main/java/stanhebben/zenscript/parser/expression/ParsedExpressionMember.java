@@ -5,6 +5,8 @@ import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.util.*;
+
 /**
  * @author Stanneke
  */
@@ -20,6 +22,19 @@ public class ParsedExpressionMember extends ParsedExpression {
         this.member = member;
     }
 
+    public String getMember() {
+        return member;
+    }
+    
+    public ParsedExpression getValue() {
+        return value;
+    }
+    
+    @Override
+    public List<ParsedExpression> getSubExpressions() {
+        return getSubExpressions(Collections.singletonList(value));
+    }
+    
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
         return value.compile(environment, null).getMember(getPosition(), environment, member);
@@ -7,6 +7,8 @@ import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.util.*;
+
 /**
  * @author Stanneke
  */
@@ -24,6 +26,23 @@ public class ParsedExpressionOpAssign extends ParsedExpression {
         this.operator = operator;
     }
     
+    public ParsedExpression getLeft() {
+        return left;
+    }
+    
+    public OperatorType getOperator() {
+        return operator;
+    }
+    
+    public ParsedExpression getRight() {
+        return right;
+    }
+    
+    @Override
+    public List<ParsedExpression> getSubExpressions() {
+        return getSubExpressions(Arrays.asList(left, right));
+    }
+    
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
         // TODO: validate if the prediction rules are sound
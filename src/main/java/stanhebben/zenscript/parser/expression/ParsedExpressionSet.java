@@ -0,0 +1,67 @@
+package stanhebben.zenscript.parser.expression;
+
+import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.expression.*;
+import stanhebben.zenscript.expression.partial.IPartialExpression;
+import stanhebben.zenscript.type.*;
+import stanhebben.zenscript.util.ZenPosition;
+
+import java.util.*;
+
+/**
+ * Set literal, written as {a, b, c}. Without a predicted set type, the
+ * element type is the type of the values, or the widest number type if the
+ * values are numbers of different types. Other mixes of types are an error.
+ */
+public class ParsedExpressionSet extends ParsedExpression {
+
+    private final List<ParsedExpression> contents;
+
+    public ParsedExpressionSet(ZenPosition position, List<ParsedExpression> contents) {
+        super(position);
+
+        this.contents = contents;
+    }
+
+    @Override
+    public List<ParsedExpression> getSubExpressions() {
+        return getSubExpressions(contents);
+    }
+
+    @Override
+    public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
+        ZenType predictedElementType = null;
+        if(predictedType instanceof ZenTypeSet)
+            predictedElementType = ((ZenTypeSet) predictedType).getElementType();
+
+        Expression[] cContents = new Expression[contents.size()];
+        for(int i = 0; i < contents.size(); i++) {
+            cContents[i] = contents.get(i).compile(environment, predictedElementType).eval(environment);
+        }
+
+        ZenTypeSet setType;
+        if(predictedType instanceof ZenTypeSet)
+            setType = (ZenTypeSet) predictedType;
+        else
+            setType = new ZenTypeSet(getElementType(environment, cContents));
+        return new ExpressionSet(getPosition(), setType, cContents);
+    }
+
+    private static ZenType getElementType(IEnvironmentMethod environment, Expression[] values) {
+        ZenType result = values[0].getType();
+        for(Expression value : values) {
+            ZenType type = value.getType();
+            if(type.getName().equals(result.getName()))
+                continue;
+
+            if(type.getNumberType() != 0 && result.getNumberType() != 0) {
+                if(type.getNumberType() > result.getNumberType())
+                    result = type;
+            } else {
+                environment.error(value.getPosition(), "set values must have the same type: found " + result.getName() + " and " + type.getName());
+                return result;
+            }
+        }
+        return result;
+    }
+}
@@ -7,6 +7,8 @@ import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.util.*;
+
 /**
  * @author Stanneke
  */
@@ -22,6 +24,19 @@ public class ParsedExpressionUnary extends ParsedExpression {
         this.operator = operator;
     }
 
+    public ParsedExpression getValue() {
+        return value;
+    }
+
+    public OperatorType getOperator() {
+        return operator;
+    }
+
+    @Override
+    public List<ParsedExpression> getSubExpressions() {
+        return getSubExpressions(Collections.singletonList(value));
+    }
+
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
         // TODO: improve type predictions?
@@ -21,6 +21,10 @@ public class ParsedExpressionValue extends ParsedExpression {
         this.value = value;
     }
 
+    public IPartialExpression getValue() {
+        return value;
+    }
+
     @Override
     public IPartialExpression compile(IEnvironmentMethod environment, ZenType predictedType) {
         return value;
@@ -0,0 +1,334 @@
+package stanhebben.zenscript.snapshot;
+
+import stanhebben.zenscript.*;
+import stanhebben.zenscript.compiler.TypeRegistry;
+import stanhebben.zenscript.symbols.*;
+import stanhebben.zenscript.type.*;
+import stanhebben.zenscript.util.StringUtil;
+
+import java.io.*;
+import java.security.*;
+import java.util.*;
+
+/**
+ * Snapshots of the native types and expansions of a registry. Registering
+ * natives and expansions reflects over every method and field of every class
+ * involved; restoring a snapshot only loads the classes by name and restores
+ * the members from their descriptors.
+ * <p>
+ * A snapshot starts with a hash of every class it refers to. If any of these
+ * classes changed, the snapshot is stale and restore returns false without
+ * touching the registry, in which case the natives and expansions should be
+ * registered as usual (and a new snapshot written).
+ * <p>
+ * Globals and bracket handlers are not part of a snapshot, as they are
+ * arbitrary objects; they still have to be registered on every start.
+ */
+public final class RegistrySnapshot {
+
+    private static final int MAGIC = 0x5A535253; // ZSRS
+    private static final int VERSION = 1;
+
+    private static final byte KIND_BUILTIN = 0;
+    private static final byte KIND_NATIVE = 1;
+    private static final byte KIND_ARRAY = 2;
+
+    private RegistrySnapshot() {
+    }
+
+    /**
+     * Writes a snapshot of the given registry, hashing classes as loaded by
+     * the class loader of the registry.
+     *
+     * @param registry registry to snapshot
+     * @param output   output to write to
+     * @throws IOException if the output throws
+     */
+    public static void write(IZenRegistry registry, OutputStream output) throws IOException {
+        write(registry, output, registry.getClass().getClassLoader());
+    }
+
+    /**
+     * Writes a snapshot of the given registry.
+     *
+     * @param registry registry to snapshot
+     * @param output   output to write to
+     * @param loader   class loader to hash classes with
+     * @throws IOException if the output throws
+     */
+    public static void write(IZenRegistry registry, OutputStream output, ClassLoader loader) throws IOException {
+        Map<Class<?>, ZenType> typeMap = getTypeMap(registry.getTypes());
+        Set<Class<?>> builtins = getTypeMap(new TypeRegistry()).keySet();
+
+        // builtins first, then natives and then arrays, so array base types are defined before the array
+        List<Map.Entry<Class<?>, ZenType>> types = new ArrayList<>();
+        List<ZenTypeNative> natives = new ArrayList<>();
+        Set<ZenType> inTypeMap = Collections.newSetFromMap(new IdentityHashMap<>());
+        for(Map.Entry<Class<?>, ZenType> entry : typeMap.entrySet()) {
+            inTypeMap.add(entry.getValue());
+            if(builtins.contains(entry.getKey())) {
+                types.add(entry);
+            } else if(entry.getValue() instanceof ZenTypeNative) {
+                natives.add((ZenTypeNative) entry.getValue());
+            } else if(!(entry.getValue() instanceof ZenTypeArrayBasic)) {
+                throw new IllegalArgumentException("Type can't be written to a snapshot: " + entry.getValue());
+            }
+        }
+        Map<String, ZenTypeNative> symbols = new TreeMap<>();
+        collectSymbols(registry.getRoot(), null, symbols);
+        for(ZenTypeNative type : symbols.values()) {
+            if(!inTypeMap.contains(type)) {
+                inTypeMap.add(type);
+                natives.add(type);
+            }
+        }
+        List<Map.Entry<Class<?>, ZenType>> arrays = new ArrayList<>();
+        for(Map.Entry<Class<?>, ZenType> entry : typeMap.entrySet()) {
+            if(!builtins.contains(entry.getKey()) && entry.getValue() instanceof ZenTypeArrayBasic)
+                arrays.add(entry);
+        }
+        arrays.sort(Comparator.comparingInt(entry -> getDimension(entry.getValue())));
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        SnapshotOutput snapshot = new SnapshotOutput(body);
+        snapshot.writeInt(types.size() + natives.size() + arrays.size());
+        for(Map.Entry<Class<?>, ZenType> entry : types) {
+            snapshot.writeByte(KIND_BUILTIN);
+            snapshot.writeString(entry.getKey().getName());
+            snapshot.addType(entry.getValue());
+        }
+        for(ZenTypeNative type : natives) {
+            snapshot.writeByte(KIND_NATIVE);
+            snapshot.writeClass(type.getNativeClass());
+            snapshot.writeBoolean(typeMap.get(type.getNativeClass()) == type);
+            snapshot.addType(type);
+        }
+        for(Map.Entry<Class<?>, ZenType> entry : arrays) {
+            snapshot.writeByte(KIND_ARRAY);
+            snapshot.writeString(entry.getKey().getName());
+            snapshot.writeType(((ZenTypeArrayBasic) entry.getValue()).getBaseType());
+            snapshot.addType(entry.getValue());
+        }
+
+        for(ZenTypeNative type : natives) {
+            type.writeSnapshot(snapshot);
+        }
+
+        snapshot.writeInt(symbols.size());
+        for(Map.Entry<String, ZenTypeNative> entry : symbols.entrySet()) {
+            snapshot.writeString(entry.getKey());
+            snapshot.writeType(entry.getValue());
+        }
+
+        snapshot.writeInt(registry.getExpansions().size());
+        for(Map.Entry<String, TypeExpansion> entry : registry.getExpansions().entrySet()) {
+            snapshot.writeString(entry.getKey());
+            entry.getValue().writeSnapshot(snapshot);
+        }
+
+        DataOutputStream header = new DataOutputStream(output);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        header.writeInt(snapshot.getClasses().size());
+        for(String name : snapshot.getClasses()) {
+            byte[] hash = hash(loader, name);
+            header.writeUTF(name);
+            header.writeInt(hash.length);
+            header.write(hash);
+        }
+        body.writeTo(header);
+        header.flush();
+    }
+
+    /**
+     * Restores a snapshot into the given registry, loading classes with the
+     * class loader of the registry.
+     *
+     * @param registry registry to restore into
+     * @param input    input to read from
+     * @return true if the snapshot was restored, false if it is stale
+     * @throws IOException if the input throws or isn't a snapshot
+     */
+    public static boolean restore(IZenRegistry registry, InputStream input) throws IOException {
+        return restore(registry, input, registry.getClass().getClassLoader());
+    }
+
+    /**
+     * Restores a snapshot into the given registry. Natives, symbols and
+     * expansions that are already present in the registry are kept.
+     *
+     * @param registry registry to restore into
+     * @param input    input to read from
+     * @param loader   class loader to load and hash classes with
+     * @return true if the snapshot was restored, false if it is stale
+     * @throws IOException if the input throws or isn't a snapshot
+     */
+    public static boolean restore(IZenRegistry registry, InputStream input, ClassLoader loader) throws IOException {
+        DataInputStream header = new DataInputStream(input);
+        if(header.readInt() != MAGIC)
+            throw new IOException("Not a registry snapshot");
+        if(header.readInt() != VERSION)
+            return false;
+
+        for(int i = header.readInt(); i > 0; i--) {
+            String name = header.readUTF();
+            byte[] hash = new byte[header.readInt()];
+            header.readFully(hash);
+            if(!Arrays.equals(hash, hash(loader, name)))
+                return false;
+        }
+
+        // read everything before changing the registry, so a broken snapshot leaves it untouched
+        Map<Class<?>, ZenType> typeMap = getTypeMap(registry.getTypes());
+        Map<String, ZenType> builtins = new HashMap<>();
+        for(Map.Entry<Class<?>, ZenType> entry : typeMap.entrySet()) {
+            builtins.put(entry.getKey().getName(), entry.getValue());
+        }
+
+        SnapshotInput snapshot = new SnapshotInput(header, loader);
+        Map<Class<?>, ZenType> newTypes = new LinkedHashMap<>();
+        List<ZenTypeNative> natives = new ArrayList<>();
+        for(int i = snapshot.readInt(); i > 0; i--) {
+            byte kind = snapshot.readByte();
+            switch(kind) {
+                case KIND_BUILTIN: {
+                    String name = snapshot.readString();
+                    if(!builtins.containsKey(name))
+                        throw new IOException("Unknown builtin type " + name);
+                    snapshot.addType(builtins.get(name));
+                    break;
+                }
+                case KIND_NATIVE: {
+                    Class<?> cls = snapshot.readClass();
+                    boolean inTypeMap = snapshot.readBoolean();
+                    ZenTypeNative type = new ZenTypeNative(cls);
+                    natives.add(type);
+                    if(inTypeMap && typeMap.containsKey(cls)) {
+                        // keep the registered type; its snapshot is read into the unused one
+                        snapshot.addType(typeMap.get(cls));
+                    } else {
+                        if(inTypeMap)
+                            newTypes.put(cls, type);
+                        snapshot.addType(type);
+                    }
+                    break;
+                }
+                case KIND_ARRAY: {
+                    Class<?> cls = loadClass(snapshot.readString(), loader);
+                    ZenType base = snapshot.readType();
+                    if(typeMap.containsKey(cls)) {
+                        snapshot.addType(typeMap.get(cls));
+                    } else {
+                        ZenType type = new ZenTypeArrayBasic(base);
+                        newTypes.put(cls, type);
+                        snapshot.addType(type);
+                    }
+                    break;
+                }
+                default:
+                    throw new IOException("Invalid snapshot type kind " + kind);
+            }
+        }
+
+        for(ZenTypeNative type : natives) {
+            type.readSnapshot(snapshot);
+        }
+
+        Map<String, ZenType> symbols = new LinkedHashMap<>();
+        for(int i = snapshot.readInt(); i > 0; i--) {
+            String name = snapshot.readString();
+            symbols.put(name, snapshot.readType());
+        }
+
+        Map<String, TypeExpansion> expansions = new LinkedHashMap<>();
+        for(int i = snapshot.readInt(); i > 0; i--) {
+            String type = snapshot.readString();
+            TypeExpansion expansion = new TypeExpansion(type);
+            expansion.readSnapshot(snapshot);
+            expansions.put(type, expansion);
+        }
+
+        for(Map.Entry<Class<?>, ZenType> entry : newTypes.entrySet()) {
+            registry.getTypes().getTypeMap().putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        for(Map.Entry<String, ZenType> entry : symbols.entrySet()) {
+            if(!containsSymbol(registry.getRoot(), entry.getKey()))
+                registry.getRoot().put(entry.getKey(), new SymbolType(entry.getValue()), registry.getErrorLogger());
+        }
+        for(Map.Entry<String, TypeExpansion> entry : expansions.entrySet()) {
+            registry.getExpansions().putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        return true;
+    }
+
+    private static void collectSymbols(SymbolPackage pkg, String prefix, Map<String, ZenTypeNative> symbols) {
+        for(Map.Entry<String, IZenSymbol> entry : pkg.getPackages().entrySet()) {
+            String name = prefix == null ? entry.getKey() : prefix + '.' + entry.getKey();
+            if(entry.getValue() instanceof SymbolPackage) {
+                collectSymbols((SymbolPackage) entry.getValue(), name, symbols);
+            } else if(entry.getValue() instanceof SymbolType && ((SymbolType) entry.getValue()).getType() instanceof ZenTypeNative) {
+                symbols.put(name, (ZenTypeNative) ((SymbolType) entry.getValue()).getType());
+            }
+        }
+    }
+
+    private static boolean containsSymbol(SymbolPackage root, String name) {
+        IZenSymbol current = root;
+        for(String part : StringUtil.split(name, '.')) {
+            if(!(current instanceof SymbolPackage))
+                return true;
+            current = ((SymbolPackage) current).get(part);
+            if(current == null)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the type map of a registry, which is keyed by raw classes.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Class<?>, ZenType> getTypeMap(TypeRegistry types) {
+        return (Map<Class<?>, ZenType>) (Map<?, ZenType>) types.getTypeMap();
+    }
+
+    private static int getDimension(ZenType type) {
+        int result = 0;
+        while(type instanceof ZenTypeArrayBasic) {
+            type = ((ZenTypeArrayBasic) type).getBaseType();
+            result++;
+        }
+        return result;
+    }
+
+    private static Class<?> loadClass(String name, ClassLoader loader) throws IOException {
+        try {
+            return Class.forName(name, false, loader);
+        } catch(ClassNotFoundException ex) {
+            throw new IOException("Snapshot class not found: " + name, ex);
+        }
+    }
+
+    private static byte[] hash(ClassLoader loader, String name) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch(NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        String resource = name.replace('.', '/') + ".class";
+        InputStream input = loader == null ? ClassLoader.getSystemResourceAsStream(resource) : loader.getResourceAsStream(resource);
+        if(input == null)
+            return new byte[0];
+
+        try(InputStream classInput = input) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while((read = classInput.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+}
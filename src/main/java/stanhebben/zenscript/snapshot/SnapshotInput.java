@@ -0,0 +1,167 @@
+package stanhebben.zenscript.snapshot;
+
+import stanhebben.zenscript.annotations.OperatorType;
+import stanhebben.zenscript.type.*;
+import stanhebben.zenscript.type.expand.ZenExpandMember;
+import stanhebben.zenscript.type.natives.*;
+
+import java.io.*;
+import java.util.*;
+
+import static stanhebben.zenscript.snapshot.SnapshotOutput.*;
+
+/**
+ * Input for registry snapshots, the counterpart of SnapshotOutput. Classes
+ * are loaded by name, without initializing them; methods and fields are
+ * restored from their descriptors, without reflection.
+ */
+public final class SnapshotInput {
+
+    private final DataInputStream input;
+    private final ClassLoader loader;
+    private final List<ZenType> types = new ArrayList<>();
+
+    SnapshotInput(InputStream input, ClassLoader loader) {
+        this.input = new DataInputStream(input);
+        this.loader = loader;
+    }
+
+    void addType(ZenType type) {
+        types.add(type);
+    }
+
+    public int readInt() throws IOException {
+        return input.readInt();
+    }
+
+    public byte readByte() throws IOException {
+        return input.readByte();
+    }
+
+    public boolean readBoolean() throws IOException {
+        return input.readBoolean();
+    }
+
+    public String readString() throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    public Class<?> readClass() throws IOException {
+        String name = input.readUTF();
+        try {
+            return Class.forName(name, false, loader);
+        } catch(ClassNotFoundException ex) {
+            throw new IOException("Snapshot class not found: " + name, ex);
+        }
+    }
+
+    public ZenType readType() throws IOException {
+        byte tag = input.readByte();
+        switch(tag) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_CLASS: {
+                int id = input.readInt();
+                if(id < 0 || id >= types.size())
+                    throw new IOException("Invalid snapshot type id " + id);
+                return types.get(id);
+            }
+            case TYPE_LIST:
+                return new ZenTypeArrayList(readType());
+            case TYPE_MAP: {
+                ZenType key = readType();
+                return new ZenTypeAssociative(readType(), key);
+            }
+            case TYPE_ENTRY: {
+                ZenType key = readType();
+                return new ZenTypeEntry(key, readType());
+            }
+            case TYPE_SET:
+                return new ZenTypeSet(readType());
+            default:
+                throw new IOException("Invalid snapshot type tag " + tag);
+        }
+    }
+
+    public IJavaMethod readMethod() throws IOException {
+        byte tag = input.readByte();
+        switch(tag) {
+            case METHOD_NULL:
+                return null;
+            case METHOD_JAVA: {
+                Class<?> owner = readClass();
+                String name = input.readUTF();
+                String descriptor = input.readUTF();
+                boolean isStatic = input.readBoolean();
+                boolean isVarargs = input.readBoolean();
+                boolean returnsSelf = input.readBoolean();
+                ZenType returnType = readType();
+                ZenType[] parameterTypes = new ZenType[input.readInt()];
+                boolean[] optional = new boolean[parameterTypes.length];
+                for(int i = 0; i < parameterTypes.length; i++) {
+                    parameterTypes[i] = readType();
+                    optional[i] = input.readBoolean();
+                }
+                return new JavaMethod(owner, name, descriptor, isStatic, isVarargs, returnsSelf, returnType, parameterTypes, optional);
+            }
+            case METHOD_FIELD: {
+                String owner = input.readUTF();
+                String name = input.readUTF();
+                String descriptor = input.readUTF();
+                boolean isStatic = input.readBoolean();
+                boolean isSetter = input.readBoolean();
+                return new ZenFieldMethod(owner, name, descriptor, isStatic, readType(), isSetter);
+            }
+            default:
+                throw new IOException("Invalid snapshot method tag " + tag);
+        }
+    }
+
+    public void readMembers(Map<String, ZenNativeMember> members) throws IOException {
+        for(int i = input.readInt(); i > 0; i--) {
+            ZenNativeMember member = new ZenNativeMember();
+            members.put(input.readUTF(), member);
+
+            IJavaMethod getter = readMethod();
+            if(getter != null)
+                member.setGetter(getter);
+            IJavaMethod setter = readMethod();
+            if(setter != null)
+                member.setSetter(setter);
+            for(int j = input.readInt(); j > 0; j--) {
+                member.addMethod(readMethod());
+            }
+        }
+    }
+
+    public void readExpandMembers(String type, Map<String, ZenExpandMember> members) throws IOException {
+        for(int i = input.readInt(); i > 0; i--) {
+            String name = input.readUTF();
+            ZenExpandMember member = new ZenExpandMember(type, name);
+            members.put(name, member);
+
+            IJavaMethod getter = readMethod();
+            if(getter != null)
+                member.setGetter(getter);
+            IJavaMethod setter = readMethod();
+            if(setter != null)
+                member.setSetter(setter);
+            for(int j = input.readInt(); j > 0; j--) {
+                member.addMethod(readMethod());
+            }
+        }
+    }
+
+    public void readOperators(List<ZenNativeOperator> operators) throws IOException {
+        for(int i = input.readInt(); i > 0; i--) {
+            String name = input.readUTF();
+            OperatorType operator;
+            try {
+                operator = OperatorType.valueOf(name);
+            } catch(IllegalArgumentException ex) {
+                throw new IOException("Invalid snapshot operator " + name, ex);
+            }
+            operators.add(new ZenNativeOperator(operator, readMethod()));
+        }
+    }
+}
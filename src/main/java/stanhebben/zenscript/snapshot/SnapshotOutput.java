@@ -0,0 +1,171 @@
+package stanhebben.zenscript.snapshot;
+
+import stanhebben.zenscript.type.*;
+import stanhebben.zenscript.type.expand.ZenExpandMember;
+import stanhebben.zenscript.type.natives.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Output for registry snapshots. Types are written as references to the type
+ * table of the snapshot, methods by owner, name and descriptor. Every class
+ * that is referred to by name is recorded, so its hash can be checked when
+ * the snapshot is restored.
+ */
+public final class SnapshotOutput {
+
+    static final byte TYPE_NULL = 0;
+    static final byte TYPE_CLASS = 1;
+    static final byte TYPE_LIST = 2;
+    static final byte TYPE_MAP = 3;
+    static final byte TYPE_ENTRY = 4;
+    static final byte TYPE_SET = 5;
+
+    static final byte METHOD_NULL = 0;
+    static final byte METHOD_JAVA = 1;
+    static final byte METHOD_FIELD = 2;
+
+    private final DataOutputStream output;
+    private final Map<ZenType, Integer> typeIds = new IdentityHashMap<>();
+    private final Set<String> classes = new TreeSet<>();
+
+    SnapshotOutput(OutputStream output) {
+        this.output = new DataOutputStream(output);
+    }
+
+    void addType(ZenType type) {
+        typeIds.put(type, typeIds.size());
+    }
+
+    Set<String> getClasses() {
+        return classes;
+    }
+
+    public void writeInt(int value) throws IOException {
+        output.writeInt(value);
+    }
+
+    public void writeByte(byte value) throws IOException {
+        output.writeByte(value);
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        output.writeBoolean(value);
+    }
+
+    public void writeString(String value) throws IOException {
+        output.writeBoolean(value != null);
+        if(value != null)
+            output.writeUTF(value);
+    }
+
+    /**
+     * Writes a class name and records the class for hashing.
+     *
+     * @param cls class to write
+     * @throws IOException if the output throws
+     */
+    public void writeClass(Class<?> cls) throws IOException {
+        addClass(cls.getName());
+        output.writeUTF(cls.getName());
+    }
+
+    public void writeType(ZenType type) throws IOException {
+        if(type == null) {
+            output.writeByte(TYPE_NULL);
+        } else if(typeIds.containsKey(type)) {
+            output.writeByte(TYPE_CLASS);
+            output.writeInt(typeIds.get(type));
+        } else if(type instanceof ZenTypeArrayList) {
+            output.writeByte(TYPE_LIST);
+            writeType(((ZenTypeArrayList) type).getBaseType());
+        } else if(type instanceof ZenTypeAssociative) {
+            output.writeByte(TYPE_MAP);
+            writeType(((ZenTypeAssociative) type).getKeyType());
+            writeType(((ZenTypeAssociative) type).getValueType());
+        } else if(type instanceof ZenTypeEntry) {
+            output.writeByte(TYPE_ENTRY);
+            writeType(((ZenTypeEntry) type).getKeyType());
+            writeType(((ZenTypeEntry) type).getValueType());
+        } else if(type instanceof ZenTypeSet) {
+            output.writeByte(TYPE_SET);
+            writeType(((ZenTypeSet) type).getElementType());
+        } else {
+            throw new IllegalArgumentException("Type can't be written to a snapshot: " + type);
+        }
+    }
+
+    public void writeMethod(IJavaMethod method) throws IOException {
+        if(method == null) {
+            output.writeByte(METHOD_NULL);
+        } else if(method instanceof JavaMethod) {
+            JavaMethod javaMethod = (JavaMethod) method;
+            output.writeByte(METHOD_JAVA);
+            writeClass(javaMethod.getOwner());
+            output.writeUTF(javaMethod.getName());
+            output.writeUTF(javaMethod.getDescriptor());
+            output.writeBoolean(javaMethod.isStatic());
+            output.writeBoolean(javaMethod.isVarargs());
+            output.writeBoolean(javaMethod.returnsSelf);
+            writeType(javaMethod.getReturnType());
+            output.writeInt(javaMethod.getParameterTypes().length);
+            for(int i = 0; i < javaMethod.getParameterTypes().length; i++) {
+                writeType(javaMethod.getParameterTypes()[i]);
+                output.writeBoolean(javaMethod.isOptional(i));
+            }
+        } else if(method instanceof ZenFieldMethod) {
+            ZenFieldMethod fieldMethod = (ZenFieldMethod) method;
+            output.writeByte(METHOD_FIELD);
+            addClass(fieldMethod.getOwner().replace('/', '.'));
+            output.writeUTF(fieldMethod.getOwner());
+            output.writeUTF(fieldMethod.getName());
+            output.writeUTF(fieldMethod.getDescriptor());
+            output.writeBoolean(fieldMethod.isStatic());
+            output.writeBoolean(fieldMethod.isSetter());
+            writeType(fieldMethod.getType());
+        } else {
+            throw new IllegalArgumentException("Method can't be written to a snapshot: " + method);
+        }
+    }
+
+    public void writeMembers(Map<String, ZenNativeMember> members) throws IOException {
+        output.writeInt(members.size());
+        for(Map.Entry<String, ZenNativeMember> entry : members.entrySet()) {
+            output.writeUTF(entry.getKey());
+            writeMethod(entry.getValue().getGetter());
+            writeMethod(entry.getValue().getSetter());
+            writeMethods(entry.getValue().getMethods());
+        }
+    }
+
+    public void writeExpandMembers(Map<String, ZenExpandMember> members) throws IOException {
+        output.writeInt(members.size());
+        for(Map.Entry<String, ZenExpandMember> entry : members.entrySet()) {
+            output.writeUTF(entry.getKey());
+            writeMethod(entry.getValue().getGetter());
+            writeMethod(entry.getValue().getSetter());
+            writeMethods(entry.getValue().getMethods());
+        }
+    }
+
+    public void writeOperators(List<ZenNativeOperator> operators) throws IOException {
+        output.writeInt(operators.size());
+        for(ZenNativeOperator operator : operators) {
+            output.writeUTF(operator.getOperator().name());
+            writeMethod(operator.getMethod());
+        }
+    }
+
+    private void writeMethods(List<IJavaMethod> methods) throws IOException {
+        output.writeInt(methods.size());
+        for(IJavaMethod method : methods) {
+            writeMethod(method);
+        }
+    }
+
+    private void addClass(String name) {
+        if(!name.startsWith("["))
+            classes.add(name);
+    }
+}
@@ -0,0 +1,187 @@
+package stanhebben.zenscript.statements;
+
+import org.objectweb.asm.*;
+import stanhebben.zenscript.annotations.*;
+import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.expression.*;
+import stanhebben.zenscript.expression.partial.*;
+import stanhebben.zenscript.parser.expression.*;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.util.*;
+
+import java.util.*;
+
+/**
+ * Compiles chains of if/else statements that compare the same local or
+ * argument against constants into a switch:
+ * <pre>
+ * if(x == 1) { ... } else if(x == 2) { ... } else if(x == 5) { ... } else { ... }
+ * </pre>
+ * Int chains become a tableswitch or lookupswitch, whichever javac would
+ * pick; string chains switch on the hash code of the value. Only locals and
+ * arguments are accepted, so evaluating the value once instead of once per
+ * comparison doesn't change what the script does.
+ */
+final class IfChainSwitch {
+
+    private static final int MIN_CASES = 3;
+
+    private IfChainSwitch() {
+    }
+
+    /**
+     * Compiles the given if statement as a switch, if it is the head of a
+     * suitable chain.
+     *
+     * @param environment compile environment
+     * @param statement   first if statement of the chain
+     * @return true if the statement was compiled, false if it must be compiled as regular if statement
+     */
+    static boolean compile(IEnvironmentMethod environment, StatementIf statement) {
+        String name = null;
+        ZenType constantType = null;
+        List<Object> keys = new ArrayList<>();
+        List<Statement> bodies = new ArrayList<>();
+        Statement current = statement;
+        while(current instanceof StatementIf) {
+            StatementIf branch = (StatementIf) current;
+            if(!(branch.getCondition() instanceof ParsedExpressionCompare))
+                break;
+
+            ParsedExpressionCompare compare = (ParsedExpressionCompare) branch.getCondition();
+            if(compare.getType() != CompareType.EQ)
+                break;
+
+            ParsedExpression variable = compare.getLeft();
+            Expression constant = getConstant(compare.getRight());
+            if(constant == null) {
+                variable = compare.getRight();
+                constant = getConstant(compare.getLeft());
+            }
+            if(constant == null || !(variable instanceof ParsedExpressionVariable))
+                break;
+
+            String variableName = ((ParsedExpressionVariable) variable).getName();
+            if(name == null) {
+                name = variableName;
+                constantType = constant.getType();
+            } else if(!name.equals(variableName) || constant.getType() != constantType) {
+                break;
+            }
+
+            keys.add(constant instanceof ExpressionInt ? (Object) (int) ((ExpressionInt) constant).getValue() : ((ExpressionString) constant).getValue());
+            bodies.add(branch.getOnThen());
+            current = branch.getOnElse();
+        }
+
+        if(keys.size() < MIN_CASES)
+            return false;
+
+        IPartialExpression value = environment.getValue(name, statement.getPosition());
+        if(!(value instanceof PartialLocal || value instanceof ExpressionArgument) || value.getType() != constantType)
+            return false;
+
+        // the rest of the chain, if it stopped early, becomes the default branch
+        Statement dflt = current;
+
+        MethodOutput output = environment.getOutput();
+        Label labelEnd = new Label();
+        Label labelDefault = new Label();
+
+        // duplicate keys can never be reached past their first occurrence
+        Map<Object, Label> labels = new LinkedHashMap<>();
+        for(Object key : keys) {
+            if(!labels.containsKey(key))
+                labels.put(key, new Label());
+        }
+
+        Expression cValue = value.eval(environment);
+        cValue.compile(true, environment);
+        if(constantType == ZenType.INT) {
+            compileIntSwitch(output, labels, labelDefault);
+        } else {
+            int local = output.local(Type.getType(String.class));
+            output.storeObject(local);
+            StringSwitch.compile(output, local, castKeys(labels.keySet()), key -> output.goTo(labels.get(key)), labelDefault);
+        }
+
+        Set<Object> compiled = new HashSet<>();
+        for(int i = 0; i < keys.size(); i++) {
+            if(!compiled.add(keys.get(i)))
+                continue;
+
+            output.label(labels.get(keys.get(i)));
+            bodies.get(i).compile(environment);
+            output.goTo(labelEnd);
+        }
+
+        output.label(labelDefault);
+        if(dflt != null)
+            dflt.compile(environment);
+        output.label(labelEnd);
+        return true;
+    }
+
+    private static void compileIntSwitch(MethodOutput output, Map<Object, Label> labels, Label labelDefault) {
+        TreeMap<Integer, Label> sorted = new TreeMap<>();
+        for(Map.Entry<Object, Label> entry : labels.entrySet()) {
+            sorted.put((Integer) entry.getKey(), entry.getValue());
+        }
+
+        int lo = sorted.firstKey();
+        int hi = sorted.lastKey();
+        int n = sorted.size();
+
+        // same cost model as javac
+        long tableSpaceCost = 4 + ((long) hi - lo + 1);
+        long tableTimeCost = 3;
+        long lookupSpaceCost = 3 + 2 * (long) n;
+        long lookupTimeCost = n;
+        if(tableSpaceCost + 3 * tableTimeCost <= lookupSpaceCost + 3 * lookupTimeCost) {
+            Label[] table = new Label[hi - lo + 1];
+            for(int i = 0; i < table.length; i++) {
+                Label label = sorted.get(lo + i);
+                table[i] = label == null ? labelDefault : label;
+            }
+            output.tableSwitch(lo, hi, labelDefault, table);
+        } else {
+            int[] keys = new int[n];
+            Label[] targets = new Label[n];
+            int i = 0;
+            for(Map.Entry<Integer, Label> entry : sorted.entrySet()) {
+                keys[i] = entry.getKey();
+                targets[i] = entry.getValue();
+                i++;
+            }
+            output.lookupSwitch(labelDefault, keys, targets);
+        }
+    }
+
+    /**
+     * Returns the int or string constant represented by the given expression,
+     * or null if it isn't one.
+     */
+    private static Expression getConstant(ParsedExpression expression) {
+        boolean negate = false;
+        if(expression instanceof ParsedExpressionUnary && ((ParsedExpressionUnary) expression).getOperator() == OperatorType.NEG) {
+            negate = true;
+            expression = ((ParsedExpressionUnary) expression).getValue();
+        }
+        if(!(expression instanceof ParsedExpressionValue))
+            return null;
+
+        IPartialExpression value = ((ParsedExpressionValue) expression).getValue();
+        if(value instanceof ExpressionInt && value.getType() == ZenType.INT) {
+            ExpressionInt constant = (ExpressionInt) value;
+            return negate ? new ExpressionInt(constant.getPosition(), -constant.getValue(), ZenType.INT) : constant;
+        } else if(value instanceof ExpressionString && !negate) {
+            return (Expression) value;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<String> castKeys(Collection<Object> keys) {
+        return (Collection<String>) (Collection<?>) keys;
+    }
+}
@@ -0,0 +1,392 @@
+package stanhebben.zenscript.statements;
+
+import stanhebben.zenscript.annotations.OperatorType;
+import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.expression.*;
+import stanhebben.zenscript.expression.partial.IPartialExpression;
+import stanhebben.zenscript.parser.expression.*;
+import stanhebben.zenscript.type.*;
+
+import java.util.*;
+
+/**
+ * Infers the type of locals that would otherwise be of type any, so every
+ * operation on them goes through IAny. Those are locals declared without
+ * type and initializer (var x;), and untyped locals whose initializer is
+ * built on such a local (var y = x + 1;).
+ * <p>
+ * The pass runs once over a whole method body, nested blocks included. The
+ * type of such a local is the join of the types of its initializer and of
+ * every value assigned to it: int then double becomes double, while a
+ * string and a number join to any. Locals depending on each other are
+ * resolved together. If the join is a primitive or string, the local is
+ * declared with that type and stored in a primitive slot.
+ * <p>
+ * Types of assigned values are predicted from the parsed expressions only:
+ * literals, casts, known locals and arithmetic on those. Whenever something
+ * can't be predicted, the local stays any.
+ */
+public final class LocalTypeInference {
+
+    private static final List<ZenType> INFERRABLE = Arrays.asList(ZenType.BOOL, ZenType.INT, ZenType.LONG, ZenType.FLOAT, ZenType.DOUBLE, ZenType.STRING);
+    private static final List<ZenType> NUMERIC = Arrays.asList(ZenType.INT, ZenType.LONG, ZenType.FLOAT, ZenType.DOUBLE);
+
+    private final IEnvironmentMethod environment;
+    private final List<Local> locals = new ArrayList<>();
+
+    private LocalTypeInference(IEnvironmentMethod environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Infers the types of untyped locals declared in the given method body,
+     * including those in nested blocks. Bodies of function expressions are
+     * inferred when they are compiled. Must be called before the statements
+     * are compiled.
+     *
+     * @param environment environment the method body is compiled in
+     * @param statements  statements of the method body
+     */
+    public static void infer(IEnvironmentMethod environment, List<Statement> statements) {
+        LocalTypeInference inference = new LocalTypeInference(environment);
+        inference.visit(statements, null);
+        inference.solve();
+    }
+
+    private void visit(List<Statement> statements, Scope scope) {
+        for(int i = 0; i < statements.size(); i++) {
+            Statement statement = statements.get(i);
+            scope = visit(statement, scope);
+
+            // without initializer, the first statement using the local must assign it, so its default value is never read
+            if(statement instanceof StatementVar && scope.local.candidate && ((StatementVar) statement).getInitializer() == null) {
+                if(!isAssignedFirst(scope.name, statements.subList(i + 1, statements.size())))
+                    scope.local.candidate = false;
+            }
+        }
+    }
+
+    /**
+     * Visits a statement and its nested statements.
+     *
+     * @return scope after the statement
+     */
+    private Scope visit(Statement statement, Scope scope) {
+        for(ParsedExpression expression : statement.getExpressions()) {
+            for(ParsedExpression subExpression : expression.getSubExpressions()) {
+                visit(subExpression, scope);
+            }
+        }
+
+        if(statement instanceof StatementVar) {
+            StatementVar var = (StatementVar) statement;
+            Local local = new Local(var, var.getType());
+            if(var.getInitializer() != null)
+                local.sources.add(new Source(var.getInitializer(), null, scope));
+            local.inferrable = var.getType() == null && (var.getInitializer() == null || dependsOnInferrable(var.getInitializer(), scope));
+            local.candidate = local.inferrable;
+            locals.add(local);
+            return new Scope(var.getName(), local, scope);
+        } else if(statement instanceof StatementBlock) {
+            visit(((StatementBlock) statement).getStatements(), scope);
+        } else if(statement instanceof StatementIf) {
+            StatementIf statementIf = (StatementIf) statement;
+            visit(statementIf.getOnThen(), scope);
+            if(statementIf.getOnElse() != null)
+                visit(statementIf.getOnElse(), scope);
+        } else if(statement instanceof StatementWhileDo) {
+            visit(((StatementWhileDo) statement).getBody(), scope);
+        } else if(statement instanceof StatementForeach) {
+            StatementForeach foreach = (StatementForeach) statement;
+            disqualify(foreach.getExpressions().get(0), scope);
+            Scope inner = scope;
+            for(String varname : foreach.getVarnames()) {
+                Local local = new Local(null, foreach.getVarnames().length == 1 ? null : ZenType.ANY);
+                local.sources.add(new Source(foreach.getExpressions().get(0), OperatorType.RANGE, scope));
+                locals.add(local);
+                inner = new Scope(varname, local, inner);
+            }
+            visit(foreach.getBody(), inner);
+        }
+        return scope;
+    }
+
+    private void visit(ParsedExpression expression, Scope scope) {
+        if(expression instanceof ParsedExpressionFunction) {
+            // may capture any local in scope
+            for(Scope current = scope; current != null; current = current.parent)
+                current.local.candidate = false;
+        } else if(expression instanceof ParsedExpressionAssign) {
+            ParsedExpressionAssign assign = (ParsedExpressionAssign) expression;
+            Local local = lookup(assign.getLeft(), scope);
+            if(local != null && local.inferrable)
+                local.sources.add(new Source(assign.getRight(), null, scope));
+        } else if(expression instanceof ParsedExpressionOpAssign) {
+            ParsedExpressionOpAssign assign = (ParsedExpressionOpAssign) expression;
+            Local local = lookup(assign.getLeft(), scope);
+            if(local != null && local.inferrable)
+                local.sources.add(new Source(assign.getRight(), assign.getOperator(), scope));
+        } else if(expression instanceof ParsedExpressionMember) {
+            disqualify(((ParsedExpressionMember) expression).getValue(), scope);
+        } else if(expression instanceof ParsedExpressionIndex) {
+            disqualify(((ParsedExpressionIndex) expression).getValue(), scope);
+        } else if(expression instanceof ParsedExpressionIndexSet) {
+            disqualify(((ParsedExpressionIndexSet) expression).getValue(), scope);
+        } else if(expression instanceof ParsedExpressionCall) {
+            disqualify(((ParsedExpressionCall) expression).getReceiver(), scope);
+        }
+    }
+
+    /**
+     * Joins the types of all sources of each local until nothing changes.
+     * Types only move up from unknown (null) to a concrete type to any, so
+     * this terminates.
+     */
+    private void solve() {
+        boolean changed = true;
+        while(changed) {
+            changed = false;
+            for(Local local : locals) {
+                if(local.fixedType != null)
+                    continue;
+
+                ZenType type = local.type;
+                if(local.inferrable && !local.candidate) {
+                    type = ZenType.ANY;
+                } else {
+                    for(Source source : local.sources) {
+                        type = join(type, predict(source, local));
+                    }
+                }
+                if(type != local.type) {
+                    local.type = type;
+                    changed = true;
+                }
+            }
+        }
+
+        for(Local local : locals) {
+            if(local.inferrable)
+                local.declaration.setInferredType(INFERRABLE.contains(local.type) ? local.type : ZenType.ANY);
+        }
+    }
+
+    private ZenType predict(Source source, Local target) {
+        ZenType value = predict(source.expression, source.scope);
+        if(source.operator == null)
+            return value;
+        if(source.operator == OperatorType.RANGE) {
+            // element of a foreach loop, only int ranges are known
+            if(!(source.expression instanceof ParsedExpressionBinary) || ((ParsedExpressionBinary) source.expression).getOperator() != OperatorType.RANGE)
+                return ZenType.ANY;
+            ParsedExpressionBinary range = (ParsedExpressionBinary) source.expression;
+            ZenType from = predict(range.getLeft(), source.scope);
+            ZenType to = predict(range.getRight(), source.scope);
+            if(from == null || to == null)
+                return null;
+            return from == ZenType.INT && to == ZenType.INT ? ZenType.INT : ZenType.ANY;
+        }
+        return binary(source.operator, target.type, value);
+    }
+
+    /**
+     * Predicts the type of the given expression without compiling it.
+     *
+     * @return predicted type, any if unknown, or null if it depends on a local
+     * whose type isn't known yet
+     */
+    private ZenType predict(ParsedExpression expression, Scope scope) {
+        if(expression instanceof ParsedExpressionValue) {
+            IPartialExpression value = ((ParsedExpressionValue) expression).getValue();
+            if(value instanceof ExpressionInt || value instanceof ExpressionFloat || value instanceof ExpressionString)
+                return value.getType();
+        } else if(expression instanceof ParsedExpressionBool) {
+            return ZenType.BOOL;
+        } else if(expression instanceof ParsedExpressionCast) {
+            return ((ParsedExpressionCast) expression).getType();
+        } else if(expression instanceof ParsedExpressionVariable) {
+            String name = ((ParsedExpressionVariable) expression).getName();
+            for(Scope current = scope; current != null; current = current.parent) {
+                if(current.name.equals(name))
+                    return current.local.fixedType == null ? current.local.type : current.local.fixedType;
+            }
+
+            IPartialExpression value = environment.getValue(name, expression.getPosition());
+            if(value != null)
+                return value.getType();
+        } else if(expression instanceof ParsedExpressionUnary) {
+            ParsedExpressionUnary unary = (ParsedExpressionUnary) expression;
+            ZenType type = predict(unary.getValue(), scope);
+            if(type == null)
+                return null;
+            if(unary.getOperator() == OperatorType.NEG && NUMERIC.contains(type))
+                return type;
+            if(unary.getOperator() == OperatorType.NOT && type == ZenType.BOOL)
+                return type;
+        } else if(expression instanceof ParsedExpressionBinary) {
+            ParsedExpressionBinary binary = (ParsedExpressionBinary) expression;
+            return binary(binary.getOperator(), predict(binary.getLeft(), scope), predict(binary.getRight(), scope));
+        }
+        return ZenType.ANY;
+    }
+
+    /**
+     * Predicts the type of a binary operation. As with typed values and IAny,
+     * the left operand decides the type of arithmetic.
+     */
+    private static ZenType binary(OperatorType operator, ZenType left, ZenType right) {
+        if(left == ZenType.ANY)
+            return ZenType.ANY;
+        if(left == null || right == null)
+            return null;
+
+        switch(operator) {
+            case ADD:
+                if(left == ZenType.STRING)
+                    return INFERRABLE.contains(right) ? left : ZenType.ANY;
+                return NUMERIC.contains(left) ? left : ZenType.ANY;
+            case SUB:
+            case MUL:
+            case DIV:
+            case MOD:
+                return NUMERIC.contains(left) ? left : ZenType.ANY;
+            case CAT:
+                return INFERRABLE.contains(left) ? ZenType.STRING : ZenType.ANY;
+            default:
+                return ZenType.ANY;
+        }
+    }
+
+    /**
+     * Joins two types. Numbers join to the wider type, anything else that
+     * differs joins to any.
+     */
+    private static ZenType join(ZenType a, ZenType b) {
+        if(a == null || a == b)
+            return b;
+        if(b == null)
+            return a;
+        if(NUMERIC.contains(a) && NUMERIC.contains(b))
+            return NUMERIC.get(Math.max(NUMERIC.indexOf(a), NUMERIC.indexOf(b)));
+        return ZenType.ANY;
+    }
+
+    /**
+     * Checks if the type of the given initializer follows the type of an
+     * inferrable local. Without inference, such an initializer would be of
+     * type any.
+     */
+    private static boolean dependsOnInferrable(ParsedExpression expression, Scope scope) {
+        if(expression instanceof ParsedExpressionUnary)
+            return dependsOnInferrable(((ParsedExpressionUnary) expression).getValue(), scope);
+        if(expression instanceof ParsedExpressionBinary)
+            return dependsOnInferrable(((ParsedExpressionBinary) expression).getLeft(), scope);
+
+        Local local = lookup(expression, scope);
+        return local != null && local.inferrable;
+    }
+
+    private static void disqualify(ParsedExpression expression, Scope scope) {
+        Local local = lookup(expression, scope);
+        if(local != null)
+            local.candidate = false;
+    }
+
+    private static Local lookup(ParsedExpression expression, Scope scope) {
+        if(!(expression instanceof ParsedExpressionVariable))
+            return null;
+
+        String name = ((ParsedExpressionVariable) expression).getName();
+        for(Scope current = scope; current != null; current = current.parent) {
+            if(current.name.equals(name))
+                return current.local;
+        }
+        return null;
+    }
+
+    private static boolean isAssignedFirst(String name, List<Statement> statements) {
+        for(Statement statement : statements) {
+            boolean used = false;
+            for(Statement subStatement : statement.getSubStatements()) {
+                if(subStatement instanceof StatementVar && ((StatementVar) subStatement).getName().equals(name))
+                    return false;
+                for(ParsedExpression expression : subStatement.getExpressions()) {
+                    if(uses(expression, name))
+                        used = true;
+                }
+            }
+            if(!used)
+                continue;
+
+            if(!(statement instanceof StatementExpression))
+                return false;
+            ParsedExpression first = ((StatementExpression) statement).getExpression();
+            return first instanceof ParsedExpressionAssign && isVariable(((ParsedExpressionAssign) first).getLeft(), name) && !uses(((ParsedExpressionAssign) first).getRight(), name);
+        }
+        return false;
+    }
+
+    private static boolean uses(ParsedExpression expression, String name) {
+        for(ParsedExpression subExpression : expression.getSubExpressions()) {
+            if(isVariable(subExpression, name))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean isVariable(ParsedExpression expression, String name) {
+        return expression instanceof ParsedExpressionVariable && ((ParsedExpressionVariable) expression).getName().equals(name);
+    }
+
+    private static final class Local {
+
+        private final StatementVar declaration;
+        private final ZenType fixedType;
+        private final List<Source> sources = new ArrayList<>();
+        // would be any without inference
+        private boolean inferrable;
+        // inferrable and not used in a way that needs any
+        private boolean candidate;
+        private ZenType type;
+
+        private Local(StatementVar declaration, ZenType fixedType) {
+            this.declaration = declaration;
+            this.fixedType = fixedType;
+        }
+    }
+
+    /**
+     * A value stored in a local: its initializer, an assignment or, with an
+     * operator, a compound assignment. Foreach variables use the range
+     * operator for their source list.
+     */
+    private static final class Source {
+
+        private final ParsedExpression expression;
+        private final OperatorType operator;
+        private final Scope scope;
+
+        private Source(ParsedExpression expression, OperatorType operator, Scope scope) {
+            this.expression = expression;
+            this.operator = operator;
+            this.scope = scope;
+        }
+    }
+
+    /**
+     * Immutable chain of visible locals, so sources keep the scope they were
+     * found in.
+     */
+    private static final class Scope {
+
+        private final String name;
+        private final Local local;
+        private final Scope parent;
+
+        private Scope(String name, Local local, Scope parent) {
+            this.name = name;
+            this.local = local;
+            this.parent = parent;
+        }
+    }
+}
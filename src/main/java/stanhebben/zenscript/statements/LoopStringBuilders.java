@@ -0,0 +1,87 @@
+package stanhebben.zenscript.statements;
+
+import stanhebben.zenscript.annotations.OperatorType;
+import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.expression.partial.*;
+import stanhebben.zenscript.parser.expression.*;
+import stanhebben.zenscript.symbols.*;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.util.ZenPosition;
+
+import java.util.*;
+
+/**
+ * Finds string locals that a loop body concatenates onto (s ~= x) and lets
+ * them share a single StringBuilder for the whole loop instead of creating a
+ * new string on every iteration.
+ */
+final class LoopStringBuilders {
+    
+    private final IEnvironmentMethod environment;
+    private final List<SymbolStringBuilderLocal> builders;
+    
+    private LoopStringBuilders(IEnvironmentMethod environment, List<SymbolStringBuilderLocal> builders) {
+        this.environment = environment;
+        this.builders = builders;
+    }
+    
+    public static LoopStringBuilders collect(IEnvironmentMethod environment, Statement body, ZenPosition position) {
+        Set<String> names = new LinkedHashSet<>();
+        for(Statement statement : body.getSubStatements()) {
+            if(!(statement instanceof StatementExpression))
+                continue;
+            
+            ParsedExpression expression = ((StatementExpression) statement).getExpression();
+            if(!(expression instanceof ParsedExpressionOpAssign))
+                continue;
+            
+            ParsedExpressionOpAssign assign = (ParsedExpressionOpAssign) expression;
+            if((assign.getOperator() == OperatorType.CAT || assign.getOperator() == OperatorType.ADD) && assign.getLeft() instanceof ParsedExpressionVariable)
+                names.add(((ParsedExpressionVariable) assign.getLeft()).getName());
+        }
+        
+        List<SymbolStringBuilderLocal> builders = new ArrayList<>();
+        EnvironmentScope scope = new EnvironmentScope(environment);
+        for(String name : names) {
+            IPartialExpression value = environment.getValue(name, position);
+            if(!(value instanceof PartialLocal) || !(value.toSymbol() instanceof SymbolLocal))
+                continue;
+            
+            SymbolLocal variable = (SymbolLocal) value.toSymbol();
+            if(variable.isFinal() || variable.getType() != ZenType.STRING)
+                continue;
+            
+            SymbolStringBuilderLocal builder = new SymbolStringBuilderLocal(variable, environment.getOutput().local(StringBuilder.class));
+            scope.putValue(name, builder, position);
+            builders.add(builder);
+        }
+        
+        return new LoopStringBuilders(builders.isEmpty() ? environment : scope, builders);
+    }
+    
+    /**
+     * Gets the environment the loop should be compiled in.
+     */
+    public IEnvironmentMethod getEnvironment() {
+        return environment;
+    }
+    
+    /**
+     * Clears the builders, must be compiled before the loop starts.
+     */
+    public void compileStart() {
+        for(SymbolStringBuilderLocal builder : builders) {
+            environment.getOutput().aConstNull();
+            environment.getOutput().storeObject(builder.getBuilder());
+        }
+    }
+    
+    /**
+     * Stores the builder contents back into their variables, must be compiled after the loop ends.
+     */
+    public void compileEnd() {
+        for(SymbolStringBuilderLocal builder : builders) {
+            builder.compileFlush(environment);
+        }
+    }
+}
@@ -125,6 +125,16 @@ public abstract class Statement {
         return Collections.singletonList(this);
     }
     
+    /**
+     * Returns the expressions of this statement itself. Expressions in sub
+     * statements are not included.
+     *
+     * @return statement expressions
+     */
+    public List<ParsedExpression> getExpressions() {
+        return Collections.emptyList();
+    }
+    
     public void compile(IEnvironmentMethod environment, boolean forced) {
         environment.getOutput().position(getPosition());
         compile(environment);
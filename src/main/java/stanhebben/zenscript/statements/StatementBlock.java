@@ -15,6 +15,10 @@ public class StatementBlock extends Statement {
         this.statements = statements;
     }
     
+    public List<Statement> getStatements() {
+        return statements;
+    }
+    
     @Override
     public void compile(IEnvironmentMethod environment) {
         environment.getOutput().position(getPosition());
@@ -4,6 +4,8 @@ import stanhebben.zenscript.compiler.IEnvironmentMethod;
 import stanhebben.zenscript.parser.expression.*;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.util.*;
+
 public class StatementExpression extends Statement {
 
     private final ParsedExpression expression;
@@ -13,6 +15,10 @@ public class StatementExpression extends Statement {
 
         this.expression = expression;
     }
+    
+    public ParsedExpression getExpression() {
+        return expression;
+    }
 
     @Override
     public void compile(IEnvironmentMethod environment) {
@@ -24,6 +30,11 @@ public class StatementExpression extends Statement {
         environment.getOutput().position(getPosition());
         //boolean shouldCompile = expression.getClass().getName().equals("stanhebben.zenscript.parser.expression.ParsedExpressionIndexSet");
         boolean shouldCompile = ParsedExpressionIndexSet.class.isInstance(expression);
-        expression.compile(environment, null).eval(environment).compile(shouldCompile || forced, environment);
+        expression.compile(environment, null).eval(environment).optimize(environment).compile(shouldCompile || forced, environment);
+    }
+    
+    @Override
+    public List<ParsedExpression> getExpressions() {
+        return Collections.singletonList(expression);
     }
 }
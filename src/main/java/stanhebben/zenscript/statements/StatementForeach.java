@@ -26,7 +26,7 @@ public class StatementForeach extends Statement {
 
     @Override
     public void compile(IEnvironmentMethod environment) {
-        Expression cList = list.compile(environment, ZenType.ANYARRAY).eval(environment);
+        Expression cList = list.compile(environment, ZenType.ANYARRAY).eval(environment).optimize(environment);
         ZenType listType = cList.getType();
 
         IZenIterator iterator = listType.makeIterator(varnames.length, environment);
@@ -38,7 +38,8 @@ public class StatementForeach extends Statement {
         MethodOutput methodOutput = environment.getOutput();
         environment.getOutput().position(getPosition());
 
-        IEnvironmentMethod local = new EnvironmentScope(environment);
+        LoopStringBuilders builders = LoopStringBuilders.collect(environment, body, getPosition());
+        IEnvironmentMethod local = new EnvironmentScope(builders.getEnvironment());
         int[] localVariables = new int[varnames.length];
         for(int i = 0; i < localVariables.length; i++) {
             SymbolLocal localVar = new SymbolLocal(iterator.getType(i), true);
@@ -47,6 +48,7 @@ public class StatementForeach extends Statement {
         }
 
         cList.compile(true, environment);
+        builders.compileStart();
         iterator.compileStart(localVariables);
 
         Label repeat = new Label();
@@ -65,9 +67,24 @@ public class StatementForeach extends Statement {
         iterator.compilePreIterate(localVariables, exit);
         body.compile(local);
         methodOutput.label(postIterate);
+        methodOutput.backEdge(getPosition());
         iterator.compilePostIterate(localVariables, exit, repeat);
         methodOutput.label(exit);
         iterator.compileEnd();
+        builders.compileEnd();
+    }
+    
+    public String[] getVarnames() {
+        return varnames;
+    }
+    
+    public Statement getBody() {
+        return body;
+    }
+    
+    @Override
+    public List<ParsedExpression> getExpressions() {
+        return Collections.singletonList(list);
     }
     
     @Override
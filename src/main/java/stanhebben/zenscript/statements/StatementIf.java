@@ -1,8 +1,8 @@
 package stanhebben.zenscript.statements;
 
 import org.objectweb.asm.Label;
-import stanhebben.zenscript.compiler.IEnvironmentMethod;
-import stanhebben.zenscript.expression.Expression;
+import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.expression.*;
 import stanhebben.zenscript.parser.expression.ParsedExpression;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.*;
@@ -23,14 +23,38 @@ public class StatementIf extends Statement {
         this.onElse = onElse;
     }
     
+    public ParsedExpression getCondition() {
+        return condition;
+    }
+    
+    public Statement getOnThen() {
+        return onThen;
+    }
+    
+    public Statement getOnElse() {
+        return onElse;
+    }
+    
     @Override
     public void compile(IEnvironmentMethod environment) {
         environment.getOutput().position(getPosition());
         
-        Expression cCondition = condition.compile(environment, ZenType.BOOL).eval(environment).cast(getPosition(), environment, ZenType.BOOL);
+        if(IfChainSwitch.compile(environment, this))
+            return;
+        
+        Expression cCondition = condition.compile(environment, ZenType.BOOL).eval(environment).cast(getPosition(), environment, ZenType.BOOL).optimize(environment);
         
         ZenType expressionType = cCondition.getType();
-        if(expressionType.canCastImplicit(ZenType.BOOL, environment)) {
+        if(cCondition instanceof ExpressionBool) {
+            // constant condition: only the branch that can be taken is written, the other one is only checked
+            boolean value = ((ExpressionBool) cCondition).getValue();
+            Statement taken = value ? onThen : onElse;
+            Statement skipped = value ? onElse : onThen;
+            if(taken != null)
+                taken.compile(environment);
+            if(skipped != null)
+                skipped.compile(new EnvironmentDiscarded(environment));
+        } else if(expressionType.canCastImplicit(ZenType.BOOL, environment)) {
             Label labelEnd = new Label();
             Label labelElse = onElse == null ? labelEnd : new Label();
             
@@ -50,6 +74,11 @@ public class StatementIf extends Statement {
         }
     }
     
+    @Override
+    public List<ParsedExpression> getExpressions() {
+        return Collections.singletonList(condition);
+    }
+    
     @Override
     public List<Statement> getSubStatements() {
         List<Statement> out = new ArrayList<>();
@@ -7,6 +7,8 @@ import stanhebben.zenscript.parser.expression.ParsedExpression;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.util.*;
+
 public class StatementReturn extends Statement {
     
     private final ZenType returnType;
@@ -35,11 +37,16 @@ public class StatementReturn extends Statement {
         if(expression == null) {
             environment.getOutput().ret();
         } else {
-            Expression cExpression = expression.compile(environment, returnType).eval(environment);
+            Expression cExpression = expression.compile(environment, returnType).eval(environment).optimize(environment);
             cExpression.compile(true, environment);
             
             Type returnType = cExpression.getType().toASMType();
             environment.getOutput().returnType(returnType);
         }
     }
+    
+    @Override
+    public List<ParsedExpression> getExpressions() {
+        return expression == null ? Collections.emptyList() : Collections.singletonList(expression);
+    }
 }
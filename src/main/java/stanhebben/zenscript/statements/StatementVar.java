@@ -7,6 +7,8 @@ import stanhebben.zenscript.symbols.SymbolLocal;
 import stanhebben.zenscript.type.*;
 import stanhebben.zenscript.util.ZenPosition;
 
+import java.util.*;
+
 /**
  * @author Stanneke
  */
@@ -16,6 +18,7 @@ public class StatementVar extends Statement {
     private final ZenType type;
     private final ParsedExpression initializer;
     private final boolean isFinal;
+    private ZenType inferredType;
 
     public StatementVar(ZenPosition position, String name, ZenType type, ParsedExpression initializer, boolean isFinal) {
         super(position);
@@ -26,19 +29,49 @@ public class StatementVar extends Statement {
         this.isFinal = isFinal;
     }
 
+    public String getName() {
+        return name;
+    }
+
+    public ZenType getType() {
+        return type;
+    }
+
+    public ParsedExpression getInitializer() {
+        return initializer;
+    }
+
+    /**
+     * Sets the type of a variable that is declared without type. Without it,
+     * such variables take the type of their initializer, or any.
+     *
+     * @param inferredType inferred type
+     */
+    void setInferredType(ZenType inferredType) {
+        this.inferredType = inferredType;
+    }
+
     @Override
     public void compile(IEnvironmentMethod environment) {
         environment.getOutput().position(getPosition());
 
-        Expression cInitializer = initializer == null ? null : initializer.compile(environment, type).eval(environment);
-        ZenType cType = type == null ? (cInitializer == null ? ZenTypeAny.INSTANCE : cInitializer.getType()) : type;
+        ZenType declaredType = type == null ? inferredType : type;
+        Expression cInitializer = initializer == null ? null : initializer.compile(environment, declaredType).eval(environment).optimize(environment);
+        if(cInitializer != null && type == null && inferredType != null)
+            cInitializer = cInitializer.cast(getPosition(), environment, inferredType);
+        ZenType cType = declaredType == null ? (cInitializer == null ? ZenTypeAny.INSTANCE : cInitializer.getType()) : declaredType;
         SymbolLocal symbol = new SymbolLocal(cType, isFinal);
 
         environment.putValue(name, symbol, getPosition());
 
-        if(cInitializer != null) {
-            cInitializer.compile(true, environment);
-            environment.getOutput().store(symbol.getType().toASMType(), environment.getLocal(symbol));
-        }
+        // variables without initializer start with their default value, so they are always definitely assigned
+        Expression value = cInitializer == null ? cType.defaultValue(getPosition()) : cInitializer;
+        value.compile(true, environment);
+        environment.getOutput().store(symbol.getType().toASMType(), environment.getLocal(symbol));
+    }
+
+    @Override
+    public List<ParsedExpression> getExpressions() {
+        return initializer == null ? Collections.emptyList() : Collections.singletonList(initializer);
     }
 }
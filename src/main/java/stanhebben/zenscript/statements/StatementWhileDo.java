@@ -26,8 +26,11 @@ public class StatementWhileDo extends Statement {
         MethodOutput output = environment.getOutput();
         output.position(getPosition());
         
-        final IteratorWhileDo iterator = new IteratorWhileDo(condition, environment);
+        LoopStringBuilders builders = LoopStringBuilders.collect(environment, body, getPosition());
+        IEnvironmentMethod local = builders.getEnvironment();
+        final IteratorWhileDo iterator = new IteratorWhileDo(condition, local);
         int[] locals = new int[0];
+        builders.compileStart();
         iterator.compileStart(locals);
         
         Label repeat = new Label();
@@ -42,10 +45,21 @@ public class StatementWhileDo extends Statement {
                 ((StatementBreak) statement).setExit(exit);
         }
         
-        body.compile(environment);
+        body.compile(local);
+        output.backEdge(getPosition());
         iterator.compilePostIterate(locals, exit, repeat);
         output.label(exit);
         iterator.compileEnd();
+        builders.compileEnd();
+    }
+    
+    public Statement getBody() {
+        return body;
+    }
+    
+    @Override
+    public List<ParsedExpression> getExpressions() {
+        return Collections.singletonList(condition);
     }
     
     @Override
@@ -14,6 +14,18 @@ public interface IZenSymbol extends IDumpConvertable {
     
     IPartialExpression instance(ZenPosition position);
     
+    /**
+     * Indicates whether every instance of this symbol evaluates to the same
+     * value. Stable bracket symbols are evaluated once per module and stored
+     * in a constant, so they must not have side effects and must not depend
+     * on when they are evaluated.
+     *
+     * @return true if this symbol is stable
+     */
+    default boolean isStable() {
+        return false;
+    }
+    
     @Override
     default List<? extends IDumpable> asDumpedObject() {
         return Collections.singletonList(new DumpDummy(this));
@@ -3,6 +3,7 @@ package stanhebben.zenscript.symbols;
 import org.objectweb.asm.*;
 import stanhebben.zenscript.compiler.IEnvironmentMethod;
 import stanhebben.zenscript.definitions.ParsedGlobalValue;
+import stanhebben.zenscript.expression.*;
 import stanhebben.zenscript.expression.partial.*;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.util.ZenPosition;
@@ -11,14 +12,36 @@ public class SymbolGlobalValue implements IZenSymbol {
     
     private final ParsedGlobalValue value;
     private final PartialGlobalValue instance;
+    private final String owner;
+    private Expression constantValue;
     
     
     public SymbolGlobalValue(ParsedGlobalValue value, IEnvironmentMethod environmentClass) {
+        this(value, environmentClass, false);
+    }
+    
+    /**
+     * @param value            parsed global
+     * @param environmentClass environment of the script's {@code <clinit>} method
+     * @param inlinable        true if the global is never assigned to, so reads may use its constant initializer
+     */
+    public SymbolGlobalValue(ParsedGlobalValue value, IEnvironmentMethod environmentClass, boolean inlinable) {
+        this(value, environmentClass, inlinable, value.getOwner());
+    }
+    
+    /**
+     * @param value            parsed global
+     * @param environmentClass environment of the {@code <clinit>} method of the owner class
+     * @param inlinable        true if the global is never assigned to, so reads may use its constant initializer
+     * @param owner            class to store the global in, the script's class or a holder class of its own
+     */
+    public SymbolGlobalValue(ParsedGlobalValue value, IEnvironmentMethod environmentClass, boolean inlinable, String owner) {
         this.value = value;
         this.instance = new PartialGlobalValue(this);
+        this.owner = owner;
         
-        initField(environmentClass.getClassOutput());
-        compileGlobal(environmentClass);
+        initField(environmentClass.getClassOutput(), inlinable || owner.equals(value.getOwner()));
+        compileGlobal(environmentClass, inlinable);
     }
     
     @Override
@@ -40,7 +63,7 @@ public class SymbolGlobalValue implements IZenSymbol {
     }
     
     public String getOwner() {
-        return value.getOwner();
+        return owner;
     }
     
     public String getASMDescriptor() {
@@ -51,26 +74,49 @@ public class SymbolGlobalValue implements IZenSymbol {
         return value.getPosition();
     }
     
+    /**
+     * Gets the constant this global was initialized with, if its initializer
+     * could be folded into a constant of the global's type. Reads of such
+     * globals can be replaced by the constant itself.
+     *
+     * @return constant initializer, or null if the value is not a constant
+     */
+    public Expression getConstantValue() {
+        return constantValue;
+    }
+    
     
     /**
-     * Initializes the Public Static Final field `name`
+     * Initializes the Public Static field `name`
      * Does not give any value to it.
      * Needs to be run before compileGlobal!
      *
-     * @param visitor class visitor visiting the generated script class
+     * @param visitor class visitor visiting the owner class
+     * @param isFinal true if the field is final; globals in holder classes
+     *                that are assigned to can't be, since they are assigned
+     *                from other classes
      */
     
-    private void initField(ClassVisitor visitor) {
-        visitor.visitField(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL, getName(), getASMDescriptor(), null, null).visitEnd();
+    private void initField(ClassVisitor visitor, boolean isFinal) {
+        visitor.visitField(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | (isFinal ? Opcodes.ACC_FINAL : 0), getName(), getASMDescriptor(), null, null).visitEnd();
     }
     
     /**
      * Sets the Public Static Final field `name`'s initial value.
      *
-     * @param clinitMethodEnvironment a method environment that refers to the generated script class' {@code<clinit>} method!
+     * @param clinitMethodEnvironment a method environment that refers to the owner class' {@code<clinit>} method!
+     * @param inlinable               true if a constant initializer may be used in place of the field
      */
-    private void compileGlobal(IEnvironmentMethod clinitMethodEnvironment) {
-        value.getValue().compile(clinitMethodEnvironment, getType()).eval(clinitMethodEnvironment).cast(getPosition(), clinitMethodEnvironment, getType()).compile(true, clinitMethodEnvironment);
+    private void compileGlobal(IEnvironmentMethod clinitMethodEnvironment, boolean inlinable) {
+        Expression initializer = value.getValue().compile(clinitMethodEnvironment, getType()).eval(clinitMethodEnvironment).cast(getPosition(), clinitMethodEnvironment, getType()).optimize(clinitMethodEnvironment);
+        if(inlinable && isConstant(initializer) && initializer.getType() == getType() && (!getType().isPointer() || getType() == ZenType.STRING))
+            constantValue = initializer;
+        
+        initializer.compile(true, clinitMethodEnvironment);
         clinitMethodEnvironment.getOutput().putStaticField(getOwner(), getName(), getASMDescriptor());
     }
+    
+    private static boolean isConstant(Expression expression) {
+        return expression instanceof ExpressionInt || expression instanceof ExpressionFloat || expression instanceof ExpressionString || expression instanceof ExpressionBool;
+    }
 }
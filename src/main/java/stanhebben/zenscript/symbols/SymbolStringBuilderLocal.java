@@ -0,0 +1,53 @@
+package stanhebben.zenscript.symbols;
+
+import org.objectweb.asm.Label;
+import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.expression.partial.*;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.util.*;
+
+/**
+ * A string local variable that is appended to through a StringBuilder while a
+ * loop is running. The builder is only converted back into the variable when
+ * the variable is read, assigned or when the loop ends.
+ */
+public class SymbolStringBuilderLocal implements IZenSymbol {
+    
+    private final SymbolLocal variable;
+    private final int builder;
+    
+    public SymbolStringBuilderLocal(SymbolLocal variable, int builder) {
+        this.variable = variable;
+        this.builder = builder;
+    }
+    
+    public SymbolLocal getVariable() {
+        return variable;
+    }
+    
+    public int getBuilder() {
+        return builder;
+    }
+    
+    @Override
+    public IPartialExpression instance(ZenPosition position) {
+        return new PartialStringBuilderLocal(position, this);
+    }
+    
+    /**
+     * Stores the pending builder contents (if any) into the variable.
+     */
+    public void compileFlush(IEnvironmentMethod environment) {
+        MethodOutput output = environment.getOutput();
+        Label skip = new Label();
+        
+        output.loadObject(builder);
+        output.ifNull(skip);
+        output.loadObject(builder);
+        output.invokeVirtual(StringBuilder.class, "toString", String.class);
+        output.store(ZenType.STRING.toASMType(), environment.getLocal(variable));
+        output.aConstNull();
+        output.storeObject(builder);
+        output.label(skip);
+    }
+}
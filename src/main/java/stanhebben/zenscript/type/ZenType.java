@@ -149,6 +149,11 @@ public abstract class ZenType implements IDumpConvertable {
                 base = STRING;
                 break;
             case ZenTokener.T_ID:
+                if(next.getValue().equals("set") && parser.optional(ZenTokener.T_LT) != null) {
+                    base = new ZenTypeSet(read(parser, environment));
+                    parser.required(ZenTokener.T_GT, "> expected");
+                    break;
+                }
                 base = ANY;
                 
                 StringBuilder typeName = new StringBuilder();
@@ -241,6 +246,20 @@ public abstract class ZenType implements IDumpConvertable {
         return castingRules.get(type);
     }
     
+    /**
+     * Gets the rule for a cast to this type from a type that is equal to it,
+     * as both have the same Java class, but that is typed differently in
+     * scripts. Most types don't need one, as equal types are used the same
+     * way.
+     *
+     * @param type type that is cast from, equal to this type
+     *
+     * @return casting rule, or null if the value can be used as it is
+     */
+    public ICastingRule getCastingRuleFrom(ZenType type) {
+        return null;
+    }
+    
     public final boolean canCastImplicit(ZenType type, IEnvironmentGlobal environment) {
         if(this.equals(type) || this.getCastingRule(type, environment) != null)
             return true;
@@ -277,6 +296,20 @@ public abstract class ZenType implements IDumpConvertable {
     
     public abstract String getAnyClassName(IEnvironmentGlobal environment);
     
+    /**
+     * Checks if the expansion registered on this type adds casters. Any
+     * classes for types without casters don't depend on the environment, so
+     * the prebuilt ones in the value package can be shared by all modules.
+     *
+     * @param environment compile environment
+     *
+     * @return true if the any class must be generated for this environment
+     */
+    protected boolean hasExpansionCasters(IEnvironmentGlobal environment) {
+        TypeExpansion expansion = environment.getExpansion(getName());
+        return expansion != null && expansion.hasCasters();
+    }
+    
     public abstract String getName();
     
     public abstract Expression defaultValue(ZenPosition position);
@@ -381,7 +414,7 @@ public abstract class ZenType implements IDumpConvertable {
     public boolean equals(Object other) {
         if(other == null)
             return false;
-        return other instanceof ZenType && (Objects.equals(this.getName(), ((ZenType) other).getName()) || Objects.equals(this.toJavaClass(), ((ZenType) other).toJavaClass()));
+        return other instanceof ZenType && (Objects.equals(this.getName(), ((ZenType) other).getName()) || this.toJavaClass() != null && this.toJavaClass().equals(((ZenType) other).toJavaClass()));
     }
     
     @Override
@@ -1,12 +1,13 @@
 package stanhebben.zenscript.type;
 
 import org.objectweb.asm.Type;
+import stanhebben.zenscript.ZenModule;
 import stanhebben.zenscript.annotations.*;
 import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.expression.*;
-import stanhebben.zenscript.expression.partial.IPartialExpression;
+import stanhebben.zenscript.expression.partial.*;
 import stanhebben.zenscript.type.casting.*;
-import stanhebben.zenscript.type.natives.JavaMethod;
+import stanhebben.zenscript.type.natives.*;
 import stanhebben.zenscript.util.ZenPosition;
 import stanhebben.zenscript.value.IAny;
 
@@ -25,8 +26,7 @@ public class ZenTypeAny extends ZenType {
     
     @Override
     public IPartialExpression getMember(ZenPosition position, IEnvironmentGlobal environment, IPartialExpression value, String name) {
-        environment.error(position, "any values not yet supported");
-        return new ExpressionInvalid(position);
+        return new PartialAnyMember(position, value.eval(environment), name);
     }
     
     @Override
@@ -107,9 +107,9 @@ public class ZenTypeAny extends ZenType {
     public Expression unary(ZenPosition position, IEnvironmentGlobal environment, Expression value, OperatorType operator) {
         switch(operator) {
             case NEG:
-                return new ExpressionCallVirtual(position, environment, METHOD_NEG, value);
+                return callAny(position, environment, METHOD_NEG, value);
             case NOT:
-                return new ExpressionCallVirtual(position, environment, METHOD_NOT, value);
+                return callAny(position, environment, METHOD_NOT, value);
             default:
                 return new ExpressionInvalid(position, ZenTypeAny.INSTANCE);
         }
@@ -119,31 +119,31 @@ public class ZenTypeAny extends ZenType {
     public Expression binary(ZenPosition position, IEnvironmentGlobal environment, Expression left, Expression right, OperatorType operator) {
         switch(operator) {
             case ADD:
-                return new ExpressionCallVirtual(position, environment, METHOD_ADD, left, right.cast(position, environment, ANY));
+                return callAny(position, environment, METHOD_ADD, left, right.cast(position, environment, ANY));
             case CAT:
-                return new ExpressionCallVirtual(position, environment, METHOD_CAT, left, right.cast(position, environment, ANY));
+                return callAny(position, environment, METHOD_CAT, left, right.cast(position, environment, ANY));
             case SUB:
-                return new ExpressionCallVirtual(position, environment, METHOD_SUB, left, right.cast(position, environment, ANY));
+                return callAny(position, environment, METHOD_SUB, left, right.cast(position, environment, ANY));
             case MUL:
-                return new ExpressionCallVirtual(position, environment, METHOD_MUL, left, right.cast(position, environment, ANY));
+                return callAny(position, environment, METHOD_MUL, left, right.cast(position, environment, ANY));
             case DIV:
-                return new ExpressionCallVirtual(position, environment, METHOD_DIV, left, right.cast(position, environment, ANY));
+                return callAny(position, environment, METHOD_DIV, left, right.cast(position, environment, ANY));
             case MOD:
-                return new ExpressionCallVirtual(position, environment, METHOD_MOD, left, right.cast(position, environment, ANY));
+                return callAny(position, environment, METHOD_MOD, left, right.cast(position, environment, ANY));
             case AND:
-                return new ExpressionCallVirtual(position, environment, METHOD_AND, left, right.cast(position, environment, ANY));
+                return callAny(position, environment, METHOD_AND, left, right.cast(position, environment, ANY));
             case OR:
-                return new ExpressionCallVirtual(position, environment, METHOD_OR, left, right.cast(position, environment, ANY));
+                return callAny(position, environment, METHOD_OR, left, right.cast(position, environment, ANY));
             case XOR:
-                return new ExpressionCallVirtual(position, environment, METHOD_XOR, left, right.cast(position, environment, ANY));
+                return callAny(position, environment, METHOD_XOR, left, right.cast(position, environment, ANY));
             case CONTAINS:
-                return new ExpressionCallVirtual(position, environment, METHOD_CONTAINS, left, right.cast(position, environment, ANY));
+                return callAny(position, environment, METHOD_CONTAINS, left, right.cast(position, environment, ANY));
             case INDEXGET:
-                return new ExpressionCallVirtual(position, environment, METHOD_INDEXGET, left, right.cast(position, environment, ANY));
+                return callAny(position, environment, METHOD_INDEXGET, left, right.cast(position, environment, ANY));
             case RANGE:
-                return new ExpressionCallVirtual(position, environment, METHOD_RANGE, left, right.cast(position, environment, ANY));
+                return callAny(position, environment, METHOD_RANGE, left, right.cast(position, environment, ANY));
             case COMPARE:
-                return new ExpressionCallVirtual(position, environment, METHOD_COMPARETO, left, right.cast(position, environment, ANY));
+                return callAny(position, environment, METHOD_COMPARETO, left, right.cast(position, environment, ANY));
             case MEMBERGETTER:
                 return new ExpressionCallVirtual(position, environment, METHOD_MEMBERGET, left, right.cast(position, environment, STRING));
             default:
@@ -155,7 +155,7 @@ public class ZenTypeAny extends ZenType {
     public Expression trinary(ZenPosition position, IEnvironmentGlobal environment, Expression first, Expression second, Expression third, OperatorType operator) {
         switch(operator) {
             case INDEXSET:
-                return new ExpressionCallVirtual(position, environment, METHOD_INDEXSET, first, second.cast(position, environment, ANY), third.cast(position, environment, ANY));
+                return callAny(position, environment, METHOD_INDEXSET, first, second.cast(position, environment, ANY), third.cast(position, environment, ANY));
             case MEMBERSETTER:
                 return new ExpressionCallVirtual(position, environment, METHOD_MEMBERSET, first, second.cast(position, environment, STRING), third.cast(position, environment, ANY));
             default:
@@ -165,14 +165,37 @@ public class ZenTypeAny extends ZenType {
     
     @Override
     public Expression compare(ZenPosition position, IEnvironmentGlobal environment, Expression left, Expression right, CompareType type) {
-        Expression comparator = new ExpressionCallVirtual(position, environment, JavaMethod.get(environment, IAny.class, "compareTo", IAny.class), left, right);
+        Expression comparator = callAny(position, environment, METHOD_COMPARETO, left, right.cast(position, environment, ANY));
         
         return new ExpressionCompareGeneric(position, comparator, type);
     }
     
     @Override
     public Expression call(ZenPosition position, IEnvironmentGlobal environment, Expression receiver, Expression... arguments) {
-        return new ExpressionCallVirtual(position, environment, JavaMethod.get(environment, IAny.class, "call", IAny[].class), receiver, arguments);
+        if(ZenModule.useInvokeDynamic) {
+            Expression[] operands = new Expression[arguments.length + 1];
+            operands[0] = receiver;
+            for(int i = 0; i < arguments.length; i++) {
+                operands[i + 1] = arguments[i].cast(position, environment, ANY);
+            }
+            return new ExpressionAnyDynamic(position, "call", null, ANY, operands);
+        }
+        
+        return new ExpressionCallVirtual(position, environment, METHOD_CALL, receiver, arguments);
+    }
+    
+    /**
+     * Calls the given IAny method, through an invokedynamic call site if
+     * enabled. All arguments must already be any values.
+     */
+    private static Expression callAny(ZenPosition position, IEnvironmentGlobal environment, IJavaMethod method, Expression receiver, Expression... arguments) {
+        if(!ZenModule.useInvokeDynamic)
+            return new ExpressionCallVirtual(position, environment, method, receiver, arguments);
+        
+        Expression[] operands = new Expression[arguments.length + 1];
+        operands[0] = receiver;
+        System.arraycopy(arguments, 0, operands, 1, arguments.length);
+        return new ExpressionAnyDynamic(position, ((JavaMethod) method).getMethod().getName(), null, method.getReturnType(), operands);
     }
     
     @Override
@@ -104,6 +104,11 @@ public abstract class ZenTypeArray extends ZenType {
             
                 return add(position, environment, left, right);
             case CONTAINS:
+                if(left instanceof ExpressionArray) {
+                    Expression set = ((ExpressionArray) left).toLookupSet(position, environment, right.getType());
+                    if(set != null)
+                        return set.getType().binary(position, environment, set, right, operator);
+                }
                 return new ExpressionArrayContains(position, environment, left, right);
             default:
                 Expression result = binaryExpansion(position, environment, left, right, operator);
@@ -88,7 +88,8 @@ public class ZenTypeArrayBasic extends ZenTypeArray {
     
     @Override
     public Class toJavaClass() {
-        return Array.newInstance(getBaseType().toJavaClass(), 0).getClass();
+        Class<?> baseClass = getBaseType().toJavaClass();
+        return baseClass == null ? null : Array.newInstance(baseClass, 0).getClass();
     }
     
     @Override
@@ -9,8 +9,9 @@ import stanhebben.zenscript.type.casting.*;
 import stanhebben.zenscript.type.iterator.*;
 import stanhebben.zenscript.util.ZenPosition;
 import stanhebben.zenscript.util.ZenTypeUtil;
+import stanhebben.zenscript.value.map.*;
 
-import java.util.Map;
+import java.util.*;
 
 import static stanhebben.zenscript.util.ZenTypeUtil.signature;
 
@@ -39,6 +40,28 @@ public class ZenTypeAssociative extends ZenType {
     	return ZenTypeUtil.checkPrimitive(keyType);
     }
     
+    public boolean hasIntKeys() {
+        return keyType == INT;
+    }
+    
+    public boolean hasIntValues() {
+        return valueType == INT;
+    }
+    
+    /**
+     * Gets the map implementation that is created for map literals of this
+     * type. Maps with int keys or values use a primitive map so that they are
+     * stored without boxing.
+     */
+    public Class<?> getMapClass() {
+        if(hasIntKeys())
+            return hasIntValues() ? IntIntMap.class : IntObjectMap.class;
+        else if(hasIntValues())
+            return ObjectIntMap.class;
+        else
+            return HashMap.class;
+    }
+    
     @Override
     public ICastingRule getCastingRule(ZenType type, IEnvironmentGlobal environment) {
         ICastingRule base = super.getCastingRule(type, environment);
@@ -99,9 +99,12 @@ public class ZenTypeFunction extends ZenType {
             return implementedInterfaces.get(type);
         }
         
+        // zenclasses have no Class while they are being compiled, and aren't functional interfaces anyway
         Class<?> cls = type.toJavaClass();
+        if(cls == null)
+            return null;
         
-        System.out.println("Can cast this function to " + cls.getName() + "?");
+        System.out.println("Can cast this function to " + type.getName() + "?");
     
         final Method method = ZenTypeUtil.findFunctionalInterfaceMethod(cls);
         if(method != null) {
@@ -9,7 +9,7 @@ import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.type.casting.*;
 import stanhebben.zenscript.type.natives.JavaMethod;
 import stanhebben.zenscript.util.*;
-import stanhebben.zenscript.value.IAny;
+import stanhebben.zenscript.value.*;
 
 import static stanhebben.zenscript.util.AnyClassWriter.*;
 import static stanhebben.zenscript.util.ZenTypeUtil.*;
@@ -183,6 +183,9 @@ public class ZenTypeInt extends ZenType {
     
     @Override
     public String getAnyClassName(IEnvironmentGlobal environment) {
+        if(!hasExpansionCasters(environment))
+            return AnyInt.NAME;
+        
         if(!environment.containsClass(ANY_NAME_2)) {
             environment.putClass(ANY_NAME_2, new byte[0]);
             environment.putClass(ANY_NAME_2, AnyClassWriter.construct(new AnyDefinitionInt(environment), ANY_NAME, Type.INT_TYPE));
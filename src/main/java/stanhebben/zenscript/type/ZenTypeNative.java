@@ -3,6 +3,8 @@ package stanhebben.zenscript.type;
 import org.objectweb.asm.*;
 import org.objectweb.asm.Type;
 import stanhebben.zenscript.TypeExpansion;
+import stanhebben.zenscript.ZenModule;
+import stanhebben.zenscript.ZenRuntimeException;
 import stanhebben.zenscript.annotations.*;
 import stanhebben.zenscript.compiler.IEnvironmentGlobal;
 import stanhebben.zenscript.compiler.IEnvironmentMethod;
@@ -11,22 +13,21 @@ import stanhebben.zenscript.dump.types.DumpZenType;
 import stanhebben.zenscript.dump.types.DumpZenTypeNative;
 import stanhebben.zenscript.expression.*;
 import stanhebben.zenscript.expression.partial.IPartialExpression;
+import stanhebben.zenscript.snapshot.*;
 import stanhebben.zenscript.type.casting.*;
 import stanhebben.zenscript.type.iterator.*;
 import stanhebben.zenscript.type.natives.*;
-import stanhebben.zenscript.util.IAnyDefinition;
-import stanhebben.zenscript.util.MethodOutput;
-import stanhebben.zenscript.util.ZenPosition;
+import stanhebben.zenscript.util.*;
 import stanhebben.zenscript.value.IAny;
 
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.util.Optional;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static stanhebben.zenscript.util.AnyClassWriter.throwCastException;
-import static stanhebben.zenscript.util.AnyClassWriter.throwUnsupportedException;
+import static stanhebben.zenscript.util.AnyClassWriter.*;
 import static stanhebben.zenscript.util.ZenTypeUtil.internal;
 import static stanhebben.zenscript.util.ZenTypeUtil.signature;
 
@@ -55,7 +56,8 @@ public class ZenTypeNative extends ZenType {
     private int iteratorType;
     private String classPkg;
     private String className;
-    private Annotation iteratorAnnotation;
+    private String iteratorKey;
+    private String iteratorValue;
     private ZenType iteratorKeyType;
     private ZenType iteratorValueType;
     
@@ -70,13 +72,14 @@ public class ZenTypeNative extends ZenType {
         implementing = new ArrayList<>();
         constructors = new ArrayList<>();
         
-        anyName2 = cls.getName() + "Any";
+        anyName2 = "any." + cls.getName() + "Any";
         anyName = anyName2.replace('.', '/');
     }
     
     public void complete(ITypeRegistry types) {
         int iterator = ITERATOR_NONE;
-        Annotation _iteratorAnnotation = null;
+        String _iteratorKey = null;
+        String _iteratorValue = null;
         String _classPkg = Optional.ofNullable(cls.getPackage()).map(Package::getName).orElse("null").replace('/', '.');
         String _className = cls.getSimpleName();
         
@@ -99,21 +102,24 @@ public class ZenTypeNative extends ZenType {
             }
             if(annotation instanceof IterableSimple) {
                 iterator = ITERATOR_ITERABLE;
-                _iteratorAnnotation = annotation;
+                _iteratorKey = null;
+                _iteratorValue = ((IterableSimple) annotation).value();
                 if(!Iterable.class.isAssignableFrom(cls)) {
                     // TODO: illegal
                 }
             }
             if(annotation instanceof IterableList) {
                 iterator = ITERATOR_LIST;
-                _iteratorAnnotation = annotation;
+                _iteratorKey = null;
+                _iteratorValue = ((IterableList) annotation).value();
                 if(!List.class.isAssignableFrom(cls)) {
                     // TODO: illegal
                 }
             }
             if(annotation instanceof IterableMap) {
                 iterator = ITERATOR_MAP;
-                _iteratorAnnotation = annotation;
+                _iteratorKey = ((IterableMap) annotation).key();
+                _iteratorValue = ((IterableMap) annotation).value();
                 if(!Map.class.isAssignableFrom(cls)) {
                     // TODO: illegal
                 }
@@ -279,11 +285,12 @@ public class ZenTypeNative extends ZenType {
         
         for(Constructor constructor: cls.getConstructors()) {
             if(constructor.isAnnotationPresent(ZenConstructor.class))
-                this.constructors.add(new ZenNativeConstructor(constructor));
+                this.constructors.add(new ZenNativeConstructor(constructor, types));
         }
         
         this.iteratorType = iterator;
-        this.iteratorAnnotation = _iteratorAnnotation;
+        this.iteratorKey = _iteratorKey;
+        this.iteratorValue = _iteratorValue;
         this.classPkg = _classPkg;
         this.className = _className;
     }
@@ -311,33 +318,106 @@ public class ZenTypeNative extends ZenType {
     }
     
     public void completeIterators(IEnvironmentGlobal environment) {
-        if(iteratorAnnotation instanceof IterableSimple) {
-            IterableSimple annotation = (IterableSimple) iteratorAnnotation;
-            iteratorValueType = ZenType.parse(annotation.value(), environment);
-        }
-        if(iteratorAnnotation instanceof IterableList) {
-            IterableList annotation = (IterableList) iteratorAnnotation;
+        if(iteratorValue == null)
+            return;
+        
+        if(iteratorType == ITERATOR_LIST)
             iteratorKeyType = ZenTypeInt.INSTANCE;
-            iteratorValueType = ZenType.parse(annotation.value(), environment);
+        else if(iteratorKey != null)
+            iteratorKeyType = ZenType.parse(iteratorKey, environment);
+        iteratorValueType = ZenType.parse(iteratorValue, environment);
+    }
+    
+    /**
+     * Writes everything complete collected to a registry snapshot.
+     *
+     * @param output snapshot output
+     * @throws IOException if the output throws
+     */
+    public void writeSnapshot(SnapshotOutput output) throws IOException {
+        output.writeString(classPkg);
+        output.writeString(className);
+        output.writeInt(iteratorType);
+        output.writeString(iteratorKey);
+        output.writeString(iteratorValue);
+        
+        output.writeInt(implementing.size());
+        for(ZenTypeNative type : implementing) {
+            output.writeType(type);
+        }
+        output.writeMembers(members);
+        output.writeMembers(staticMembers);
+        output.writeInt(casters.size());
+        for(ZenNativeCaster caster : casters) {
+            output.writeMethod(caster.getMethod());
+        }
+        output.writeOperators(trinaryOperators);
+        output.writeOperators(binaryOperators);
+        output.writeOperators(unaryOperators);
+        output.writeInt(constructors.size());
+        for(ZenNativeConstructor constructor : constructors) {
+            output.writeString(constructor.descriptor);
+            output.writeInt(constructor.parameterTypes.length);
+            for(ZenType parameterType : constructor.parameterTypes) {
+                output.writeType(parameterType);
+            }
         }
-        if(iteratorAnnotation instanceof IterableMap) {
-            IterableMap annotation = (IterableMap) iteratorAnnotation;
-            iteratorKeyType = ZenType.parse(annotation.key(), environment);
-            iteratorValueType = ZenType.parse(annotation.value(), environment);
+    }
+    
+    /**
+     * Restores what writeSnapshot wrote, instead of running complete.
+     *
+     * @param input snapshot input
+     * @throws IOException if the input throws or is malformed
+     */
+    public void readSnapshot(SnapshotInput input) throws IOException {
+        classPkg = input.readString();
+        className = input.readString();
+        iteratorType = input.readInt();
+        iteratorKey = input.readString();
+        iteratorValue = input.readString();
+        
+        for(int i = input.readInt(); i > 0; i--) {
+            implementing.add((ZenTypeNative) input.readType());
+        }
+        input.readMembers(members);
+        input.readMembers(staticMembers);
+        for(int i = input.readInt(); i > 0; i--) {
+            casters.add(new ZenNativeCaster(input.readMethod()));
+        }
+        input.readOperators(trinaryOperators);
+        input.readOperators(binaryOperators);
+        input.readOperators(unaryOperators);
+        for(int i = input.readInt(); i > 0; i--) {
+            String descriptor = input.readString();
+            ZenType[] parameterTypes = new ZenType[input.readInt()];
+            for(int j = 0; j < parameterTypes.length; j++) {
+                parameterTypes[j] = input.readType();
+            }
+            constructors.add(new ZenNativeConstructor(descriptor, parameterTypes));
         }
     }
     
     @Override
     public String getAnyClassName(IEnvironmentGlobal global) {
-        if(!global.containsClass(anyName2)) {
+        if(!global.containsClass(anyName2) && !isAnyClassShared()) {
             global.putClass(anyName2, new byte[0]);
-            // global.putClass(anyName2, AnyClassWriter.construct(new
-            // AnyNativeDefinition(global), anyName2, toASMType()));
+            global.putClass(anyName2, AnyClassWriter.construct(new AnyNativeDefinition(global), anyName, toASMType()));
         }
         
         return anyName;
     }
     
+    /**
+     * Checks if an earlier module already generated the any class. Generated
+     * classes are shared by all modules, so it is only generated once.
+     */
+    private boolean isAnyClassShared() {
+        synchronized(ZenModule.classes) {
+            return ZenModule.classes.containsKey(anyName2) || ZenModule.loadedClasses.containsKey(anyName2);
+        }
+    }
+    
     @Override
     public IPartialExpression getMember(ZenPosition position, IEnvironmentGlobal environment, IPartialExpression value, String name) {
         ZenNativeMember member = members.get(name);
@@ -492,7 +572,7 @@ public class ZenTypeNative extends ZenType {
         }
         
         rules.registerCastingRule(BOOL, new CastingNotNull(this));
-        rules.registerCastingRule(ANY, new CastingRuleNullableStaticMethod(JavaMethod.getStatic(getAnyClassName(environment), "valueOf", ANY, this)));
+        rules.registerCastingRule(ANY, new CastingRuleNullableAnyValueOf(this));
     }
     
     @Override
@@ -803,49 +883,53 @@ public class ZenTypeNative extends ZenType {
     private class AnyNativeDefinition implements IAnyDefinition {
         
         private final IEnvironmentGlobal environment;
+        private final String valueSignature;
         
         public AnyNativeDefinition(IEnvironmentGlobal environment) {
             this.environment = environment;
+            this.valueSignature = signature(cls);
         }
         
         @Override
         public void defineMembers(ClassVisitor output) {
-            output.visitField(Opcodes.ACC_PRIVATE, "value", "F", null, null);
+            output.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "value", valueSignature, null, null);
             
-            MethodOutput valueOf = new MethodOutput(output, Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "valueOf", "(F)" + signature(IAny.class), null, null);
+            MethodOutput valueOf = new MethodOutput(output, Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "valueOf", "(" + valueSignature + ")" + signature(IAny.class), null, null);
+            Label lblNotNull = new Label();
             valueOf.start();
-            valueOf.newObject(anyName2);
+            valueOf.loadObject(0);
+            valueOf.ifNonNull(lblNotNull);
+            valueOf.aConstNull();
+            valueOf.returnObject();
+            valueOf.label(lblNotNull);
+            valueOf.newObject(anyName);
             valueOf.dup();
-            valueOf.load(toASMType(), 0);
-            valueOf.construct(anyName2, "L" + cls.getName() + ";");
+            valueOf.loadObject(0);
+            valueOf.construct(anyName, valueSignature);
             valueOf.returnObject();
             valueOf.end();
             
-            MethodOutput constructor = new MethodOutput(output, Opcodes.ACC_PUBLIC, "<init>", "(L" + cls.getName() + ";)V", null, null);
+            MethodOutput constructor = new MethodOutput(output, Opcodes.ACC_PUBLIC, "<init>", "(" + valueSignature + ")V", null, null);
             constructor.start();
             constructor.loadObject(0);
             constructor.invokeSpecial(internal(Object.class), "<init>", "()V");
             constructor.loadObject(0);
-            constructor.load(Type.FLOAT_TYPE, 1);
-            constructor.putField(anyName2, "value", "L" + cls.getName() + ";");
+            constructor.loadObject(1);
+            constructor.putField(anyName, "value", valueSignature);
             constructor.returnType(Type.VOID_TYPE);
             constructor.end();
         }
         
         @Override
         public void defineStaticCanCastImplicit(MethodOutput output) {
-            // Class
-            // if (cls.isAssignableFrom(param)) return true;
+            // if (param.isAssignableFrom(cls)) return true;
+            output.loadObject(0);
             output.constant(Type.getType(cls));
-            output.loadObject(1);
             output.invokeVirtual(Class.class, "isAssignableFrom", boolean.class, Class.class);
-            
             Label lblNotAssignable = new Label();
             output.ifEQ(lblNotAssignable);
-            
             output.iConst1();
             output.returnInt();
-            
             output.label(lblNotAssignable);
             
             for(ZenNativeCaster caster : casters) {
@@ -863,16 +947,14 @@ public class ZenTypeNative extends ZenType {
         
         @Override
         public void defineStaticAs(MethodOutput output) {
-            output.constant(Type.getType(cls));
+            // if (param.isInstance(value)) return value;
             output.loadObject(1);
-            output.invokeVirtual(Class.class, "isAssignableFrom", boolean.class, Class.class);
-            
+            output.loadObject(0);
+            output.invokeVirtual(Class.class, "isInstance", boolean.class, Object.class);
             Label lblNotAssignable = new Label();
             output.ifEQ(lblNotAssignable);
-            
             output.loadObject(0);
             output.returnObject();
-            
             output.label(lblNotAssignable);
             
             for(ZenNativeCaster caster : casters) {
@@ -884,133 +966,244 @@ public class ZenTypeNative extends ZenType {
                 expansion.compileAnyCast(ZenTypeNative.this, output, environment, 0, 1);
             }
             
-            throwCastException(output, "float", 1);
+            throwCastException(output, getName(), 1);
         }
         
         @Override
         public void defineNot(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "not");
-            /*
-             * for (ZenNativeOperator unaryOperator : unaryOperators) { if
-             * (unaryOperator.getOperator() == OperatorType.NOT) {
-             *
-             * } }
-             *
-             * TypeExpansion expansion = environment.getExpansion(getName()); if
-             * (expansion != null) { if (expansion.compileAnyUnary(output,
-             * OperatorType.NOT)) {
-             *
-             * } }
-             */
+            defineOperator(output, OperatorType.NOT, "not");
         }
         
         @Override
         public void defineNeg(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "negate");
+            defineOperator(output, OperatorType.NEG, "negate");
         }
         
         @Override
         public void defineAdd(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "+");
+            defineOperator(output, OperatorType.ADD, "+");
         }
         
         @Override
         public void defineSub(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "-");
+            defineOperator(output, OperatorType.SUB, "-");
         }
         
         @Override
         public void defineCat(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "~");
+            defineOperator(output, OperatorType.CAT, "~");
         }
         
         @Override
         public void defineMul(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "*");
+            defineOperator(output, OperatorType.MUL, "*");
         }
         
         @Override
         public void defineDiv(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "/");
+            defineOperator(output, OperatorType.DIV, "/");
         }
         
         @Override
         public void defineMod(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "%");
+            defineOperator(output, OperatorType.MOD, "%");
         }
         
         @Override
         public void defineAnd(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "&");
+            defineOperator(output, OperatorType.AND, "&");
         }
         
         @Override
         public void defineOr(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "|");
+            defineOperator(output, OperatorType.OR, "|");
         }
         
         @Override
         public void defineXor(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "^");
+            defineOperator(output, OperatorType.XOR, "^");
         }
         
         @Override
         public void defineRange(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "..");
+            defineOperator(output, OperatorType.RANGE, "..");
         }
         
         @Override
         public void defineCompareTo(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "compare");
+            IJavaMethod method = findOperator(OperatorType.COMPARE, 1);
+            if(method == null || method.getReturnType().toJavaClass() != int.class) {
+                throwUnsupportedException(output, getName(), "compare");
+                return;
+            }
+            
+            getValue(output);
+            output.loadObject(1);
+            compileFromAny(output, method.getParameterTypes()[0]);
+            method.invokeVirtual(output);
+            output.returnInt();
         }
         
         @Override
         public void defineContains(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "in");
+            IJavaMethod method = findOperator(OperatorType.CONTAINS, 1);
+            if(method == null || method.getReturnType().toJavaClass() != boolean.class) {
+                throwUnsupportedException(output, getName(), "in");
+                return;
+            }
+            
+            getValue(output);
+            output.loadObject(1);
+            compileFromAny(output, method.getParameterTypes()[0]);
+            method.invokeVirtual(output);
+            output.returnInt();
         }
         
         @Override
         public void defineMemberGet(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "member get");
+            // switch (member) { case "name": return valueOf(value.getName()); ... }
+            Map<String, IJavaMethod> getters = new HashMap<>();
+            for(ZenTypeNative type : getTypeHierarchy()) {
+                type.members.forEach((name, member) -> {
+                    IJavaMethod getter = member.getGetter();
+                    if(getter != null && !getter.isStatic() && isAnyCompatible(getter.getReturnType()))
+                        getters.putIfAbsent(name, getter);
+                });
+            }
+            
+            Label lblDefault = new Label();
+            StringSwitch.compile(output, 1, getters.keySet(), name -> {
+                IJavaMethod getter = getters.get(name);
+                getValue(output);
+                getter.invokeVirtual(output);
+                compileToAny(output, getter.getReturnType());
+                output.returnObject();
+            }, lblDefault);
+            
+            output.label(lblDefault);
+            IJavaMethod memberGetter = findOperator(OperatorType.MEMBERGETTER, 1);
+            if(memberGetter != null && isAnyCompatible(memberGetter.getReturnType())) {
+                getValue(output);
+                output.loadObject(1);
+                memberGetter.invokeVirtual(output);
+                compileToAny(output, memberGetter.getReturnType());
+                output.returnObject();
+            } else {
+                throwNoSuchMember(output, "member");
+            }
         }
         
         @Override
         public void defineMemberSet(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "member set");
+            // switch (member) { case "name": value.setName(other.as...()); return; ... }
+            Map<String, IJavaMethod> setters = new HashMap<>();
+            for(ZenTypeNative type : getTypeHierarchy()) {
+                type.members.forEach((name, member) -> {
+                    IJavaMethod setter = member.getSetter();
+                    if(setter != null && !setter.isStatic() && isAnyCompatible(setter.getParameterTypes()[0]))
+                        setters.putIfAbsent(name, setter);
+                });
+            }
+            
+            Label lblDefault = new Label();
+            StringSwitch.compile(output, 1, setters.keySet(), name -> {
+                IJavaMethod setter = setters.get(name);
+                getValue(output);
+                output.loadObject(2);
+                compileFromAny(output, setter.getParameterTypes()[0]);
+                setter.invokeVirtual(output);
+                output.returnType(Type.VOID_TYPE);
+            }, lblDefault);
+            
+            output.label(lblDefault);
+            IJavaMethod memberSetter = findOperator(OperatorType.MEMBERSETTER, 2);
+            if(memberSetter != null && isAnyCompatible(memberSetter.getParameterTypes()[1])) {
+                getValue(output);
+                output.loadObject(1);
+                output.loadObject(2);
+                compileFromAny(output, memberSetter.getParameterTypes()[1]);
+                memberSetter.invokeVirtual(output);
+                if(memberSetter.getReturnType() != VOID)
+                    output.pop(memberSetter.getReturnType().isLarge());
+                output.returnType(Type.VOID_TYPE);
+            } else {
+                throwNoSuchMember(output, "member");
+            }
         }
         
         @Override
         public void defineMemberCall(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "member call");
+            // switch (member) { case "name": if (args.length == n) return valueOf(value.name(args[0].as...(), ...)); ... }
+            Map<String, List<IJavaMethod>> methods = new HashMap<>();
+            for(ZenTypeNative type : getTypeHierarchy()) {
+                type.members.forEach((name, member) -> {
+                    for(IJavaMethod method : member.getMethods()) {
+                        if(isAnyCallable(method))
+                            methods.computeIfAbsent(name, n -> new ArrayList<>()).add(method);
+                    }
+                });
+            }
+            
+            Label lblDefault = new Label();
+            StringSwitch.compile(output, 1, methods.keySet(), name -> {
+                List<IJavaMethod> overloads = methods.get(name);
+                for(int i = 0; i < overloads.size(); i++) {
+                    IJavaMethod method = overloads.get(i);
+                    ZenType[] parameterTypes = method.getParameterTypes();
+                    Label lblNext = new Label();
+                    
+                    output.loadObject(2);
+                    output.arrayLength();
+                    output.constant(parameterTypes.length);
+                    output.ifICmpNE(lblNext);
+                    
+                    if(hasOverloadWithSameArity(overloads, i)) {
+                        for(int j = 0; j < parameterTypes.length; j++) {
+                            compileArgumentCheck(output, j, parameterTypes[j], lblNext);
+                        }
+                    }
+                    
+                    getValue(output);
+                    for(int j = 0; j < parameterTypes.length; j++) {
+                        output.loadObject(2);
+                        output.constant(j);
+                        output.arrayLoad(Type.getType(IAny.class));
+                        compileFromAny(output, parameterTypes[j]);
+                    }
+                    method.invokeVirtual(output);
+                    compileToAny(output, method.getReturnType());
+                    output.returnObject();
+                    output.label(lblNext);
+                }
+                throwNoSuchMember(output, "method with matching arguments");
+            }, lblDefault);
+            
+            output.label(lblDefault);
+            throwNoSuchMember(output, "method");
         }
         
         @Override
         public void defineIndexGet(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "index get");
+            defineOperator(output, OperatorType.INDEXGET, "index get");
         }
         
         @Override
         public void defineIndexSet(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "index set");
+            IJavaMethod method = findOperator(OperatorType.INDEXSET, 2);
+            if(method == null) {
+                throwUnsupportedException(output, getName(), "index set");
+                return;
+            }
+            
+            getValue(output);
+            output.loadObject(1);
+            compileFromAny(output, method.getParameterTypes()[0]);
+            output.loadObject(2);
+            compileFromAny(output, method.getParameterTypes()[1]);
+            method.invokeVirtual(output);
+            if(method.getReturnType() != VOID)
+                output.pop(method.getReturnType().isLarge());
+            output.returnType(Type.VOID_TYPE);
         }
         
         @Override
@@ -1021,62 +1214,66 @@ public class ZenTypeNative extends ZenType {
         
         @Override
         public void defineAsBool(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "asBool");
+            defineAsPrimitive(output, boolean.class, "bool");
         }
         
         @Override
         public void defineAsByte(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "asByte");
+            defineAsPrimitive(output, byte.class, "byte");
         }
         
         @Override
         public void defineAsShort(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "asShort");
+            defineAsPrimitive(output, short.class, "short");
         }
         
         @Override
         public void defineAsInt(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "asInt");
+            defineAsPrimitive(output, int.class, "int");
         }
         
         @Override
         public void defineAsLong(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "asLong");
+            defineAsPrimitive(output, long.class, "long");
         }
         
         @Override
         public void defineAsFloat(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "asFloat");
+            defineAsPrimitive(output, float.class, "float");
         }
         
         @Override
         public void defineAsDouble(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "asDouble");
+            defineAsPrimitive(output, double.class, "double");
         }
         
         @Override
         public void defineAsString(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "asString");
+            getValue(output);
+            ZenNativeCaster caster = findCaster(String.class);
+            if(caster == null) {
+                output.invokeVirtual(Object.class, "toString", String.class);
+            } else {
+                caster.compile(output);
+            }
+            output.returnObject();
         }
         
         @Override
         public void defineAs(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "as");
+            getValue(output);
+            output.loadObject(1);
+            output.invokeStatic(anyName, "rtAs", "(" + valueSignature + "Ljava/lang/Class;)Ljava/lang/Object;");
+            output.returnObject();
         }
         
         @Override
         public void defineIs(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "is");
+            // return param.isInstance(value);
+            output.loadObject(1);
+            getValue(output);
+            output.invokeVirtual(Class.class, "isInstance", boolean.class, Object.class);
+            output.returnInt();
         }
         
         @Override
@@ -1105,31 +1302,247 @@ public class ZenTypeNative extends ZenType {
         
         @Override
         public void defineHashCode(MethodOutput output) {
-            // TODO: implement
-            throwUnsupportedException(output, getName(), "hashCode");
+            getValue(output);
+            output.invokeVirtual(Object.class, "hashCode", int.class);
+            output.returnInt();
+        }
+        
+        private void getValue(MethodOutput output) {
+            output.loadObject(0);
+            output.getField(anyName, "value", valueSignature);
+        }
+        
+        private void defineOperator(MethodOutput output, OperatorType operator, String name) {
+            int numArguments = operator == OperatorType.NOT || operator == OperatorType.NEG ? 0 : 1;
+            IJavaMethod method = findOperator(operator, numArguments);
+            if(method == null || !isAnyCompatible(method.getReturnType())) {
+                throwUnsupportedException(output, getName(), name);
+                return;
+            }
+            
+            getValue(output);
+            if(numArguments == 1) {
+                output.loadObject(1);
+                compileFromAny(output, method.getParameterTypes()[0]);
+            }
+            method.invokeVirtual(output);
+            compileToAny(output, method.getReturnType());
+            output.returnObject();
+        }
+        
+        private void defineAsPrimitive(MethodOutput output, Class<?> target, String name) {
+            ZenNativeCaster caster = findCaster(target);
+            if(caster == null) {
+                throwCastException(output, getName(), name);
+                return;
+            }
+            
+            getValue(output);
+            caster.compile(output);
+            output.returnType(Type.getType(target));
+        }
+        
+        private ZenNativeCaster findCaster(Class<?> target) {
+            for(ZenTypeNative type : getTypeHierarchy()) {
+                for(ZenNativeCaster caster : type.casters) {
+                    if(caster.getReturnType().toJavaClass() == target)
+                        return caster;
+                }
+            }
+            return null;
+        }
+        
+        /**
+         * Finds an operator on this type or the types it implements. Only
+         * operators whose arguments can be converted from any are returned.
+         */
+        private IJavaMethod findOperator(OperatorType operator, int numArguments) {
+            for(ZenTypeNative type : getTypeHierarchy()) {
+                List<ZenNativeOperator> operators = numArguments == 0 ? type.unaryOperators : numArguments == 1 ? type.binaryOperators : type.trinaryOperators;
+                for(ZenNativeOperator nativeOperator : operators) {
+                    if(nativeOperator.getOperator() == operator && isAnyCallable(nativeOperator.getMethod()))
+                        return nativeOperator.getMethod();
+                }
+            }
+            return null;
+        }
+        
+        private List<ZenTypeNative> getTypeHierarchy() {
+            List<ZenTypeNative> result = new ArrayList<>();
+            result.add(ZenTypeNative.this);
+            result.addAll(implementing);
+            return result;
+        }
+        
+        private boolean isAnyCallable(IJavaMethod method) {
+            if(method.isStatic() || method.isVarargs() || !isAnyCompatible(method.getReturnType()))
+                return false;
+            
+            for(ZenType parameterType : method.getParameterTypes()) {
+                if(parameterType == VOID || !isAnyCompatible(parameterType))
+                    return false;
+            }
+            return true;
+        }
+        
+        /**
+         * Checks if values of the given type can be converted from and to any
+         * at runtime.
+         */
+        private boolean isAnyCompatible(ZenType type) {
+            Class<?> javaClass = type.toJavaClass();
+            if(javaClass == null)
+                return false;
+            
+            return javaClass == IAny.class || javaClass == void.class || javaClass == String.class || (javaClass.isPrimitive() && javaClass != char.class) || type instanceof ZenTypeNative;
+        }
+        
+        private void compileToAny(MethodOutput output, ZenType type) {
+            Class<?> javaClass = type.toJavaClass();
+            if(javaClass == void.class) {
+                output.aConstNull();
+            } else if(javaClass != IAny.class) {
+                output.invokeStatic(type.getAnyClassName(environment), "valueOf", "(" + type.getSignature() + ")" + signature(IAny.class));
+            }
+        }
+        
+        private void compileFromAny(MethodOutput output, ZenType type) {
+            Class<?> javaClass = type.toJavaClass();
+            if(javaClass == IAny.class) {
+                return;
+            } else if(javaClass == boolean.class) {
+                METHOD_ASBOOL.invokeVirtual(output);
+            } else if(javaClass == byte.class) {
+                METHOD_ASBYTE.invokeVirtual(output);
+            } else if(javaClass == short.class) {
+                METHOD_ASSHORT.invokeVirtual(output);
+            } else if(javaClass == int.class) {
+                METHOD_ASINT.invokeVirtual(output);
+            } else if(javaClass == long.class) {
+                METHOD_ASLONG.invokeVirtual(output);
+            } else if(javaClass == float.class) {
+                METHOD_ASFLOAT.invokeVirtual(output);
+            } else if(javaClass == double.class) {
+                METHOD_ASDOUBLE.invokeVirtual(output);
+            } else {
+                // null stays null, anything else goes through asString or as
+                Label lblNull = new Label();
+                output.dup();
+                output.ifNull(lblNull);
+                if(javaClass == String.class) {
+                    METHOD_ASSTRING.invokeVirtual(output);
+                } else {
+                    output.constant(Type.getType(javaClass));
+                    METHOD_AS.invokeVirtual(output);
+                }
+                output.label(lblNull);
+                output.checkCast(Type.getInternalName(javaClass));
+            }
+        }
+        
+        /**
+         * Jumps to the given label if argument i can't be converted to the
+         * given type. Only used to pick between overloads with the same
+         * number of parameters.
+         */
+        private void compileArgumentCheck(MethodOutput output, int index, ZenType type, Label lblFail) {
+            Class<?> javaClass = type.toJavaClass();
+            if(javaClass == IAny.class)
+                return;
+            
+            Label lblOk = new Label();
+            output.loadObject(2);
+            output.constant(index);
+            output.arrayLoad(Type.getType(IAny.class));
+            if(javaClass.isPrimitive()) {
+                output.ifNull(lblFail);
+            } else {
+                output.ifNull(lblOk);
+            }
+            
+            output.loadObject(2);
+            output.constant(index);
+            output.arrayLoad(Type.getType(IAny.class));
+            if(javaClass.isPrimitive()) {
+                output.getStaticField(internal(boxedClass(javaClass)), "TYPE", "Ljava/lang/Class;");
+            } else {
+                output.constant(Type.getType(javaClass));
+            }
+            METHOD_CANCASTIMPLICIT.invokeVirtual(output);
+            output.ifEQ(lblFail);
+            output.label(lblOk);
+        }
+        
+        private Class<?> boxedClass(Class<?> primitive) {
+            if(primitive == boolean.class)
+                return Boolean.class;
+            if(primitive == byte.class)
+                return Byte.class;
+            if(primitive == short.class)
+                return Short.class;
+            if(primitive == int.class)
+                return Integer.class;
+            if(primitive == long.class)
+                return Long.class;
+            if(primitive == float.class)
+                return Float.class;
+            return Double.class;
+        }
+        
+        private boolean hasOverloadWithSameArity(List<IJavaMethod> overloads, int index) {
+            int arity = overloads.get(index).getParameterTypes().length;
+            for(int i = 0; i < overloads.size(); i++) {
+                if(i != index && overloads.get(i).getParameterTypes().length == arity)
+                    return true;
+            }
+            return false;
+        }
+        
+        private void throwNoSuchMember(MethodOutput output, String kind) {
+            // throw new ZenRuntimeException("No such <kind> in <type>: " + member)
+            output.newObject(ZenRuntimeException.class);
+            output.dup();
+            output.newObject(StringBuilder.class);
+            output.dup();
+            output.construct(StringBuilder.class);
+            output.constant("No such " + kind + " in " + getName() + ": ");
+            output.invokeVirtual(StringBuilder.class, "append", StringBuilder.class, String.class);
+            output.loadObject(1);
+            output.invokeVirtual(StringBuilder.class, "append", StringBuilder.class, String.class);
+            output.invokeVirtual(StringBuilder.class, "toString", String.class);
+            output.construct(ZenRuntimeException.class, String.class);
+            output.aThrow();
         }
     }
-    
+
     @Override
     public List<DumpZenType> asDumpedObject() {
         return Collections.singletonList(new DumpZenTypeNative(toJavaClass(), getName(), members, staticMembers, casters, trinaryOperators, binaryOperators, unaryOperators));
     }
     
     private class ZenNativeConstructor {
-        private final Constructor<?> constructor;
+        private final String descriptor;
+        private final ZenType[] parameterTypes;
     
-        private ZenNativeConstructor(Constructor<?> constructor) {
-            this.constructor = constructor;
+        private ZenNativeConstructor(Constructor<?> constructor, ITypeRegistry types) {
+            this.descriptor = Type.getConstructorDescriptor(constructor);
+            this.parameterTypes = new ZenType[constructor.getParameterCount()];
+            for(int i = 0; i < parameterTypes.length; i++) {
+                parameterTypes[i] = types.getType(constructor.getParameterTypes()[i]);
+            }
+        }
+    
+        private ZenNativeConstructor(String descriptor, ZenType[] parameterTypes) {
+            this.descriptor = descriptor;
+            this.parameterTypes = parameterTypes;
         }
         
         boolean canAccept(IEnvironmentGlobal environment, Expression... arguments) {
-            
-            final Class<?>[] parameters = constructor.getParameterTypes();
-            if(arguments.length != parameters.length)
+            if(arguments.length != parameterTypes.length)
                 return false;
             
             for(int i = 0; i < arguments.length; i++) {
-                if(!arguments[i].getType().canCastImplicit(environment.getType(parameters[i]), environment))
+                if(!arguments[i].getType().canCastImplicit(parameterTypes[i], environment))
                     return false;
             }
             return true;
@@ -1144,12 +1557,9 @@ public class ZenTypeNative extends ZenType {
                     environment.getOutput().dup();
                     for(int i = 0; i < arguments.length; i++) {
                         Expression argument = arguments[i];
-                        argument.cast(getPosition(), environment, environment.getType(constructor.getParameterTypes()[i])).compile(true, environment);
+                        argument.cast(getPosition(), environment, parameterTypes[i]).compile(true, environment);
                     }
-                    String signatureBuilder = Arrays.stream(constructor.getParameterTypes())
-                            .map(Type::getDescriptor)
-                            .collect(Collectors.joining("", "(", ")V"));
-                    environment.getOutput().invokeSpecial(Type.getInternalName(constructor.getDeclaringClass()), "<init>", signatureBuilder);
+                    environment.getOutput().invokeSpecial(toASMType().getInternalName(), "<init>", descriptor);
                 }
     
                 @Override
@@ -0,0 +1,249 @@
+package stanhebben.zenscript.type;
+
+import org.objectweb.asm.Type;
+import stanhebben.zenscript.annotations.*;
+import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.expression.*;
+import stanhebben.zenscript.expression.partial.IPartialExpression;
+import stanhebben.zenscript.type.casting.*;
+import stanhebben.zenscript.type.iterator.*;
+import stanhebben.zenscript.util.*;
+import stanhebben.zenscript.value.set.IntHashSet;
+
+import java.util.*;
+
+import static stanhebben.zenscript.util.ZenTypeUtil.signature;
+
+/**
+ * Hashed set of values, written as set&lt;type&gt;. Sets are meant for lookups:
+ * an in / has check takes constant time, where it takes linear time on arrays
+ * and lists. Sets of ints are stored without boxing.
+ */
+public class ZenTypeSet extends ZenType {
+
+    private final ZenType elementType;
+    private final String name;
+
+    public ZenTypeSet(ZenType elementType) {
+        this.elementType = elementType;
+
+        name = "set<" + elementType.getName() + ">";
+    }
+
+    public ZenType getElementType() {
+        return ZenTypeUtil.checkPrimitive(elementType);
+    }
+
+    public boolean hasIntElements() {
+        return elementType == INT;
+    }
+
+    /**
+     * Casts a value to the type that is stored in the set: int for sets of
+     * ints, the boxed element type otherwise. Numbers are cast to the
+     * primitive element type first, as not every number type can be cast to
+     * every boxed type directly.
+     *
+     * @param position    position of the cast
+     * @param environment compile environment
+     * @param value       value to cast
+     *
+     * @return cast value
+     */
+    public Expression castElement(ZenPosition position, IEnvironmentGlobal environment, Expression value) {
+        Expression result = value.cast(position, environment, elementType);
+        return hasIntElements() ? result : result.cast(position, environment, getElementType());
+    }
+
+    /**
+     * Gets the set implementation that is created for set literals of this
+     * type.
+     */
+    public Class<?> getSetClass() {
+        return hasIntElements() ? IntHashSet.class : HashSet.class;
+    }
+
+    @Override
+    public Expression unary(ZenPosition position, IEnvironmentGlobal environment, Expression value, OperatorType operator) {
+        Expression result = unaryExpansion(position, environment, value, operator);
+        if(result == null) {
+            environment.error(position, "sets don't have unary operators");
+            return new ExpressionInvalid(position);
+        } else {
+            return result;
+        }
+    }
+
+    @Override
+    public Expression binary(ZenPosition position, IEnvironmentGlobal environment, Expression left, Expression right, OperatorType operator) {
+        if(operator == OperatorType.CONTAINS) {
+            // narrowed to the primitive element type, as casts to boxed types don't truncate
+            if(ExpressionContainsNarrowed.needsNarrowing(right.getType(), elementType))
+                return new ExpressionContainsNarrowed(position, environment, left, right, elementType);
+            return new ExpressionSetContains(position, left, castElement(position, environment, right));
+        } else {
+            Expression result = binaryExpansion(position, environment, left, right, operator);
+            if(result == null) {
+                environment.error(position, "sets don't support this operation");
+                return new ExpressionInvalid(position);
+            } else {
+                return result;
+            }
+        }
+    }
+
+    @Override
+    public Expression trinary(ZenPosition position, IEnvironmentGlobal environment, Expression first, Expression second, Expression third, OperatorType operator) {
+        Expression result = trinaryExpansion(position, environment, first, second, third, operator);
+        if(result == null) {
+            environment.error(position, "sets don't support this operation");
+            return new ExpressionInvalid(position);
+        } else {
+            return result;
+        }
+    }
+
+    @Override
+    public Expression compare(ZenPosition position, IEnvironmentGlobal environment, Expression left, Expression right, CompareType type) {
+        Expression result = binaryExpansion(position, environment, left, right, OperatorType.COMPARE);
+        if(result == null) {
+            environment.error(position, "cannot compare sets");
+            return new ExpressionInvalid(position);
+        } else {
+            return new ExpressionCompareGeneric(position, result, type);
+        }
+    }
+
+    @Override
+    public IPartialExpression getMember(ZenPosition position, IEnvironmentGlobal environment, IPartialExpression value, String name) {
+        if(name.equals("length")) {
+            return new ExpressionSetSize(position, value.eval(environment));
+        } else {
+            IPartialExpression result = memberExpansion(position, environment, value.eval(environment), name);
+            if(result == null) {
+                environment.error(position, "no such member in set: " + name);
+                return new ExpressionInvalid(position);
+            } else {
+                return result;
+            }
+        }
+    }
+
+    @Override
+    public IPartialExpression getStaticMember(ZenPosition position, IEnvironmentGlobal environment, String name) {
+        IPartialExpression result = staticMemberExpansion(position, environment, name);
+        if(result == null) {
+            environment.error(position, "sets don't have static members");
+            return new ExpressionInvalid(position);
+        } else {
+            return result;
+        }
+    }
+
+    @Override
+    public Expression call(ZenPosition position, IEnvironmentGlobal environment, Expression receiver, Expression... arguments) {
+        environment.error(position, "cannot call sets");
+        return new ExpressionInvalid(position);
+    }
+
+    @Override
+    public void constructCastingRules(IEnvironmentGlobal environment, ICastingRuleDelegate rules, boolean followCasters) {
+        if(followCasters) {
+            constructExpansionCastingRules(environment, rules);
+        }
+    }
+
+    @Override
+    public IZenIterator makeIterator(int numValues, IEnvironmentMethod methodOutput) {
+        if(numValues == 1) {
+            return new IteratorIterable(methodOutput.getOutput(), getElementType());
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean canCastExplicit(ZenType type, IEnvironmentGlobal environment) {
+        return type == this || canCastExpansion(environment, type);
+    }
+
+    @Override
+    public Class toJavaClass() {
+        return Set.class;
+    }
+
+    @Override
+    public Type toASMType() {
+        return Type.getType(Set.class);
+    }
+
+    @Override
+    public int getNumberType() {
+        return 0;
+    }
+
+    @Override
+    public String getSignature() {
+        return signature(Set.class);
+    }
+
+    @Override
+    public boolean isPointer() {
+        return true;
+    }
+
+    @Override
+    public String getAnyClassName(IEnvironmentGlobal global) {
+        return null;
+    }
+
+    /**
+     * Every set type is java.util.Set in Java, so it is equal to native Sets
+     * and to sets of other element types. Casting those to this type must
+     * still change the type they're used as, so set lookups work on them.
+     */
+    @Override
+    public ICastingRule getCastingRuleFrom(ZenType type) {
+        return type.getName().equals(getName()) ? null : new CastingAnySubtype(type, this);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Expression defaultValue(ZenPosition position) {
+        return new ExpressionNull(position);
+    }
+
+    @Override
+    public String getNameForInterfaceSignature() {
+        return elementType.getNameForInterfaceSignature() + "Set";
+    }
+
+    private class ExpressionSetSize extends Expression {
+
+        private final Expression value;
+
+        public ExpressionSetSize(ZenPosition position, Expression value) {
+            super(position);
+
+            this.value = value;
+        }
+
+        @Override
+        public ZenType getType() {
+            return ZenTypeInt.INSTANCE;
+        }
+
+        @Override
+        public void compile(boolean result, IEnvironmentMethod environment) {
+            value.compile(result, environment);
+
+            if(result) {
+                environment.getOutput().invokeInterface(Set.class, "size", int.class);
+            }
+        }
+    }
+}
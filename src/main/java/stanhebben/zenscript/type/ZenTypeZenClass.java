@@ -1,12 +1,13 @@
 package stanhebben.zenscript.type;
 
 import org.objectweb.asm.Type;
+import stanhebben.zenscript.ZenModule;
 import stanhebben.zenscript.annotations.*;
 import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.definitions.zenclasses.ParsedZenClass;
 import stanhebben.zenscript.expression.*;
 import stanhebben.zenscript.expression.partial.IPartialExpression;
-import stanhebben.zenscript.type.casting.ICastingRuleDelegate;
+import stanhebben.zenscript.type.casting.*;
 import stanhebben.zenscript.util.ZenPosition;
 
 public class ZenTypeZenClass extends ZenType {
@@ -55,7 +56,9 @@ public class ZenTypeZenClass extends ZenType {
 
     @Override
     public void constructCastingRules(IEnvironmentGlobal environment, ICastingRuleDelegate rules, boolean followCasters) {
-
+        // zenclasses have no Class at compile time, so canCastImplicit can't find this one by itself
+        ZenType object = environment.getType(Object.class);
+        rules.registerCastingRule(object, new CastingRuleNone(this, object));
     }
 
     @Override
@@ -63,14 +66,21 @@ public class ZenTypeZenClass extends ZenType {
         return null;
     }
 
+    /**
+     * Returns the class as defined by the module's class loader, or null if
+     * the module hasn't loaded it yet. Zenclasses are compiled from their
+     * descriptor only, so this is never needed while compiling.
+     */
     @Override
     public Class toJavaClass() {
-        return zenClass.thisClass;
+        synchronized(ZenModule.classes) {
+            return ZenModule.loadedClasses.get(zenClass.className);
+        }
     }
 
     @Override
     public Type toASMType() {
-        return toJavaClass() != null ? Type.getType(toJavaClass()) : Type.getType(getSignature());
+        return Type.getType(getSignature());
     }
 
     @Override
@@ -3,8 +3,6 @@ package stanhebben.zenscript.type.casting;
 import stanhebben.zenscript.compiler.IEnvironmentMethod;
 import stanhebben.zenscript.type.ZenType;
 
-import static stanhebben.zenscript.util.ZenTypeUtil.internal;
-
 public class CastingAnySubtype implements ICastingRule {
 
     private final ZenType fromType;
@@ -17,7 +15,7 @@ public class CastingAnySubtype implements ICastingRule {
 
     @Override
     public void compile(IEnvironmentMethod method) {
-        method.getOutput().checkCast(internal(toType.toJavaClass()));
+        method.getOutput().checkCast(toType.toASMType().getInternalName());
     }
 
     @Override
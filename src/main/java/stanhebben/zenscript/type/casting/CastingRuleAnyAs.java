@@ -1,6 +1,5 @@
 package stanhebben.zenscript.type.casting;
 
-import org.objectweb.asm.Type;
 import stanhebben.zenscript.compiler.IEnvironmentMethod;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.value.IAny;
@@ -18,8 +17,9 @@ public class CastingRuleAnyAs implements ICastingRule {
 
     @Override
     public void compile(IEnvironmentMethod method) {
-        method.getOutput().constant(Type.getType(type.toJavaClass()));
-        method.getOutput().invokeInterface(IAny.class, "as", Class.class, Object.class);
+        method.getOutput().constant(type.toASMType());
+        method.getOutput().invokeInterface(IAny.class, "as", Object.class, Class.class);
+        method.getOutput().checkCast(type.toASMType().getInternalName());
     }
 
     @Override
@@ -3,12 +3,10 @@ package stanhebben.zenscript.type.casting;
 import org.objectweb.asm.Label;
 import stanhebben.zenscript.compiler.IEnvironmentMethod;
 import stanhebben.zenscript.type.*;
-import stanhebben.zenscript.util.MethodOutput;
+import stanhebben.zenscript.util.*;
 
 import java.util.*;
 
-import static stanhebben.zenscript.util.ZenTypeUtil.internal;
-
 /**
  * @author Stan
  */
@@ -26,7 +24,7 @@ public class CastingRuleArrayList implements ICastingRule {
 
     @Override
     public void compile(IEnvironmentMethod method) {
-        if(from.toJavaClass().getComponentType().isPrimitive())
+        if(ZenTypeUtil.isPrimitive(from.getBaseType()))
             throw new IllegalArgumentException("Cannot convert primitive Array to List!");
         final MethodOutput methodOutput = method.getOutput();
         methodOutput.iConst0();
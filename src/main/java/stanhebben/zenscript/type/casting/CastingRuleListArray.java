@@ -81,7 +81,7 @@ public class CastingRuleListArray implements ICastingRule {
         methodOutput.newArray(to.getBaseType().toASMType());
 
         methodOutput.invokeInterface(Collection.class, "toArray", Object[].class, Object[].class);
-        methodOutput.checkCast(to.toJavaClass());
+        methodOutput.checkCast(to.toASMType().getInternalName());
     }
 
     @Override
@@ -0,0 +1,52 @@
+package stanhebben.zenscript.type.casting;
+
+import org.objectweb.asm.Label;
+import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.type.ZenType;
+import stanhebben.zenscript.util.MethodOutput;
+import stanhebben.zenscript.value.IAny;
+
+import static stanhebben.zenscript.util.ZenTypeUtil.signature;
+
+/**
+ * Wraps a nullable value in its any class. The any class name is looked up
+ * when the cast is compiled, so the class is generated for every module that
+ * uses it even though casting rules are shared between compilations.
+ */
+public class CastingRuleNullableAnyValueOf implements ICastingRule {
+
+    private final ZenType type;
+
+    public CastingRuleNullableAnyValueOf(ZenType type) {
+        this.type = type;
+    }
+
+    @Override
+    public void compile(IEnvironmentMethod method) {
+        MethodOutput output = method.getOutput();
+
+        Label lblNotNull = new Label();
+        Label lblAfter = new Label();
+
+        output.dup();
+        output.ifNonNull(lblNotNull);
+        output.pop();
+        output.aConstNull();
+        output.goTo(lblAfter);
+
+        output.label(lblNotNull);
+        output.invokeStatic(type.getAnyClassName(method), "valueOf", "(" + type.getSignature() + ")" + signature(IAny.class));
+
+        output.label(lblAfter);
+    }
+
+    @Override
+    public ZenType getInputType() {
+        return type;
+    }
+
+    @Override
+    public ZenType getResultingType() {
+        return ZenType.ANY;
+    }
+}
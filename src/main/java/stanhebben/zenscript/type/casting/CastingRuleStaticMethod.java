@@ -30,6 +30,14 @@ public class CastingRuleStaticMethod implements ICastingRule {
         this.method.invokeStatic(method.getOutput());
     }
 
+    public IJavaMethod getMethod() {
+        return method;
+    }
+    
+    public ICastingRule getBase() {
+        return base;
+    }
+
     @Override
     public ZenType getInputType() {
         return method.getParameterTypes()[0];
@@ -22,6 +22,10 @@ public class ZenExpandCaster {
         this.method = method;
     }
 
+    public IJavaMethod getMethod() {
+        return method;
+    }
+
     public ZenType getTarget() {
         return method.getReturnType();
     }
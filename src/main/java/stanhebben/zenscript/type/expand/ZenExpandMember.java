@@ -1,6 +1,7 @@
 package stanhebben.zenscript.type.expand;
 
 import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.diagnostics.*;
 import stanhebben.zenscript.expression.*;
 import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.symbols.IZenSymbol;
@@ -28,6 +29,22 @@ public class ZenExpandMember {
         this.name = name;
     }
 
+    public String getName() {
+        return name;
+    }
+
+    public IJavaMethod getGetter() {
+        return getter;
+    }
+
+    public IJavaMethod getSetter() {
+        return setter;
+    }
+
+    public List<IJavaMethod> getMethods() {
+        return methods;
+    }
+
     public IPartialExpression instance(ZenPosition position, IEnvironmentGlobal environment, IPartialExpression value) {
         return new InstanceGetValue(position, value);
     }
@@ -88,7 +105,7 @@ public class ZenExpandMember {
             System.arraycopy(values, 0, newValues, 1, values.length);
             IJavaMethod method = JavaMethod.select(true, methods, environment, newValues);
             if(method == null) {
-                environment.error(position, methodMatchingError(methods, values));
+                environment.report(Diagnostic.error(position, DiagnosticCode.NO_MATCHING_METHOD, Diagnostic.lazy(() -> methodMatchingError(methods, values))));
                 return new ExpressionInvalid(position);
             } else {
                 return new ExpressionCallStatic(position, environment, method, newValues);
@@ -156,7 +173,7 @@ public class ZenExpandMember {
         public Expression call(ZenPosition position, IEnvironmentMethod environment, Expression... values) {
             IJavaMethod method = JavaMethod.select(true, methods, environment, values);
             if(method == null) {
-                environment.error(position, methodMatchingError(methods, values));
+                environment.report(Diagnostic.error(position, DiagnosticCode.NO_MATCHING_METHOD, Diagnostic.lazy(() -> methodMatchingError(methods, values))));
                 return new ExpressionInvalid(position);
             } else {
                 return new ExpressionCallStatic(position, environment, method, values);
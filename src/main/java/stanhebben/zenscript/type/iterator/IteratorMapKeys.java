@@ -3,7 +3,6 @@ package stanhebben.zenscript.type.iterator;
 import org.objectweb.asm.*;
 import stanhebben.zenscript.type.*;
 import stanhebben.zenscript.util.MethodOutput;
-import stanhebben.zenscript.util.ZenTypeUtil;
 
 import java.util.*;
 
@@ -38,7 +37,7 @@ public class IteratorMapKeys implements IZenIterator {
 
         methodOutput.loadObject(iterator);
         methodOutput.invokeInterface(Iterator.class, "next", Object.class);
-        methodOutput.checkCast(ZenTypeUtil.internal(type.getKeyType().toJavaClass()));
+        methodOutput.checkCast(type.getKeyType().toASMType().getInternalName());
         methodOutput.store(type.getKeyType().toASMType(), locals[0]);
     }
 
@@ -25,7 +25,7 @@ public class IteratorWhileDo implements IZenIterator {
     
     @Override
     public void compilePreIterate(int[] locals, Label exit) {
-        condition.compile(environment, ZenType.BOOL).eval(environment).cast(condition.getPosition(), environment, ZenType.BOOL).compile(true, environment);
+        condition.compile(environment, ZenType.BOOL).eval(environment).cast(condition.getPosition(), environment, ZenType.BOOL).optimize(environment).compile(true, environment);
         output.ifEQ(exit);
     }
     
@@ -19,7 +19,12 @@ public class JavaMethod implements IJavaMethod {
     public static final int PRIORITY_LOW = 1;
     public static final int PRIORITY_MEDIUM = 2;
     public static final int PRIORITY_HIGH = 3;
-    private final Method method;
+    private final Class<?> owner;
+    private final String name;
+    private final String descriptor;
+    private final boolean isStatic;
+    private final boolean isVarargs;
+    private volatile Method method;
     public final boolean returnsSelf;
     private final ZenType[] parameterTypes;
     private final boolean[] optional;
@@ -28,6 +33,11 @@ public class JavaMethod implements IJavaMethod {
     public JavaMethod(Method method, ITypeRegistry types) {
         
         this.method = method;
+        this.owner = method.getDeclaringClass();
+        this.name = method.getName();
+        this.descriptor = ZenTypeUtil.descriptor(method);
+        this.isStatic = (method.getModifiers() & Modifier.STATIC) > 0;
+        this.isVarargs = method.isVarArgs();
         this.returnsSelf = method.getDeclaredAnnotationsByType(ReturnsSelf.class).length != 0;
 
         returnType = types.getType(method.getGenericReturnType());
@@ -50,6 +60,22 @@ public class JavaMethod implements IJavaMethod {
         }
     }
 
+    /**
+     * Creates a method without reflection, as restored from a registry
+     * snapshot. The Method itself is only looked up if something asks for it.
+     */
+    public JavaMethod(Class<?> owner, String name, String descriptor, boolean isStatic, boolean isVarargs, boolean returnsSelf, ZenType returnType, ZenType[] parameterTypes, boolean[] optional) {
+        this.owner = owner;
+        this.name = name;
+        this.descriptor = descriptor;
+        this.isStatic = isStatic;
+        this.isVarargs = isVarargs;
+        this.returnsSelf = returnsSelf;
+        this.returnType = returnType;
+        this.parameterTypes = parameterTypes;
+        this.optional = optional;
+    }
+
     public static IJavaMethod get(ITypeRegistry types, Class cls, String name, Class... parameterTypes) {
         try {
             Method method = cls.getMethod(name, parameterTypes);
@@ -246,12 +272,12 @@ public class JavaMethod implements IJavaMethod {
 
     @Override
     public boolean isStatic() {
-        return (method.getModifiers() & Modifier.STATIC) > 0;
+        return isStatic;
     }
 
     @Override
     public boolean isVarargs() {
-        return method.isVarArgs();
+        return isVarargs;
     }
 
     @Override
@@ -265,11 +291,35 @@ public class JavaMethod implements IJavaMethod {
     }
 
     public Class getOwner() {
-        return method.getDeclaringClass();
+        return owner;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    public boolean isOptional(int parameter) {
+        return optional[parameter];
     }
 
     public Method getMethod() {
-        return method;
+        Method result = method;
+        if(result == null) {
+            for(Method candidate : owner.getDeclaredMethods()) {
+                if(candidate.getName().equals(name) && ZenTypeUtil.descriptor(candidate).equals(descriptor)) {
+                    result = candidate;
+                    break;
+                }
+            }
+            if(result == null)
+                throw new RuntimeException("method " + name + descriptor + " not found in class " + owner.getName());
+            method = result;
+        }
+        return result;
     }
 
     @Override
@@ -280,7 +330,7 @@ public class JavaMethod implements IJavaMethod {
     @Override
     public boolean accepts(int numArguments) {
         if(numArguments > parameterTypes.length) {
-            return method.isVarArgs();
+            return isVarargs;
         }
         if(numArguments == parameterTypes.length) {
             return true;
@@ -297,8 +347,8 @@ public class JavaMethod implements IJavaMethod {
     public int getPriority(IEnvironmentGlobal environment, Expression... arguments) {
         int result = PRIORITY_HIGH;
         if(arguments.length > parameterTypes.length) {
-            if(method.isVarArgs()) {
-                ZenType arrayType = parameterTypes[method.getParameterTypes().length - 1];
+            if(isVarargs) {
+                ZenType arrayType = parameterTypes[parameterTypes.length - 1];
                 ZenType baseType = ((ZenTypeArray) arrayType).getBaseType();
                 for(int i = parameterTypes.length - 1; i < arguments.length; i++) {
                     ZenType argType = arguments[i].getType();
@@ -325,10 +375,10 @@ public class JavaMethod implements IJavaMethod {
         }
 
         int checkUntil = arguments.length;
-        if(method.isVarArgs())
+        if(isVarargs)
             checkUntil = parameterTypes.length - 1;
-        if(arguments.length == parameterTypes.length && method.isVarArgs()) {
-            ZenType arrayType = parameterTypes[method.getParameterTypes().length - 1];
+        if(arguments.length == parameterTypes.length && isVarargs) {
+            ZenType arrayType = parameterTypes[parameterTypes.length - 1];
             ZenType baseType = ((ZenTypeArray) arrayType).getBaseType();
             ZenType argType = arguments[arguments.length - 1].getType();
 
@@ -365,10 +415,10 @@ public class JavaMethod implements IJavaMethod {
         if(isStatic()) {
             throw new UnsupportedOperationException("Method is static");
         } else {
-            if(method.getDeclaringClass().isInterface()) {
-                output.invokeInterface(method.getDeclaringClass(), method.getName(), method.getReturnType(), method.getParameterTypes());
+            if(owner.isInterface()) {
+                output.invokeInterface(ZenTypeUtil.internal(owner), name, descriptor);
             } else {
-                output.invokeVirtual(method.getDeclaringClass(), method.getName(), method.getReturnType(), method.getParameterTypes());
+                output.invokeVirtual(ZenTypeUtil.internal(owner), name, descriptor);
             }
         }
     }
@@ -378,20 +428,21 @@ public class JavaMethod implements IJavaMethod {
         if(!isStatic()) {
             throw new UnsupportedOperationException("Method is not static");
         } else {
-            output.invokeStatic(method.getDeclaringClass(), method.getName(), method.getReturnType(), method.getParameterTypes());
+            output.invokeStatic(ZenTypeUtil.internal(owner), name, descriptor);
         }
     }
 
     @Override
     public String toString() {
-        return "JavaMethod: " + method.toString();
+        return "JavaMethod: " + getMethod().toString();
     }
     
     
     @Override
     public String getErrorDescription() {
         final StringBuilder builder = new StringBuilder();
-        builder.append("\n").append(method.getName()).append("(");
+        Method method = getMethod();
+        builder.append("\n").append(name).append("(");
         for(int i = 0; i < parameterTypes.length; i++) {
             ZenType type = parameterTypes[i];
             for(int i1 = 0; i1 < method.getParameterAnnotations()[i].length; i1++) {
@@ -4,26 +4,59 @@ import org.objectweb.asm.Opcodes;
 import stanhebben.zenscript.compiler.*;
 import stanhebben.zenscript.expression.Expression;
 import stanhebben.zenscript.type.ZenType;
-import stanhebben.zenscript.util.MethodOutput;
+import stanhebben.zenscript.util.*;
 
 import java.lang.reflect.Field;
 
 public class ZenFieldMethod implements IJavaMethod {
     
-    private final Field field;
+    private final String owner;
+    private final String name;
+    private final String descriptor;
+    private final boolean isStatic;
     private final ZenType type;
     private final boolean isSetter;
     
     public ZenFieldMethod(Field field, ITypeRegistry types, boolean isSetter) {
-        this.field = field;
+        this(ZenTypeUtil.internal(field.getDeclaringClass()), field.getName(), ZenTypeUtil.signature(field.getType()), (field.getModifiers() & Opcodes.ACC_STATIC) != 0, types.getType(field.getType()), isSetter);
+    }
+    
+    /**
+     * Creates a field accessor without reflection, as restored from a
+     * registry snapshot.
+     */
+    public ZenFieldMethod(String owner, String name, String descriptor, boolean isStatic, ZenType type, boolean isSetter) {
+        this.owner = owner;
+        this.name = name;
+        this.descriptor = descriptor;
+        this.isStatic = isStatic;
+        this.type = type;
         this.isSetter = isSetter;
-        this.type = types.getType(field.getType());
     }
     
+    public String getOwner() {
+        return owner;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getDescriptor() {
+        return descriptor;
+    }
+    
+    public ZenType getType() {
+        return type;
+    }
+    
+    public boolean isSetter() {
+        return isSetter;
+    }
     
     @Override
     public boolean isStatic() {
-        return (field.getModifiers() & Opcodes.ACC_STATIC) != 0;
+        return isStatic;
     }
     
     @Override
@@ -44,9 +77,9 @@ public class ZenFieldMethod implements IJavaMethod {
     @Override
     public void invokeVirtual(MethodOutput output) {
         if(isSetter)
-            output.putField(field.getDeclaringClass(), field.getName(), field.getType());
+            output.putField(owner, name, descriptor);
         else
-            output.getField(field.getDeclaringClass(), field.getName(), field.getType());
+            output.getField(owner, name, descriptor);
     }
     
     @Override
@@ -54,9 +87,9 @@ public class ZenFieldMethod implements IJavaMethod {
         if(!isStatic())
             throw new UnsupportedOperationException("Cannot perform static operations on a nonstatic Field");
         if(isSetter)
-            output.putStaticField(field.getDeclaringClass(), field);
+            output.putStaticField(owner, name, descriptor);
         else
-            output.getStaticField(field.getDeclaringClass(), field);
+            output.getStaticField(owner, name, descriptor);
         
     }
     
@@ -77,6 +110,6 @@ public class ZenFieldMethod implements IJavaMethod {
     
     @Override
     public String getErrorDescription() {
-        return "FIELD " + field.getName();
+        return "FIELD " + name;
     }
 }
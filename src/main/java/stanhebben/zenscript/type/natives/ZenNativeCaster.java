@@ -7,6 +7,7 @@ import stanhebben.zenscript.dump.types.DumpIJavaMethod;
 import stanhebben.zenscript.type.ZenType;
 import stanhebben.zenscript.type.casting.CastingRuleVirtualMethod;
 import stanhebben.zenscript.type.casting.ICastingRuleDelegate;
+import stanhebben.zenscript.util.AnyClassWriter;
 import stanhebben.zenscript.util.MethodOutput;
 
 import java.util.*;
@@ -22,6 +23,10 @@ public class ZenNativeCaster implements IDumpConvertable {
         this.method = method;
     }
 
+    public IJavaMethod getMethod() {
+        return method;
+    }
+
     public ZenType getReturnType() {
         return method.getReturnType();
     }
@@ -64,7 +69,7 @@ public class ZenNativeCaster implements IDumpConvertable {
 
         compile(output);
 
-        output.returnType(method.getReturnType().toASMType());
+        AnyClassWriter.returnBoxed(output, method.getReturnType().toASMType());
         output.label(skip);
 
         String casterAny = method.getReturnType().getAnyClassName(environment);
@@ -80,7 +85,7 @@ public class ZenNativeCaster implements IDumpConvertable {
 
         compile(output);
 
-        output.returnType(method.getReturnType().toASMType());
+        AnyClassWriter.returnBoxed(output, method.getReturnType().toASMType());
         output.label(skip2);
     }
     
@@ -2,6 +2,7 @@ package stanhebben.zenscript.type.natives;
 
 import stanhebben.zenscript.compiler.IEnvironmentGlobal;
 import stanhebben.zenscript.compiler.IEnvironmentMethod;
+import stanhebben.zenscript.diagnostics.*;
 import stanhebben.zenscript.expression.*;
 import stanhebben.zenscript.expression.partial.IPartialExpression;
 import stanhebben.zenscript.symbols.IZenSymbol;
@@ -102,7 +103,7 @@ public class ZenNativeMember {
         public IPartialExpression getMember(ZenPosition position, IEnvironmentGlobal environment, String name) {
             final ZenType type = getType();
             if(type == null){
-                environment.error(position, "No such member: " + name);
+                environment.report(Diagnostic.error(position, DiagnosticCode.NO_SUCH_MEMBER, name));
                 return new ExpressionInvalid(position);
             }
             return type.getMember(position, environment, this, name);
@@ -115,7 +116,7 @@ public class ZenNativeMember {
                 if(getter != null && getType() instanceof ZenTypeFunctionCallable) {
                     return eval(environment).call(position, environment, values);
                 }
-                environment.error(position, methodMatchingError(methods, values));
+                environment.report(Diagnostic.error(position, DiagnosticCode.NO_MATCHING_METHOD, Diagnostic.lazy(() -> methodMatchingError(methods, values))));
                 return new ExpressionInvalid(position);
             } else {
                 return new ExpressionCallVirtual(position, environment, method, value.eval(environment), values);
@@ -170,7 +171,7 @@ public class ZenNativeMember {
         public IPartialExpression getMember(ZenPosition position, IEnvironmentGlobal environment, String name) {
             final ZenType type = getType();
             if(type == null){
-                environment.error(position, "No such member: " + name);
+                environment.report(Diagnostic.error(position, DiagnosticCode.NO_SUCH_MEMBER, name));
                 return new ExpressionInvalid(position);
             }
             return type.getMember(position, environment, this, name);
@@ -183,7 +184,7 @@ public class ZenNativeMember {
                 if(getter != null && getType() instanceof ZenTypeFunctionCallable) {
                     return eval(environment).call(position, environment, values);
                 }
-                environment.error(position, methodMatchingError(methods, values));
+                environment.report(Diagnostic.error(position, DiagnosticCode.NO_MATCHING_METHOD, Diagnostic.lazy(() -> methodMatchingError(methods, values))));
                 return new ExpressionInvalid(position);
             } else {
                 return new ExpressionCallStatic(position, environment, method, values);
@@ -1,10 +1,13 @@
 package stanhebben.zenscript.type.natives;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
 import stanhebben.zenscript.annotations.OperatorType;
 import stanhebben.zenscript.dump.IDumpable;
 import stanhebben.zenscript.dump.types.DumpIJavaMethod;
 
+import java.io.IOException;
+
 /**
  * @author Stanneke
  */
@@ -33,4 +36,12 @@ public class ZenNativeOperator implements IDumpable {
         
         return obj;
     }
+    
+    @Override
+    public void write(JsonWriter writer) throws IOException {
+        writer.beginObject();
+        new DumpIJavaMethod(method).writeProperties(writer);
+        writer.name("operator").value(operator.toString());
+        writer.endObject();
+    }
 }
@@ -3,6 +3,7 @@ package stanhebben.zenscript.util;
 import org.objectweb.asm.*;
 import stanhebben.zenscript.compiler.ZenClassWriter;
 import stanhebben.zenscript.type.natives.*;
+import stanhebben.zenscript.value.AnyCallSites;
 import stanhebben.zenscript.value.IAny;
 
 import java.util.Iterator;
@@ -49,6 +50,9 @@ public class AnyClassWriter {
     public static final IJavaMethod METHOD_ITERATORSINGLE = JavaMethod.get(EMPTY_REGISTRY, IAny.class, "iteratorSingle");
     public static final IJavaMethod METHOD_ITERATORMULTI = JavaMethod.get(EMPTY_REGISTRY, IAny.class, "iteratorMulti", int.class);
     
+    public static final Handle BOOTSTRAP_ANY = new Handle(Opcodes.H_INVOKESTATIC, AnyCallSites.NAME, "bootstrap", AnyCallSites.BOOTSTRAP_DESCRIPTOR, false);
+    public static final Handle BOOTSTRAP_ANY_MEMBER = new Handle(Opcodes.H_INVOKESTATIC, AnyCallSites.NAME, "bootstrapMember", AnyCallSites.BOOTSTRAP_MEMBER_DESCRIPTOR, false);
+    
     private static final String SIG_ANY = "()" + signature(IAny.class);
     private static final String SIG_ANY_ANY = "(" + signature(IAny.class) + ")" + signature(IAny.class);
     private static final String SIG_ANY_INT = "(" + signature(IAny.class) + ")I";
@@ -219,7 +223,7 @@ public class AnyClassWriter {
             definition.defineAsString(outputAsString);
             outputAsString.end();
             
-            MethodOutput outputAs = new MethodOutput(writer, Opcodes.ACC_PUBLIC, "as", "(Ljava/lang/Class;)" + signature(IAny.class), "<T:Ljava/lang/Object;>(Ljava/lang/Class<TT;>;)TT;", null);
+            MethodOutput outputAs = new MethodOutput(writer, Opcodes.ACC_PUBLIC, "as", "(Ljava/lang/Class;)Ljava/lang/Object;", "<T:Ljava/lang/Object;>(Ljava/lang/Class<TT;>;)TT;", null);
             outputAs.start();
             definition.defineAs(outputAs);
             outputAs.end();
@@ -270,6 +274,40 @@ public class AnyClassWriter {
         }
     }
     
+    /**
+     * Returns the value on top of the stack from a method returning Object,
+     * boxing it first if it is a primitive. Used by the rtAs and as methods.
+     *
+     * @param output method output
+     * @param type   type of the value on the stack
+     */
+    public static void returnBoxed(MethodOutput output, Type type) {
+        switch(type.getSort()) {
+            case Type.BOOLEAN:
+                output.invokeStatic(Boolean.class, "valueOf", Boolean.class, boolean.class);
+                break;
+            case Type.BYTE:
+                output.invokeStatic(Byte.class, "valueOf", Byte.class, byte.class);
+                break;
+            case Type.SHORT:
+                output.invokeStatic(Short.class, "valueOf", Short.class, short.class);
+                break;
+            case Type.INT:
+                output.invokeStatic(Integer.class, "valueOf", Integer.class, int.class);
+                break;
+            case Type.LONG:
+                output.invokeStatic(Long.class, "valueOf", Long.class, long.class);
+                break;
+            case Type.FLOAT:
+                output.invokeStatic(Float.class, "valueOf", Float.class, float.class);
+                break;
+            case Type.DOUBLE:
+                output.invokeStatic(Double.class, "valueOf", Double.class, double.class);
+                break;
+        }
+        output.returnObject();
+    }
+    
     public static void throwUnsupportedException(MethodOutput output, String fromType, String operation) {
         // throw new UnsupportedOperationException(fromType +
         // " does not support the " + operation + " operator");
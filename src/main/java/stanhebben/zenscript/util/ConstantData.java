@@ -0,0 +1,247 @@
+package stanhebben.zenscript.util;
+
+import java.util.*;
+
+/**
+ * Decodes constant array, list, map and set literals that were packed into a
+ * string by the compiler. Large literals are stored this way since a string
+ * constant takes far less space in a class than the code that would be needed
+ * to build the literal element by element.
+ * <p>
+ * Every value is stored as a sequence of chars: booleans, bytes and shorts use
+ * one char, ints and floats two, longs and doubles four. Strings are stored as
+ * their length (two chars, -1 for null) followed by their contents. Arrays start
+ * with their length.
+ */
+public class ConstantData {
+    
+    public static final char KIND_BOOL = 'Z';
+    public static final char KIND_BYTE = 'B';
+    public static final char KIND_SHORT = 'S';
+    public static final char KIND_INT = 'I';
+    public static final char KIND_LONG = 'J';
+    public static final char KIND_FLOAT = 'F';
+    public static final char KIND_DOUBLE = 'D';
+    public static final char KIND_STRING = 'T';
+    
+    private final String data;
+    private int offset = 0;
+    
+    private ConstantData(String data) {
+        this.data = data;
+    }
+    
+    public static boolean[] decodeBoolArray(String data) {
+        ConstantData input = new ConstantData(data);
+        boolean[] result = new boolean[input.readInt()];
+        for(int i = 0; i < result.length; i++)
+            result[i] = input.readChar() != 0;
+        return result;
+    }
+    
+    public static byte[] decodeByteArray(String data) {
+        ConstantData input = new ConstantData(data);
+        byte[] result = new byte[input.readInt()];
+        for(int i = 0; i < result.length; i++)
+            result[i] = (byte) input.readChar();
+        return result;
+    }
+    
+    public static short[] decodeShortArray(String data) {
+        ConstantData input = new ConstantData(data);
+        short[] result = new short[input.readInt()];
+        for(int i = 0; i < result.length; i++)
+            result[i] = (short) input.readChar();
+        return result;
+    }
+    
+    public static int[] decodeIntArray(String data) {
+        ConstantData input = new ConstantData(data);
+        int[] result = new int[input.readInt()];
+        for(int i = 0; i < result.length; i++)
+            result[i] = input.readInt();
+        return result;
+    }
+    
+    public static long[] decodeLongArray(String data) {
+        ConstantData input = new ConstantData(data);
+        long[] result = new long[input.readInt()];
+        for(int i = 0; i < result.length; i++)
+            result[i] = input.readLong();
+        return result;
+    }
+    
+    public static float[] decodeFloatArray(String data) {
+        ConstantData input = new ConstantData(data);
+        float[] result = new float[input.readInt()];
+        for(int i = 0; i < result.length; i++)
+            result[i] = Float.intBitsToFloat(input.readInt());
+        return result;
+    }
+    
+    public static double[] decodeDoubleArray(String data) {
+        ConstantData input = new ConstantData(data);
+        double[] result = new double[input.readInt()];
+        for(int i = 0; i < result.length; i++)
+            result[i] = Double.longBitsToDouble(input.readLong());
+        return result;
+    }
+    
+    public static String[] decodeStringArray(String data) {
+        ConstantData input = new ConstantData(data);
+        String[] result = new String[input.readInt()];
+        for(int i = 0; i < result.length; i++)
+            result[i] = input.readString();
+        return result;
+    }
+    
+    /**
+     * Decodes a list literal. Primitive values are boxed.
+     *
+     * @param data encoded values
+     * @param kind kind of the values (one of the KIND constants)
+     * @param size number of values
+     *
+     * @return decoded list
+     */
+    public static List<Object> decodeList(String data, char kind, int size) {
+        ConstantData input = new ConstantData(data);
+        List<Object> result = new ArrayList<>(size);
+        for(int i = 0; i < size; i++)
+            result.add(input.read(kind));
+        return result;
+    }
+    
+    /**
+     * Decodes a map literal. Primitive keys and values are boxed.
+     *
+     * @param result    map to put the entries in
+     * @param data      encoded entries, each key followed by its value
+     * @param keyKind   kind of the keys (one of the KIND constants)
+     * @param valueKind kind of the values (one of the KIND constants)
+     * @param size      number of entries
+     *
+     * @return the given map
+     */
+    public static Map<Object, Object> decodeMap(Map<Object, Object> result, String data, char keyKind, char valueKind, int size) {
+        ConstantData input = new ConstantData(data);
+        for(int i = 0; i < size; i++) {
+            Object key = input.read(keyKind);
+            result.put(key, input.read(valueKind));
+        }
+        return result;
+    }
+    
+    /**
+     * Decodes a set literal. Primitive values are boxed.
+     *
+     * @param result set to add the values to
+     * @param data   encoded values
+     * @param kind   kind of the values (one of the KIND constants)
+     * @param size   number of values
+     *
+     * @return the given set
+     */
+    public static Set<Object> decodeSet(Set<Object> result, String data, char kind, int size) {
+        ConstantData input = new ConstantData(data);
+        for(int i = 0; i < size; i++)
+            result.add(input.read(kind));
+        return result;
+    }
+    
+    /**
+     * Encodes a value of the given kind and appends it to the output.
+     *
+     * @param output output to append to
+     * @param kind   kind of value (one of the KIND constants)
+     * @param value  boxed value (Boolean, Long, Double or String)
+     */
+    public static void write(StringBuilder output, char kind, Object value) {
+        switch(kind) {
+            case KIND_BOOL:
+                output.append((char) ((Boolean) value ? 1 : 0));
+                break;
+            case KIND_BYTE:
+            case KIND_SHORT:
+                output.append((char) ((Number) value).shortValue());
+                break;
+            case KIND_INT:
+                writeInt(output, ((Number) value).intValue());
+                break;
+            case KIND_LONG:
+                writeLong(output, ((Number) value).longValue());
+                break;
+            case KIND_FLOAT:
+                writeInt(output, Float.floatToRawIntBits(((Number) value).floatValue()));
+                break;
+            case KIND_DOUBLE:
+                writeLong(output, Double.doubleToRawLongBits(((Number) value).doubleValue()));
+                break;
+            case KIND_STRING:
+                if(value == null) {
+                    writeInt(output, -1);
+                } else {
+                    writeInt(output, ((String) value).length());
+                    output.append((String) value);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid constant kind: " + kind);
+        }
+    }
+    
+    public static void writeInt(StringBuilder output, int value) {
+        output.append((char) (value >>> 16));
+        output.append((char) value);
+    }
+    
+    private static void writeLong(StringBuilder output, long value) {
+        writeInt(output, (int) (value >>> 32));
+        writeInt(output, (int) value);
+    }
+    
+    private Object read(char kind) {
+        switch(kind) {
+            case KIND_BOOL:
+                return readChar() != 0;
+            case KIND_BYTE:
+                return (byte) readChar();
+            case KIND_SHORT:
+                return (short) readChar();
+            case KIND_INT:
+                return readInt();
+            case KIND_LONG:
+                return readLong();
+            case KIND_FLOAT:
+                return Float.intBitsToFloat(readInt());
+            case KIND_DOUBLE:
+                return Double.longBitsToDouble(readLong());
+            case KIND_STRING:
+                return readString();
+            default:
+                throw new IllegalArgumentException("Invalid constant kind: " + kind);
+        }
+    }
+    
+    private char readChar() {
+        return data.charAt(offset++);
+    }
+    
+    private int readInt() {
+        return (readChar() << 16) | readChar();
+    }
+    
+    private long readLong() {
+        return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+    }
+    
+    private String readString() {
+        int length = readInt();
+        if(length < 0)
+            return null;
+        
+        String result = data.substring(offset, offset + length);
+        offset += length;
+        return result;
+    }
+}
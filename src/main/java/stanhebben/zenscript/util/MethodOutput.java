@@ -2,6 +2,7 @@ package stanhebben.zenscript.util;
 
 import org.objectweb.asm.*;
 import org.objectweb.asm.commons.LocalVariablesSorter;
+import stanhebben.zenscript.*;
 
 import java.lang.reflect.Field;
 import java.util.*;
@@ -16,14 +17,23 @@ public class MethodOutput {
     // private static final boolean debug = true;
     
     private final LocalVariablesSorter visitor;
+    private final CodeSizeCounter codeSize;
     
     private boolean debug = false;
     private int labelIndex = 1;
     private Map<Label, String> labelNames;
     
+    private int profiledFunction = -1;
+    private boolean budgeted = false;
+    private boolean started = false;
+    private Label profileStart;
+    private Label profileEnd;
+    private Label profileHandler;
+    
     public MethodOutput(ClassVisitor cls, int access, String name, String descriptor, String signature, String[] exceptions) {
         MethodVisitor methodVisitor = cls.visitMethod(access, name, descriptor, signature, exceptions);
-        visitor = new LocalVariablesSorter(access, descriptor, methodVisitor);
+        codeSize = new CodeSizeCounter(methodVisitor);
+        visitor = new LocalVariablesSorter(access, descriptor, codeSize);
     }
     
     public MethodOutput(ClassVisitor cls, int access, String name, String descriptor, String signature, String[] exceptions, String[] annotations) {
@@ -31,11 +41,13 @@ public class MethodOutput {
         for(String annotation : annotations) {
             methodVisitor.visitAnnotation(annotation, true);
         }
-        visitor = new LocalVariablesSorter(access, descriptor, methodVisitor);
+        codeSize = new CodeSizeCounter(methodVisitor);
+        visitor = new LocalVariablesSorter(access, descriptor, codeSize);
     }
     
     public MethodOutput(LocalVariablesSorter visitor) {
         this.visitor = visitor;
+        this.codeSize = null;
     }
     
     public void enableDebug() {
@@ -46,17 +58,66 @@ public class MethodOutput {
         return visitor;
     }
     
+    /**
+     * Estimates the number of bytes of code written to this method so far. The
+     * estimate is never lower than the actual size.
+     *
+     * @return code size estimate, or -1 if this output wraps an existing visitor
+     */
+    public int getCodeSize() {
+        return codeSize == null ? -1 : codeSize.size;
+    }
+    
+    /**
+     * Marks this method as compiled from script code, so it gets the
+     * instrumentation enabled in ZenModule. With ZenModule.profile, it reports
+     * entering and leaving the method, every line and every loop iteration to
+     * ZenProfiler. With ZenModule.budgets, it checks the ZenBudget of the
+     * current thread on entry and on every loop iteration. Must be called
+     * before start.
+     *
+     * @param name function name shown in the profiler results
+     */
+    public void instrument(String name) {
+        budgeted = ZenModule.budgets;
+        if(!ZenModule.profile)
+            return;
+        
+        profiledFunction = ZenProfiler.registerFunction(name);
+        profileStart = new Label();
+        profileEnd = new Label();
+        profileHandler = new Label();
+    }
+    
     public void start() {
         if(debug)
             System.out.println("--start--");
         
         visitor.visitCode();
+        started = true;
+        
+        if(profiledFunction >= 0) {
+            // exceptions leave the method through a handler that reports the exit and rethrows
+            visitor.visitTryCatchBlock(profileStart, profileEnd, profileHandler, null);
+            visitor.visitLdcInsn(profiledFunction);
+            visitor.visitMethodInsn(INVOKESTATIC, ZenProfiler.NAME, "enter", "(I)V", false);
+            visitor.visitLabel(profileStart);
+        }
+        if(budgeted)
+            visitor.visitMethodInsn(INVOKESTATIC, ZenBudget.NAME, "check", "()V", false);
     }
     
     public void end() {
         if(debug)
             System.out.println("--end--");
         
+        if(profiledFunction >= 0) {
+            visitor.visitLabel(profileEnd);
+            visitor.visitLabel(profileHandler);
+            visitor.visitMethodInsn(INVOKESTATIC, ZenProfiler.NAME, "exit", "()V", false);
+            visitor.visitInsn(ATHROW);
+        }
+        
         visitor.visitMaxs(0, 0);
         visitor.visitEnd();
     }
@@ -792,6 +853,13 @@ public class MethodOutput {
         visitor.visitMethodInsn(INVOKEINTERFACE, internal(owner), name, descriptor.toString(), true);
     }
     
+    public void invokeDynamic(String name, String descriptor, Handle bootstrap, Object... bootstrapArguments) {
+        if(debug)
+            System.out.println("invokeDynamic " + name + descriptor + " " + bootstrap.getOwner() + '.' + bootstrap.getName());
+        
+        visitor.visitInvokeDynamicInsn(name, descriptor, bootstrap, bootstrapArguments);
+    }
+    
     public void newObject(Class type) {
         if(debug)
             System.out.println("newObject " + type.getName());
@@ -958,10 +1026,45 @@ public class MethodOutput {
         visitor.visitJumpInsn(IFNONNULL, lbl);
     }
     
+    public void tableSwitch(int min, int max, Label dflt, Label... labels) {
+        if(debug)
+            System.out.println("tableSwitch " + min + " " + max);
+        
+        visitor.visitTableSwitchInsn(min, max, dflt, labels);
+    }
+    
+    public void lookupSwitch(Label dflt, int[] keys, Label[] labels) {
+        if(debug)
+            System.out.println("lookupSwitch " + Arrays.toString(keys));
+        
+        visitor.visitLookupSwitchInsn(dflt, keys, labels);
+    }
+    
+    /**
+     * Instruments a loop iteration: reports it to ZenProfiler if this method
+     * is profiled and checks the budget if this method is budgeted.
+     *
+     * @param position position of the loop
+     */
+    public void backEdge(ZenPosition position) {
+        if(profiledFunction >= 0) {
+            visitor.visitLdcInsn(ZenProfiler.registerLoop(position.toString()));
+            visitor.visitMethodInsn(INVOKESTATIC, ZenProfiler.NAME, "backEdge", "(I)V", false);
+        }
+        if(budgeted)
+            visitor.visitMethodInsn(INVOKESTATIC, ZenBudget.NAME, "check", "()V", false);
+    }
+    
+    private void profileExit() {
+        if(profiledFunction >= 0)
+            visitor.visitMethodInsn(INVOKESTATIC, ZenProfiler.NAME, "exit", "()V", false);
+    }
+    
     public void ret() {
         if(debug)
             System.out.println("ret");
         
+        profileExit();
         visitor.visitInsn(RETURN);
     }
     
@@ -969,6 +1072,7 @@ public class MethodOutput {
         if(debug)
             System.out.println("return " + type.getDescriptor());
         
+        profileExit();
         visitor.visitInsn(type.getOpcode(IRETURN));
     }
     
@@ -976,6 +1080,7 @@ public class MethodOutput {
         if(debug)
             System.out.println("ireturn");
         
+        profileExit();
         visitor.visitInsn(IRETURN);
     }
     
@@ -983,6 +1088,7 @@ public class MethodOutput {
         if(debug)
             System.out.println("areturn");
         
+        profileExit();
         visitor.visitInsn(ARETURN);
     }
     
@@ -1050,6 +1156,11 @@ public class MethodOutput {
         Label label = new Label();
         visitor.visitLabel(label);
         visitor.visitLineNumber(position.getLine(), label);
+        
+        if(profiledFunction >= 0 && started) {
+            visitor.visitLdcInsn(ZenProfiler.registerLine(position.toString()));
+            visitor.visitMethodInsn(INVOKESTATIC, ZenProfiler.NAME, "line", "(I)V", false);
+        }
     }
     
     public void swap() {
@@ -1080,4 +1191,94 @@ public class MethodOutput {
         
         return labelNames.get(lbl);
     }
+    
+    /**
+     * Keeps track of an upper bound of the size of the code written to a method.
+     */
+    private static class CodeSizeCounter extends MethodVisitor {
+        
+        private int size = 0;
+        
+        CodeSizeCounter(MethodVisitor visitor) {
+            super(ASM5, visitor);
+        }
+        
+        @Override
+        public void visitInsn(int opcode) {
+            size += 1;
+            super.visitInsn(opcode);
+        }
+        
+        @Override
+        public void visitIntInsn(int opcode, int operand) {
+            size += opcode == SIPUSH ? 3 : 2;
+            super.visitIntInsn(opcode, operand);
+        }
+        
+        @Override
+        public void visitVarInsn(int opcode, int var) {
+            size += 4;
+            super.visitVarInsn(opcode, var);
+        }
+        
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            size += 3;
+            super.visitTypeInsn(opcode, type);
+        }
+        
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String desc) {
+            size += 3;
+            super.visitFieldInsn(opcode, owner, name, desc);
+        }
+        
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
+            size += opcode == INVOKEINTERFACE ? 5 : 3;
+            super.visitMethodInsn(opcode, owner, name, desc, itf);
+        }
+        
+        @Override
+        public void visitInvokeDynamicInsn(String name, String desc, Handle bsm, Object... bsmArgs) {
+            size += 5;
+            super.visitInvokeDynamicInsn(name, desc, bsm, bsmArgs);
+        }
+        
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            size += 8;
+            super.visitJumpInsn(opcode, label);
+        }
+        
+        @Override
+        public void visitLdcInsn(Object cst) {
+            size += 3;
+            super.visitLdcInsn(cst);
+        }
+        
+        @Override
+        public void visitIincInsn(int var, int increment) {
+            size += 6;
+            super.visitIincInsn(var, increment);
+        }
+        
+        @Override
+        public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+            size += 16 + 4 * labels.length;
+            super.visitTableSwitchInsn(min, max, dflt, labels);
+        }
+        
+        @Override
+        public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+            size += 12 + 8 * keys.length;
+            super.visitLookupSwitchInsn(dflt, keys, labels);
+        }
+        
+        @Override
+        public void visitMultiANewArrayInsn(String desc, int dims) {
+            size += 4;
+            super.visitMultiANewArrayInsn(desc, dims);
+        }
+    }
 }
@@ -0,0 +1,63 @@
+package stanhebben.zenscript.util;
+
+import org.objectweb.asm.Label;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Compiles a switch over string keys the same way javac does: a lookupswitch
+ * on the hash code of the value, followed by equals checks for the keys that
+ * share that hash.
+ */
+public class StringSwitch {
+
+    private StringSwitch() {
+    }
+
+    /**
+     * Compiles the switch. The writer is called once per key with the code
+     * position at the start of that case; each case must end in a return,
+     * throw or jump. Values that match no key continue at the default label.
+     *
+     * @param output     method output
+     * @param local      local variable holding the (non-null) string value
+     * @param keys       case keys
+     * @param caseWriter writes the code for a single case
+     * @param dflt       default label
+     */
+    public static void compile(MethodOutput output, int local, Collection<String> keys, Consumer<String> caseWriter, Label dflt) {
+        TreeMap<Integer, List<String>> byHash = new TreeMap<>();
+        for(String key : keys) {
+            byHash.computeIfAbsent(key.hashCode(), h -> new ArrayList<>()).add(key);
+        }
+
+        int[] hashes = new int[byHash.size()];
+        Label[] labels = new Label[byHash.size()];
+        int i = 0;
+        for(Integer hash : byHash.keySet()) {
+            hashes[i] = hash;
+            labels[i] = new Label();
+            i++;
+        }
+
+        output.loadObject(local);
+        output.invokeVirtual(String.class, "hashCode", int.class);
+        output.lookupSwitch(dflt, hashes, labels);
+
+        i = 0;
+        for(List<String> group : byHash.values()) {
+            output.label(labels[i++]);
+            for(String key : group) {
+                Label next = new Label();
+                output.loadObject(local);
+                output.constant(key);
+                output.invokeVirtual(String.class, "equals", boolean.class, Object.class);
+                output.ifEQ(next);
+                caseWriter.accept(key);
+                output.label(next);
+            }
+            output.goTo(dflt);
+        }
+    }
+}
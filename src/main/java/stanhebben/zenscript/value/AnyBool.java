@@ -0,0 +1,213 @@
+package stanhebben.zenscript.value;
+
+import java.util.Iterator;
+
+/**
+ * Any value wrapping a bool. Shared by all modules that have no casters
+ * registered on bool; there are only ever two instances.
+ */
+public final class AnyBool implements IAny {
+    
+    public static final String NAME = "stanhebben/zenscript/value/AnyBool";
+    
+    public static final AnyBool TRUE = new AnyBool(true);
+    public static final AnyBool FALSE = new AnyBool(false);
+    
+    private final boolean value;
+    
+    private AnyBool(boolean value) {
+        this.value = value;
+    }
+    
+    public static IAny valueOf(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+    
+    public static boolean rtCanCastImplicit(Class<?> cls) {
+        return cls == boolean.class;
+    }
+    
+    public static Object rtAs(boolean value, Class<?> cls) {
+        throw AnyValues.cannotCast("bool", cls);
+    }
+    
+    @Override
+    public IAny not() {
+        return valueOf(!value);
+    }
+    
+    @Override
+    public IAny neg() {
+        throw AnyValues.unsupported("bool", "negate");
+    }
+    
+    @Override
+    public IAny add(IAny other) {
+        throw AnyValues.unsupported("bool", "+");
+    }
+    
+    @Override
+    public IAny sub(IAny other) {
+        throw AnyValues.unsupported("bool", "-");
+    }
+    
+    @Override
+    public IAny cat(IAny other) {
+        return AnyString.valueOf(value + other.asString());
+    }
+    
+    @Override
+    public IAny mul(IAny other) {
+        throw AnyValues.unsupported("bool", "*");
+    }
+    
+    @Override
+    public IAny div(IAny other) {
+        throw AnyValues.unsupported("bool", "/");
+    }
+    
+    @Override
+    public IAny mod(IAny other) {
+        throw AnyValues.unsupported("bool", "%");
+    }
+    
+    @Override
+    public IAny and(IAny other) {
+        return valueOf(value & other.asBool());
+    }
+    
+    @Override
+    public IAny or(IAny other) {
+        return valueOf(value | other.asBool());
+    }
+    
+    @Override
+    public IAny xor(IAny other) {
+        return valueOf(value ^ other.asBool());
+    }
+    
+    @Override
+    public IAny range(IAny other) {
+        throw AnyValues.unsupported("bool", "range");
+    }
+    
+    @Override
+    public int compareTo(IAny other) {
+        return Boolean.compare(value, other.asBool());
+    }
+    
+    @Override
+    public boolean contains(IAny other) {
+        throw AnyValues.unsupported("bool", "in");
+    }
+    
+    @Override
+    public IAny memberGet(String member) {
+        throw AnyValues.unsupported("bool", "member access");
+    }
+    
+    @Override
+    public void memberSet(String member, IAny value) {
+        throw AnyValues.unsupported("bool", "member assignment");
+    }
+    
+    @Override
+    public IAny memberCall(String member, IAny... values) {
+        throw AnyValues.unsupported("bool", "member call");
+    }
+    
+    @Override
+    public IAny indexGet(IAny key) {
+        throw AnyValues.unsupported("bool", "get []");
+    }
+    
+    @Override
+    public void indexSet(IAny key, IAny value) {
+        throw AnyValues.unsupported("bool", "set []");
+    }
+    
+    @Override
+    public IAny call(IAny... values) {
+        throw AnyValues.unsupported("bool", "call");
+    }
+    
+    @Override
+    public boolean asBool() {
+        return value;
+    }
+    
+    @Override
+    public byte asByte() {
+        throw AnyValues.cannotCast("bool", "byte");
+    }
+    
+    @Override
+    public short asShort() {
+        throw AnyValues.cannotCast("bool", "short");
+    }
+    
+    @Override
+    public int asInt() {
+        throw AnyValues.cannotCast("bool", "int");
+    }
+    
+    @Override
+    public long asLong() {
+        throw AnyValues.cannotCast("bool", "long");
+    }
+    
+    @Override
+    public float asFloat() {
+        throw AnyValues.cannotCast("bool", "float");
+    }
+    
+    @Override
+    public double asDouble() {
+        throw AnyValues.cannotCast("bool", "double");
+    }
+    
+    @Override
+    public String asString() {
+        return Boolean.toString(value);
+    }
+    
+    @Override
+    public <T> T as(Class<T> cls) {
+        throw AnyValues.cannotCast("bool", cls);
+    }
+    
+    @Override
+    public boolean is(Class<?> cls) {
+        return cls == boolean.class;
+    }
+    
+    @Override
+    public boolean canCastImplicit(Class<?> cls) {
+        return rtCanCastImplicit(cls);
+    }
+    
+    @Override
+    public int getNumberType() {
+        return 0;
+    }
+    
+    @Override
+    public Iterator<IAny> iteratorSingle() {
+        throw AnyValues.unsupported("bool", "iterator");
+    }
+    
+    @Override
+    public Iterator<IAny[]> iteratorMulti(int n) {
+        throw AnyValues.unsupported("bool", "iterator");
+    }
+    
+    @Override
+    public int hashCode() {
+        return Boolean.hashCode(value);
+    }
+    
+    @Override
+    public String toString() {
+        return asString();
+    }
+}
@@ -0,0 +1,225 @@
+package stanhebben.zenscript.value;
+
+import java.util.Iterator;
+
+/**
+ * Any value wrapping a byte. Shared by all modules that have no casters
+ * registered on byte; every byte value is cached so boxing them into any
+ * never allocates.
+ */
+public final class AnyByte implements IAny {
+    
+    public static final String NAME = "stanhebben/zenscript/value/AnyByte";
+    
+    private static final int CACHE_LOW = Byte.MIN_VALUE;
+    private static final int CACHE_HIGH = Byte.MAX_VALUE;
+    private static final AnyByte[] CACHE = new AnyByte[CACHE_HIGH - CACHE_LOW + 1];
+    
+    static {
+        for(int i = 0; i < CACHE.length; i++)
+            CACHE[i] = new AnyByte((byte) (i + CACHE_LOW));
+    }
+    
+    private final byte value;
+    
+    private AnyByte(byte value) {
+        this.value = value;
+    }
+    
+    public static IAny valueOf(byte value) {
+        return CACHE[value - CACHE_LOW];
+    }
+    
+    public static boolean rtCanCastImplicit(Class<?> cls) {
+        return AnyValues.isNumberClass(cls);
+    }
+    
+    public static Object rtAs(byte value, Class<?> cls) {
+        throw AnyValues.cannotCast("byte", cls);
+    }
+    
+    @Override
+    public IAny not() {
+        return valueOf((byte) (~value));
+    }
+    
+    @Override
+    public IAny neg() {
+        return valueOf((byte) (-value));
+    }
+    
+    @Override
+    public IAny add(IAny other) {
+        return valueOf((byte) (value + other.asByte()));
+    }
+    
+    @Override
+    public IAny sub(IAny other) {
+        return valueOf((byte) (value - other.asByte()));
+    }
+    
+    @Override
+    public IAny cat(IAny other) {
+        return AnyString.valueOf(value + other.asString());
+    }
+    
+    @Override
+    public IAny mul(IAny other) {
+        return valueOf((byte) (value * other.asByte()));
+    }
+    
+    @Override
+    public IAny div(IAny other) {
+        return valueOf((byte) (value / other.asByte()));
+    }
+    
+    @Override
+    public IAny mod(IAny other) {
+        return valueOf((byte) (value % other.asByte()));
+    }
+    
+    @Override
+    public IAny and(IAny other) {
+        return valueOf((byte) (value & other.asByte()));
+    }
+    
+    @Override
+    public IAny or(IAny other) {
+        return valueOf((byte) (value | other.asByte()));
+    }
+    
+    @Override
+    public IAny xor(IAny other) {
+        return valueOf((byte) (value ^ other.asByte()));
+    }
+    
+    @Override
+    public IAny range(IAny other) {
+        throw AnyValues.unsupported("byte", "range");
+    }
+    
+    @Override
+    public int compareTo(IAny other) {
+        return Byte.compare(value, other.asByte());
+    }
+    
+    @Override
+    public boolean contains(IAny other) {
+        throw AnyValues.unsupported("byte", "in");
+    }
+    
+    @Override
+    public IAny memberGet(String member) {
+        throw AnyValues.unsupported("byte", "member access");
+    }
+    
+    @Override
+    public void memberSet(String member, IAny value) {
+        throw AnyValues.unsupported("byte", "member assignment");
+    }
+    
+    @Override
+    public IAny memberCall(String member, IAny... values) {
+        throw AnyValues.unsupported("byte", "member call");
+    }
+    
+    @Override
+    public IAny indexGet(IAny key) {
+        throw AnyValues.unsupported("byte", "get []");
+    }
+    
+    @Override
+    public void indexSet(IAny key, IAny value) {
+        throw AnyValues.unsupported("byte", "set []");
+    }
+    
+    @Override
+    public IAny call(IAny... values) {
+        throw AnyValues.unsupported("byte", "call");
+    }
+    
+    @Override
+    public boolean asBool() {
+        throw AnyValues.cannotCast("byte", "bool");
+    }
+    
+    @Override
+    public byte asByte() {
+        return value;
+    }
+    
+    @Override
+    public short asShort() {
+        return value;
+    }
+    
+    @Override
+    public int asInt() {
+        return value;
+    }
+    
+    @Override
+    public long asLong() {
+        return value;
+    }
+    
+    @Override
+    public float asFloat() {
+        return value;
+    }
+    
+    @Override
+    public double asDouble() {
+        return value;
+    }
+    
+    @Override
+    public String asString() {
+        return Byte.toString(value);
+    }
+    
+    @Override
+    public <T> T as(Class<T> cls) {
+        throw AnyValues.cannotCast("byte", cls);
+    }
+    
+    @Override
+    public boolean is(Class<?> cls) {
+        return cls == byte.class;
+    }
+    
+    @Override
+    public boolean canCastImplicit(Class<?> cls) {
+        return rtCanCastImplicit(cls);
+    }
+    
+    @Override
+    public int getNumberType() {
+        return NUM_BYTE;
+    }
+    
+    @Override
+    public Iterator<IAny> iteratorSingle() {
+        throw AnyValues.unsupported("byte", "iterator");
+    }
+    
+    @Override
+    public Iterator<IAny[]> iteratorMulti(int n) {
+        throw AnyValues.unsupported("byte", "iterator");
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AnyByte && ((AnyByte) other).value == value;
+    }
+    
+    @Override
+    public int hashCode() {
+        return value;
+    }
+    
+    @Override
+    public String toString() {
+        return asString();
+    }
+}
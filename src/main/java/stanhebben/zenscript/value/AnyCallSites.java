@@ -0,0 +1,251 @@
+package stanhebben.zenscript.value;
+
+import java.lang.invoke.*;
+
+/**
+ * Bootstrap methods for the invokedynamic call sites emitted for operations
+ * on any values when ZenModule.useInvokeDynamic is enabled.
+ * <p>
+ * Every call site starts out unlinked. On its first invocation with a given
+ * receiver class it links a direct call to that class' implementation,
+ * guarded by a class check, in front of the previous target. After
+ * MAX_POLYMORPHIC receiver classes the site gives up and falls back to a
+ * plain interface call. Operations on two ints, two doubles or two strings
+ * are linked to static fast paths that skip the dispatch on the argument.
+ */
+public final class AnyCallSites {
+
+    public static final String NAME = "stanhebben/zenscript/value/AnyCallSites";
+    public static final String BOOTSTRAP_DESCRIPTOR = "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;)Ljava/lang/invoke/CallSite;";
+    public static final String BOOTSTRAP_MEMBER_DESCRIPTOR = "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;Ljava/lang/String;)Ljava/lang/invoke/CallSite;";
+
+    private static final int MAX_POLYMORPHIC = 4;
+
+    private static final MethodHandle FALLBACK;
+    private static final MethodHandle IS_CLASS;
+    private static final MethodHandle ARE_CLASSES;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            FALLBACK = lookup.findVirtual(InlineCache.class, "fallback", MethodType.methodType(Object.class, Object[].class));
+            IS_CLASS = lookup.findStatic(AnyCallSites.class, "isClass", MethodType.methodType(boolean.class, Class.class, Object.class));
+            ARE_CLASSES = lookup.findStatic(AnyCallSites.class, "areClasses", MethodType.methodType(boolean.class, Class.class, Class.class, Object.class, Object.class));
+        } catch(ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private AnyCallSites() {
+    }
+
+    /**
+     * Bootstraps an operator call site. The operation name is the name of the
+     * IAny method to call.
+     */
+    public static CallSite bootstrap(MethodHandles.Lookup lookup, String operation, MethodType type) {
+        return new InlineCache(operation, null, type);
+    }
+
+    /**
+     * Bootstraps a memberGet, memberSet or memberCall call site for the given
+     * member name.
+     */
+    public static CallSite bootstrapMember(MethodHandles.Lookup lookup, String operation, MethodType type, String member) {
+        return new InlineCache(operation, member, type);
+    }
+
+    // #############################
+    // ### Guards and fast paths ###
+    // #############################
+
+    private static boolean isClass(Class<?> cls, Object value) {
+        return value != null && value.getClass() == cls;
+    }
+
+    private static boolean areClasses(Class<?> cls1, Class<?> cls2, Object value1, Object value2) {
+        return value1 != null && value1.getClass() == cls1 && value2 != null && value2.getClass() == cls2;
+    }
+
+    private static IAny addInt(IAny a, IAny b) {
+        return AnyInt.valueOf(((AnyInt) a).asInt() + ((AnyInt) b).asInt());
+    }
+
+    private static IAny subInt(IAny a, IAny b) {
+        return AnyInt.valueOf(((AnyInt) a).asInt() - ((AnyInt) b).asInt());
+    }
+
+    private static IAny mulInt(IAny a, IAny b) {
+        return AnyInt.valueOf(((AnyInt) a).asInt() * ((AnyInt) b).asInt());
+    }
+
+    private static IAny divInt(IAny a, IAny b) {
+        return AnyInt.valueOf(((AnyInt) a).asInt() / ((AnyInt) b).asInt());
+    }
+
+    private static IAny modInt(IAny a, IAny b) {
+        return AnyInt.valueOf(((AnyInt) a).asInt() % ((AnyInt) b).asInt());
+    }
+
+    private static int compareToInt(IAny a, IAny b) {
+        return Integer.compare(((AnyInt) a).asInt(), ((AnyInt) b).asInt());
+    }
+
+    private static IAny addDouble(IAny a, IAny b) {
+        return AnyDouble.valueOf(((AnyDouble) a).asDouble() + ((AnyDouble) b).asDouble());
+    }
+
+    private static IAny subDouble(IAny a, IAny b) {
+        return AnyDouble.valueOf(((AnyDouble) a).asDouble() - ((AnyDouble) b).asDouble());
+    }
+
+    private static IAny mulDouble(IAny a, IAny b) {
+        return AnyDouble.valueOf(((AnyDouble) a).asDouble() * ((AnyDouble) b).asDouble());
+    }
+
+    private static IAny divDouble(IAny a, IAny b) {
+        return AnyDouble.valueOf(((AnyDouble) a).asDouble() / ((AnyDouble) b).asDouble());
+    }
+
+    private static IAny modDouble(IAny a, IAny b) {
+        return AnyDouble.valueOf(((AnyDouble) a).asDouble() % ((AnyDouble) b).asDouble());
+    }
+
+    private static int compareToDouble(IAny a, IAny b) {
+        return Double.compare(((AnyDouble) a).asDouble(), ((AnyDouble) b).asDouble());
+    }
+
+    private static IAny addString(IAny a, IAny b) {
+        return AnyString.valueOf(((AnyString) a).asString() + ((AnyString) b).asString());
+    }
+
+    private static IAny catString(IAny a, IAny b) {
+        return AnyString.valueOf(((AnyString) a).asString() + ((AnyString) b).asString());
+    }
+
+    private static int compareToString(IAny a, IAny b) {
+        return ((AnyString) a).asString().compareTo(((AnyString) b).asString());
+    }
+
+    /**
+     * Finds the fast path for a binary operation on two values of the given
+     * classes, if any.
+     */
+    private static MethodHandle findFastPath(String operation, Class<?> left, Class<?> right) {
+        String suffix;
+        if(left == AnyInt.class && right == AnyInt.class)
+            suffix = "Int";
+        else if(left == AnyDouble.class && right == AnyDouble.class)
+            suffix = "Double";
+        else if(left == AnyString.class && right == AnyString.class)
+            suffix = "String";
+        else
+            return null;
+
+        Class<?> result = operation.equals("compareTo") ? int.class : IAny.class;
+        try {
+            return MethodHandles.lookup().findStatic(AnyCallSites.class, operation + suffix, MethodType.methodType(result, IAny.class, IAny.class));
+        } catch(ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    // #####################
+    // ### Inline caches ###
+    // #####################
+
+    private static final class InlineCache extends MutableCallSite {
+
+        private final String operation;
+        private final String member;
+        private final MethodHandle generic;
+        private int depth = 0;
+
+        private InlineCache(String operation, String member, MethodType type) {
+            super(type);
+
+            this.operation = operation;
+            this.member = member;
+            this.generic = findMethod(IAny.class);
+            setTarget(FALLBACK.bindTo(this).asCollector(Object[].class, type.parameterCount()).asType(type));
+        }
+
+        @SuppressWarnings("unused") // called through FALLBACK
+        Object fallback(Object[] arguments) throws Throwable {
+            if(arguments[0] == null)
+                return generic.invokeWithArguments(arguments);
+
+            Class<?> receiverClass = arguments[0].getClass();
+            MethodHandle target = null;
+            MethodHandle guard = null;
+
+            if(member == null && arguments.length == 2 && arguments[1] != null) {
+                Class<?> argumentClass = arguments[1].getClass();
+                target = findFastPath(operation, receiverClass, argumentClass);
+                if(target != null) {
+                    target = target.asType(type());
+                    guard = MethodHandles.insertArguments(ARE_CLASSES, 0, receiverClass, argumentClass).asType(type().changeReturnType(boolean.class));
+                }
+            }
+
+            if(target == null) {
+                target = findMethod(receiverClass);
+                guard = MethodHandles.insertArguments(IS_CLASS, 0, receiverClass);
+                guard = MethodHandles.dropArguments(guard.asType(MethodType.methodType(boolean.class, type().parameterType(0))), 1, type().dropParameterTypes(0, 1).parameterList());
+            }
+
+            synchronized(this) {
+                if(depth < MAX_POLYMORPHIC) {
+                    setTarget(MethodHandles.guardWithTest(guard, target, getTarget()));
+                    depth++;
+                } else {
+                    setTarget(generic);
+                }
+            }
+
+            return target.invokeWithArguments(arguments);
+        }
+
+        /**
+         * Looks up the implementation of this call site's operation in the
+         * given class, adapted to the call site type. Falls back to the
+         * interface method if the class' method isn't accessible.
+         */
+        private MethodHandle findMethod(Class<?> cls) {
+            MethodType type = type();
+            MethodType methodType;
+            switch(operation) {
+                case "memberGet":
+                    methodType = MethodType.methodType(IAny.class, String.class);
+                    break;
+                case "memberSet":
+                    methodType = MethodType.methodType(void.class, String.class, IAny.class);
+                    break;
+                case "memberCall":
+                    methodType = MethodType.methodType(IAny.class, String.class, IAny[].class);
+                    break;
+                case "call":
+                    methodType = MethodType.methodType(IAny.class, IAny[].class);
+                    break;
+                default:
+                    methodType = type.dropParameterTypes(0, 1);
+            }
+
+            MethodHandle method;
+            try {
+                method = MethodHandles.publicLookup().findVirtual(cls, operation, methodType);
+            } catch(ReflectiveOperationException ex) {
+                if(cls == IAny.class)
+                    throw new IllegalArgumentException("Not an any operation: " + operation + methodType, ex);
+                return generic;
+            }
+
+            if(member != null)
+                method = MethodHandles.insertArguments(method, 1, member);
+            if(operation.equals("memberCall") || operation.equals("call"))
+                method = method.asCollector(IAny[].class, type.parameterCount() - 1);
+
+            return method.asType(type);
+        }
+    }
+}
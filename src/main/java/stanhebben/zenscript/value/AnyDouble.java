@@ -0,0 +1,230 @@
+package stanhebben.zenscript.value;
+
+import java.util.Iterator;
+
+/**
+ * Any value wrapping a double. Shared by all modules that have no casters
+ * registered on double; whole numbers from -128 to 1023 are cached so that
+ * counters and other small values don't allocate.
+ */
+public final class AnyDouble implements IAny {
+    
+    public static final String NAME = "stanhebben/zenscript/value/AnyDouble";
+    
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1023;
+    private static final AnyDouble[] CACHE = new AnyDouble[CACHE_HIGH - CACHE_LOW + 1];
+    
+    static {
+        for(int i = 0; i < CACHE.length; i++)
+            CACHE[i] = new AnyDouble(i + CACHE_LOW);
+    }
+    
+    private final double value;
+    
+    private AnyDouble(double value) {
+        this.value = value;
+    }
+    
+    public static IAny valueOf(double value) {
+        int index = (int) value;
+        // -0.0 must keep its sign, so only positive zero is served from the cache
+        if(index == value && index >= CACHE_LOW && index <= CACHE_HIGH && (index != 0 || Double.doubleToLongBits(value) == 0))
+            return CACHE[index - CACHE_LOW];
+        
+        return new AnyDouble(value);
+    }
+    
+    public static boolean rtCanCastImplicit(Class<?> cls) {
+        return AnyValues.isNumberClass(cls);
+    }
+    
+    public static Object rtAs(double value, Class<?> cls) {
+        throw AnyValues.cannotCast("double", cls);
+    }
+    
+    @Override
+    public IAny not() {
+        throw AnyValues.unsupported("double", "not");
+    }
+    
+    @Override
+    public IAny neg() {
+        return valueOf(-value);
+    }
+    
+    @Override
+    public IAny add(IAny other) {
+        return valueOf(value + other.asDouble());
+    }
+    
+    @Override
+    public IAny sub(IAny other) {
+        return valueOf(value - other.asDouble());
+    }
+    
+    @Override
+    public IAny cat(IAny other) {
+        return AnyString.valueOf(value + other.asString());
+    }
+    
+    @Override
+    public IAny mul(IAny other) {
+        return valueOf(value * other.asDouble());
+    }
+    
+    @Override
+    public IAny div(IAny other) {
+        return valueOf(value / other.asDouble());
+    }
+    
+    @Override
+    public IAny mod(IAny other) {
+        return valueOf(value % other.asDouble());
+    }
+    
+    @Override
+    public IAny and(IAny other) {
+        throw AnyValues.unsupported("double", "and");
+    }
+    
+    @Override
+    public IAny or(IAny other) {
+        throw AnyValues.unsupported("double", "or");
+    }
+    
+    @Override
+    public IAny xor(IAny other) {
+        throw AnyValues.unsupported("double", "xor");
+    }
+    
+    @Override
+    public IAny range(IAny other) {
+        throw AnyValues.unsupported("double", "range");
+    }
+    
+    @Override
+    public int compareTo(IAny other) {
+        return Double.compare(value, other.asDouble());
+    }
+    
+    @Override
+    public boolean contains(IAny other) {
+        throw AnyValues.unsupported("double", "in");
+    }
+    
+    @Override
+    public IAny memberGet(String member) {
+        throw AnyValues.unsupported("double", "member access");
+    }
+    
+    @Override
+    public void memberSet(String member, IAny value) {
+        throw AnyValues.unsupported("double", "member assignment");
+    }
+    
+    @Override
+    public IAny memberCall(String member, IAny... values) {
+        throw AnyValues.unsupported("double", "member call");
+    }
+    
+    @Override
+    public IAny indexGet(IAny key) {
+        throw AnyValues.unsupported("double", "get []");
+    }
+    
+    @Override
+    public void indexSet(IAny key, IAny value) {
+        throw AnyValues.unsupported("double", "set []");
+    }
+    
+    @Override
+    public IAny call(IAny... values) {
+        throw AnyValues.unsupported("double", "call");
+    }
+    
+    @Override
+    public boolean asBool() {
+        throw AnyValues.cannotCast("double", "bool");
+    }
+    
+    @Override
+    public byte asByte() {
+        return (byte) value;
+    }
+    
+    @Override
+    public short asShort() {
+        return (short) value;
+    }
+    
+    @Override
+    public int asInt() {
+        return (int) value;
+    }
+    
+    @Override
+    public long asLong() {
+        return (long) value;
+    }
+    
+    @Override
+    public float asFloat() {
+        return (float) value;
+    }
+    
+    @Override
+    public double asDouble() {
+        return value;
+    }
+    
+    @Override
+    public String asString() {
+        return Double.toString(value);
+    }
+    
+    @Override
+    public <T> T as(Class<T> cls) {
+        throw AnyValues.cannotCast("double", cls);
+    }
+    
+    @Override
+    public boolean is(Class<?> cls) {
+        return cls == double.class;
+    }
+    
+    @Override
+    public boolean canCastImplicit(Class<?> cls) {
+        return rtCanCastImplicit(cls);
+    }
+    
+    @Override
+    public int getNumberType() {
+        return NUM_DOUBLE;
+    }
+    
+    @Override
+    public Iterator<IAny> iteratorSingle() {
+        throw AnyValues.unsupported("double", "iterator");
+    }
+    
+    @Override
+    public Iterator<IAny[]> iteratorMulti(int n) {
+        throw AnyValues.unsupported("double", "iterator");
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AnyDouble && Double.doubleToLongBits(((AnyDouble) other).value) == Double.doubleToLongBits(value);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Double.hashCode(value);
+    }
+    
+    @Override
+    public String toString() {
+        return asString();
+    }
+}
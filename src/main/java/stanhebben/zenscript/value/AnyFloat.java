@@ -0,0 +1,230 @@
+package stanhebben.zenscript.value;
+
+import java.util.Iterator;
+
+/**
+ * Any value wrapping a float. Shared by all modules that have no casters
+ * registered on float; whole numbers from -128 to 1023 are cached so that
+ * counters and other small values don't allocate.
+ */
+public final class AnyFloat implements IAny {
+    
+    public static final String NAME = "stanhebben/zenscript/value/AnyFloat";
+    
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1023;
+    private static final AnyFloat[] CACHE = new AnyFloat[CACHE_HIGH - CACHE_LOW + 1];
+    
+    static {
+        for(int i = 0; i < CACHE.length; i++)
+            CACHE[i] = new AnyFloat(i + CACHE_LOW);
+    }
+    
+    private final float value;
+    
+    private AnyFloat(float value) {
+        this.value = value;
+    }
+    
+    public static IAny valueOf(float value) {
+        int index = (int) value;
+        // -0.0 must keep its sign, so only positive zero is served from the cache
+        if(index == value && index >= CACHE_LOW && index <= CACHE_HIGH && (index != 0 || Float.floatToIntBits(value) == 0))
+            return CACHE[index - CACHE_LOW];
+        
+        return new AnyFloat(value);
+    }
+    
+    public static boolean rtCanCastImplicit(Class<?> cls) {
+        return AnyValues.isNumberClass(cls);
+    }
+    
+    public static Object rtAs(float value, Class<?> cls) {
+        throw AnyValues.cannotCast("float", cls);
+    }
+    
+    @Override
+    public IAny not() {
+        throw AnyValues.unsupported("float", "not");
+    }
+    
+    @Override
+    public IAny neg() {
+        return valueOf(-value);
+    }
+    
+    @Override
+    public IAny add(IAny other) {
+        return valueOf(value + other.asFloat());
+    }
+    
+    @Override
+    public IAny sub(IAny other) {
+        return valueOf(value - other.asFloat());
+    }
+    
+    @Override
+    public IAny cat(IAny other) {
+        return AnyString.valueOf(value + other.asString());
+    }
+    
+    @Override
+    public IAny mul(IAny other) {
+        return valueOf(value * other.asFloat());
+    }
+    
+    @Override
+    public IAny div(IAny other) {
+        return valueOf(value / other.asFloat());
+    }
+    
+    @Override
+    public IAny mod(IAny other) {
+        return valueOf(value % other.asFloat());
+    }
+    
+    @Override
+    public IAny and(IAny other) {
+        throw AnyValues.unsupported("float", "and");
+    }
+    
+    @Override
+    public IAny or(IAny other) {
+        throw AnyValues.unsupported("float", "or");
+    }
+    
+    @Override
+    public IAny xor(IAny other) {
+        throw AnyValues.unsupported("float", "xor");
+    }
+    
+    @Override
+    public IAny range(IAny other) {
+        throw AnyValues.unsupported("float", "range");
+    }
+    
+    @Override
+    public int compareTo(IAny other) {
+        return Float.compare(value, other.asFloat());
+    }
+    
+    @Override
+    public boolean contains(IAny other) {
+        throw AnyValues.unsupported("float", "in");
+    }
+    
+    @Override
+    public IAny memberGet(String member) {
+        throw AnyValues.unsupported("float", "member access");
+    }
+    
+    @Override
+    public void memberSet(String member, IAny value) {
+        throw AnyValues.unsupported("float", "member assignment");
+    }
+    
+    @Override
+    public IAny memberCall(String member, IAny... values) {
+        throw AnyValues.unsupported("float", "member call");
+    }
+    
+    @Override
+    public IAny indexGet(IAny key) {
+        throw AnyValues.unsupported("float", "get []");
+    }
+    
+    @Override
+    public void indexSet(IAny key, IAny value) {
+        throw AnyValues.unsupported("float", "set []");
+    }
+    
+    @Override
+    public IAny call(IAny... values) {
+        throw AnyValues.unsupported("float", "call");
+    }
+    
+    @Override
+    public boolean asBool() {
+        throw AnyValues.cannotCast("float", "bool");
+    }
+    
+    @Override
+    public byte asByte() {
+        return (byte) value;
+    }
+    
+    @Override
+    public short asShort() {
+        return (short) value;
+    }
+    
+    @Override
+    public int asInt() {
+        return (int) value;
+    }
+    
+    @Override
+    public long asLong() {
+        return (long) value;
+    }
+    
+    @Override
+    public float asFloat() {
+        return value;
+    }
+    
+    @Override
+    public double asDouble() {
+        return value;
+    }
+    
+    @Override
+    public String asString() {
+        return Float.toString(value);
+    }
+    
+    @Override
+    public <T> T as(Class<T> cls) {
+        throw AnyValues.cannotCast("float", cls);
+    }
+    
+    @Override
+    public boolean is(Class<?> cls) {
+        return cls == float.class;
+    }
+    
+    @Override
+    public boolean canCastImplicit(Class<?> cls) {
+        return rtCanCastImplicit(cls);
+    }
+    
+    @Override
+    public int getNumberType() {
+        return NUM_FLOAT;
+    }
+    
+    @Override
+    public Iterator<IAny> iteratorSingle() {
+        throw AnyValues.unsupported("float", "iterator");
+    }
+    
+    @Override
+    public Iterator<IAny[]> iteratorMulti(int n) {
+        throw AnyValues.unsupported("float", "iterator");
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AnyFloat && Float.floatToIntBits(((AnyFloat) other).value) == Float.floatToIntBits(value);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Float.hashCode(value);
+    }
+    
+    @Override
+    public String toString() {
+        return asString();
+    }
+}
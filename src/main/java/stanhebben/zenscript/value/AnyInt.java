@@ -0,0 +1,228 @@
+package stanhebben.zenscript.value;
+
+import java.util.Iterator;
+
+/**
+ * Any value wrapping a int. Shared by all modules that have no casters
+ * registered on int; values from -128 to 1023 are cached so that boxing
+ * them into any doesn't allocate.
+ */
+public final class AnyInt implements IAny {
+    
+    public static final String NAME = "stanhebben/zenscript/value/AnyInt";
+    
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1023;
+    private static final AnyInt[] CACHE = new AnyInt[CACHE_HIGH - CACHE_LOW + 1];
+    
+    static {
+        for(int i = 0; i < CACHE.length; i++)
+            CACHE[i] = new AnyInt(i + CACHE_LOW);
+    }
+    
+    private final int value;
+    
+    private AnyInt(int value) {
+        this.value = value;
+    }
+    
+    public static IAny valueOf(int value) {
+        if(value >= CACHE_LOW && value <= CACHE_HIGH)
+            return CACHE[value - CACHE_LOW];
+        
+        return new AnyInt(value);
+    }
+    
+    public static boolean rtCanCastImplicit(Class<?> cls) {
+        return AnyValues.isNumberClass(cls);
+    }
+    
+    public static Object rtAs(int value, Class<?> cls) {
+        throw AnyValues.cannotCast("int", cls);
+    }
+    
+    @Override
+    public IAny not() {
+        return valueOf(~value);
+    }
+    
+    @Override
+    public IAny neg() {
+        return valueOf(-value);
+    }
+    
+    @Override
+    public IAny add(IAny other) {
+        return valueOf(value + other.asInt());
+    }
+    
+    @Override
+    public IAny sub(IAny other) {
+        return valueOf(value - other.asInt());
+    }
+    
+    @Override
+    public IAny cat(IAny other) {
+        return AnyString.valueOf(value + other.asString());
+    }
+    
+    @Override
+    public IAny mul(IAny other) {
+        return valueOf(value * other.asInt());
+    }
+    
+    @Override
+    public IAny div(IAny other) {
+        return valueOf(value / other.asInt());
+    }
+    
+    @Override
+    public IAny mod(IAny other) {
+        return valueOf(value % other.asInt());
+    }
+    
+    @Override
+    public IAny and(IAny other) {
+        return valueOf(value & other.asInt());
+    }
+    
+    @Override
+    public IAny or(IAny other) {
+        return valueOf(value | other.asInt());
+    }
+    
+    @Override
+    public IAny xor(IAny other) {
+        return valueOf(value ^ other.asInt());
+    }
+    
+    @Override
+    public IAny range(IAny other) {
+        throw AnyValues.unsupported("int", "range");
+    }
+    
+    @Override
+    public int compareTo(IAny other) {
+        return Integer.compare(value, other.asInt());
+    }
+    
+    @Override
+    public boolean contains(IAny other) {
+        throw AnyValues.unsupported("int", "in");
+    }
+    
+    @Override
+    public IAny memberGet(String member) {
+        throw AnyValues.unsupported("int", "member access");
+    }
+    
+    @Override
+    public void memberSet(String member, IAny value) {
+        throw AnyValues.unsupported("int", "member assignment");
+    }
+    
+    @Override
+    public IAny memberCall(String member, IAny... values) {
+        throw AnyValues.unsupported("int", "member call");
+    }
+    
+    @Override
+    public IAny indexGet(IAny key) {
+        throw AnyValues.unsupported("int", "get []");
+    }
+    
+    @Override
+    public void indexSet(IAny key, IAny value) {
+        throw AnyValues.unsupported("int", "set []");
+    }
+    
+    @Override
+    public IAny call(IAny... values) {
+        throw AnyValues.unsupported("int", "call");
+    }
+    
+    @Override
+    public boolean asBool() {
+        throw AnyValues.cannotCast("int", "bool");
+    }
+    
+    @Override
+    public byte asByte() {
+        return (byte) value;
+    }
+    
+    @Override
+    public short asShort() {
+        return (short) value;
+    }
+    
+    @Override
+    public int asInt() {
+        return value;
+    }
+    
+    @Override
+    public long asLong() {
+        return value;
+    }
+    
+    @Override
+    public float asFloat() {
+        return value;
+    }
+    
+    @Override
+    public double asDouble() {
+        return value;
+    }
+    
+    @Override
+    public String asString() {
+        return Integer.toString(value);
+    }
+    
+    @Override
+    public <T> T as(Class<T> cls) {
+        throw AnyValues.cannotCast("int", cls);
+    }
+    
+    @Override
+    public boolean is(Class<?> cls) {
+        return cls == int.class;
+    }
+    
+    @Override
+    public boolean canCastImplicit(Class<?> cls) {
+        return rtCanCastImplicit(cls);
+    }
+    
+    @Override
+    public int getNumberType() {
+        return NUM_INT;
+    }
+    
+    @Override
+    public Iterator<IAny> iteratorSingle() {
+        throw AnyValues.unsupported("int", "iterator");
+    }
+    
+    @Override
+    public Iterator<IAny[]> iteratorMulti(int n) {
+        throw AnyValues.unsupported("int", "iterator");
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AnyInt && ((AnyInt) other).value == value;
+    }
+    
+    @Override
+    public int hashCode() {
+        return value;
+    }
+    
+    @Override
+    public String toString() {
+        return asString();
+    }
+}
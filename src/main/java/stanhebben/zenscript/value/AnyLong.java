@@ -0,0 +1,228 @@
+package stanhebben.zenscript.value;
+
+import java.util.Iterator;
+
+/**
+ * Any value wrapping a long. Shared by all modules that have no casters
+ * registered on long; values from -128 to 1023 are cached so that boxing
+ * them into any doesn't allocate.
+ */
+public final class AnyLong implements IAny {
+    
+    public static final String NAME = "stanhebben/zenscript/value/AnyLong";
+    
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1023;
+    private static final AnyLong[] CACHE = new AnyLong[CACHE_HIGH - CACHE_LOW + 1];
+    
+    static {
+        for(int i = 0; i < CACHE.length; i++)
+            CACHE[i] = new AnyLong((long) (i + CACHE_LOW));
+    }
+    
+    private final long value;
+    
+    private AnyLong(long value) {
+        this.value = value;
+    }
+    
+    public static IAny valueOf(long value) {
+        if(value >= CACHE_LOW && value <= CACHE_HIGH)
+            return CACHE[(int) value - CACHE_LOW];
+        
+        return new AnyLong(value);
+    }
+    
+    public static boolean rtCanCastImplicit(Class<?> cls) {
+        return AnyValues.isNumberClass(cls);
+    }
+    
+    public static Object rtAs(long value, Class<?> cls) {
+        throw AnyValues.cannotCast("long", cls);
+    }
+    
+    @Override
+    public IAny not() {
+        return valueOf(~value);
+    }
+    
+    @Override
+    public IAny neg() {
+        return valueOf(-value);
+    }
+    
+    @Override
+    public IAny add(IAny other) {
+        return valueOf(value + other.asLong());
+    }
+    
+    @Override
+    public IAny sub(IAny other) {
+        return valueOf(value - other.asLong());
+    }
+    
+    @Override
+    public IAny cat(IAny other) {
+        return AnyString.valueOf(value + other.asString());
+    }
+    
+    @Override
+    public IAny mul(IAny other) {
+        return valueOf(value * other.asLong());
+    }
+    
+    @Override
+    public IAny div(IAny other) {
+        return valueOf(value / other.asLong());
+    }
+    
+    @Override
+    public IAny mod(IAny other) {
+        return valueOf(value % other.asLong());
+    }
+    
+    @Override
+    public IAny and(IAny other) {
+        return valueOf(value & other.asLong());
+    }
+    
+    @Override
+    public IAny or(IAny other) {
+        return valueOf(value | other.asLong());
+    }
+    
+    @Override
+    public IAny xor(IAny other) {
+        return valueOf(value ^ other.asLong());
+    }
+    
+    @Override
+    public IAny range(IAny other) {
+        throw AnyValues.unsupported("long", "range");
+    }
+    
+    @Override
+    public int compareTo(IAny other) {
+        return Long.compare(value, other.asLong());
+    }
+    
+    @Override
+    public boolean contains(IAny other) {
+        throw AnyValues.unsupported("long", "in");
+    }
+    
+    @Override
+    public IAny memberGet(String member) {
+        throw AnyValues.unsupported("long", "member access");
+    }
+    
+    @Override
+    public void memberSet(String member, IAny value) {
+        throw AnyValues.unsupported("long", "member assignment");
+    }
+    
+    @Override
+    public IAny memberCall(String member, IAny... values) {
+        throw AnyValues.unsupported("long", "member call");
+    }
+    
+    @Override
+    public IAny indexGet(IAny key) {
+        throw AnyValues.unsupported("long", "get []");
+    }
+    
+    @Override
+    public void indexSet(IAny key, IAny value) {
+        throw AnyValues.unsupported("long", "set []");
+    }
+    
+    @Override
+    public IAny call(IAny... values) {
+        throw AnyValues.unsupported("long", "call");
+    }
+    
+    @Override
+    public boolean asBool() {
+        throw AnyValues.cannotCast("long", "bool");
+    }
+    
+    @Override
+    public byte asByte() {
+        return (byte) value;
+    }
+    
+    @Override
+    public short asShort() {
+        return (short) value;
+    }
+    
+    @Override
+    public int asInt() {
+        return (int) value;
+    }
+    
+    @Override
+    public long asLong() {
+        return value;
+    }
+    
+    @Override
+    public float asFloat() {
+        return value;
+    }
+    
+    @Override
+    public double asDouble() {
+        return value;
+    }
+    
+    @Override
+    public String asString() {
+        return Long.toString(value);
+    }
+    
+    @Override
+    public <T> T as(Class<T> cls) {
+        throw AnyValues.cannotCast("long", cls);
+    }
+    
+    @Override
+    public boolean is(Class<?> cls) {
+        return cls == long.class;
+    }
+    
+    @Override
+    public boolean canCastImplicit(Class<?> cls) {
+        return rtCanCastImplicit(cls);
+    }
+    
+    @Override
+    public int getNumberType() {
+        return NUM_LONG;
+    }
+    
+    @Override
+    public Iterator<IAny> iteratorSingle() {
+        throw AnyValues.unsupported("long", "iterator");
+    }
+    
+    @Override
+    public Iterator<IAny[]> iteratorMulti(int n) {
+        throw AnyValues.unsupported("long", "iterator");
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AnyLong && ((AnyLong) other).value == value;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+    
+    @Override
+    public String toString() {
+        return asString();
+    }
+}
@@ -0,0 +1,228 @@
+package stanhebben.zenscript.value;
+
+import java.util.Iterator;
+
+/**
+ * Any value wrapping a short. Shared by all modules that have no casters
+ * registered on short; values from -128 to 1023 are cached so that boxing
+ * them into any doesn't allocate.
+ */
+public final class AnyShort implements IAny {
+    
+    public static final String NAME = "stanhebben/zenscript/value/AnyShort";
+    
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1023;
+    private static final AnyShort[] CACHE = new AnyShort[CACHE_HIGH - CACHE_LOW + 1];
+    
+    static {
+        for(int i = 0; i < CACHE.length; i++)
+            CACHE[i] = new AnyShort((short) (i + CACHE_LOW));
+    }
+    
+    private final short value;
+    
+    private AnyShort(short value) {
+        this.value = value;
+    }
+    
+    public static IAny valueOf(short value) {
+        if(value >= CACHE_LOW && value <= CACHE_HIGH)
+            return CACHE[value - CACHE_LOW];
+        
+        return new AnyShort(value);
+    }
+    
+    public static boolean rtCanCastImplicit(Class<?> cls) {
+        return AnyValues.isNumberClass(cls);
+    }
+    
+    public static Object rtAs(short value, Class<?> cls) {
+        throw AnyValues.cannotCast("short", cls);
+    }
+    
+    @Override
+    public IAny not() {
+        return valueOf((short) (~value));
+    }
+    
+    @Override
+    public IAny neg() {
+        return valueOf((short) (-value));
+    }
+    
+    @Override
+    public IAny add(IAny other) {
+        return valueOf((short) (value + other.asShort()));
+    }
+    
+    @Override
+    public IAny sub(IAny other) {
+        return valueOf((short) (value - other.asShort()));
+    }
+    
+    @Override
+    public IAny cat(IAny other) {
+        return AnyString.valueOf(value + other.asString());
+    }
+    
+    @Override
+    public IAny mul(IAny other) {
+        return valueOf((short) (value * other.asShort()));
+    }
+    
+    @Override
+    public IAny div(IAny other) {
+        return valueOf((short) (value / other.asShort()));
+    }
+    
+    @Override
+    public IAny mod(IAny other) {
+        return valueOf((short) (value % other.asShort()));
+    }
+    
+    @Override
+    public IAny and(IAny other) {
+        return valueOf((short) (value & other.asShort()));
+    }
+    
+    @Override
+    public IAny or(IAny other) {
+        return valueOf((short) (value | other.asShort()));
+    }
+    
+    @Override
+    public IAny xor(IAny other) {
+        return valueOf((short) (value ^ other.asShort()));
+    }
+    
+    @Override
+    public IAny range(IAny other) {
+        throw AnyValues.unsupported("short", "range");
+    }
+    
+    @Override
+    public int compareTo(IAny other) {
+        return Short.compare(value, other.asShort());
+    }
+    
+    @Override
+    public boolean contains(IAny other) {
+        throw AnyValues.unsupported("short", "in");
+    }
+    
+    @Override
+    public IAny memberGet(String member) {
+        throw AnyValues.unsupported("short", "member access");
+    }
+    
+    @Override
+    public void memberSet(String member, IAny value) {
+        throw AnyValues.unsupported("short", "member assignment");
+    }
+    
+    @Override
+    public IAny memberCall(String member, IAny... values) {
+        throw AnyValues.unsupported("short", "member call");
+    }
+    
+    @Override
+    public IAny indexGet(IAny key) {
+        throw AnyValues.unsupported("short", "get []");
+    }
+    
+    @Override
+    public void indexSet(IAny key, IAny value) {
+        throw AnyValues.unsupported("short", "set []");
+    }
+    
+    @Override
+    public IAny call(IAny... values) {
+        throw AnyValues.unsupported("short", "call");
+    }
+    
+    @Override
+    public boolean asBool() {
+        throw AnyValues.cannotCast("short", "bool");
+    }
+    
+    @Override
+    public byte asByte() {
+        return (byte) value;
+    }
+    
+    @Override
+    public short asShort() {
+        return value;
+    }
+    
+    @Override
+    public int asInt() {
+        return value;
+    }
+    
+    @Override
+    public long asLong() {
+        return value;
+    }
+    
+    @Override
+    public float asFloat() {
+        return value;
+    }
+    
+    @Override
+    public double asDouble() {
+        return value;
+    }
+    
+    @Override
+    public String asString() {
+        return Short.toString(value);
+    }
+    
+    @Override
+    public <T> T as(Class<T> cls) {
+        throw AnyValues.cannotCast("short", cls);
+    }
+    
+    @Override
+    public boolean is(Class<?> cls) {
+        return cls == short.class;
+    }
+    
+    @Override
+    public boolean canCastImplicit(Class<?> cls) {
+        return rtCanCastImplicit(cls);
+    }
+    
+    @Override
+    public int getNumberType() {
+        return NUM_SHORT;
+    }
+    
+    @Override
+    public Iterator<IAny> iteratorSingle() {
+        throw AnyValues.unsupported("short", "iterator");
+    }
+    
+    @Override
+    public Iterator<IAny[]> iteratorMulti(int n) {
+        throw AnyValues.unsupported("short", "iterator");
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AnyShort && ((AnyShort) other).value == value;
+    }
+    
+    @Override
+    public int hashCode() {
+        return value;
+    }
+    
+    @Override
+    public String toString() {
+        return asString();
+    }
+}
@@ -0,0 +1,234 @@
+package stanhebben.zenscript.value;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Any value wrapping a string. Shared by all modules that have no casters
+ * registered on string; the empty string and single ASCII characters, which
+ * is what indexing a string yields, are cached.
+ */
+public final class AnyString implements IAny {
+    
+    public static final String NAME = "stanhebben/zenscript/value/AnyString";
+    
+    public static final AnyString EMPTY = new AnyString("");
+    
+    private static final AnyString[] CHARACTERS = new AnyString[128];
+    
+    static {
+        for(char c = 0; c < CHARACTERS.length; c++)
+            CHARACTERS[c] = new AnyString(String.valueOf(c));
+    }
+    
+    private final String value;
+    
+    private AnyString(String value) {
+        this.value = value;
+    }
+    
+    public static IAny valueOf(String value) {
+        if(value != null) {
+            if(value.isEmpty())
+                return EMPTY;
+            if(value.length() == 1 && value.charAt(0) < CHARACTERS.length)
+                return CHARACTERS[value.charAt(0)];
+        }
+        
+        return new AnyString(value);
+    }
+    
+    public static boolean rtCanCastImplicit(Class<?> cls) {
+        return cls == String.class;
+    }
+    
+    public static Object rtAs(String value, Class<?> cls) {
+        throw AnyValues.cannotCast("string", cls);
+    }
+    
+    @Override
+    public IAny not() {
+        throw AnyValues.unsupported("string", "not");
+    }
+    
+    @Override
+    public IAny neg() {
+        throw AnyValues.unsupported("string", "negate");
+    }
+    
+    @Override
+    public IAny add(IAny other) {
+        return cat(other);
+    }
+    
+    @Override
+    public IAny sub(IAny other) {
+        throw AnyValues.unsupported("string", "-");
+    }
+    
+    @Override
+    public IAny cat(IAny other) {
+        return valueOf(value + other.asString());
+    }
+    
+    @Override
+    public IAny mul(IAny other) {
+        throw AnyValues.unsupported("string", "*");
+    }
+    
+    @Override
+    public IAny div(IAny other) {
+        throw AnyValues.unsupported("string", "/");
+    }
+    
+    @Override
+    public IAny mod(IAny other) {
+        throw AnyValues.unsupported("string", "%");
+    }
+    
+    @Override
+    public IAny and(IAny other) {
+        throw AnyValues.unsupported("string", "&");
+    }
+    
+    @Override
+    public IAny or(IAny other) {
+        throw AnyValues.unsupported("string", "|");
+    }
+    
+    @Override
+    public IAny xor(IAny other) {
+        throw AnyValues.unsupported("string", "^");
+    }
+    
+    @Override
+    public IAny range(IAny other) {
+        throw AnyValues.unsupported("string", "..");
+    }
+    
+    @Override
+    public int compareTo(IAny other) {
+        return value.compareTo(other.asString());
+    }
+    
+    @Override
+    public boolean contains(IAny other) {
+        return value.contains(other.asString());
+    }
+    
+    @Override
+    public IAny memberGet(String member) {
+        throw AnyValues.unsupported("string", "member access");
+    }
+    
+    @Override
+    public void memberSet(String member, IAny value) {
+        throw AnyValues.unsupported("string", "member assignment");
+    }
+    
+    @Override
+    public IAny memberCall(String member, IAny... values) {
+        throw AnyValues.unsupported("string", "member call");
+    }
+    
+    @Override
+    public IAny indexGet(IAny key) {
+        int index = key.asInt();
+        return valueOf(value.substring(index, index + 1));
+    }
+    
+    @Override
+    public void indexSet(IAny key, IAny value) {
+        throw AnyValues.unsupported("string", "[]=");
+    }
+    
+    @Override
+    public IAny call(IAny... values) {
+        throw AnyValues.unsupported("string", "call");
+    }
+    
+    @Override
+    public boolean asBool() {
+        return Boolean.parseBoolean(value);
+    }
+    
+    @Override
+    public byte asByte() {
+        return Byte.parseByte(value);
+    }
+    
+    @Override
+    public short asShort() {
+        return Short.parseShort(value);
+    }
+    
+    @Override
+    public int asInt() {
+        return Integer.parseInt(value);
+    }
+    
+    @Override
+    public long asLong() {
+        return Long.parseLong(value);
+    }
+    
+    @Override
+    public float asFloat() {
+        return Float.parseFloat(value);
+    }
+    
+    @Override
+    public double asDouble() {
+        return Double.parseDouble(value);
+    }
+    
+    @Override
+    public String asString() {
+        return value;
+    }
+    
+    @Override
+    public <T> T as(Class<T> cls) {
+        throw AnyValues.cannotCast("string", cls);
+    }
+    
+    @Override
+    public boolean is(Class<?> cls) {
+        return cls == String.class;
+    }
+    
+    @Override
+    public boolean canCastImplicit(Class<?> cls) {
+        return rtCanCastImplicit(cls);
+    }
+    
+    @Override
+    public int getNumberType() {
+        return 0;
+    }
+    
+    @Override
+    public Iterator<IAny> iteratorSingle() {
+        throw AnyValues.unsupported("string", "iterator");
+    }
+    
+    @Override
+    public Iterator<IAny[]> iteratorMulti(int n) {
+        throw AnyValues.unsupported("string", "iterator");
+    }
+    
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AnyString && Objects.equals(((AnyString) other).value, value);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(value);
+    }
+    
+    @Override
+    public String toString() {
+        return asString();
+    }
+}
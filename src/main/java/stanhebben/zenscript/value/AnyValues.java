@@ -0,0 +1,26 @@
+package stanhebben.zenscript.value;
+
+/**
+ * Shared helpers for the prebuilt any value classes.
+ */
+final class AnyValues {
+    
+    private AnyValues() {
+    }
+    
+    static boolean isNumberClass(Class<?> cls) {
+        return cls == byte.class || cls == short.class || cls == int.class || cls == long.class || cls == float.class || cls == double.class;
+    }
+    
+    static UnsupportedOperationException unsupported(String type, String operation) {
+        return new UnsupportedOperationException(type + " does not support the " + operation + " operator");
+    }
+    
+    static ClassCastException cannotCast(String type, String target) {
+        return new ClassCastException("Cannot cast " + type + " to " + target);
+    }
+    
+    static ClassCastException cannotCast(String type, Class<?> target) {
+        return cannotCast(type, target.getName());
+    }
+}
@@ -0,0 +1,176 @@
+package stanhebben.zenscript.value.map;
+
+/**
+ * Map with int keys and int values, used for associative arrays of type
+ * int[int].
+ */
+public class IntIntMap extends PrimitiveHashMap<Integer, Integer> {
+    
+    private int[] keys;
+    private int[] values;
+    
+    public IntIntMap() {
+        this(0);
+    }
+    
+    public IntIntMap(int expectedSize) {
+        super(expectedSize);
+    }
+    
+    public Integer get(int key) {
+        int slot = find(key);
+        return slot < 0 ? null : valueAt(slot);
+    }
+    
+    /**
+     * Gets a value without boxing it.
+     *
+     * @param key key
+     *
+     * @return value
+     * @throws NullPointerException if there is no value for the key, or it is null
+     */
+    public int getInt(int key) {
+        int slot = find(key);
+        if(slot < 0 || states[slot] == FILLED_NULL)
+            throw new NullPointerException("No int value for key " + key);
+        return values[slot];
+    }
+    
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+    
+    public Integer put(int key, int value) {
+        int slot = find(key);
+        if(slot >= 0) {
+            Integer old = valueAt(slot);
+            states[slot] = FILLED;
+            values[slot] = value;
+            return old;
+        }
+        
+        ensureSpace();
+        insert(key, FILLED, value);
+        return null;
+    }
+    
+    public Integer put(int key, Integer value) {
+        if(value != null)
+            return put(key, value.intValue());
+        
+        int slot = find(key);
+        if(slot >= 0) {
+            Integer old = valueAt(slot);
+            states[slot] = FILLED_NULL;
+            return old;
+        }
+        
+        ensureSpace();
+        insert(key, FILLED_NULL, 0);
+        return null;
+    }
+    
+    public Integer remove(int key) {
+        int slot = find(key);
+        if(slot < 0)
+            return null;
+        
+        Integer old = valueAt(slot);
+        removeSlot(slot);
+        return old;
+    }
+    
+    @Override
+    public Integer get(Object key) {
+        return key instanceof Integer ? get(((Integer) key).intValue()) : null;
+    }
+    
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey(((Integer) key).intValue());
+    }
+    
+    @Override
+    public Integer put(Integer key, Integer value) {
+        return put(key.intValue(), value);
+    }
+    
+    @Override
+    public Integer remove(Object key) {
+        return key instanceof Integer ? remove(((Integer) key).intValue()) : null;
+    }
+    
+    private void insert(int key, byte state, int value) {
+        int slot = mix(key) & mask;
+        while(states[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        states[slot] = state;
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+    
+    private int find(int key) {
+        int slot = mix(key) & mask;
+        while(states[slot] != EMPTY) {
+            if(keys[slot] == key)
+                return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    @Override
+    protected void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+    }
+    
+    @Override
+    protected void rehash(byte[] oldStates, int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for(int i = 0; i < oldStates.length; i++) {
+            if(oldStates[i] != EMPTY)
+                insert(oldKeys[i], oldStates[i], oldValues[i]);
+        }
+    }
+    
+    @Override
+    protected int idealSlot(int slot) {
+        return mix(keys[slot]) & mask;
+    }
+    
+    @Override
+    protected void moveSlot(int from, int to) {
+        keys[to] = keys[from];
+        values[to] = values[from];
+    }
+    
+    @Override
+    protected void clearSlot(int slot) {
+    }
+    
+    @Override
+    protected Integer keyAt(int slot) {
+        return keys[slot];
+    }
+    
+    @Override
+    protected Integer valueAt(int slot) {
+        return states[slot] == FILLED_NULL ? null : values[slot];
+    }
+    
+    @Override
+    protected void setValueAt(int slot, Integer value) {
+        if(value == null) {
+            states[slot] = FILLED_NULL;
+        } else {
+            states[slot] = FILLED;
+            values[slot] = value;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package stanhebben.zenscript.value.map;
+
+/**
+ * Map with int keys, used for associative arrays such as string[int].
+ */
+public class IntObjectMap extends PrimitiveHashMap<Integer, Object> {
+    
+    private int[] keys;
+    private Object[] values;
+    
+    public IntObjectMap() {
+        this(0);
+    }
+    
+    public IntObjectMap(int expectedSize) {
+        super(expectedSize);
+    }
+    
+    public Object get(int key) {
+        int slot = find(key);
+        return slot < 0 ? null : values[slot];
+    }
+    
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+    
+    public Object put(int key, Object value) {
+        int slot = find(key);
+        if(slot >= 0) {
+            Object old = values[slot];
+            values[slot] = value;
+            return old;
+        }
+        
+        ensureSpace();
+        insert(key, value);
+        return null;
+    }
+    
+    public Object remove(int key) {
+        int slot = find(key);
+        if(slot < 0)
+            return null;
+        
+        Object old = values[slot];
+        removeSlot(slot);
+        return old;
+    }
+    
+    @Override
+    public Object get(Object key) {
+        return key instanceof Integer ? get(((Integer) key).intValue()) : null;
+    }
+    
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey(((Integer) key).intValue());
+    }
+    
+    @Override
+    public Object put(Integer key, Object value) {
+        return put(key.intValue(), value);
+    }
+    
+    @Override
+    public Object remove(Object key) {
+        return key instanceof Integer ? remove(((Integer) key).intValue()) : null;
+    }
+    
+    private void insert(int key, Object value) {
+        int slot = mix(key) & mask;
+        while(states[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        states[slot] = FILLED;
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+    
+    private int find(int key) {
+        int slot = mix(key) & mask;
+        while(states[slot] != EMPTY) {
+            if(keys[slot] == key)
+                return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    @Override
+    protected void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+    }
+    
+    @Override
+    protected void rehash(byte[] oldStates, int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for(int i = 0; i < oldStates.length; i++) {
+            if(oldStates[i] != EMPTY)
+                insert(oldKeys[i], oldValues[i]);
+        }
+    }
+    
+    @Override
+    protected int idealSlot(int slot) {
+        return mix(keys[slot]) & mask;
+    }
+    
+    @Override
+    protected void moveSlot(int from, int to) {
+        keys[to] = keys[from];
+        values[to] = values[from];
+    }
+    
+    @Override
+    protected void clearSlot(int slot) {
+        values[slot] = null;
+    }
+    
+    @Override
+    protected Integer keyAt(int slot) {
+        return keys[slot];
+    }
+    
+    @Override
+    protected Object valueAt(int slot) {
+        return values[slot];
+    }
+    
+    @Override
+    protected void setValueAt(int slot, Object value) {
+        values[slot] = value;
+    }
+}
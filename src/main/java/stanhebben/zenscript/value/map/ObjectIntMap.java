@@ -0,0 +1,163 @@
+package stanhebben.zenscript.value.map;
+
+import java.util.Objects;
+
+/**
+ * Map with object keys and int values, used for associative arrays such as
+ * int[string].
+ */
+public class ObjectIntMap extends PrimitiveHashMap<Object, Integer> {
+    
+    private Object[] keys;
+    private int[] values;
+    
+    public ObjectIntMap() {
+        this(0);
+    }
+    
+    public ObjectIntMap(int expectedSize) {
+        super(expectedSize);
+    }
+    
+    public Integer put(Object key, int value) {
+        int slot = find(key);
+        if(slot >= 0) {
+            Integer old = valueAt(slot);
+            states[slot] = FILLED;
+            values[slot] = value;
+            return old;
+        }
+        
+        ensureSpace();
+        insert(key, FILLED, value);
+        return null;
+    }
+    
+    @Override
+    public Integer get(Object key) {
+        int slot = find(key);
+        return slot < 0 ? null : valueAt(slot);
+    }
+    
+    /**
+     * Gets a value without boxing it.
+     *
+     * @param key key
+     *
+     * @return value
+     * @throws NullPointerException if there is no value for the key, or it is null
+     */
+    public int getInt(Object key) {
+        int slot = find(key);
+        if(slot < 0 || states[slot] == FILLED_NULL)
+            throw new NullPointerException("No int value for key " + key);
+        return values[slot];
+    }
+    
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+    
+    @Override
+    public Integer put(Object key, Integer value) {
+        if(value != null)
+            return put(key, value.intValue());
+        
+        int slot = find(key);
+        if(slot >= 0) {
+            Integer old = valueAt(slot);
+            states[slot] = FILLED_NULL;
+            return old;
+        }
+        
+        ensureSpace();
+        insert(key, FILLED_NULL, 0);
+        return null;
+    }
+    
+    @Override
+    public Integer remove(Object key) {
+        int slot = find(key);
+        if(slot < 0)
+            return null;
+        
+        Integer old = valueAt(slot);
+        removeSlot(slot);
+        return old;
+    }
+    
+    private void insert(Object key, byte state, int value) {
+        int slot = mix(Objects.hashCode(key)) & mask;
+        while(states[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        states[slot] = state;
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+    
+    private int find(Object key) {
+        int slot = mix(Objects.hashCode(key)) & mask;
+        while(states[slot] != EMPTY) {
+            if(Objects.equals(keys[slot], key))
+                return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    @Override
+    protected void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new int[capacity];
+    }
+    
+    @Override
+    protected void rehash(byte[] oldStates, int capacity) {
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for(int i = 0; i < oldStates.length; i++) {
+            if(oldStates[i] != EMPTY)
+                insert(oldKeys[i], oldStates[i], oldValues[i]);
+        }
+    }
+    
+    @Override
+    protected int idealSlot(int slot) {
+        return mix(Objects.hashCode(keys[slot])) & mask;
+    }
+    
+    @Override
+    protected void moveSlot(int from, int to) {
+        keys[to] = keys[from];
+        values[to] = values[from];
+    }
+    
+    @Override
+    protected void clearSlot(int slot) {
+        keys[slot] = null;
+    }
+    
+    @Override
+    protected Object keyAt(int slot) {
+        return keys[slot];
+    }
+    
+    @Override
+    protected Integer valueAt(int slot) {
+        return states[slot] == FILLED_NULL ? null : values[slot];
+    }
+    
+    @Override
+    protected void setValueAt(int slot, Integer value) {
+        if(value == null) {
+            states[slot] = FILLED_NULL;
+        } else {
+            states[slot] = FILLED;
+            values[slot] = value;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package stanhebben.zenscript.value.map;
+
+import java.util.*;
+
+/**
+ * Base class for the open addressing maps used for associative arrays with
+ * primitive keys or values. Entries are stored in parallel arrays and found by
+ * linear probing, so no entry objects are allocated and primitive parts are
+ * never boxed while stored.
+ * <p>
+ * The maps implement java.util.Map, so they can be used anywhere a HashMap was
+ * used before. Null values are supported.
+ *
+ * @param <K> boxed key type
+ * @param <V> boxed value type
+ */
+public abstract class PrimitiveHashMap<K, V> extends AbstractMap<K, V> {
+    
+    protected static final byte EMPTY = 0;
+    protected static final byte FILLED = 1;
+    protected static final byte FILLED_NULL = 2;
+    
+    private static final int MIN_CAPACITY = 8;
+    
+    protected byte[] states;
+    protected int mask;
+    protected int size;
+    
+    private Set<Map.Entry<K, V>> entrySet;
+    
+    protected PrimitiveHashMap(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        states = new byte[capacity];
+        mask = capacity - 1;
+        allocate(capacity);
+    }
+    
+    /**
+     * Allocates the key and value arrays for the given capacity.
+     */
+    protected abstract void allocate(int capacity);
+    
+    /**
+     * Allocates the key and value arrays for the new capacity and inserts the
+     * entries of the old arrays (as marked by oldStates) into them.
+     */
+    protected abstract void rehash(byte[] oldStates, int capacity);
+    
+    /**
+     * Gets the preferred slot for the key stored in the given slot.
+     */
+    protected abstract int idealSlot(int slot);
+    
+    /**
+     * Copies the key and value of one slot into another.
+     */
+    protected abstract void moveSlot(int from, int to);
+    
+    /**
+     * Clears references held by the given slot.
+     */
+    protected abstract void clearSlot(int slot);
+    
+    protected abstract K keyAt(int slot);
+    
+    protected abstract V valueAt(int slot);
+    
+    protected abstract void setValueAt(int slot, V value);
+    
+    protected static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+    
+    /**
+     * Makes sure there is room for one more entry.
+     */
+    protected void ensureSpace() {
+        if((size + 1) * 4 > states.length * 3) {
+            byte[] oldStates = states;
+            int capacity = states.length * 2;
+            states = new byte[capacity];
+            mask = capacity - 1;
+            size = 0;
+            rehash(oldStates, capacity);
+        }
+    }
+    
+    /**
+     * Removes the entry in the given slot, moving entries that were displaced
+     * by it back so lookups don't need tombstones.
+     */
+    protected void removeSlot(int slot) {
+        removeSlot(slot, null);
+    }
+    
+    /**
+     * Removes the entry in the given slot. If an iterator is given, entries
+     * that are moved from a slot it hasn't visited yet to one it has (which
+     * only happens when the moved entries wrap around the end of the table)
+     * are added to its list of entries to visit later.
+     */
+    private void removeSlot(int slot, EntryIterator iterator) {
+        int free = slot;
+        int current = (slot + 1) & mask;
+        while(states[current] != EMPTY) {
+            int ideal = idealSlot(current);
+            // move the entry if its ideal slot is not in (free, current]
+            if(((current - ideal) & mask) >= ((current - free) & mask)) {
+                if(iterator != null && current < slot && free >= slot)
+                    iterator.addWrapped(keyAt(current), valueAt(current));
+                moveSlot(current, free);
+                states[free] = states[current];
+                free = current;
+            }
+            current = (current + 1) & mask;
+        }
+        
+        states[free] = EMPTY;
+        clearSlot(free);
+        size--;
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    public void clear() {
+        for(int i = 0; i < states.length; i++) {
+            if(states[i] != EMPTY) {
+                states[i] = EMPTY;
+                clearSlot(i);
+            }
+        }
+        size = 0;
+    }
+    
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if(entrySet == null) {
+            entrySet = new AbstractSet<Map.Entry<K, V>>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new EntryIterator();
+                }
+                
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+    
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while(capacity * 3 < expectedSize * 4) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+    
+    /**
+     * Iterates the table from the last slot to the first. Removing an entry
+     * only moves entries to lower slots, which have not been visited yet,
+     * except for entries that wrap around the end of the table; those are
+     * collected and visited after the table.
+     */
+    private class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        
+        private int next = advance(states.length - 1);
+        private int last = -1;
+        private List<Map.Entry<K, V>> wrapped;
+        private int wrappedIndex = 0;
+        private Map.Entry<K, V> lastWrapped;
+        
+        private int advance(int slot) {
+            while(slot >= 0 && states[slot] == EMPTY) {
+                slot--;
+            }
+            return slot;
+        }
+        
+        private void addWrapped(K key, V value) {
+            if(wrapped == null)
+                wrapped = new ArrayList<>();
+            wrapped.add(new WrappedEntry(key, value));
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return next >= 0 || (wrapped != null && wrappedIndex < wrapped.size());
+        }
+        
+        @Override
+        public Map.Entry<K, V> next() {
+            if(next >= 0) {
+                last = next;
+                lastWrapped = null;
+                next = advance(next - 1);
+                return new Entry(last);
+            } else if(wrapped != null && wrappedIndex < wrapped.size()) {
+                last = -1;
+                lastWrapped = wrapped.get(wrappedIndex++);
+                return lastWrapped;
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+        
+        @Override
+        public void remove() {
+            if(last >= 0) {
+                removeSlot(last, this);
+                next = advance(last - 1);
+                last = -1;
+            } else if(lastWrapped != null) {
+                PrimitiveHashMap.this.remove(lastWrapped.getKey());
+                lastWrapped = null;
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+    
+    private class WrappedEntry extends AbstractMap.SimpleEntry<K, V> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private WrappedEntry(K key, V value) {
+            super(key, value);
+        }
+        
+        @Override
+        public V setValue(V value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+    
+    private class Entry implements Map.Entry<K, V> {
+        
+        private final int slot;
+        private final K key;
+        
+        private Entry(int slot) {
+            this.slot = slot;
+            this.key = keyAt(slot);
+        }
+        
+        @Override
+        public K getKey() {
+            return key;
+        }
+        
+        @Override
+        public V getValue() {
+            return valueAt(slot);
+        }
+        
+        @Override
+        public V setValue(V value) {
+            V old = valueAt(slot);
+            setValueAt(slot, value);
+            return old;
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            if(!(other instanceof Map.Entry))
+                return false;
+            
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) other;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(getValue());
+        }
+        
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
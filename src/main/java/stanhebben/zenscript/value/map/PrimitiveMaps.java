@@ -0,0 +1,73 @@
+package stanhebben.zenscript.value.map;
+
+import java.util.Map;
+
+/**
+ * Map accessors used by compiled scripts for associative arrays with int keys
+ * or values. They use the unboxed methods when the map is one of the
+ * primitive maps and fall back to the regular Map methods otherwise (for
+ * instance when the map was passed in from Java code).
+ */
+public class PrimitiveMaps {
+    
+    private PrimitiveMaps() {}
+    
+    public static Object get(Map<?, ?> map, int key) {
+        if(map instanceof IntObjectMap)
+            return ((IntObjectMap) map).get(key);
+        if(map instanceof IntIntMap)
+            return ((IntIntMap) map).get(key);
+        return map.get(key);
+    }
+    
+    /**
+     * Gets an int value, as used where an int[int] lookup is read as int.
+     * Like unboxing the value, this throws a NullPointerException if there
+     * is no value for the key or it is null.
+     */
+    public static int getInt(Map<?, ?> map, int key) {
+        if(map instanceof IntIntMap)
+            return ((IntIntMap) map).getInt(key);
+        return (Integer) map.get(key);
+    }
+    
+    /**
+     * Gets an int value, as used where an int[T] lookup is read as int.
+     * Like unboxing the value, this throws a NullPointerException if there
+     * is no value for the key or it is null.
+     */
+    public static int getInt(Map<?, ?> map, Object key) {
+        if(map instanceof ObjectIntMap)
+            return ((ObjectIntMap) map).getInt(key);
+        return (Integer) map.get(key);
+    }
+    
+    public static boolean containsKey(Map<?, ?> map, int key) {
+        if(map instanceof IntObjectMap)
+            return ((IntObjectMap) map).containsKey(key);
+        if(map instanceof IntIntMap)
+            return ((IntIntMap) map).containsKey(key);
+        return map.containsKey(key);
+    }
+    
+    public static void put(Map<? super Integer, Object> map, int key, Object value) {
+        if(map instanceof IntObjectMap)
+            ((IntObjectMap) map).put(key, value);
+        else
+            map.put(key, value);
+    }
+    
+    public static void put(Map<? super Integer, ? super Integer> map, int key, int value) {
+        if(map instanceof IntIntMap)
+            ((IntIntMap) map).put(key, value);
+        else
+            map.put(key, value);
+    }
+    
+    public static void put(Map<Object, ? super Integer> map, Object key, int value) {
+        if(map instanceof ObjectIntMap)
+            ((ObjectIntMap) map).put(key, value);
+        else
+            map.put(key, value);
+    }
+}
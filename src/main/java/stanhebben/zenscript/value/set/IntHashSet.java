@@ -0,0 +1,163 @@
+package stanhebben.zenscript.value.set;
+
+import java.util.*;
+
+/**
+ * Set of ints, used for sets of type set&lt;int&gt;. Values are stored in an
+ * open addressing table and found by linear probing, so lookups don't box the
+ * value and no entry objects are allocated.
+ * <p>
+ * The set implements java.util.Set, so it can be used anywhere a HashSet was
+ * used before. Null is not supported. Removing values through an iterator is
+ * not supported; use Set.remove instead.
+ */
+public class IntHashSet extends AbstractSet<Integer> {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private boolean[] filled;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public IntHashSet() {
+        this(0);
+    }
+
+    public IntHashSet(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while(capacity * 3 < expectedSize * 4) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    public boolean contains(int value) {
+        return find(value) >= 0;
+    }
+
+    public boolean add(int value) {
+        if(find(value) >= 0)
+            return false;
+
+        if((size + 1) * 4 > filled.length * 3) {
+            boolean[] oldFilled = filled;
+            int[] oldValues = values;
+            allocate(filled.length * 2);
+            for(int i = 0; i < oldFilled.length; i++) {
+                if(oldFilled[i])
+                    insert(oldValues[i]);
+            }
+        }
+        insert(value);
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int slot = find(value);
+        if(slot < 0)
+            return false;
+
+        // move values that were displaced by the removed one back, so lookups don't need tombstones
+        int free = slot;
+        int current = (slot + 1) & mask;
+        while(filled[current]) {
+            int ideal = mix(values[current]) & mask;
+            if(((current - ideal) & mask) >= ((current - free) & mask)) {
+                values[free] = values[current];
+                free = current;
+            }
+            current = (current + 1) & mask;
+        }
+        filled[free] = false;
+        size--;
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return value instanceof Integer && contains(((Integer) value).intValue());
+    }
+
+    @Override
+    public boolean add(Integer value) {
+        return add(value.intValue());
+    }
+
+    @Override
+    public boolean remove(Object value) {
+        return value instanceof Integer && remove(((Integer) value).intValue());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(filled, false);
+        size = 0;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+            private int next = advance(0);
+
+            private int advance(int slot) {
+                while(slot < filled.length && !filled[slot]) {
+                    slot++;
+                }
+                return slot;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < filled.length;
+            }
+
+            @Override
+            public Integer next() {
+                if(!hasNext())
+                    throw new NoSuchElementException();
+
+                int slot = next;
+                next = advance(slot + 1);
+                return values[slot];
+            }
+        };
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        filled = new boolean[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private void insert(int value) {
+        int slot = mix(value) & mask;
+        while(filled[slot]) {
+            slot = (slot + 1) & mask;
+        }
+        filled[slot] = true;
+        values[slot] = value;
+        size++;
+    }
+
+    private int find(int value) {
+        int slot = mix(value) & mask;
+        while(filled[slot]) {
+            if(values[slot] == value)
+                return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+}
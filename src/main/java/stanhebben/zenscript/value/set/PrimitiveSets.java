@@ -0,0 +1,27 @@
+package stanhebben.zenscript.value.set;
+
+import java.util.Set;
+
+/**
+ * Set accessors used by compiled scripts for sets of ints. They use the
+ * unboxed methods when the set is an IntHashSet and fall back to the regular
+ * Set methods otherwise (for instance when the set was passed in from Java
+ * code).
+ */
+public class PrimitiveSets {
+
+    private PrimitiveSets() {}
+
+    public static boolean contains(Set<?> set, int value) {
+        if(set instanceof IntHashSet)
+            return ((IntHashSet) set).contains(value);
+        return set.contains(value);
+    }
+
+    public static void add(Set<? super Integer> set, int value) {
+        if(set instanceof IntHashSet)
+            ((IntHashSet) set).add(value);
+        else
+            set.add(value);
+    }
+}
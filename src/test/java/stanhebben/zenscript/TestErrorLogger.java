@@ -7,9 +7,9 @@ import java.util.List;
 
 public class TestErrorLogger implements IZenErrorLogger {
     
-    final List<String> listInfo;
-    final List<String> listWarning;
-    final List<String> listError;
+    public final List<String> listInfo;
+    public final List<String> listWarning;
+    public final List<String> listError;
     
     TestErrorLogger() {
         listInfo = new ArrayList<>();
@@ -0,0 +1,49 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import stanhebben.zenscript.TestHelper;
+import stanhebben.zenscript.ZenModule;
+
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+public class TestAnyInvokeDynamic {
+
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+        ZenModule.useInvokeDynamic = true;
+    }
+
+    @AfterAll
+    public static void resetEnvironment() {
+        ZenModule.useInvokeDynamic = false;
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+    }
+
+    @Test
+    public void testFastPaths() {
+        TestHelper.run("val a = 5 as any; val b = 7 as any; print(a + b); print(a * b - 1); print(b / a); print(b % a); print(a < b);"
+                + "val d = 1.5 as any; print(d + d); print(d > d); val s = 'x' as any; print(s ~ s); print(s + s);");
+        assertMany("12", "34", "1", "2", "true", "3.0", "false", "xx", "xx");
+    }
+
+    @Test
+    public void testPolymorphicSite() {
+        TestHelper.run("function add(a as any, b as any) as any { return a + b; }"
+                + "print(add(1, 2)); print(add(1.5, 1.0)); print(add('a', 'b')); print(add(1, 2.5)); print(add(2 as long, 3)); print(add(1.5 as float, 1)); print(add(1, 2));");
+        assertMany("3", "2.5", "ab", "3", "5", "2.5", "3");
+    }
+
+    @Test
+    public void testUnaryAndCompare() {
+        TestHelper.run("val a = 3 as any; print(-a); print(!(true as any)); print(a == 3); print(a >= 4);");
+        assertMany("-3", "false", "true", "false");
+    }
+}
@@ -0,0 +1,128 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import stanhebben.zenscript.TestHelper;
+import stanhebben.zenscript.ZenModule;
+import stanhebben.zenscript.annotations.*;
+
+import java.io.IOException;
+
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+@SuppressWarnings("WeakerAccess")
+public class TestAnyNatives {
+    
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+        TestHelper.registry.registerGlobal("anyTester", TestHelper.registry.getStaticFunction(AnyTester.class, "create"));
+        TestHelper.registry.registerGlobal("anyTesterName", TestHelper.registry.getStaticFunction(AnyTester.class, "nameOf", AnyTester.class));
+    }
+    
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+    }
+    
+    @Test
+    public void testMemberGetSet() {
+        TestHelper.run("val a = anyTester() as any; print(a.name); a.name = 'changed'; print(a.name); a.count = 5; print(a.count + 1);");
+        assertMany("tester", "changed", "6");
+    }
+    
+    @Test
+    public void testMemberCall() {
+        TestHelper.run("val a = anyTester() as any; print(a.greet('world')); a.reset(); print(a.name);");
+        assertMany("Hello world from tester", "");
+    }
+    
+    @Test
+    public void testOverloads() {
+        TestHelper.run("val a = anyTester() as any; print(a.describe(3)); print(a.describe('x')); print(a.describe(1, 2));");
+        assertMany("int 3", "string x", "ints 3");
+    }
+    
+    @Test
+    public void testOperatorsAndCasts() {
+        TestHelper.run("val a = anyTester() as any; a.count = 4; print(a + 3); print(a as int); print(anyTesterName(a));");
+        assertMany("7", "4", "tester");
+    }
+    
+    @Test
+    public void testNestedMembers() {
+        TestHelper.run("val a = anyTester() as any; print(a.self.self.name);");
+        assertMany("tester");
+    }
+    
+    @Test
+    public void testAnyClassSharedBetweenModules() throws IOException {
+        TestHelper.run("val a = anyTester() as any; print(a.name);");
+        assertMany("tester");
+        ZenModule.compileScriptString("val b = anyTester() as any;", "other.zs", TestHelper.compileEnvironment, getClass().getClassLoader());
+        Assertions.assertFalse(ZenModule.classes.containsKey("any." + AnyTester.class.getName() + "Any"));
+    }
+    
+    @ZenClass("tests.internal.AnyTester")
+    @SuppressWarnings("unused")
+    public static final class AnyTester {
+        
+        @ZenProperty
+        public String name = "tester";
+        
+        @ZenProperty
+        public int count;
+        
+        @ZenMethod
+        public static AnyTester create() {
+            return new AnyTester();
+        }
+        
+        @ZenMethod
+        public static String nameOf(AnyTester tester) {
+            return tester.name;
+        }
+        
+        @ZenGetter("self")
+        public AnyTester getSelf() {
+            return this;
+        }
+        
+        @ZenMethod
+        public String greet(String other) {
+            return "Hello " + other + " from " + name;
+        }
+        
+        @ZenMethod
+        public void reset() {
+            name = "";
+        }
+        
+        @ZenMethod
+        public String describe(int value) {
+            return "int " + value;
+        }
+        
+        @ZenMethod
+        public String describe(String value) {
+            return "string " + value;
+        }
+        
+        @ZenMethod
+        public String describe(int a, int b) {
+            return "ints " + (a + b);
+        }
+        
+        @ZenOperator(OperatorType.ADD)
+        public int add(int value) {
+            return count + value;
+        }
+        
+        @ZenCaster
+        public int asInt() {
+            return count;
+        }
+    }
+}
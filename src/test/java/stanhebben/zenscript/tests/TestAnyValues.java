@@ -0,0 +1,65 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import stanhebben.zenscript.TestHelper;
+import stanhebben.zenscript.ZenModule;
+import stanhebben.zenscript.value.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+public class TestAnyValues {
+
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+    }
+
+    @Test
+    public void testArithmetic() {
+        TestHelper.run("val a = 5 as any; val b = 7 as any; print(a + b); print(a * b - 1); print(a ~ 'x'); print(a < b); val d = 1.5 as any; print(d + d);");
+        assertMany("12", "34", "5x", "true", "3.0");
+    }
+
+    @Test
+    public void testStringsAndBools() {
+        TestHelper.run("val s = 'hello' as any; print(s[1]); print(s ~ 1); val t = true as any; print(t); print(!t);");
+        assertMany("e", "hello1", "true", "false");
+    }
+
+    @Test
+    public void testUsesSharedClasses() {
+        TestHelper.run("val a = 1 as any; print(a + 1);");
+        assertMany("2");
+        assertFalse(ZenModule.classes.containsKey("any.AnyInt"));
+    }
+
+    @Test
+    public void testCaches() {
+        assertSame(AnyInt.valueOf(42), AnyInt.valueOf(40).add(AnyInt.valueOf(2)));
+        assertNotSame(AnyInt.valueOf(100000), AnyInt.valueOf(100000));
+        assertEquals(AnyInt.valueOf(100000), AnyInt.valueOf(100000));
+        assertSame(AnyBool.TRUE, AnyBool.valueOf(false).not());
+        assertSame(AnyString.EMPTY, AnyString.valueOf(""));
+        assertSame(AnyString.valueOf("e"), AnyString.valueOf("hello").indexGet(AnyInt.valueOf(1)));
+        assertSame(AnyDouble.valueOf(2.0), AnyDouble.valueOf(1.5).add(AnyDouble.valueOf(0.5)));
+        assertNotSame(AnyDouble.valueOf(0.0), AnyDouble.valueOf(-0.0));
+        assertEquals("-0.0", AnyDouble.valueOf(-0.0).asString());
+        assertSame(AnyByte.valueOf((byte) -100), AnyByte.valueOf((byte) 100).add(AnyByte.valueOf((byte) 56)));
+    }
+
+    @Test
+    public void testUnsupportedMembers() {
+        assertThrows(UnsupportedOperationException.class, () -> AnyInt.valueOf(1).memberGet("x"));
+        assertThrows(UnsupportedOperationException.class, () -> AnyInt.valueOf(1).range(AnyInt.valueOf(3)));
+        assertThrows(UnsupportedOperationException.class, () -> AnyString.valueOf("a").memberSet("x", AnyInt.valueOf(1)));
+        assertThrows(UnsupportedOperationException.class, () -> AnyBool.TRUE.memberCall("x"));
+    }
+}
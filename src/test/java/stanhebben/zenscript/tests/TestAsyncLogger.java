@@ -0,0 +1,110 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.*;
+import stanhebben.zenscript.*;
+import stanhebben.zenscript.impl.*;
+import stanhebben.zenscript.util.ZenPosition;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("WeakerAccess")
+public class TestAsyncLogger {
+
+    private static AsyncLogger scriptLogger;
+
+    @BeforeEach
+    public void beforeEach() {
+        ZenModule.classes.clear();
+        ZenModule.loadedClasses.clear();
+    }
+
+    @Test
+    public void testAllMessagesWrittenInOrder() throws InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(AsyncLogger logger = new AsyncLogger(new PrintStream(bytes), 16, 0)) {
+            List<Thread> threads = new ArrayList<>();
+            for(int t = 0; t < 4; t++) {
+                int thread = t;
+                threads.add(new Thread(() -> {
+                    for(int i = 0; i < 1000; i++) {
+                        logger.info(thread + ":" + i);
+                    }
+                }));
+            }
+            for(Thread thread : threads) {
+                thread.start();
+            }
+            for(Thread thread : threads) {
+                thread.join();
+            }
+            logger.flush();
+        }
+
+        List<String> lines = lines(bytes);
+        assertEquals(4000, lines.size());
+        int[] next = new int[4];
+        for(String line : lines) {
+            String[] parts = line.substring("[INFO] ".length()).split(":");
+            int thread = Integer.parseInt(parts[0]);
+            assertEquals(next[thread]++, Integer.parseInt(parts[1]));
+        }
+    }
+
+    @Test
+    public void testRepeatsAreRateLimited() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(AsyncErrorLogger logger = new AsyncErrorLogger(new PrintStream(bytes), 64, 10)) {
+            for(int i = 0; i < 1000; i++) {
+                logger.warning(null, "again");
+            }
+            logger.error(new ZenPosition(null, 3, 4, "test.zs"), "other");
+            logger.flush();
+
+            List<String> lines = lines(bytes);
+            assertEquals(12, lines.size());
+            assertEquals(10, Collections.frequency(lines, "system> again"));
+            assertTrue(lines.contains("system> again (repeated 990 more times)"));
+            assertTrue(lines.contains("test.zs:3> other"));
+        }
+    }
+
+    @Test
+    public void testLoggingAfterClose() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        AsyncErrorLogger logger = new AsyncErrorLogger(new PrintStream(bytes));
+        logger.error("before");
+        logger.close();
+        logger.error("after");
+
+        assertEquals(Arrays.asList("System> before", "System> after"), lines(bytes));
+    }
+
+    @Test
+    public void testModuleFlushesLoggers() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GenericCompileEnvironment compileEnvironment = new GenericCompileEnvironment();
+        GenericRegistry registry = new GenericRegistry(compileEnvironment, new GenericErrorLogger(System.err));
+        scriptLogger = new AsyncLogger(new PrintStream(bytes));
+        try {
+            registry.setLogger(scriptLogger);
+            registry.registerGlobal("log", registry.getStaticFunction(TestAsyncLogger.class, "log", String.class));
+
+            ZenModule.compileScriptString("for i in 0 .. 3 { log('line ' ~ i); }", "test.zs", compileEnvironment, TestAsyncLogger.class.getClassLoader()).getMain().run();
+            assertEquals(Arrays.asList("[INFO] line 0", "[INFO] line 1", "[INFO] line 2"), lines(bytes));
+        } finally {
+            scriptLogger.close();
+        }
+    }
+
+    public static void log(String message) {
+        scriptLogger.info(message);
+    }
+
+    private static List<String> lines(ByteArrayOutputStream bytes) {
+        String output = new String(bytes.toByteArray());
+        return output.isEmpty() ? Collections.emptyList() : Arrays.asList(output.split(System.lineSeparator()));
+    }
+}
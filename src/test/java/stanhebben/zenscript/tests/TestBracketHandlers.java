@@ -0,0 +1,242 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import stanhebben.zenscript.*;
+import stanhebben.zenscript.compiler.*;
+import stanhebben.zenscript.expression.*;
+import stanhebben.zenscript.expression.partial.IPartialExpression;
+import stanhebben.zenscript.impl.*;
+import stanhebben.zenscript.parser.Token;
+import stanhebben.zenscript.symbols.IZenSymbol;
+import stanhebben.zenscript.type.natives.*;
+import stanhebben.zenscript.util.ZenPosition;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+public class TestBracketHandlers {
+
+    private static final CountingHandler WORDS = new WordHandler();
+    private static final CountingHandler NUMBERS = new NumberHandler();
+    private static final AtomicInteger LOOKUPS = new AtomicInteger();
+
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+        TestHelper.registry.registerBracketHandler(WORDS);
+        TestHelper.registry.registerBracketHandler(NUMBERS);
+        TestHelper.registry.registerBracketHandler(new StableHandler());
+        TestHelper.registry.registerBracketHandler(new UnfilteredHandler());
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+        TestHelper.registry.clearBracketCache();
+        WORDS.calls.set(0);
+        NUMBERS.calls.set(0);
+        LOOKUPS.set(0);
+    }
+    
+    public static String lookup(String name) {
+        LOOKUPS.incrementAndGet();
+        if(name.equals("bad"))
+            throw new IllegalArgumentException("bad bracket");
+        return name;
+    }
+
+    @Test
+    public void testResolve() {
+        TestHelper.run("print(<word:hello>); print(<number:42>);");
+        assertMany("hello", "42");
+    }
+
+    @Test
+    public void testCache() {
+        TestHelper.run("for i in 0 .. 2 { print(<word:hello> ~ <word:hello> ~ <word:world>); }");
+        assertMany("hellohelloworld", "hellohelloworld");
+        assertEquals(2, WORDS.calls.get());
+    }
+
+    @Test
+    public void testPrefilter() {
+        TestHelper.run("print(<word:a>); print(<word:b>); print(<number:1>);");
+        assertMany("a", "b", "1");
+        assertEquals(2, WORDS.calls.get());
+        assertEquals(1, NUMBERS.calls.get());
+    }
+
+    @Test
+    public void testUnfilteredRegex() {
+        TestHelper.run("print(<unfiltered:x>);");
+        assertMany("x");
+    }
+
+    @Test
+    public void testCachePerModule() throws IOException {
+        ZenModule.compileScriptString("print(<word:a>);", "first.zs", TestHelper.compileEnvironment, getClass().getClassLoader());
+        ZenModule.compileScriptString("print(<word:a>);", "second.zs", TestHelper.compileEnvironment, getClass().getClassLoader());
+        assertEquals(2, WORDS.calls.get());
+    }
+
+    @Test
+    public void testUnresolved() {
+        TestHelper.run("print(<other:thing>);", false, true, true);
+        assertEquals(0, WORDS.calls.get());
+        assertEquals(0, NUMBERS.calls.get());
+    }
+
+    @Test
+    public void testFindBrackets() throws IOException {
+        List<List<Token>> brackets = ZenTokener.findBrackets("val a = <word:x>; if(1 < 2 && 3 > 1) print(<word:x> ~ <number:2>);");
+        assertEquals(2, brackets.size());
+        assertEquals("word", brackets.get(0).get(0).getValue());
+        assertEquals("number", brackets.get(1).get(0).getValue());
+    }
+
+    @Test
+    public void testBatch() throws IOException {
+        String script = "print(<word:a> ~ <word:b>); print(<number:3>);";
+        IEnvironmentGlobal environment = new EnvironmentGlobal(TestHelper.compileEnvironment, new HashMap<>(), new ClassNameGenerator());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            TestHelper.registry.resolveBrackets(environment, ZenTokener.findBrackets(script), executor);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(2, WORDS.calls.get());
+        assertEquals(1, NUMBERS.calls.get());
+
+        for(List<Token> tokens : ZenTokener.findBrackets(script)) {
+            assertNotNull(TestHelper.registry.resolveBracket(environment, tokens));
+        }
+        assertEquals(2, WORDS.calls.get());
+        assertEquals(1, NUMBERS.calls.get());
+    }
+
+    @Test
+    public void testStableBracket() {
+        TestHelper.run("function get() as string { return <stable:a>; } for i in 0 .. 3 { print(<stable:a>); } print(get() ~ <stable:b>);");
+        assertMany("a", "a", "a", "ab");
+        assertEquals(2, LOOKUPS.get());
+    }
+
+    @Test
+    public void testStableBracketInDeadBranch() {
+        TestHelper.run("print(<stable:good>); if(false) { print(<stable:bad>); }");
+        assertMany("good");
+        assertEquals(1, LOOKUPS.get());
+    }
+
+    @Test
+    public void testFailingStableBracket() {
+        TestHelper.run("print(<stable:good>); print(<stable:bad>);", false, true, true);
+        assertMany("good");
+        assertFalse(TestHelper.logger.listError.isEmpty());
+    }
+
+    @BracketHandler
+    private static final class StableHandler implements IBracketHandler {
+
+        @Override
+        public IZenSymbol resolve(IEnvironmentGlobal environment, List<Token> tokens) {
+            if(tokens.size() != 3 || !tokens.get(0).getValue().equals("stable"))
+                return null;
+            IJavaMethod method = JavaMethod.get(environment, TestBracketHandlers.class, "lookup", String.class);
+            String value = tokens.get(2).getValue();
+            return new IZenSymbol() {
+                @Override
+                public IPartialExpression instance(ZenPosition position) {
+                    return new ExpressionCallStatic(position, environment, method, new ExpressionString(position, value));
+                }
+
+                @Override
+                public boolean isStable() {
+                    return true;
+                }
+            };
+        }
+
+        @Override
+        public String getRegexMatchingString() {
+            return "stable:.*";
+        }
+    }
+
+    @BracketHandler
+    private static final class UnfilteredHandler implements IBracketHandler {
+
+        @Override
+        public IZenSymbol resolve(IEnvironmentGlobal environment, List<Token> tokens) {
+            if(tokens.size() != 3 || !tokens.get(0).getValue().equals("unfiltered"))
+                return null;
+            String value = tokens.get(2).getValue();
+            return position -> new ExpressionString(position, value);
+        }
+
+        @Override
+        public String getRegexMatchingString() {
+            // written for the tokens separated by spaces, so it must not be used to skip the handler
+            return "unfiltered : .*";
+        }
+    }
+
+    private abstract static class CountingHandler implements IBracketHandler {
+
+        private final String regex;
+        private final boolean threadSafe;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingHandler(String regex, boolean threadSafe) {
+            this.regex = regex;
+            this.threadSafe = threadSafe;
+        }
+
+        @Override
+        public IZenSymbol resolve(IEnvironmentGlobal environment, List<Token> tokens) {
+            calls.incrementAndGet();
+            if(tokens.size() != 3)
+                return null;
+            String value = tokens.get(2).getValue();
+            return position -> new ExpressionString(position, value);
+        }
+
+        @Override
+        public String getRegexMatchingString() {
+            return regex;
+        }
+
+        @Override
+        public boolean isRegexFiltered() {
+            return true;
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return threadSafe;
+        }
+    }
+
+    @BracketHandler
+    private static final class WordHandler extends CountingHandler {
+
+        WordHandler() {
+            super("word:.*", true);
+        }
+    }
+
+    @BracketHandler
+    private static final class NumberHandler extends CountingHandler {
+
+        NumberHandler() {
+            super("number:.*", false);
+        }
+    }
+}
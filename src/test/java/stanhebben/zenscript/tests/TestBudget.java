@@ -0,0 +1,68 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import stanhebben.zenscript.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+public class TestBudget {
+
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+        ZenModule.budgets = true;
+    }
+
+    @AfterAll
+    public static void resetEnvironment() {
+        ZenModule.budgets = false;
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+    }
+
+    @Test
+    public void testWithinBudget() {
+        Runnable main = compile("var sum = 0; for i in 0 .. 100 { sum += i; } print(sum);").getMain(ZenBudget.steps(1000));
+        main.run();
+        main.run();
+        assertMany("4950", "4950");
+    }
+
+    @Test
+    public void testStepBudget() {
+        Runnable main = compile("var i = 0; while true { i += 1; }").getMain(ZenBudget.steps(100000));
+        ZenBudgetExceededException ex = assertThrows(ZenBudgetExceededException.class, main::run);
+        assertTrue(ex.getMessage().contains("100000 steps"));
+    }
+
+    @Test
+    public void testTimeBudget() {
+        Runnable main = compile("function spin(n as int) as int { return n > 0 ? spin(n - 1) : 0; } while true { spin(10); }").getMain(ZenBudget.time(50, TimeUnit.MILLISECONDS));
+        assertThrows(ZenBudgetExceededException.class, main::run);
+    }
+
+    @Test
+    public void testNoBudget() {
+        compile("var sum = 0; for i in 0 .. 100000 { sum += 1; } print(sum);").getMain().run();
+        assertMany("100000");
+    }
+
+    private static ZenModule compile(String content) {
+        try {
+            return ZenModule.compileScriptString(content, "test.zs", TestHelper.compileEnvironment, TestBudget.class.getClassLoader());
+        } catch(IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
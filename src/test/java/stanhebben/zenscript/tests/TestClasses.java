@@ -4,7 +4,9 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import stanhebben.zenscript.TestHelper;
+import stanhebben.zenscript.annotations.ZenClass;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static stanhebben.zenscript.TestAssertions.assertMany;
 
 @SuppressWarnings("WeakerAccess")
@@ -13,6 +15,12 @@ public class TestClasses {
     @BeforeAll
     public static void setupEnvironment() {
         TestHelper.setupEnvironment();
+        TestHelper.registry.registerGlobal("visitTwice", TestHelper.registry.getStaticFunction(TestClasses.class, "visitTwice", Visitor.class, Object.class));
+    }
+    
+    public static void visitTwice(Visitor<Object> visitor, Object value) {
+        visitor.visit(value);
+        visitor.visit(value);
     }
     
     @BeforeEach
@@ -69,4 +77,53 @@ public class TestClasses {
                 + "name().method(10, 20);");
         assertMany("a: 30", "b: 1020");
     }
+    
+    @Test
+    public void testCollections() {
+        TestHelper.run("zenClass box {var value as int; zenConstructor(v as int) {value = v;} function get() as int {return value;}} \n"
+                + "val boxes = [box(1), box(2)] as box[]; \n"
+                + "for b in boxes print(b.get()); \n"
+                + "val list = boxes as [box]; \n"
+                + "print(list[1].get()); \n"
+                + "val named = {'a': box(3)} as box[string]; \n"
+                + "for key, b in named print(key ~ b.get()); \n"
+                + "print(named.a.get());");
+        
+        assertMany("1", "2", "2", "a3", "3");
+    }
+    
+    @Test
+    public void testMethod_zenClassArgument() {
+        TestHelper.run("zenClass box {zenConstructor() {} function describe() as string {return 'box';}} \n"
+                + "zenClass printer {zenConstructor() {} \n"
+                + "function show(a as int) {print('int: ' ~ a);} \n"
+                + "function show(a as box) {print('box: ' ~ a.describe());}} \n"
+                + "printer().show(box()); \n"
+                + "printer().show(3);");
+        
+        assertMany("box: box", "int: 3");
+    }
+    
+    @Test
+    public void testGenericLambda_zenClassArgument() {
+        TestHelper.run("zenClass box {zenConstructor() {} function describe() as string {return 'box';}} \n"
+                + "visitTwice(function(b as box) {print(b.describe());}, box());");
+        
+        assertMany("box", "box");
+    }
+    
+    @Test
+    public void testFunctionCast_zenClass() {
+        TestHelper.run("zenClass box {zenConstructor() {}} \n"
+                + "val f = function(a as int) as int {return a;}; \n"
+                + "val b = f as box;", false, true, true);
+        
+        assertTrue(TestHelper.logger.listError.stream().anyMatch(error -> error.contains("Cannot cast")), TestHelper.logger.listError.toString());
+    }
+    
+    @ZenClass("tests.classes.Visitor")
+    @FunctionalInterface
+    public interface Visitor<T> {
+        void visit(T value);
+    }
 }
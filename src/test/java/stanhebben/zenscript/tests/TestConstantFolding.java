@@ -0,0 +1,93 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import stanhebben.zenscript.*;
+import stanhebben.zenscript.compiler.*;
+
+import java.io.IOException;
+import java.util.*;
+
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+@SuppressWarnings("WeakerAccess")
+public class TestConstantFolding {
+
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+    }
+
+    @Test
+    public void testArithmetic() {
+        TestHelper.run("print(1 + 2 * 3); print(-(7 % 4)); print(2147483647 + 1); print(7 / 2); print(1.5 * 2.0);");
+        assertMany("7", "-3", "-2147483648", "3", "3.0");
+    }
+
+    @Test
+    public void testDivisionByZeroIsNotFolded() {
+        TestHelper.run("print(1 / 0);", false, true, true);
+        Assertions.assertTrue(TestHelper.prints.isEmpty());
+    }
+
+    @Test
+    public void testStringConcat() {
+        TestHelper.run("val x = 'c'; print('a' ~ 'b' ~ x ~ 'd' ~ 1 ~ true); print('n' ~ 1 + 2);");
+        assertMany("abcd1true", "n12");
+    }
+
+    @Test
+    public void testComparisons() {
+        TestHelper.run("print(1 < 2); print(2.0 <= 1.0); print('a' == 'a'); print('a' ~ 'b' != 'ab'); print(true == false);");
+        assertMany("true", "false", "true", "false", "false");
+    }
+
+    @Test
+    public void testShortCircuit() {
+        TestHelper.run("val x = true; print(false && x); print(true && x); print(true || x); print(x || false);");
+        assertMany("false", "true", "true", "true");
+    }
+
+    @Test
+    public void testIfPruning() {
+        TestHelper.run("if(1 > 2) {print('a');} else {print('b');} if(true) print('c'); if(false) print('d'); print(1 == 1 ? 'e' : 'f');");
+        assertMany("b", "c", "e");
+    }
+
+    @Test
+    public void testLoops() {
+        TestHelper.run("for s in ['a' ~ 'b', 'c'] { print(s); } var n = 0; while(n < 1 + 1) { print('n' ~ n); n += 1; }");
+        assertMany("ab", "c", "n0", "n1");
+    }
+
+    @Test
+    public void testDeadBranchIsChecked() {
+        TestHelper.run("if(false) { print(undefinedThing); }", false, true, true);
+        Assertions.assertTrue(TestHelper.logger.listError.stream().anyMatch(error -> error.endsWith("could not find undefinedThing")), TestHelper.logger.listError.toString());
+        TestHelper.beforeEach();
+        TestHelper.run("if(true) { var a = 1; print(a); } else { var a = 'x'; var b = a ~ 'y'; print(b); for i in 0 .. 2 { print(i); } }");
+        assertMany("1");
+    }
+
+    @Test
+    public void testDeadBranchGeneratesNoClasses() throws IOException {
+        Map<String, byte[]> classes = new HashMap<>();
+        EnvironmentGlobal environment = new EnvironmentGlobal(TestHelper.compileEnvironment, classes, new ClassNameGenerator());
+        ZenTokener tokener = new ZenTokener("if(false) { val f = function(a as int) as int {return a;}; print(f(1)); }", TestHelper.compileEnvironment, "dead.zs", false);
+        ZenModule.compileScripts("dead.zs", Collections.singletonList(new ZenParsedFile("dead.zs", "dead", tokener, environment)), environment, false);
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("__ZenMain__", "dead")), classes.keySet());
+    }
+
+    @Test
+    public void testStaticInlining() {
+        TestHelper.run("static a as int = 2 * 3; static b as string = 'x' ~ a; print(a + 1); print(b);");
+        assertMany("7", "x6");
+    }
+}
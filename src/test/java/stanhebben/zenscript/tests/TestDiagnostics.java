@@ -0,0 +1,139 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.*;
+import stanhebben.zenscript.*;
+import stanhebben.zenscript.diagnostics.*;
+import stanhebben.zenscript.impl.*;
+import stanhebben.zenscript.util.ZenPosition;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("WeakerAccess")
+public class TestDiagnostics {
+
+    @BeforeEach
+    public void beforeEach() {
+        ZenModule.classes.clear();
+        ZenModule.loadedClasses.clear();
+    }
+
+    @Test
+    public void testDuplicatesReportedOnce() {
+        RecordingLogger logger = new RecordingLogger();
+        DiagnosticCollector collector = new DiagnosticCollector(logger, 0);
+        ZenPosition position = new ZenPosition(null, 1, 2, "test.zs");
+
+        assertTrue(collector.report(Diagnostic.error(position, DiagnosticCode.NO_SUCH_MEMBER, "a")));
+        assertFalse(collector.report(Diagnostic.error(position, DiagnosticCode.NO_SUCH_MEMBER, "a")));
+        assertTrue(collector.report(Diagnostic.error(position, DiagnosticCode.NO_SUCH_MEMBER, "b")));
+        assertTrue(collector.report(Diagnostic.warning(position, DiagnosticCode.NO_SUCH_MEMBER, "a")));
+
+        assertEquals(3, logger.diagnostics.size());
+        assertEquals("No such member: a", logger.diagnostics.get(0).getMessage());
+        assertTrue(collector.hasErrors());
+    }
+
+    @Test
+    public void testSuppressedDiagnosticsAreNotFormatted() {
+        RecordingLogger logger = new RecordingLogger();
+        DiagnosticCollector collector = new DiagnosticCollector(logger, 2);
+        AtomicInteger formatted = new AtomicInteger();
+        for(int i = 1; i <= 10; i++) {
+            ZenPosition position = new ZenPosition(null, i, 0, "test.zs");
+            collector.report(Diagnostic.error(position, DiagnosticCode.NO_MATCHING_METHOD, Diagnostic.lazy(() -> "message " + formatted.incrementAndGet())));
+        }
+        collector.report(Diagnostic.error(new ZenPosition(null, 1, 0, "other.zs"), DiagnosticCode.MESSAGE, "other"));
+
+        assertEquals(3, logger.diagnostics.size());
+        assertEquals(8, collector.getSuppressedCount());
+        assertEquals(0, formatted.get());
+        assertEquals("message 1", logger.diagnostics.get(0).getMessage());
+        assertEquals(1, formatted.get());
+
+        collector.finish();
+        Diagnostic summary = logger.diagnostics.get(logger.diagnostics.size() - 1);
+        assertEquals(DiagnosticCode.DIAGNOSTICS_SUPPRESSED, summary.getCode());
+        assertEquals(Diagnostic.Severity.ERROR, summary.getSeverity());
+        assertEquals("8 more diagnostics in test.zs were suppressed", summary.getMessage());
+    }
+
+    @Test
+    public void testDuplicatesAreNotCountedAsSuppressed() {
+        RecordingLogger logger = new RecordingLogger();
+        DiagnosticCollector collector = new DiagnosticCollector(logger, 2);
+        for(int i = 1; i <= 3; i++) {
+            for(int j = 0; j < 3; j++) {
+                collector.report(Diagnostic.error(new ZenPosition(null, i, 0, "test.zs"), DiagnosticCode.MESSAGE, "error"));
+            }
+        }
+
+        assertEquals(2, logger.diagnostics.size());
+        assertEquals(1, collector.getSuppressedCount());
+    }
+
+    @Test
+    public void testWarningsDontSuppressErrors() {
+        RecordingLogger logger = new RecordingLogger();
+        DiagnosticCollector collector = new DiagnosticCollector(logger, 2);
+        for(int i = 1; i <= 5; i++) {
+            collector.report(Diagnostic.warning(new ZenPosition(null, i, 0, "test.zs"), DiagnosticCode.MESSAGE, "warning"));
+        }
+        assertTrue(collector.report(Diagnostic.error(new ZenPosition(null, 6, 0, "test.zs"), DiagnosticCode.MESSAGE, "error")));
+        assertTrue(collector.hasErrors());
+
+        collector.finish();
+        Diagnostic summary = logger.diagnostics.get(logger.diagnostics.size() - 1);
+        assertEquals(Diagnostic.Severity.WARNING, summary.getSeverity());
+        assertEquals("3 more diagnostics in test.zs were suppressed", summary.getMessage());
+    }
+
+    @Test
+    public void testLazyArgumentsAreCompared() {
+        RecordingLogger logger = new RecordingLogger();
+        DiagnosticCollector collector = new DiagnosticCollector(logger, 0);
+        ZenPosition position = new ZenPosition(null, 1, 2, "test.zs");
+
+        assertTrue(collector.report(Diagnostic.error(position, DiagnosticCode.NO_MATCHING_METHOD, Diagnostic.lazy(() -> "a"))));
+        assertTrue(collector.report(Diagnostic.error(position, DiagnosticCode.NO_MATCHING_METHOD, Diagnostic.lazy(() -> "b"))));
+        assertFalse(collector.report(Diagnostic.error(position, DiagnosticCode.NO_MATCHING_METHOD, Diagnostic.lazy(() -> "a"))));
+        assertEquals(2, logger.diagnostics.size());
+    }
+
+    @Test
+    public void testCompileRoutesErrorsThroughDiagnostics() throws IOException {
+        RecordingLogger logger = new RecordingLogger();
+        GenericCompileEnvironment compileEnvironment = new GenericCompileEnvironment();
+        GenericRegistry registry = new GenericRegistry(compileEnvironment, logger);
+        registry.registerGlobal("root", registry.getRoot());
+
+        StringBuilder script = new StringBuilder();
+        for(int i = 0; i < ZenModule.maxDiagnosticsPerFile + 50; i++) {
+            script.append("var a").append(i).append(" = root.missing").append(i).append(";\n");
+        }
+        ZenModule.compileScriptString(script.toString(), "broken.zs", compileEnvironment, TestDiagnostics.class.getClassLoader());
+
+        List<Diagnostic> reported = logger.diagnostics;
+        assertEquals(ZenModule.maxDiagnosticsPerFile + 1, reported.size());
+        assertEquals(DiagnosticCode.NO_SUCH_MEMBER, reported.get(0).getCode());
+        assertEquals("No such member: missing0", reported.get(0).getMessage());
+        assertEquals(DiagnosticCode.DIAGNOSTICS_SUPPRESSED, reported.get(reported.size() - 1).getCode());
+    }
+
+    private static class RecordingLogger extends GenericErrorLogger {
+
+        private final List<Diagnostic> diagnostics = new ArrayList<>();
+
+        RecordingLogger() {
+            super(System.err);
+        }
+
+        @Override
+        public void report(Diagnostic diagnostic) {
+            diagnostics.add(diagnostic);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package stanhebben.zenscript.tests;
+
+import com.google.gson.*;
+import org.junit.jupiter.api.*;
+import stanhebben.zenscript.TestHelper;
+import stanhebben.zenscript.annotations.*;
+import stanhebben.zenscript.dump.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("WeakerAccess")
+public class TestDump {
+    
+    private static List<? extends IDumpable> dumpables;
+    private static JsonElement tree;
+    
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+        TestHelper.registry.registerNativeClass(Dumped.class);
+        TestHelper.registry.registerNativeClass(Other.class);
+        
+        dumpables = TestHelper.registry.getRoot().asDumpedObject();
+        tree = DumpWriter.GSON.toJsonTree(dumpables);
+    }
+    
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+    }
+    
+    @Test
+    public void testStreamingMatchesTree() throws IOException {
+        StringWriter output = new StringWriter();
+        DumpWriter.writeJson(dumpables, output);
+        
+        assertEquals(tree, new JsonParser().parse(output.toString()));
+        assertTrue(output.toString().contains("\"operators\""));
+    }
+    
+    @Test
+    public void testParallelMatchesSequential() throws IOException {
+        StringWriter sequential = new StringWriter();
+        DumpWriter.writeJson(dumpables, sequential);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            StringWriter parallel = new StringWriter();
+            DumpWriter.writeJson(dumpables, parallel, executor);
+            assertEquals(sequential.toString(), parallel.toString());
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    public void testBinaryRoundTrip() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DumpWriter.writeBinary(dumpables, output);
+        BinaryDumpReader reader = new BinaryDumpReader(ByteBuffer.wrap(output.toByteArray()));
+        
+        assertEquals(dumpables.size(), reader.size());
+        for(int i = 0; i < reader.size(); i++) {
+            JsonObject expected = tree.getAsJsonArray().get(i).getAsJsonObject();
+            assertEquals(expected, reader.read(i));
+            assertEquals(expected.get("zsPath").getAsString(), reader.getString(i, "zsPath"));
+        }
+        
+        StringWriter json = new StringWriter();
+        reader.writeJson(json);
+        assertEquals(tree, new JsonParser().parse(json.toString()));
+    }
+    
+    @Test
+    public void testBinaryFile() throws IOException {
+        File file = File.createTempFile("dump", ".bin");
+        file.deleteOnExit();
+        try(OutputStream output = new FileOutputStream(file)) {
+            DumpWriter.writeBinary(dumpables, output);
+        }
+        
+        BinaryDumpReader reader = BinaryDumpReader.open(file);
+        assertEquals(dumpables.size(), reader.size());
+        assertEquals(tree.getAsJsonArray().get(0), reader.read(0));
+        assertThrows(IOException.class, () -> new BinaryDumpReader(ByteBuffer.wrap(new byte[32])));
+    }
+    
+    @ZenClass("tests.Dumped")
+    public static class Dumped {
+        
+        private int value;
+        
+        @ZenMethod
+        public static Dumped create(int value) {
+            Dumped result = new Dumped();
+            result.value = value;
+            return result;
+        }
+        
+        @ZenGetter("value")
+        public int getValue() {
+            return value;
+        }
+        
+        @ZenSetter("value")
+        public void setValue(int value) {
+            this.value = value;
+        }
+        
+        @ZenMethod
+        public String describe(String prefix) {
+            return prefix + value;
+        }
+        
+        @ZenOperator(OperatorType.ADD)
+        public Dumped add(Dumped other) {
+            return create(value + other.value);
+        }
+        
+        @ZenOperator(OperatorType.NEG)
+        public Dumped negate() {
+            return create(-value);
+        }
+        
+        @ZenCaster
+        public String asString() {
+            return Integer.toString(value);
+        }
+    }
+    
+    @ZenClass("tests.Other")
+    public static class Other {
+        
+        @ZenMethod
+        public static double half(double value) {
+            return value / 2;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import stanhebben.zenscript.TestHelper;
+
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+public class TestIfChainSwitch {
+
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+    }
+
+    @Test
+    public void testDenseIntChain() {
+        TestHelper.run("for i in 0 .. 5 { if(i == 1) print('one'); else if(i == 2) print('two'); else if(3 == i) print('three'); else print('other ' ~ i); }");
+        assertMany("other 0", "one", "two", "three", "other 4");
+    }
+
+    @Test
+    public void testSparseIntChain() {
+        TestHelper.run("function name(x as int) as string { if(x == -1000) return 'low'; else if(x == 7) return 'seven'; else if(x == 100000) return 'high'; return 'none'; } print(name(-1000)); print(name(7)); print(name(100000)); print(name(8));");
+        assertMany("low", "seven", "high", "none");
+    }
+
+    @Test
+    public void testStringChain() {
+        TestHelper.run("for s in ['a', 'Aa', 'BB', 'c'] as string[] { if(s == 'a') print('first'); else if(s == 'Aa') print('second'); else if(s == 'BB') print('third'); }");
+        assertMany("first", "second", "third");
+    }
+
+    @Test
+    public void testDuplicateAndMixedChain() {
+        TestHelper.run("for i in 0 .. 4 { if(i == 1) print('a'); else if(i == 2) print('b'); else if(i == 1) print('c'); else if(i > 2) print('big'); else print('zero'); }");
+        assertMany("zero", "a", "b", "big");
+    }
+}
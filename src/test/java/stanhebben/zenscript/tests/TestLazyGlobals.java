@@ -0,0 +1,58 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import stanhebben.zenscript.*;
+
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+public class TestLazyGlobals {
+
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+        TestHelper.registry.registerGlobal("init", TestHelper.registry.getStaticFunction(TestLazyGlobals.class, "init", String.class));
+        ZenModule.lazyGlobals = true;
+    }
+
+    @AfterAll
+    public static void resetEnvironment() {
+        ZenModule.lazyGlobals = false;
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+    }
+
+    public static String init(String name) {
+        TestHelper.print("init " + name);
+        return name;
+    }
+
+    @Test
+    public void testOnlyReadGlobalsInitialized() {
+        TestHelper.run("static a as string = init('a'); static b as string = init('b'); global c as string = init('c'); print('start'); print(b); print(b);");
+        assertMany("start", "init b", "b", "b");
+    }
+
+    @Test
+    public void testGlobalReferencesGlobal() {
+        TestHelper.run("static a as string = init('a'); static b as string = a ~ init('b'); print(b);");
+        assertMany("init a", "init b", "ab");
+    }
+
+    @Test
+    public void testAssignedGlobal() {
+        TestHelper.run("static counter as int = 1; counter += 2; print(counter); function bump() { counter = counter * 10; } bump(); print(counter);");
+        assertMany("3", "30");
+    }
+
+    @Test
+    public void testConstantGlobal() {
+        TestHelper.run("static size as int = 42; print(size);");
+        assertMany("42");
+    }
+}
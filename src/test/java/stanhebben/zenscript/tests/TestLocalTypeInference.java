@@ -0,0 +1,63 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import stanhebben.zenscript.TestHelper;
+
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+public class TestLocalTypeInference {
+
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+    }
+
+    @Test
+    public void testLoopAccumulator() {
+        TestHelper.run("var total; total = 0; for i in 0 .. 10 { total += i; } print(total); print(total / 4);");
+        assertMany("45", "11");
+    }
+
+    @Test
+    public void testDoubleAndString() {
+        TestHelper.run("var f; f = 1.5; while(f < 10.0) { f = f * 2.0; } print(f); var s; s = 'a'; for i in 0 .. 3 { s ~= 'b'; } print(s);");
+        assertMany("12.0", "abbb");
+    }
+
+    @Test
+    public void testMixedAssignmentsStayAny() {
+        TestHelper.run("var m; m = 1; print(m); m = 'x'; print(m); var n; n = 2; n ~= 'y'; print(n);");
+        assertMany("1", "x", "2y");
+    }
+
+    @Test
+    public void testNestedBlocksAndFunctions() {
+        TestHelper.run("function sum(n as int) as int { var r; r = 0; for i in 0 .. n { r += i; } return r; } print(sum(5)); if(true) { var c; c = 3; c *= 2; print(c); }");
+        assertMany("10", "6");
+    }
+
+    @Test
+    public void testNumericJoin() {
+        TestHelper.run("var x; x = 3; x = x / 2; print(x); if(true) { x = 0.5; }");
+        assertMany("1.5");
+    }
+
+    @Test
+    public void testDependentLocals() {
+        TestHelper.run("var a; a = 1; var b = a; b = 2.5; print(b); var c = a + 1; c = 'x'; print(c);");
+        assertMany("2.5", "x");
+    }
+
+    @Test
+    public void testAssignedInNestedBlock() {
+        TestHelper.run("var x; x = 1; for i in 0 .. 3 { if(i == 2) { x = 1.5 * x; } else { x += 1; } } print(x);");
+        assertMany("4.5");
+    }
+}
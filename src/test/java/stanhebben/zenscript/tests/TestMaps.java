@@ -2,9 +2,11 @@ package stanhebben.zenscript.tests;
 
 import org.junit.jupiter.api.*;
 import stanhebben.zenscript.*;
+import stanhebben.zenscript.value.map.*;
 
 import java.util.*;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static stanhebben.zenscript.TestAssertions.assertMany;
 
 public class TestMaps {
@@ -37,4 +39,75 @@ public class TestMaps {
         TestHelper.run(joiner.toString());
         assertMany("[outer][inner][10.0]");
     }
+    
+    @Test
+    public void Test_IntKeyedMaps() {
+        TestHelper.run("val a = {1: 2, 3: 4} as int[int]; val b = {1: 'x'} as string[int]; val c = {x: 5} as int[string];"
+                + "for i in 0 .. 100 { a[i * 7] = i; b[i] = 's' ~ i; c['k' ~ i] = i; }"
+                + "print(a[7]); print(a[3]); print(a.length); print(a in 3); print(a in 1000); print(b[99]); print(b.length); print(c.x); print(c['k42']);");
+        assertMany("1", "4", "102", "true", "false", "s99", "100", "5", "42");
+    }
+    
+    @Test
+    public void Test_IntKeyedMapIteration() {
+        TestHelper.run("val a = {1: 10, 2: 20, 3: 30} as int[int]; var keys = 0; var values = 0; for k, v in a { keys += k; values += v; } for k in a { keys += k; } print(keys); print(values);");
+        assertMany("12", "60");
+    }
+    
+    @Test
+    public void Test_LargeConstantMap() {
+        final StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        for(int i = 0; i < 100; i++) {
+            joiner.add(i + ": 'v" + i + "'");
+        }
+        TestHelper.run("val map = " + joiner + " as string[int]; map[100] = 'x'; print(map[0]); print(map[99]); print(map[100]); print(map.length);");
+        assertMany("v0", "v99", "x", "101");
+    }
+    
+    @Test
+    public void testPrimitiveMapIteratorRemove() {
+        Random random = new Random(42);
+        for(int round = 0; round < 50; round++) {
+            IntIntMap map = new IntIntMap();
+            Map<Integer, Integer> expected = new HashMap<>();
+            for(int i = 0; i < 200; i++) {
+                int key = random.nextInt(1000) - 500;
+                map.put(key, i);
+                expected.put(key, i);
+            }
+            
+            int modulo = 2 + round % 5;
+            map.keySet().removeIf(key -> Math.floorMod(key, modulo) == 0);
+            expected.keySet().removeIf(key -> Math.floorMod(key, modulo) == 0);
+            assertEquals(expected, map);
+            
+            List<Integer> seen = new ArrayList<>();
+            for(Iterator<Map.Entry<Integer, Integer>> iterator = map.entrySet().iterator(); iterator.hasNext(); ) {
+                seen.add(iterator.next().getKey());
+                iterator.remove();
+            }
+            assertTrue(map.isEmpty());
+            assertEquals(expected.size(), seen.size());
+            assertEquals(expected.keySet(), new HashSet<>(seen));
+        }
+        
+        ObjectIntMap strings = new ObjectIntMap();
+        strings.put("a", 1);
+        strings.put("b", 2);
+        strings.put("c", 3);
+        strings.values().removeIf(value -> value == 2);
+        assertEquals(2, strings.size());
+        assertFalse(strings.containsKey("b"));
+        assertThrows(IllegalStateException.class, () -> strings.entrySet().iterator().remove());
+    }
+    
+    @Test
+    public void testUnboxedIntValues() {
+        TestHelper.run("val a = {1: 10, 2: 20} as int[int]; val b = {'x': 5} as int[string]; print(a[2] + a[1]); print(a[1] * b.x);");
+        assertMany("30", "50");
+        TestHelper.beforeEach();
+        TestHelper.run("val a = {1: 10} as int[int]; print(a[3] + 1);", false, true, true);
+        assertTrue(TestHelper.prints.isEmpty(), TestHelper.prints.toString());
+        assertTrue(TestHelper.logger.listError.stream().anyMatch(error -> error.endsWith("No int value for key 3")), TestHelper.logger.listError.toString());
+    }
 }
@@ -0,0 +1,68 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import stanhebben.zenscript.*;
+import stanhebben.zenscript.compiler.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+public class TestModuleMemory {
+
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+    }
+
+    @Test
+    public void testParseTreeReleased() throws IOException {
+        Map<String, byte[]> classes = new HashMap<>();
+        EnvironmentGlobal environment = new EnvironmentGlobal(TestHelper.compileEnvironment, classes, new ClassNameGenerator());
+        ZenTokener tokener = new ZenTokener(new StringReader("function add(a as int, b as int) as int { return a + b; } print(add(1, 2));"), TestHelper.compileEnvironment, "memory.zs", false);
+        ZenParsedFile file = new ZenParsedFile("memory.zs", "memory", tokener, environment);
+        assertFalse(file.getStatements().isEmpty());
+        assertFalse(file.getFunctions().isEmpty());
+
+        ZenModule.compileScripts("memory.zs", Collections.singletonList(file), environment, false);
+        assertTrue(file.getStatements().isEmpty());
+        assertTrue(file.getFunctions().isEmpty());
+
+        new ZenModule(classes, TestModuleMemory.class.getClassLoader()).getMain().run();
+        assertMany("3");
+    }
+
+    @Test
+    public void testBytecodeReleased() throws IOException {
+        ZenModule module = ZenModule.compileScriptString("print('hello');", "released.zs", TestHelper.compileEnvironment, TestModuleMemory.class.getClassLoader());
+        assertTrue(ZenModule.classes.containsKey("Released"));
+        assertFalse(ZenModule.classes.containsKey("__ZenMain__"));
+
+        Runnable main = module.getMain();
+        main.run();
+        assertFalse(ZenModule.classes.containsKey("Released"));
+        assertTrue(ZenModule.loadedClasses.containsKey("Released"));
+
+        module.getMain().run();
+        assertMany("hello", "hello");
+    }
+
+    @Test
+    public void testModulesKeepTheirMain() throws IOException {
+        ZenModule first = ZenModule.compileScriptString("print('first');", "first.zs", TestHelper.compileEnvironment, TestModuleMemory.class.getClassLoader());
+        ZenModule second = ZenModule.compileScriptString("print('second');", "second.zs", TestHelper.compileEnvironment, TestModuleMemory.class.getClassLoader());
+        first.getMain().run();
+        second.getMain().run();
+        assertMany("first", "second");
+    }
+}
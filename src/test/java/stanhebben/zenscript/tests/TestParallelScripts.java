@@ -0,0 +1,103 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import stanhebben.zenscript.*;
+import stanhebben.zenscript.annotations.ZenThreadSafe;
+import stanhebben.zenscript.compiler.*;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+public class TestParallelScripts {
+
+    private static final List<String> records = Collections.synchronizedList(new ArrayList<>());
+    private static ExecutorService executor;
+
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+        TestHelper.registry.registerGlobal("record", TestHelper.registry.getStaticFunction(TestParallelScripts.class, "record", String.class));
+        TestHelper.registry.registerGlobal("fail", TestHelper.registry.getStaticFunction(TestParallelScripts.class, "fail", String.class));
+        TestHelper.registry.registerGlobal("hashOf", TestHelper.registry.getStaticFunction(Objects.class, "hashCode", Object.class));
+        executor = Executors.newFixedThreadPool(4);
+        ZenModule.parallelScripts = true;
+    }
+
+    @AfterAll
+    public static void resetEnvironment() {
+        executor.shutdown();
+        ZenModule.parallelScripts = false;
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+        records.clear();
+    }
+
+    @ZenThreadSafe
+    public static void record(String value) {
+        records.add(value);
+    }
+
+    @ZenThreadSafe
+    public static void fail(String message) {
+        throw new IllegalStateException(message);
+    }
+
+    @Test
+    public void testSchedule() throws IOException {
+        ZenModule module = compile("record('s0');", "print('s1');", "print('s2');", "global total as int = 0; total = 5;", "record('total ' ~ total);");
+        int[] schedule = ((IZenScriptRunner) module.getMain()).getSchedule();
+        assertArrayEquals(new int[]{0, 0, 1, 1, 0, 1, 3}, schedule);
+
+        module.getMain(executor).run();
+        assertMany("s1", "s2");
+        assertTrue(records.contains("s0"));
+        assertTrue(records.contains("total 5"));
+    }
+
+    @Test
+    public void testCrossScriptFunctions() throws IOException {
+        ZenModule module = compile("static count as int = 0; function inc() as int { count = count + 1; return count; } record('' ~ inc());", "record('' ~ scripts.script0.inc());", "record('pure');");
+        assertArrayEquals(new int[]{0, 1, 0, 0}, ((IZenScriptRunner) module.getMain()).getSchedule());
+
+        module.getMain(executor).run();
+        assertEquals(3, records.size());
+        assertTrue(records.indexOf("1") < records.indexOf("2"));
+    }
+
+    @Test
+    public void testFailure() throws IOException {
+        ZenModule module = compile("fail('broken');", "record('independent');");
+        Runnable main = module.getMain(executor);
+        IllegalStateException ex = assertThrows(IllegalStateException.class, main::run);
+        assertEquals("broken", ex.getMessage());
+        assertEquals(Collections.singletonList("independent"), records);
+    }
+
+    @Test
+    public void testUnannotatedJavaUtilNative() throws IOException {
+        ZenModule module = compile("hashOf('a');", "hashOf('b');");
+        assertArrayEquals(new int[]{0, 1, 0}, ((IZenScriptRunner) module.getMain()).getSchedule());
+    }
+
+    private static ZenModule compile(String... scripts) throws IOException {
+        Map<String, byte[]> classes = new HashMap<>();
+        EnvironmentGlobal environment = new EnvironmentGlobal(TestHelper.compileEnvironment, classes, new ClassNameGenerator());
+        List<ZenParsedFile> files = new ArrayList<>();
+        for(int i = 0; i < scripts.length; i++) {
+            ZenTokener tokener = new ZenTokener(scripts[i], TestHelper.compileEnvironment, "script" + i + ".zs", false);
+            files.add(new ZenParsedFile("script" + i + ".zs", "script" + i, tokener, environment));
+        }
+        ZenModule.compileScripts("parallel", files, environment, false, TestParallelScripts.class.getClassLoader());
+        return new ZenModule(classes, TestParallelScripts.class.getClassLoader());
+    }
+}
@@ -0,0 +1,84 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import stanhebben.zenscript.TestHelper;
+import stanhebben.zenscript.ZenModule;
+import stanhebben.zenscript.ZenProfiler;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+public class TestProfiler {
+
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+        ZenModule.profile = true;
+    }
+
+    @AfterAll
+    public static void resetEnvironment() {
+        ZenModule.profile = false;
+        ZenProfiler.reset();
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+        ZenProfiler.reset();
+    }
+
+    @Test
+    public void testCallCounts() {
+        TestHelper.run("function fib(n as int) as int {\nif(n < 2) return n;\nreturn fib(n - 1) + fib(n - 2);\n}\n"
+                + "var sum = 0;\nfor i in 0 .. 10 {\nsum += fib(i);\n}\nprint(sum);");
+        assertMany("88");
+
+        assertEquals(276, count(ZenProfiler.getFunctions(), "test.zs:fib"));
+        assertEquals(1, count(ZenProfiler.getFunctions(), "test.zs:__script__"));
+        assertEquals(133, count(ZenProfiler.getLines(), "test.zs:3"));
+        assertEquals(10, count(ZenProfiler.getLines(), "test.zs:7"));
+        assertEquals(10, count(ZenProfiler.getLoops(), "test.zs:6"));
+    }
+
+    @Test
+    public void testLambdaAndStacks() throws IOException {
+        TestHelper.run("val f = function(x as int) as int { return x * 2; };\nfor i in 0 .. 3 { print(f(i)); }");
+        assertMany("0", "2", "4");
+
+        assertEquals(3, count(ZenProfiler.getFunctions(), "test.zs:1:function"));
+
+        StringBuilder stacks = new StringBuilder();
+        ZenProfiler.writeCollapsedStacks(stacks);
+        assertTrue(stacks.toString().contains("test.zs:__script__;test.zs:1:function "), stacks.toString());
+
+        StringBuilder report = new StringBuilder();
+        ZenProfiler.writeReport(report);
+        assertTrue(report.toString().contains("test.zs:1:function"));
+    }
+
+    @Test
+    public void testEndedThread() throws IOException, InterruptedException {
+        ZenModule module = ZenModule.compileScriptString("function f() {}\nf();", "thread.zs", TestHelper.compileEnvironment, TestProfiler.class.getClassLoader());
+        Thread thread = new Thread(module.getMain());
+        thread.start();
+        thread.join();
+
+        assertEquals(1, count(ZenProfiler.getFunctions(), "thread.zs:f"));
+        ZenProfiler.reset();
+        assertEquals(0, count(ZenProfiler.getFunctions(), "thread.zs:f"));
+    }
+
+    private static long count(Iterable<ZenProfiler.Entry> entries, String name) {
+        for(ZenProfiler.Entry entry : entries) {
+            if(entry.getName().equals(name))
+                return entry.getCount();
+        }
+        return 0;
+    }
+}
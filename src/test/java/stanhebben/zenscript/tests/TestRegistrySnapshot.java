@@ -0,0 +1,168 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.*;
+import stanhebben.zenscript.TestHelper;
+import stanhebben.zenscript.annotations.*;
+import stanhebben.zenscript.impl.*;
+import stanhebben.zenscript.snapshot.RegistrySnapshot;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+@SuppressWarnings("WeakerAccess")
+public class TestRegistrySnapshot {
+
+    private static byte[] snapshot;
+
+    @BeforeAll
+    public static void setupEnvironment() throws IOException {
+        GenericCompileEnvironment compileEnvironment = new GenericCompileEnvironment();
+        GenericRegistry source = new GenericRegistry(compileEnvironment, null);
+        source.registerNativeClass(Snapshotted.class);
+        source.registerExpansion(StringExpansion.class);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        RegistrySnapshot.write(source, output);
+        snapshot = output.toByteArray();
+
+        TestHelper.setupEnvironment();
+        assertTrue(RegistrySnapshot.restore(TestHelper.registry, new ByteArrayInputStream(snapshot)));
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+    }
+
+    @Test
+    public void testMethods() {
+        TestHelper.run("val s = tests.Snapshotted.create(3); print(s.describe('value ')); print(s.twice());");
+        assertMany("value 3", "6");
+    }
+
+    @Test
+    public void testGetterSetter() {
+        TestHelper.run("val s = tests.Snapshotted.create(3); s.value = 5; print(s.value);");
+        assertMany("5");
+    }
+
+    @Test
+    public void testOperatorsAndCaster() {
+        TestHelper.run("val s = -(tests.Snapshotted.create(3) + tests.Snapshotted.create(4)); print(s as string);");
+        assertMany("-7");
+    }
+
+    @Test
+    public void testPropertyAndConstructor() {
+        TestHelper.run("val s = tests.Snapshotted('abc'); s.label = s.label ~ 'd'; print(s.label);");
+        assertMany("abcd");
+    }
+
+    @Test
+    public void testIterator() {
+        TestHelper.run("for part in tests.Snapshotted('a-b') { print(part); }");
+        assertMany("a", "b");
+    }
+
+    @Test
+    public void testExpansion() {
+        TestHelper.run("print('abc'.shout());");
+        assertMany("ABC!");
+    }
+
+    @Test
+    public void testStaleSnapshot() throws IOException {
+        ClassLoader parent = TestRegistrySnapshot.class.getClassLoader();
+        String changed = Snapshotted.class.getName().replace('.', '/') + ".class";
+        ClassLoader loader = new ClassLoader(parent) {
+            @Override
+            public InputStream getResourceAsStream(String name) {
+                return name.equals(changed) ? new ByteArrayInputStream(new byte[] {1, 2, 3}) : super.getResourceAsStream(name);
+            }
+        };
+
+        GenericRegistry registry = new GenericRegistry(new GenericCompileEnvironment(), null);
+        assertFalse(RegistrySnapshot.restore(registry, new ByteArrayInputStream(snapshot), loader));
+        assertNull(registry.getRoot().get("tests"));
+        assertTrue(registry.getExpansions().isEmpty());
+
+        assertThrows(IOException.class, () -> RegistrySnapshot.restore(registry, new ByteArrayInputStream(new byte[8])));
+    }
+
+    @ZenClass("tests.Snapshotted")
+    @IterableSimple("string")
+    public static class Snapshotted implements Iterable<String> {
+
+        private int value;
+
+        @ZenProperty
+        public String label;
+
+        public Snapshotted() {
+        }
+
+        @ZenConstructor
+        public Snapshotted(String label) {
+            this.label = label;
+        }
+
+        @ZenMethod
+        public static Snapshotted create(int value) {
+            Snapshotted result = new Snapshotted();
+            result.value = value;
+            return result;
+        }
+
+        @ZenGetter("value")
+        public int getValue() {
+            return value;
+        }
+
+        @ZenSetter("value")
+        public void setValue(int value) {
+            this.value = value;
+        }
+
+        @ZenMethod
+        public String describe(String prefix) {
+            return prefix + value;
+        }
+
+        @ZenMethod
+        public int twice() {
+            return value * 2;
+        }
+
+        @ZenOperator(OperatorType.ADD)
+        public Snapshotted add(Snapshotted other) {
+            return create(value + other.value);
+        }
+
+        @ZenOperator(OperatorType.NEG)
+        public Snapshotted negate() {
+            return create(-value);
+        }
+
+        @ZenCaster
+        public String asString() {
+            return Integer.toString(value);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return Arrays.asList(label.split("-")).iterator();
+        }
+    }
+
+    @ZenExpansion("string")
+    public static class StringExpansion {
+
+        @ZenMethod
+        public static String shout(String value) {
+            return value.toUpperCase() + "!";
+        }
+    }
+}
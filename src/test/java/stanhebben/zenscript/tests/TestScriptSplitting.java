@@ -0,0 +1,90 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import stanhebben.zenscript.TestHelper;
+import stanhebben.zenscript.ZenModule;
+
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+@SuppressWarnings("WeakerAccess")
+public class TestScriptSplitting {
+
+    private int scriptMethodSize;
+
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+        scriptMethodSize = ZenModule.scriptMethodSize;
+    }
+
+    @AfterEach
+    public void afterEach() {
+        ZenModule.scriptMethodSize = scriptMethodSize;
+    }
+
+    @Test
+    public void testLargeScript() {
+        StringBuilder script = new StringBuilder("var total = 0;");
+        for(int i = 0; i < 10000; i++) {
+            script.append("total += ").append(i).append(';');
+        }
+        script.append("print(total);");
+
+        TestHelper.run(script.toString());
+        assertMany("49995000");
+    }
+
+    @Test
+    public void testLocalsAcrossMethods() {
+        ZenModule.scriptMethodSize = 0;
+        TestHelper.run("val a = 1; var b = 2 as long; var c = 1.5; var d as string; print(a ~ b ~ c ~ d); b += 1; val f = function() as long { return b; }; d = 'x'; c *= 2.0; print(a ~ b ~ c ~ d); print(f());");
+        assertMany("121.5null", "133.0x", "3");
+    }
+
+    @Test
+    public void testManyLocals() {
+        StringBuilder script = new StringBuilder("val big = 1 as long;");
+        for(int i = 0; i < 300; i++) {
+            script.append("val v").append(i).append(" = ").append(i).append(';');
+        }
+        script.append("var total = 0;");
+        for(int i = 0; i < 8000; i++) {
+            script.append("total += v").append(i % 300).append(';');
+        }
+        script.append("print(total); print(big + v299);");
+
+        TestHelper.run(script.toString());
+        assertMany("1186000", "300");
+    }
+
+    @Test
+    public void testManyLocalsAcrossMethods() {
+        ZenModule.scriptMethodSize = 0;
+        StringBuilder script = new StringBuilder();
+        for(int i = 0; i < 300; i++) {
+            script.append("var v").append(i).append(" = ").append(i).append(" as long;");
+        }
+        script.append("v0 = 7; val f = function() as long { return v299; };");
+        script.append("print(v0 + v150 + v299); print(f());");
+
+        TestHelper.run(script.toString());
+        assertMany("456", "299");
+    }
+
+    @Test
+    public void testReturnFromLaterMethod() {
+        ZenModule.scriptMethodSize = 0;
+        TestHelper.run("print('a'); if(true) return; print('b');");
+        assertMany("a");
+        Assertions.assertEquals(1, TestHelper.prints.size());
+    }
+}
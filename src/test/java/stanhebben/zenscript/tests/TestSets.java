@@ -0,0 +1,120 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.*;
+import stanhebben.zenscript.*;
+import stanhebben.zenscript.type.*;
+import stanhebben.zenscript.value.set.IntHashSet;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+@SuppressWarnings("WeakerAccess")
+public class TestSets {
+
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+        TestHelper.registry.registerGlobal("names", TestHelper.registry.getStaticFunction(TestSets.class, "names"));
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+    }
+
+    public static Set<String> names() {
+        return new HashSet<>(Arrays.asList("a", "b"));
+    }
+
+    @Test
+    public void testSetLiteral() {
+        TestHelper.run("val s = {1, 2, 3}; print(s has 2); print(s has 5); print(s.length); val t = {'a', 'b',}; print(t in 'b'); print(t has 'c');");
+        assertMany("true", "false", "3", "true", "false");
+    }
+
+    @Test
+    public void testSetType() {
+        TestHelper.run("val s as set<string> = ['x', 'y']; val l = [3, 4] as set<long>; function f(s as set<int>) as bool { return s has 4; } print(s has 'y'); print(l has 4); print(f({4, 5}));");
+        assertMany("true", "true", "true");
+    }
+
+    @Test
+    public void testIterator() {
+        TestHelper.run("var total = 0; for i in {1, 2, 3, 4} { total += i; } print(total);");
+        assertMany("10");
+    }
+
+    @Test
+    public void testLargeLiteral() {
+        StringJoiner values = new StringJoiner(", ", "{", "}");
+        for(int i = 0; i < 100; i++) {
+            values.add("'v" + i + "'");
+        }
+        TestHelper.run("val s = " + values + "; print(s has 'v99'); print(s has 'v100'); print(s.length);");
+        assertMany("true", "false", "100");
+    }
+
+    @Test
+    public void testNativeSet() {
+        TestHelper.run("val s = names() as set<string>; print(s has 'a'); print(s has 'c');");
+        assertMany("true", "false");
+    }
+
+    @Test
+    public void testNativeSetEquality() {
+        ZenType nativeSet = TestHelper.registry.getTypes().getType(Set.class);
+        ZenType stringSet = new ZenTypeSet(ZenType.STRING);
+        assertEquals(nativeSet.equals(stringSet), stringSet.equals(nativeSet));
+        assertEquals(stringSet.equals(new ZenTypeSet(ZenType.INT)), new ZenTypeSet(ZenType.INT).equals(stringSet));
+    }
+
+    @Test
+    public void testConstantArrayLookup() {
+        TestHelper.run("var found = 0; for i in 0 .. 10 { if([2, 3, 5, 7] has i) found += 1; if(['a', 'b'] has 'b') found += 10; } print(found);");
+        assertMany("104");
+        assertTrue(ZenModule.loadedClasses.keySet().stream().anyMatch(name -> name.contains("LookupSets")));
+    }
+
+    @Test
+    public void testContainsWiderValue() {
+        TestHelper.run("var f = 2.5; print({1, 2, 3} has f); print({1, 2, 3} has 2.0); print({1, 2, 3} has (4294967298 as long)); var x = 'x' as any; print({1, 2, 3} has x); print({1, 2, 3} has (3 as any));");
+        assertMany("false", "true", "false", "false", "true");
+        TestHelper.beforeEach();
+        TestHelper.run("val b as set<byte> = [1, 2]; var i = 258; print(b has i); print(b has (i - 256)); val d as set<double> = [1.5, 2.0]; print(d has 2);");
+        assertMany("false", "true", "true");
+    }
+
+    @Test
+    public void testMixedLiteral() {
+        TestHelper.run("val s = {1, 2.5}; print(s has 2.5); print(s has 2); print(s has 1); print(s.length);");
+        assertMany("true", "false", "true", "2");
+        TestHelper.beforeEach();
+        TestHelper.run("val s = {1, 'a'};", false, true, true);
+        assertTrue(TestHelper.logger.listError.stream().anyMatch(error -> error.endsWith("set values must have the same type: found int and string")));
+    }
+
+    @Test
+    public void testIntHashSet() {
+        IntHashSet set = new IntHashSet();
+        for(int i = 0; i < 1000; i++) {
+            assertTrue(set.add(i * 7));
+        }
+        assertFalse(set.add(14));
+        for(int i = 0; i < 1000; i += 2) {
+            assertTrue(set.remove(i * 7));
+        }
+        assertEquals(500, set.size());
+        for(int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 1, set.contains(i * 7));
+        }
+        assertFalse(set.contains((Object) "7"));
+
+        int sum = 0;
+        for(int value : set) {
+            sum += value;
+        }
+        assertEquals(7 * 500 * 500, sum);
+    }
+}
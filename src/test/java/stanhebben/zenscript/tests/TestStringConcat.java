@@ -0,0 +1,70 @@
+package stanhebben.zenscript.tests;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import stanhebben.zenscript.TestHelper;
+
+import static stanhebben.zenscript.TestAssertions.assertMany;
+
+@SuppressWarnings("WeakerAccess")
+public class TestStringConcat {
+
+    @BeforeAll
+    public static void setupEnvironment() {
+        TestHelper.setupEnvironment();
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        TestHelper.beforeEach();
+    }
+
+    @Test
+    public void testPrimitiveAppends() {
+        TestHelper.run("val i = 1; val l = 2 as long; val f = 1.5 as float; val d = 2.5; val b = false; print('' ~ i ~ l ~ f ~ d ~ b);");
+        assertMany("121.52.5false");
+    }
+
+    @Test
+    public void testNullString() {
+        TestHelper.run("var s as string = null; print(s ~ 'a'); for i in 0 .. 1 { s ~= i; } print(s);");
+        assertMany("nulla", "null0");
+    }
+
+    @Test
+    public void testForeachAppend() {
+        TestHelper.run("var s = ''; for i in 0 .. 3 { s ~= i; s ~= ','; } print(s);");
+        assertMany("0,1,2,");
+    }
+
+    @Test
+    public void testReadInsideLoop() {
+        TestHelper.run("var s = ''; for i in 0 .. 5 { if(i == 3) break; s ~= i; print(s); } print(s);");
+        assertMany("0", "01", "012", "012");
+    }
+
+    @Test
+    public void testAssignInsideLoop() {
+        TestHelper.run("var s = 'w'; var n = 0; while(n < 3) { s ~= n; n += 1; if(s == 'w01') s = 'r'; } print(s);");
+        assertMany("r2");
+    }
+
+    @Test
+    public void testCaptureInsideLoop() {
+        TestHelper.run("var s = ''; for i in 0 .. 2 { s ~= i; val f = function() as string { return s; }; print(f()); }");
+        assertMany("0", "01");
+    }
+    
+    @Test
+    public void testSelfAppendInsideLoop() {
+        TestHelper.run("var s = 'a'; for i in 0 .. 3 { s ~= s; } print(s);");
+        assertMany("aaaaaaaa");
+    }
+    
+    @Test
+    public void testSelfReferenceInsideLoop() {
+        TestHelper.run("var s = 'a'; for i in 0 .. 3 { s ~= ',' ~ s; } print(s); var t = 'x'; for i in 0 .. 2 { t ~= i ~ t.length; } print(t);");
+        assertMany("a,a,a,a,a,a,a,a", "x0113");
+    }
+}
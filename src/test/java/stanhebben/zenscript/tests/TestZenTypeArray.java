@@ -5,6 +5,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import stanhebben.zenscript.TestHelper;
 
+import java.util.StringJoiner;
+
 import static stanhebben.zenscript.TestAssertions.assertMany;
 
 public class TestZenTypeArray {
@@ -49,6 +51,19 @@ public class TestZenTypeArray {
         assertMany("2", "true", "3");
     }
 
+    @Test
+    public void testLargeConstantLiterals() {
+        StringJoiner ints = new StringJoiner(", ", "[", "]");
+        StringJoiner strings = new StringJoiner(", ", "[", "]");
+        for(int i = 0; i < 100; i++) {
+            ints.add(Integer.toString(i * 1000 - 50000));
+            strings.add(i == 50 ? "null" : "'s" + i + "'");
+        }
+        TestHelper.run("val a = " + ints + " as int[]; val b = " + strings + " as string[]; val l = " + strings + " as [string]; l + 'z';"
+                + "print(a[0]); print(a[99]); print(b[1]); print('' ~ b[50]); print(l[99]); print(l[100]); print(l.length);");
+        assertMany("-50000", "49000", "s1", "null", "s99", "z", "101");
+    }
+
     //Fix eventually?I
     //@Test
     //public void testRemoveIntMethod() {